@@ -0,0 +1,88 @@
+package radlab.rain.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import radlab.rain.hotspots.Multinomial;
+import radlab.rain.target.MixMatrix;
+import radlab.rain.util.Zipf;
+
+/**
+ * Cost of choosing the next operation and the next object of a request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+	@Param({ "10", "1000" })
+	int size;
+
+	private MixMatrix mixMatrix;
+	private Multinomial multinomial;
+	private Zipf zipf;
+	private Random random;
+	private int lastOperation = 0;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		random = new Random(0);
+
+		double[][] mix = new double[size][size];
+		for (int i = 0; i < size; i++)
+			for (int j = 0; j < size; j++)
+				mix[i][j] = random.nextDouble();
+		mixMatrix = new MixMatrix(mix);
+
+		multinomial = Multinomial.zipf(size, 1.0);
+		zipf = new Zipf(1.5, 1.0, 1, size);
+	}
+
+	/**
+	 * Markov chain step as done by the generators (linear search in the cumulative row)
+	 */
+	@Benchmark
+	public int mixMatrixSelection() {
+		double[] row = mixMatrix.getSelectionMix()[lastOperation];
+		double rand = random.nextDouble();
+		int next = 0;
+		while (next < row.length - 1 && rand > row[next])
+			next++;
+		lastOperation = next;
+		return next;
+	}
+
+	/**
+	 * Markov chain step with the alias tables of the matrix
+	 */
+	@Benchmark
+	public int mixMatrixNextState() {
+		lastOperation = mixMatrix.nextState(lastOperation, random);
+		return lastOperation;
+	}
+
+	@Benchmark
+	public int multinomialSampleOne() {
+		return multinomial.sampleOne();
+	}
+
+	@Benchmark
+	public int multinomialSample() {
+		return multinomial.sample(random);
+	}
+
+	@Benchmark
+	public double zipfNextDouble() {
+		return zipf.nextDouble();
+	}
+}
@@ -0,0 +1,61 @@
+package radlab.rain.bench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import radlab.rain.Timing;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.load.LoadManager;
+import radlab.rain.load.LoadSchedule;
+
+/**
+ * Cost of the load profile lookup every agent does before each operation. The number of agent threads is set with -t.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class LoadManagerBenchmark {
+
+	private LoadManager loadManager;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		List<LoadDefinition> definitions = new ArrayList<LoadDefinition>();
+		definitions.add(new LoadDefinition(TimeUnit.HOURS.toMillis(1), 100, "default", 1000));
+		definitions.add(new LoadDefinition(TimeUnit.HOURS.toMillis(1), 200, "default", 1000));
+
+		Timing timing = new Timing(0, TimeUnit.HOURS.toMillis(2), 0);
+		HashSet<String> mixes = new HashSet<String>();
+		mixes.add("default");
+		loadManager = new LoadManager(0, timing, new LoadSchedule(definitions), mixes);
+		loadManager.start();
+
+		// Wait until the first load definition is active
+		while (definitions.get(0).getTimeStarted() < 0)
+			Thread.sleep(10);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		loadManager.interrupt();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public LoadDefinition getCurrentLoadProfile() {
+		return loadManager.getCurrentLoadProfile();
+	}
+}
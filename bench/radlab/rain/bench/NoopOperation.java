@@ -0,0 +1,30 @@
+package radlab.rain.bench;
+
+import radlab.rain.operation.Operation;
+
+/**
+ * Operation that does nothing. Used to measure the overhead of the driver itself.
+ */
+public class NoopOperation extends Operation {
+
+	public NoopOperation(String name, int index) {
+		this.operationName = name;
+		this.operationRequest = name;
+		this.operationIndex = index;
+	}
+
+	@Override
+	protected void execute() throws Throwable {
+		trace();
+		failed = false;
+	}
+
+	@Override
+	public boolean isAsync() {
+		return false;
+	}
+
+	@Override
+	public void setAsync(boolean async) {
+	}
+}
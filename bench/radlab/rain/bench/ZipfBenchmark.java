@@ -0,0 +1,76 @@
+package radlab.rain.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import radlab.rain.util.Zipf;
+import radlab.rain.util.ZipfSampler;
+
+/**
+ * Cost of a Zipf distributed key. nextDouble2 walks the harmonic sum and is only measured on small key spaces, run
+ * with -p size=1000,1000000,1000000000 -e zipfNextDouble2 for the large ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ZipfBenchmark {
+
+	@Param({ "1000", "1000000" })
+	long size;
+
+	@Param({ "1.5" })
+	double exponent;
+
+	private Zipf zipf;
+	private ZipfSampler sampler;
+	private ZipfSampler scrambled;
+	private ZipfSampler unbounded;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		random = new Random(0);
+		zipf = new Zipf(exponent, 1.0, 1, size);
+		sampler = new ZipfSampler(size, exponent);
+		scrambled = new ZipfSampler(size, exponent, true);
+		unbounded = ZipfSampler.unbounded(exponent);
+
+		// Normalization constant of nextDouble2 is computed on first use
+		zipf.nextDouble2();
+	}
+
+	@Benchmark
+	public double zipfNextDouble() {
+		return zipf.nextDouble();
+	}
+
+	@Benchmark
+	public double zipfNextDouble2() {
+		return zipf.nextDouble2();
+	}
+
+	@Benchmark
+	public long samplerNextRank() {
+		return sampler.nextRank(random);
+	}
+
+	@Benchmark
+	public long samplerNextKeyScrambled() {
+		return scrambled.nextKey(random);
+	}
+
+	@Benchmark
+	public long samplerUnbounded() {
+		return unbounded.nextRank(random);
+	}
+}
@@ -0,0 +1,64 @@
+package radlab.rain.scoreboard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import radlab.rain.RainConfig;
+import radlab.rain.bench.NoopOperation;
+import radlab.rain.load.LoadDefinition;
+
+/**
+ * Cost of merging the scorecards of all targets after a run. threads=1 is the sequential baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+	@Param({ "50", "500", "2000" })
+	int targets;
+
+	@Param({ "1", "4" })
+	int threads;
+
+	// Operations recorded by each target
+	@Param({ "1000" })
+	int operations;
+
+	private List<Scorecard> scorecards;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		// No monitoring during benchmarks
+		RainConfig.getInstance().sonarHost = "localhost";
+		RainConfig.getInstance().sonarSpoolDirectory = "";
+		RainConfig.getInstance().aggregationThreads = threads;
+
+		scorecards = new ArrayList<Scorecard>();
+		for (int i = 0; i < targets; i++) {
+			Scorecard scorecard = new Scorecard(i, 10000, "target" + (i % 10));
+			for (int j = 0; j < operations; j++) {
+				NoopOperation operation = new NoopOperation("noop" + (j % 4), j % 4);
+				operation.setLoadDefinition(new LoadDefinition(1000, 1));
+				scorecard.processResult(operation.run());
+			}
+			scorecards.add(scorecard);
+		}
+	}
+
+	@Benchmark
+	public Object aggregateScorecards() throws Exception {
+		return new Aggregation().aggregateScorecards(scorecards, 10000);
+	}
+}
@@ -0,0 +1,68 @@
+package radlab.rain.scoreboard;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import radlab.rain.RainConfig;
+import radlab.rain.Timing;
+import radlab.rain.bench.NoopOperation;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.operation.OperationExecution;
+
+/**
+ * Cost of dropping off operations at the scoreboard. The number of contending agent threads is set with -t.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoreboardBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ScoreboardState {
+		Scoreboard scoreboard;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			// No monitoring during benchmarks
+			RainConfig.getInstance().sonarHost = "localhost";
+			RainConfig.getInstance().sonarSpoolDirectory = "";
+
+			Timing timing = new Timing(0, TimeUnit.HOURS.toMillis(1), 0);
+			scoreboard = new Scoreboard(0);
+			scoreboard.initialize(timing, 1);
+			scoreboard.start();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			scoreboard.dispose();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class AgentState {
+		OperationExecution result;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			NoopOperation operation = new NoopOperation("noop", 0);
+			operation.setLoadDefinition(new LoadDefinition(1000, 1));
+			result = operation.run();
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void dropOffOperation(ScoreboardState scoreboard, AgentState agent) {
+		scoreboard.scoreboard.dropOffOperation(agent.result);
+	}
+}
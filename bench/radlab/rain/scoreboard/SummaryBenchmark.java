@@ -0,0 +1,118 @@
+package radlab.rain.scoreboard;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import radlab.rain.bench.NoopOperation;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.operation.OperationExecution;
+import de.tum.in.dss.psquare.PSquared;
+
+/**
+ * Cost of the statistics updated by the scoreboard worker for each operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SummaryBenchmark {
+
+	// Samples kept by the summary before it is reset, bounds the memory of long iterations
+	private static final int SAMPLE_LIMIT = 1 << 20;
+
+	private OperationSummary summary;
+	private OperationExecution result;
+	private int processed = 0;
+
+	private PSquared psquared;
+	private LatencyHistogram histogram;
+
+	// Response times used by the percentile benchmarks
+	private long[] values = new long[1024];
+	private int next = 0;
+
+	@Setup(Level.Iteration)
+	public void setupSummary() {
+		summary = new OperationSummary(new AllSamplingStrategy());
+		processed = 0;
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		psquared = new PSquared(0.99f);
+		histogram = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, 2);
+
+		NoopOperation operation = new NoopOperation("noop", 0);
+		operation.setLoadDefinition(new LoadDefinition(1000, 1));
+		result = operation.run();
+
+		Random random = new Random(0);
+		for (int i = 0; i < values.length; i++)
+			values[i] = (long) (random.nextGaussian() * 100 + 1000);
+	}
+
+	private long nextValue() {
+		return values[next++ & (values.length - 1)];
+	}
+
+	@Benchmark
+	public void processResult() {
+		summary.processResult(result);
+
+		// Reset keeps the allocated chunks, samples are overwritten afterwards
+		if (++processed == SAMPLE_LIMIT) {
+			summary.resetSamples();
+			processed = 0;
+		}
+	}
+
+	@Benchmark
+	public void psquaredAccept() {
+		psquared.accept(nextValue());
+	}
+
+	@Benchmark
+	public void histogramRecord() {
+		histogram.record(nextValue());
+	}
+
+	/**
+	 * Percentile queries on a sampler which holds the given number of samples
+	 */
+	@State(Scope.Thread)
+	public static class SamplerState {
+		@Param({ "1000", "100000" })
+		int samples;
+
+		AllSamplingStrategy sampler;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			sampler = new AllSamplingStrategy();
+			Random random = new Random(0);
+			for (int i = 0; i < samples; i++)
+				sampler.accept((long) (random.nextGaussian() * 100 + 1000));
+		}
+	}
+
+	@Benchmark
+	public long samplerPercentile(SamplerState state) {
+		return state.sampler.getNthPercentile(99);
+	}
+
+	@Benchmark
+	public long samplerPercentileAfterAccept(SamplerState state) {
+		// New sample invalidates the sorted view
+		state.sampler.accept(nextValue());
+		return state.sampler.getNthPercentile(99);
+	}
+}
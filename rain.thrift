@@ -10,4 +10,20 @@ service RainService {
 	list<string> getTrackNames();
 	
 	long getDurationTime();
+
+	// Pushes the scenario (JSON configuration) of a driver which waits for its scenario
+	bool configure(1:string scenario);
+
+	// Starts the benchmark at a wall clock timestamp (milliseconds)
+	bool startBenchmarkAt(1:long startTimestamp);
+
+	// Chunk of the encoded scorecards of a finished benchmark starting at the offset (bytes), empty while the benchmark
+	// is running and after the last chunk
+	binary getScorecards(1:long offset);
+
+	// Confirms that the coordinator received all scorecards (length in bytes), the driver exits afterwards
+	bool scorecardsReceived(1:long length);
+
+	// Live statistics of all targets as JSON, deltas refer to the previous call
+	string getLiveStatistics();
 }
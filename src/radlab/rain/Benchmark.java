@@ -32,15 +32,20 @@
 package radlab.rain;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Collection;
 
 import org.apache.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import radlab.rain.communication.thrift.RemoteControl;
 import radlab.rain.communication.thrift.ThriftService;
+import radlab.rain.scoreboard.Scorecard;
+import radlab.rain.scoreboard.ScorecardCodec;
 import radlab.rain.util.ConfigUtil;
 import radlab.rain.util.SonarRecorder;
 
@@ -94,6 +99,20 @@ public class Benchmark {
 			RainConfig.getInstance().sonarHost = host;
 		}
 
+		// Sonar recorder batching
+		if (jsonConfig.has("sonarQueueCapacity"))
+			RainConfig.getInstance().sonarQueueCapacity = jsonConfig.getInt("sonarQueueCapacity");
+		if (jsonConfig.has("sonarBatchSize"))
+			RainConfig.getInstance().sonarBatchSize = jsonConfig.getInt("sonarBatchSize");
+		if (jsonConfig.has("sonarLingerMillis"))
+			RainConfig.getInstance().sonarLingerMillis = jsonConfig.getLong("sonarLingerMillis");
+		if (jsonConfig.has("sonarDropPolicy"))
+			RainConfig.getInstance().sonarDropPolicy = jsonConfig.getString("sonarDropPolicy");
+		if (jsonConfig.has("sonarSampleRate"))
+			RainConfig.getInstance().sonarSampleRate = jsonConfig.getInt("sonarSampleRate");
+		if (jsonConfig.has("sonarSpoolDirectory"))
+			RainConfig.getInstance().sonarSpoolDirectory = jsonConfig.getString("sonarSpoolDirectory");
+
 		// Response time threshold
 		if (jsonConfig.has("rtime_T")) {
 			double rtime = jsonConfig.getDouble("rtime_T");
@@ -106,6 +125,60 @@ public class Benchmark {
 			RainConfig.getInstance().meanResponseTimeSamplingInterval = interval;
 		}
 
+		// Number of threads used by the agent scheduler
+		if (jsonConfig.has("agentSchedulerThreads")) {
+			int threads = jsonConfig.getInt("agentSchedulerThreads");
+			RainConfig.getInstance().agentSchedulerThreads = threads;
+		}
+
+		// Resolution of the agent scheduler
+		if (jsonConfig.has("timingWheelTickMicros")) {
+			long tick = jsonConfig.getLong("timingWheelTickMicros");
+			RainConfig.getInstance().timingWheelTickMicros = tick;
+		}
+
+		// Precision of the latency histograms
+		if (jsonConfig.has("histogramSignificantDigits")) {
+			int digits = jsonConfig.getInt("histogramSignificantDigits");
+			RainConfig.getInstance().histogramSignificantDigits = digits;
+		}
+
+		// NIO HTTP client
+		if (jsonConfig.has("nioIoThreads"))
+			RainConfig.getInstance().nioIoThreads = jsonConfig.getInt("nioIoThreads");
+		if (jsonConfig.has("nioMaxConnectionsPerRoute"))
+			RainConfig.getInstance().nioMaxConnectionsPerRoute = jsonConfig.getInt("nioMaxConnectionsPerRoute");
+		if (jsonConfig.has("nioKeepAliveMillis"))
+			RainConfig.getInstance().nioKeepAliveMillis = jsonConfig.getLong("nioKeepAliveMillis");
+
+		// Connection pool of the HttpTransports
+		if (jsonConfig.has("httpMaxTotalConnections"))
+			RainConfig.getInstance().httpMaxTotalConnections = jsonConfig.getInt("httpMaxTotalConnections");
+		if (jsonConfig.has("httpMaxConnectionsPerRoute"))
+			RainConfig.getInstance().httpMaxConnectionsPerRoute = jsonConfig.getInt("httpMaxConnectionsPerRoute");
+		if (jsonConfig.has("httpIdleTimeout"))
+			RainConfig.getInstance().httpIdleTimeout = jsonConfig.getLong("httpIdleTimeout");
+		if (jsonConfig.has("httpLeaseTimeout"))
+			RainConfig.getInstance().httpLeaseTimeout = jsonConfig.getLong("httpLeaseTimeout");
+
+		// Share of the users if they are split across drivers
+		if (jsonConfig.has("driverIndex"))
+			RainConfig.getInstance().driverIndex = jsonConfig.getInt("driverIndex");
+		if (jsonConfig.has("driverCount"))
+			RainConfig.getInstance().driverCount = jsonConfig.getInt("driverCount");
+
+		// Scorecard output
+		if (jsonConfig.has("scorecardFile"))
+			RainConfig.getInstance().scorecardFile = jsonConfig.getString("scorecardFile");
+		if (jsonConfig.has("logTargetStatistics"))
+			RainConfig.getInstance().logTargetStatistics = jsonConfig.getBoolean("logTargetStatistics");
+		if (jsonConfig.has("aggregationThreads"))
+			RainConfig.getInstance().aggregationThreads = jsonConfig.getInt("aggregationThreads");
+		if (jsonConfig.has("intervalScorecardWindow"))
+			RainConfig.getInstance().intervalScorecardWindow = jsonConfig.getLong("intervalScorecardWindow");
+		if (jsonConfig.has("intervalScorecardLimit"))
+			RainConfig.getInstance().intervalScorecardLimit = jsonConfig.getInt("intervalScorecardLimit");
+
 		// Check if thrift remote management is used
 		boolean useThrift = false;
 		if (jsonConfig.has("useThrift"))
@@ -119,6 +192,15 @@ public class Benchmark {
 			if (jsonConfig.has("waitForStartSignal")) {
 				RainConfig.getInstance().waitForStartSignal = jsonConfig.getBoolean("waitForStartSignal");
 			}
+
+			if (jsonConfig.has("thriftPort"))
+				RainConfig.getInstance().thriftPort = jsonConfig.getInt("thriftPort");
+
+			// Check whether a coordinator pushes the scenario
+			if (jsonConfig.has("waitForScenario"))
+				RainConfig.getInstance().waitForScenario = jsonConfig.getBoolean("waitForScenario");
+			if (jsonConfig.has("scorecardPullTimeout"))
+				RainConfig.getInstance().scorecardPullTimeout = jsonConfig.getLong("scorecardPullTimeout");
 		}
 
 	}
@@ -138,29 +220,30 @@ public class Benchmark {
 			JSONObject jsonConfig = loadConfiguration(args[0]);
 			configureGlobals(jsonConfig);
 
-			// Build scenario based on the configuration
-			Scenario scenario = new Scenario(jsonConfig);
-
 			// Start thrift server for remote control
+			RemoteControl control = new RemoteControl();
 			ThriftService service = null;
 			if (RainConfig.getInstance().useThrift) {
-				service = new ThriftService(scenario);
+				service = new ThriftService(control);
 				logger.info("Starting thrift communication! Using port: " + service.getPort());
 				service.start();
 			}
 
-			// Wait for start signal
-			if (RainConfig.getInstance().waitForStartSignal) {
-				// Wait until service is available
-				Thread.sleep(2000);
-				logger.info("Waiting for start signal...");
+			// Wait for the scenario of a coordinator
+			if (RainConfig.getInstance().useThrift && RainConfig.getInstance().waitForScenario) {
+				logger.info("Waiting for scenario...");
+				jsonConfig = control.awaitConfiguration();
+				configureGlobals(jsonConfig);
 			}
 
+			// Build scenario based on the configuration
+			Scenario scenario = new Scenario(jsonConfig);
+			control.setScenario(scenario);
+
 			// Wait for start signal
-			while (RainConfig.getInstance().waitForStartSignal) {
-				logger.trace("Sleeping for 1sec...");
-				Thread.sleep(1000);
-				logger.trace("Checking for wakeup");
+			if (RainConfig.getInstance().useThrift && RainConfig.getInstance().waitForStartSignal) {
+				logger.info("Waiting for start signal...");
+				control.awaitStart();
 			}
 
 			// Set the global Scenario instance for the Driver
@@ -175,7 +258,26 @@ public class Benchmark {
 			// ////////////////////////////////////////////////
 
 			// Aggregate scorecards
-			scenario.runStatisticsAggregation();
+			Collection<Scorecard> scorecards = scenario.runStatisticsAggregation();
+
+			// Keep scorecards for offline merging
+			if (RainConfig.getInstance().scorecardFile != null) {
+				File file = new File(RainConfig.getInstance().scorecardFile);
+				try {
+					ScorecardCodec.writeFile(file, scorecards);
+					logger.info("Scorecards written to " + file);
+				} catch (IOException e) {
+					logger.error("Could not write scorecards to " + file, e);
+				}
+			}
+
+			// Keep scorecards until the coordinator pulled them
+			if (RainConfig.getInstance().useThrift && RainConfig.getInstance().waitForScenario) {
+				control.setScorecards(ScorecardCodec.encode(scorecards));
+				logger.info("Waiting for the coordinator to pull the scorecards...");
+				if (!control.awaitPulled(RainConfig.getInstance().scorecardPullTimeout))
+					logger.warn("Scorecards were not confirmed by the coordinator");
+			}
 
 			// Trigger shutdown hooks
 			RainConfig.getInstance().triggerShutdown();
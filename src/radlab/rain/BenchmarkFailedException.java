@@ -6,6 +6,10 @@ public class BenchmarkFailedException extends Exception {
 
 	private final String reason;
 
+	public BenchmarkFailedException(String reason) {
+		this.reason = reason;
+	}
+
 	public BenchmarkFailedException(String reason, Throwable t) {
 		super(t);
 		this.reason = reason;
@@ -54,16 +54,81 @@ public class RainConfig {
 	// Should we wait for a start message before we start the run, default is no
 	public boolean waitForStartSignal = true;
 
+	// Distributed runs: wait for a coordinator to push the scenario and keep the scorecards until the coordinator
+	// confirmed them (or the timeout passed)
+	public boolean waitForScenario = false;
+	public long scorecardPullTimeout = 60000;
+
+	// Share of the users simulated by this driver if the users are split across drivers
+	public int driverIndex = 0;
+	public int driverCount = 1;
+
+	// File the aggregated scorecards are written to (binary, see ScorecardCodec)
+	public String scorecardFile = null;
+
+	// Log the statistics of each target after the run (slow for many targets)
+	public boolean logTargetStatistics = true;
+
+	// Number of threads merging the scorecards after the run
+	public int aggregationThreads = Runtime.getRuntime().availableProcessors();
+
+	// Steady state statistics per load definition activation or per fixed window if the window is set (milliseconds),
+	// at most the limit of sealed intervals is kept per target (zero disables interval statistics)
+	public long intervalScorecardWindow = 0;
+	public int intervalScorecardLimit = 10000;
+
 	// Host that is running a Sonar collector
 	public String sonarHost = "monitor0";
 	public String iaasHost = "192.168.96.6";
 
+	// Sonar recorder buffer and batching (batch linger time in milliseconds, drop policy is drop or sample)
+	public int sonarQueueCapacity = 100000;
+	public int sonarBatchSize = 200;
+	public long sonarLingerMillis = 50;
+	public String sonarDropPolicy = "drop";
+	public int sonarSampleRate = 10;
+
+	// Directory for the spool file of metrics which could not be written to Sonar (empty disables spooling)
+	public String sonarSpoolDirectory = "spool";
+
 	// Mean response time sampling interval for the poisson process
 	public int meanResponseTimeSamplingInterval = 30;
 
 	// Threshold for the operation response time
 	public double rtime_T = 3000;
 
+	// Number of threads used to execute scheduled agents
+	public int agentSchedulerThreads = 100;
+
+	// Tick of the timing wheel used to wake up scheduled agents (microseconds)
+	public long timingWheelTickMicros = 100;
+
+	// Number of significant decimal digits kept by latency histograms
+	public int histogramSignificantDigits = 2;
+
+	// Number of I/O threads of the NIO HTTP client
+	public int nioIoThreads = 2;
+
+	// Maximum number of connections of the NIO HTTP client to one host and port, further requests wait for a connection
+	// until their connect timeout passed
+	public int nioMaxConnectionsPerRoute = 100;
+
+	// Time after which idle connections of the NIO HTTP client are closed
+	public long nioKeepAliveMillis = 30000;
+
+	// Maximum number of pooled connections of all HttpTransports (0 for no limit)
+	public int httpMaxTotalConnections = 0;
+
+	// Maximum number of pooled connections to one host and port, targets may override it for their routes (0 for no
+	// limit, every agent gets its own connection as with unpooled transports)
+	public int httpMaxConnectionsPerRoute = 0;
+
+	// Time to wait for a pooled connection before the request fails (ms)
+	public long httpLeaseTimeout = 10000;
+
+	// Time after which idle pooled connections are closed
+	public long httpIdleTimeout = 30000;
+
 	// Instance locks
 	private static Object singletonLock = new Object();
 	private static RainConfig config = null;
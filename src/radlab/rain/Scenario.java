@@ -32,6 +32,7 @@
 package radlab.rain;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.log4j.Logger;
@@ -39,6 +40,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import radlab.rain.scoreboard.Aggregation;
+import radlab.rain.scoreboard.Scorecard;
 import radlab.rain.target.ITarget;
 
 public class Scenario {
@@ -66,9 +68,9 @@ public class Scenario {
 		targetManager.joinTargetManagear();
 	}
 
-	public void runStatisticsAggregation() throws JSONException {
+	public Collection<Scorecard> runStatisticsAggregation() throws JSONException {
 		Aggregation aggregation = new Aggregation();
-		aggregation.aggregateScoreboards(targetManager.getAllTargets(), targetSchedule.duration());
+		return aggregation.aggregateScoreboards(targetManager.getAllTargets(), targetSchedule.duration());
 	}
 
 	public List<String> getTargetNames() {
@@ -79,6 +81,10 @@ public class Scenario {
 		return names;
 	}
 
+	public List<ITarget> getTargets() {
+		return targetManager.getAllTargets();
+	}
+
 	public TargetSchedule getTargetSchedule() {
 		return targetSchedule;
 	}
@@ -1,7 +1,7 @@
 package radlab.rain;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.log4j.Logger;
 import org.json.JSONException;
@@ -18,8 +18,8 @@ public class TargetManager extends Thread {
 	// Timestamp when the whole benchmark (target manager) was started
 	private long startBenchmarkTime;
 
-	// List contains all targets that are created
-	private List<ITarget> targetsToJoin = new LinkedList<ITarget>();
+	// List contains all targets that are created (read by the thrift service)
+	private List<ITarget> targetsToJoin = new CopyOnWriteArrayList<ITarget>();
 
 	// Target ID
 	private int targetId;
@@ -31,13 +31,7 @@
 
 package radlab.rain.agent;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import org.apache.log4j.Logger;
-
 import radlab.rain.Timing;
-import radlab.rain.load.LoadDefinition;
 import radlab.rain.load.LoadManager;
 import radlab.rain.operation.IOperation;
 
@@ -46,8 +40,6 @@ import radlab.rain.operation.IOperation;
  * mode.
  */
 public abstract class Agent extends Thread implements IAgent {
-	private static Logger logger = Logger.getLogger(Agent.class);
-
 	// Identifier (strategies are numbered ascending)
 	protected long targetId;
 	protected long id;
@@ -67,12 +59,8 @@ public abstract class Agent extends Thread implements IAgent {
 	// The current state of this thread
 	protected ThreadStates threadState = ThreadStates.Initialized;
 
-	// Determine whether we async requests should be limited/throttled down to a max of x/sec
-	protected long sendNextRequest = -1;
-	protected LoadDefinition lastLoadUnit = null;
-
-	// The shared pool of worker threads
-	protected ExecutorService executorService = Executors.newCachedThreadPool();
+	// The shared pool for asynchronous operations
+	protected AsyncExecutor asyncExecutor;
 
 	/**
 	 * Create new load generating unit
@@ -83,49 +71,6 @@ public abstract class Agent extends Thread implements IAgent {
 		setName("Agent-" + targetId + "(" + id + ")");
 	}
 
-	private void runAsyncOperation(IOperation operation) {
-		LoadDefinition loadUnit = operation.getLoadDefinition();
-
-		// Load unit unspecified - execute operation immediately
-		if (loadUnit == null) {
-			submitAsyncOperation(operation);
-			return;
-		}
-
-		// No rate limiting - execute operation immediately
-		long aggRatePerSec = loadUnit.getOpenLoopMaxOpsPerSec();
-		if (aggRatePerSec == 0) {
-			submitAsyncOperation(operation);
-			return;
-		}
-
-		// Rate limited send
-		long activeUsers = loadUnit.getNumberOfUsers();
-		long now = System.currentTimeMillis();
-
-		// Is it time to send the request?
-		if (now >= sendNextRequest) {
-			double myRate = (aggRatePerSec) / (double) activeUsers;
-			if (myRate <= 0)
-				myRate = 1000.0;
-			double waitIntervalMsecs = (1000.0 / myRate);
-			sendNextRequest = System.currentTimeMillis() + (long) waitIntervalMsecs;
-
-			// Submit operation
-			submitAsyncOperation(operation);
-		} else {
-			long sleepTime = sendNextRequest - now;
-			try {
-				Thread.sleep(sleepTime);
-			} catch (InterruptedException e) {
-				logger.error(getName() + " interrupted from sleep", e);
-			}
-
-			// Submit operation
-			submitAsyncOperation(operation);
-		}
-	}
-
 	protected abstract void submitAsyncOperation(IOperation operation);
 
 	protected abstract void runSyncOperation(IOperation operation);
@@ -134,7 +79,7 @@ public abstract class Agent extends Thread implements IAgent {
 		if (!operation.isAsync()) { // Synchronous mode
 			runSyncOperation(operation);
 		} else { // Asynchronous mode
-			runAsyncOperation(operation);
+			submitAsyncOperation(operation);
 		}
 	}
 
@@ -147,4 +92,9 @@ public abstract class Agent extends Thread implements IAgent {
 	public void setLoadManager(LoadManager loadManager) {
 		this.loadManager = loadManager;
 	}
+
+	@Override
+	public void setAsyncExecutor(AsyncExecutor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
 }
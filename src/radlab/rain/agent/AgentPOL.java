@@ -32,11 +32,12 @@
 package radlab.rain.agent;
 
 import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.log4j.Logger;
 
 import radlab.rain.UnexpectedDeathHandler;
-import radlab.rain.load.LoadDefinition;
+import radlab.rain.load.AgentActivation;
 import radlab.rain.operation.Generator;
 import radlab.rain.operation.IOperation;
 import radlab.rain.operation.OperationExecution;
@@ -62,11 +63,22 @@ public class AgentPOL extends Agent {
 	private Random random = new Random();
 
 	// Interrupted flag
-	private boolean interrupted = false;
+	private volatile boolean interrupted = false;
 
 	// Ended flag
 	private boolean ended = false;
 
+	// Planned wake up time of the last think or cycle time wait (System.nanoTime), zero if unknown
+	private long intendedStartNanos = 0;
+
+	// Unparks this thread once the agent becomes active
+	private final Runnable unparker = new Runnable() {
+		@Override
+		public void run() {
+			LockSupport.unpark(AgentPOL.this);
+		}
+	};
+
 	public AgentPOL(long targetId, long id) {
 		super(targetId, id);
 		Thread.setDefaultUncaughtExceptionHandler(new UnexpectedDeathHandler());
@@ -74,16 +86,32 @@ public class AgentPOL extends Agent {
 
 	/**
 	 * Decides whether this thread is active or not. The number of threads is equal to the maximum number of generators.
-	 * The actual number of threads varies over time. This is achieved by blocking some threads. If a thread is blocked
-	 * is decided by this function.
+	 * The actual number of threads varies over time. This is achieved by parking some threads. The load manager
+	 * decides which threads are active.
 	 */
 	private boolean isActive() {
-		LoadDefinition loadProfile = loadManager.getCurrentLoadProfile();
-		return (id < loadProfile.getNumberOfUsers());
+		return loadManager.getActivation().isActive(id);
+	}
+
+	/**
+	 * Parks this thread until the agent becomes active, the steady state ends or the agent is interrupted
+	 */
+	private void waitUntilActive() {
+		AgentActivation activation = loadManager.getActivation();
+		if (!activation.park(id, unparker))
+			return;
+
+		threadState = ThreadStates.Inactive;
+		while (!activation.isActive(id) && !interrupted && System.currentTimeMillis() <= timing.endSteadyState)
+			LockSupport.parkUntil(timing.endSteadyState + 1);
+
+		// Not woken up by the load manager
+		activation.cancel(id, unparker);
 	}
 
 	public void setInterrupt() {
 		interrupted = true;
+		LockSupport.unpark(this);
 	}
 
 	@Override
@@ -110,7 +138,11 @@ public class AgentPOL extends Agent {
 		// Execute operation
 		if (nextOperation != null) {
 			// Set operation references
-			nextOperation.setLoadDefinition(loadManager.getCurrentLoadProfile());
+			nextOperation.setLoadDefinition(loadManager.getCurrentLoadProfile(random));
+
+			// The operation was supposed to start when the last think time ended
+			nextOperation.setIntendedStartNanos(intendedStartNanos);
+			intendedStartNanos = 0;
 
 			// Prepare the operation
 			nextOperation.prepare();
@@ -146,9 +178,8 @@ public class AgentPOL extends Agent {
 				while (System.currentTimeMillis() <= timing.endSteadyState && !interrupted) {
 					// If generator is not active
 					if (!isActive()) {
-						threadState = ThreadStates.Inactive;
-						// Sleep for 1 second and check active state again
-						Thread.sleep(1000);
+						// Park until the load manager activates this agent
+						waitUntilActive();
 					} else { // Generator is active
 
 						// IMPORTANT: Next operation is triggered here
@@ -185,6 +216,10 @@ public class AgentPOL extends Agent {
 		// Wait after operation execution
 		cycleTime = waitUntil(now, cycleTime);
 
+		// The operation was supposed to start when the cycle time ended
+		operation.setIntendedStartNanos(intendedStartNanos);
+		intendedStartNanos = 0;
+
 		// Set async flag
 		operation.setAsync(true);
 
@@ -212,8 +247,13 @@ public class AgentPOL extends Agent {
 
 	@Override
 	protected void submitAsyncOperation(IOperation operation) {
+		// Time spent in the executor queue is accounted as queueing delay
+		if (operation.getIntendedStartNanos() == 0)
+			operation.setIntendedStartNanos(System.nanoTime());
+
+		// Dropped operations are counted by the executor
 		DropoffHandler handler = new DropoffHandler(operation);
-		executorService.submit(handler);
+		asyncExecutor.submit(handler);
 	}
 
 	@Override
@@ -254,7 +294,7 @@ public class AgentPOL extends Agent {
 				sleepUntil(timing.endRun);
 			}
 		} else {
-			sleepUntil(wakeUpTime);
+			sleepUntilAndRecordLag(wakeUpTime);
 		}
 
 		return deltaTime;
@@ -266,6 +306,16 @@ public class AgentPOL extends Agent {
 			Thread.sleep(preRunSleep);
 	}
 
+	/**
+	 * Sleeps and drops off the delay between the planned and the actual wake up time
+	 */
+	private void sleepUntilAndRecordLag(long time) throws InterruptedException {
+		long plannedWakeUp = System.nanoTime() + (time - System.currentTimeMillis()) * 1000000;
+		sleepUntil(time);
+		scoreboard.dropOffSchedulingLag(time, Math.max(0, System.nanoTime() - plannedWakeUp));
+		intendedStartNanos = plannedWakeUp;
+	}
+
 	public void setOpenLoopProbability(double openLoopProbability) {
 		this.openLoopProbability = openLoopProbability;
 	}
@@ -0,0 +1,126 @@
+package radlab.rain.agent;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import radlab.rain.IShutdown;
+import radlab.rain.RainConfig;
+import radlab.rain.UnexpectedDeathHandler;
+import radlab.rain.util.TimingWheel;
+
+/**
+ * Small pool of scheduler threads shared by all scheduled agents of this JVM. Agents do not own a thread. Instead they
+ * register their next step with the scheduler. A timing wheel keeps track of all wake up deadlines and hands due steps
+ * to the dispatcher pool.
+ */
+public class AgentScheduler implements IShutdown {
+	private static Logger logger = Logger.getLogger(AgentScheduler.class);
+
+	private static Object lock = new Object();
+	private static AgentScheduler singleton;
+
+	// Pool that executes agent steps
+	private final ThreadPoolExecutor executor;
+
+	// Threads for blocking operations, created on demand so that operations in flight never occupy the step pool
+	private final ThreadPoolExecutor operationExecutor;
+
+	// Timer for agent wake ups
+	private final TimingWheel timingWheel;
+
+	private static class SchedulerThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+		private final String prefix;
+
+		SchedulerThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler(new UnexpectedDeathHandler());
+			return thread;
+		}
+	}
+
+	AgentScheduler(int threads, long tickMicros) {
+		logger.info("Creating agent scheduler with " + threads + " threads and a tick of " + tickMicros + "us");
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(), new SchedulerThreadFactory("AgentScheduler-"));
+		operationExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new SchedulerThreadFactory("AgentOperation-"));
+
+		// Start timer
+		timingWheel = new TimingWheel(TimeUnit.MICROSECONDS.toNanos(tickMicros), executor);
+		timingWheel.start();
+
+		// Register for shutdown
+		RainConfig.getInstance().register(this);
+	}
+
+	public static AgentScheduler getInstance() {
+		synchronized (lock) {
+			if (AgentScheduler.singleton == null)
+				AgentScheduler.singleton = new AgentScheduler(RainConfig.getInstance().agentSchedulerThreads,
+						RainConfig.getInstance().timingWheelTickMicros);
+		}
+
+		return AgentScheduler.singleton;
+	}
+
+	/**
+	 * Runs the task at the given wall clock time (milliseconds). Tasks that are already due run immediately.
+	 */
+	public void scheduleAt(Runnable task, long time) {
+		long delay = time - System.currentTimeMillis();
+		if (delay <= 0)
+			executor.execute(task);
+		else
+			timingWheel.schedule(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+	}
+
+	/**
+	 * Runs the task as soon as System.nanoTime() reaches the deadline.
+	 */
+	public void scheduleAtNanos(Runnable task, long deadlineNanos) {
+		if (deadlineNanos - System.nanoTime() <= 0)
+			executor.execute(task);
+		else
+			timingWheel.schedule(task, deadlineNanos);
+	}
+
+	/**
+	 * Runs the task as soon as a scheduler thread is available.
+	 */
+	public void execute(Runnable task) {
+		executor.execute(task);
+	}
+
+	/**
+	 * Runs a blocking operation on its own thread. Threads are reused and only exist while operations are in flight.
+	 */
+	public void executeBlocking(Runnable task) {
+		operationExecutor.execute(task);
+	}
+
+	@Override
+	public void shutdown() {
+		logger.info("Shutting down agent scheduler");
+		timingWheel.shutdown();
+		executor.shutdownNow();
+		operationExecutor.shutdownNow();
+	}
+
+	@Override
+	public String getName() {
+		return "AgentScheduler";
+	}
+}
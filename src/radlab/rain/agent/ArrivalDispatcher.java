@@ -0,0 +1,303 @@
+package radlab.rain.agent;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import radlab.rain.Timing;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.load.LoadManager;
+import radlab.rain.operation.Generator;
+import radlab.rain.operation.IOperation;
+import radlab.rain.operation.OperationExecution;
+import radlab.rain.scoreboard.IScoreboard;
+import radlab.rain.util.SonarRecorder;
+
+/**
+ * Issues open loop arrivals of a target. Arrivals are planned on an absolute time line with the arrival process and
+ * rate of the current load definition. The arrivals do not wait for the responses of earlier operations. Each
+ * operation is executed by the {@link AsyncExecutor} of the target. Arrivals rejected by the executor are dropped.
+ *
+ * An arrival which is issued later than planned is counted as late. Its operation keeps the planned arrival time as
+ * intended start, the delay is part of its response time.
+ */
+public class ArrivalDispatcher extends Thread implements IAgent {
+	private static Logger logger = Logger.getLogger(ArrivalDispatcher.class);
+
+	// Arrivals issued later than this are counted as late
+	private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	// Time between two checks while the load is closed loop
+	private static final long IDLE_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	// Interval in which the arrival metrics are recorded
+	private static final long METRIC_INTERVAL = 1000;
+
+	private final long targetId;
+
+	// References
+	private Timing timing;
+	private LoadManager loadManager;
+	private IScoreboard scoreboard;
+	private Generator generator;
+	private AsyncExecutor asyncExecutor;
+
+	private final Random random = new Random();
+
+	// Last executed operation (required to run markov chains)
+	private int lastOperationIndex = -1;
+
+	// Statistics (written by the dispatcher thread only)
+	private volatile long requested = 0;
+	private volatile long issued = 0;
+	private volatile long late = 0;
+	private volatile long dropped = 0;
+	private final AtomicLong completed = new AtomicLong();
+
+	// Planned time of the first and the last arrival (System.nanoTime)
+	private long firstArrival = 0;
+	private long lastArrival = 0;
+
+	// Sensor names
+	private final String requestedSensor;
+	private final String achievedSensor;
+	private final String lateSensor;
+	private final String droppedSensor;
+
+	private volatile boolean interrupted = false;
+	private volatile boolean ended = false;
+
+	/**
+	 * Executes one arrival
+	 */
+	private final class Arrival implements Runnable {
+		private final IOperation operation;
+
+		Arrival(IOperation operation) {
+			this.operation = operation;
+		}
+
+		@Override
+		public void run() {
+			OperationExecution result = operation.run();
+			scoreboard.dropOffOperation(result);
+			completed.incrementAndGet();
+		}
+	}
+
+	public ArrivalDispatcher(long targetId) {
+		this.targetId = targetId;
+		setName("ArrivalDispatcher-" + targetId);
+
+		requestedSensor = "rain.arrivals.requested." + targetId;
+		achievedSensor = "rain.arrivals.achieved." + targetId;
+		lateSensor = "rain.arrivals.late." + targetId;
+		droppedSensor = "rain.arrivals.dropped." + targetId;
+	}
+
+	public void run() {
+		try {
+			long preRunSleep = timing.start - System.currentTimeMillis();
+			if (preRunSleep > 0)
+				Thread.sleep(preRunSleep);
+
+			dispatch();
+		} catch (InterruptedException e) {
+			logger.warn("Arrival dispatcher interrupted");
+		} catch (Exception e) {
+			logger.error("Arrival dispatcher died by exception", e);
+		} finally {
+			ended = true;
+		}
+	}
+
+	/**
+	 * Dispatch loop, runs until the end of the steady state
+	 */
+	private void dispatch() {
+		long nextArrival = System.nanoTime();
+		long nextMetric = System.currentTimeMillis() + METRIC_INTERVAL;
+		long[] lastMetric = new long[4];
+
+		while (!interrupted) {
+			long now = System.currentTimeMillis();
+			if (now > timing.endSteadyState)
+				break;
+
+			if (now >= nextMetric) {
+				recordMetrics(now, lastMetric);
+				nextMetric += METRIC_INTERVAL;
+			}
+
+			// Closed loop load, check again later
+			LoadDefinition load = loadManager.getCurrentLoadProfile(random);
+			if (!load.isOpenLoop()) {
+				LockSupport.parkNanos(IDLE_CHECK_NANOS);
+				nextArrival = System.nanoTime();
+				continue;
+			}
+
+			// Wait for the planned arrival
+			long nowNanos = System.nanoTime();
+			long wait = nextArrival - nowNanos;
+			if (wait > 0) {
+				LockSupport.parkNanos(Math.min(wait, IDLE_CHECK_NANOS));
+				continue;
+			}
+
+			// Arrivals which are behind schedule are issued immediately
+			requested++;
+			long delay = nowNanos - nextArrival;
+			if (delay > LATE_THRESHOLD_NANOS)
+				late++;
+			scoreboard.dropOffSchedulingLag(now, delay);
+
+			if (firstArrival == 0)
+				firstArrival = nextArrival;
+			lastArrival = nextArrival;
+
+			issue(load, nextArrival);
+			nextArrival += load.getArrivalProcess().nextGapNanos(load.getArrivalRate(), random);
+		}
+	}
+
+	private void issue(LoadDefinition load, long arrivalNanos) {
+		IOperation operation;
+		try {
+			operation = generator.nextRequest(lastOperationIndex);
+		} catch (Exception e) {
+			logger.warn("Exception while generating next operation", e);
+			dropped++;
+			return;
+		}
+
+		if (operation == null) {
+			dropped++;
+			return;
+		}
+
+		operation.setLoadDefinition(load);
+		operation.setIntendedStartNanos(arrivalNanos);
+		operation.setAsync(true);
+		operation.prepare();
+		lastOperationIndex = operation.getOperationIndex();
+
+		if (asyncExecutor.submit(new Arrival(operation)))
+			issued++;
+		else
+			dropped++;
+	}
+
+	private void recordMetrics(long now, long[] last) {
+		long requested = this.requested;
+		long completed = this.completed.get();
+		long late = this.late;
+		long dropped = this.dropped;
+
+		SonarRecorder recorder = SonarRecorder.getInstance();
+		recorder.record(requestedSensor, now / 1000, requested - last[0]);
+		recorder.record(achievedSensor, now / 1000, completed - last[1]);
+		recorder.record(lateSensor, now / 1000, late - last[2]);
+		recorder.record(droppedSensor, now / 1000, dropped - last[3]);
+
+		last[0] = requested;
+		last[1] = completed;
+		last[2] = late;
+		last[3] = dropped;
+	}
+
+	private void logSummary() {
+		if (requested == 0)
+			return;
+
+		double seconds = Math.max(1, lastArrival - firstArrival) / 1000000000d;
+		try {
+			JSONObject obj = new JSONObject();
+			obj.put("targetId", targetId);
+			obj.put("requested", requested);
+			obj.put("issued", issued);
+			obj.put("completed", completed.get());
+			obj.put("late", late);
+			obj.put("dropped", dropped);
+			obj.put("requestedRate", requested / seconds);
+			obj.put("achievedRate", completed.get() / seconds);
+			logger.info("Open loop arrivals: " + obj.toString());
+		} catch (JSONException e) {
+			logger.error("Error while creating JSON object", e);
+		}
+	}
+
+	public long getRequested() {
+		return requested;
+	}
+
+	public long getIssued() {
+		return issued;
+	}
+
+	public long getCompleted() {
+		return completed.get();
+	}
+
+	public long getLate() {
+		return late;
+	}
+
+	public long getDropped() {
+		return dropped;
+	}
+
+	@Override
+	public boolean joinAgent(long wait) throws InterruptedException {
+		join(wait);
+		return ended;
+	}
+
+	@Override
+	public void setInterrupt() {
+		interrupted = true;
+		LockSupport.unpark(this);
+	}
+
+	@Override
+	public void dispose() {
+		if (ended) {
+			// The executor finished all outstanding operations at this point
+			logSummary();
+			setInterrupt();
+			generator.dispose();
+		} else {
+			logger.error("Cannot dispose arrival dispatcher that is running target" + targetId);
+		}
+	}
+
+	@Override
+	public void setScoreboard(IScoreboard scoreboard) {
+		this.scoreboard = scoreboard;
+	}
+
+	@Override
+	public void setTiming(Timing timing) {
+		this.timing = timing;
+	}
+
+	@Override
+	public void setLoadManager(LoadManager loadManager) {
+		this.loadManager = loadManager;
+	}
+
+	@Override
+	public void setGenerator(Generator generator) {
+		this.generator = generator;
+	}
+
+	@Override
+	public void setAsyncExecutor(AsyncExecutor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+}
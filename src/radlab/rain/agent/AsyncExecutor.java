@@ -0,0 +1,182 @@
+package radlab.rain.agent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import radlab.rain.UnexpectedDeathHandler;
+import radlab.rain.scoreboard.IScoreboard;
+
+/**
+ * Bounded pool which executes the asynchronous operations of all agents of a target. At most the configured number of
+ * operations run concurrently, further operations wait in a bounded queue. If the queue is full the overload policy
+ * decides whether the operation is dropped or the submitting agent blocks until there is space.
+ *
+ * The number of active and queued operations is sampled into the scoreboard.
+ */
+public class AsyncExecutor {
+	private static Logger logger = Logger.getLogger(AsyncExecutor.class);
+
+	// Minimum time between two samples of the executor state
+	private static final long SAMPLE_INTERVAL = 100;
+
+	/**
+	 * What happens if an operation is submitted while the queue is full
+	 */
+	public enum OverloadPolicy {
+		// Drop and count the operation
+		DROP,
+
+		// Block the submitting agent until there is space in the queue
+		BLOCK;
+	}
+
+	private final ThreadPoolExecutor executor;
+	private final BlockingQueue<Runnable> queue;
+	private final OverloadPolicy policy;
+
+	private IScoreboard scoreboard;
+
+	// Statistics
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong blocked = new AtomicLong();
+	private volatile long nextSample = 0;
+
+	private static class AsyncThreadFactory implements ThreadFactory {
+		private final AtomicInteger counter = new AtomicInteger();
+		private final long targetId;
+
+		AsyncThreadFactory(long targetId) {
+			this.targetId = targetId;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Async-" + targetId + "(" + counter.getAndIncrement() + ")");
+			thread.setDaemon(true);
+			thread.setUncaughtExceptionHandler(new UnexpectedDeathHandler());
+			return thread;
+		}
+	}
+
+	/**
+	 * Blocks the submitting thread until the queue has space
+	 */
+	private final class BlockPolicy implements RejectedExecutionHandler {
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			if (executor.isShutdown())
+				throw new RejectedExecutionException("Async executor is shut down");
+
+			blocked.incrementAndGet();
+			try {
+				queue.put(task);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("Interrupted while waiting for the async executor", e);
+			}
+		}
+	}
+
+	/**
+	 * @param threads
+	 *            Maximum number of concurrently executed operations
+	 * @param queueCapacity
+	 *            Maximum number of operations waiting for a thread
+	 */
+	public AsyncExecutor(long targetId, int threads, int queueCapacity, OverloadPolicy policy) {
+		logger.info("Creating async executor for target " + targetId + " with " + threads + " threads, queue "
+				+ queueCapacity + " and policy " + policy);
+
+		this.policy = policy;
+		this.queue = new ArrayBlockingQueue<Runnable>(Math.max(1, queueCapacity));
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+				new AsyncThreadFactory(targetId));
+
+		if (policy == OverloadPolicy.BLOCK)
+			executor.setRejectedExecutionHandler(new BlockPolicy());
+	}
+
+	public void setScoreboard(IScoreboard scoreboard) {
+		this.scoreboard = scoreboard;
+	}
+
+	/**
+	 * Submits an operation. Returns false if the operation was dropped.
+	 */
+	public boolean submit(Runnable task) {
+		submitted.incrementAndGet();
+
+		boolean accepted;
+		try {
+			executor.execute(task);
+			accepted = true;
+		} catch (RejectedExecutionException e) {
+			rejected.incrementAndGet();
+			accepted = false;
+		}
+
+		sample();
+		return accepted;
+	}
+
+	/**
+	 * Drops off the executor state, at most once per sample interval
+	 */
+	private void sample() {
+		if (scoreboard == null)
+			return;
+
+		long now = System.currentTimeMillis();
+		if (now < nextSample)
+			return;
+		nextSample = now + SAMPLE_INTERVAL;
+
+		scoreboard.dropOffAsyncState(now, executor.getActiveCount(), queue.size(), rejected.get(), blocked.get());
+	}
+
+	/**
+	 * Stops accepting operations and waits for the submitted ones
+	 */
+	public boolean shutdown(long wait) throws InterruptedException {
+		executor.shutdown();
+		return executor.awaitTermination(wait, TimeUnit.MILLISECONDS);
+	}
+
+	public void shutdownNow() {
+		executor.shutdownNow();
+	}
+
+	public OverloadPolicy getPolicy() {
+		return policy;
+	}
+
+	public int getActive() {
+		return executor.getActiveCount();
+	}
+
+	public int getQueued() {
+		return queue.size();
+	}
+
+	public long getSubmitted() {
+		return submitted.get();
+	}
+
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	public long getBlocked() {
+		return blocked.get();
+	}
+}
@@ -15,6 +15,9 @@ public interface IAgent {
 
 	void setGenerator(Generator generator);
 
+	// Pool for asynchronous operations (shared by all agents of a target)
+	void setAsyncExecutor(AsyncExecutor asyncExecutor);
+
 	// Agent name
 	String getName();
 
@@ -0,0 +1,399 @@
+package radlab.rain.agent;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import radlab.rain.Timing;
+import radlab.rain.load.AgentActivation;
+import radlab.rain.load.LoadManager;
+import radlab.rain.operation.Generator;
+import radlab.rain.operation.IOperation;
+import radlab.rain.operation.OperationExecution;
+import radlab.rain.scoreboard.IScoreboard;
+
+/**
+ * Agent that simulates a user without owning a thread. Each iteration of the agent loop is a step which is executed by
+ * the shared {@link AgentScheduler}. Think and cycle times are not slept. The agent registers its next step for the
+ * time it should wake up and returns its scheduler thread to the pool. Synchronous operations block, they run on a
+ * separate operation thread so that the scheduler pool does not limit the number of operations in flight.
+ *
+ * The behavior follows {@link AgentPOL}: inactive agents are parked until the load manager activates them, synchronous
+ * operations are followed by the think time and asynchronous operations are preceded by the cycle time.
+ */
+public class ScheduledAgent implements IAgent, Runnable {
+	private static Logger logger = Logger.getLogger(ScheduledAgent.class);
+
+	// Identifier (strategies are numbered ascending)
+	private final long targetId;
+	private final long id;
+	private final String name;
+
+	// References
+	private Timing timing;
+	private LoadManager loadManager;
+	private IScoreboard scoreboard;
+	private Generator generator;
+	private AgentScheduler scheduler;
+	private AsyncExecutor asyncExecutor;
+
+	// The probability of using open loop vs. closed loop
+	// by default all operations are synchronous
+	private double openLoopProbability = -1;
+
+	// The random number generator used to decide which loop to use
+	private Random random = new Random();
+
+	// Minimum delay before a step is retried after it failed or the generator returned no operation (milliseconds)
+	static final long RETRY_DELAY = 100;
+
+	// Last executed operation (required to run markov chains)
+	private int lastOperationIndex = -1;
+
+	// Interrupted flag
+	private volatile boolean interrupted = false;
+
+	// Ended flag
+	private volatile boolean ended = false;
+	private final CountDownLatch endLatch = new CountDownLatch(1);
+
+	// Operation that waits for its cycle time to pass
+	private IOperation pendingAsyncOperation;
+	private long pendingAsyncTime;
+
+	// Planned wake up time of a think or cycle time wait (System.nanoTime), zero if not waiting
+	private long plannedWakeUpNanos = 0;
+
+	// Planned wake up time of the last wait, used as intended start of the next operation
+	private long intendedStartNanos = 0;
+
+	// Park timeout is scheduled with the first park, it resumes whatever park is pending at the end
+	private boolean parkTimeoutScheduled = false;
+
+	/**
+	 * Fires an asynchronous operation after its cycle time passed
+	 */
+	private final Runnable asyncTrigger = new Runnable() {
+		@Override
+		public void run() {
+			fireAsyncOperation();
+		}
+	};
+
+	/**
+	 * Resumes the agent once the load manager activates it
+	 */
+	private final Runnable wakeUp = new Runnable() {
+		@Override
+		public void run() {
+			scheduler.execute(ScheduledAgent.this);
+		}
+	};
+
+	/**
+	 * Resumes a parked agent at the end of the steady state so that it ends
+	 */
+	private final Runnable parkTimeout = new Runnable() {
+		@Override
+		public void run() {
+			if (loadManager.getActivation().cancel(id, wakeUp))
+				ScheduledAgent.this.run();
+		}
+	};
+
+	public ScheduledAgent(long targetId, long id) {
+		this.targetId = targetId;
+		this.id = id;
+		this.name = "Agent-" + targetId + "(" + id + ")";
+	}
+
+	@Override
+	public void start() {
+		logger.debug("New scheduled agent " + id);
+		if (scheduler == null)
+			scheduler = AgentScheduler.getInstance();
+
+		// First step when its time to start
+		scheduler.scheduleAt(this, timing.start);
+	}
+
+	/**
+	 * Decides whether this agent is active or not (see {@link AgentPOL}).
+	 */
+	private boolean isActive() {
+		return loadManager.getActivation().isActive(id);
+	}
+
+	/**
+	 * Parks the agent until the load manager activates it
+	 */
+	private void park() {
+		AgentActivation activation = loadManager.getActivation();
+		if (!activation.park(id, wakeUp)) {
+			// Activated in the meantime
+			scheduler.execute(this);
+			return;
+		}
+
+		if (!parkTimeoutScheduled) {
+			parkTimeoutScheduled = true;
+			scheduler.scheduleAt(parkTimeout, timing.endSteadyState + 1);
+		}
+	}
+
+	/**
+	 * One iteration of the agent loop
+	 */
+	@Override
+	public void run() {
+		long now = System.currentTimeMillis();
+		recordSchedulingLag(now);
+
+		// Check if benchmark is still running
+		if (now > timing.endSteadyState || interrupted) {
+			finish();
+			return;
+		}
+
+		try {
+			if (!isActive()) {
+				// Wait until the load manager activates this agent
+				park();
+				return;
+			}
+
+			// IMPORTANT: Next operation is triggered here
+			triggerNextOperation();
+		} catch (Throwable e) {
+			logger.warn("Exception while triggering next operation", e);
+			retryLater();
+		}
+	}
+
+	/**
+	 * Runs the next step after the think time, but not earlier than the retry delay
+	 */
+	private void retryLater() {
+		long delay = Math.max(RETRY_DELAY, generator.getThinkTime());
+		scheduler.scheduleAt(this, System.currentTimeMillis() + delay);
+	}
+
+	private void triggerNextOperation() {
+		// Generate next operation using the attached generator
+		IOperation nextOperation = generator.nextRequest(lastOperationIndex);
+
+		// Nothing to do, try again later
+		if (nextOperation == null) {
+			retryLater();
+			return;
+		}
+
+		// Set operation references
+		nextOperation.setLoadDefinition(loadManager.getCurrentLoadProfile(random));
+
+		// The operation was supposed to start when the last think time ended
+		nextOperation.setIntendedStartNanos(intendedStartNanos);
+		intendedStartNanos = 0;
+
+		// Prepare the operation
+		nextOperation.prepare();
+
+		// Update last operation index.
+		lastOperationIndex = nextOperation.getOperationIndex();
+
+		// EXECUTE OPERATION
+		// Decide whether to do things open or closed (throw a coin)
+		double randomDouble = random.nextDouble();
+		if (randomDouble <= openLoopProbability)
+			doAsyncOperation(nextOperation);
+		else
+			doSyncOperation(nextOperation);
+	}
+
+	/**
+	 * Waits for the cycle time and triggers the operation asynchronously afterwards.
+	 */
+	private void doAsyncOperation(IOperation operation) {
+		long now = System.currentTimeMillis();
+		long wakeUpTime = wakeUpTime(now, generator.getCycleTime());
+
+		// Save the cycle time - if we're in the steady state
+		scoreboard.dropOffWaitTime(now, operation.getOperationName(), wakeUpTime - now);
+
+		pendingAsyncOperation = operation;
+		pendingAsyncTime = wakeUpTime;
+		wakeUpAt(asyncTrigger, now, wakeUpTime);
+	}
+
+	private void fireAsyncOperation() {
+		recordSchedulingLag(System.currentTimeMillis());
+
+		final IOperation operation = pendingAsyncOperation;
+		pendingAsyncOperation = null;
+
+		// Benchmark ended while waiting for the cycle time
+		if (pendingAsyncTime >= timing.endRun || interrupted) {
+			finish();
+			return;
+		}
+
+		// The operation was supposed to start when the cycle time ended
+		operation.setIntendedStartNanos(intendedStartNanos);
+		intendedStartNanos = 0;
+
+		// Set async flag and trigger operation (dropped operations are counted by the executor)
+		operation.setAsync(true);
+		asyncExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				OperationExecution result = operation.run();
+				scoreboard.dropOffOperation(result);
+			}
+		});
+
+		// Continue with the next operation
+		run();
+	}
+
+	/**
+	 * Runs the operation synchronously on an operation thread and waits for the think time.
+	 */
+	private void doSyncOperation(final IOperation operation) {
+		// Configure operation
+		operation.setAsync(false);
+
+		// Trigger operation, the scheduler thread is not blocked
+		scheduler.executeBlocking(new Runnable() {
+			@Override
+			public void run() {
+				runSyncOperation(operation);
+			}
+		});
+	}
+
+	private void runSyncOperation(IOperation operation) {
+		try {
+			OperationExecution result = operation.run();
+			scoreboard.dropOffOperation(result);
+		} catch (Throwable e) {
+			logger.warn("Exception while running operation", e);
+		}
+
+		// Calculate timings
+		long now = System.currentTimeMillis();
+		long wakeUpTime = wakeUpTime(now, generator.getThinkTime());
+
+		// Save the think time
+		scoreboard.dropOffWaitTime(now, operation.getOperationName(), wakeUpTime - now);
+
+		// Wait after operation execution
+		wakeUpAt(this, now, wakeUpTime);
+	}
+
+	/**
+	 * Registers the step with the scheduler and remembers the planned wake up time
+	 */
+	private void wakeUpAt(Runnable step, long now, long wakeUpTime) {
+		plannedWakeUpNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wakeUpTime - now);
+		scheduler.scheduleAtNanos(step, plannedWakeUpNanos);
+	}
+
+	/**
+	 * Drops off the delay between the planned and the actual wake up time
+	 */
+	private void recordSchedulingLag(long now) {
+		if (plannedWakeUpNanos == 0)
+			return;
+
+		long lag = System.nanoTime() - plannedWakeUpNanos;
+		intendedStartNanos = plannedWakeUpNanos;
+		plannedWakeUpNanos = 0;
+		scoreboard.dropOffSchedulingLag(now, Math.max(0, lag));
+	}
+
+	/**
+	 * Calculates the wake up time just like AgentPOL.waitUntil does.
+	 */
+	private long wakeUpTime(long now, long deltaTime) {
+		long wakeUpTime = now + deltaTime;
+		if (wakeUpTime > timing.endRun) {
+			if (now < timing.start)
+				return timing.startSteadyState;
+			else
+				return timing.endRun;
+		}
+
+		return wakeUpTime;
+	}
+
+	private void finish() {
+		logger.debug("Agent ended - interrupted: " + interrupted);
+		ended = true;
+		endLatch.countDown();
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public boolean joinAgent(long wait) throws InterruptedException {
+		endLatch.await(wait, TimeUnit.MILLISECONDS);
+		return ended;
+	}
+
+	@Override
+	public void setInterrupt() {
+		interrupted = true;
+
+		// Resume a parked agent so that it ends
+		if (scheduler != null && loadManager.getActivation().cancel(id, wakeUp))
+			scheduler.execute(this);
+	}
+
+	@Override
+	public void dispose() {
+		if (ended) {
+			setInterrupt();
+			this.generator.dispose();
+		} else {
+			logger.error("Cannot dispose agent that is running target" + targetId);
+		}
+	}
+
+	public void setOpenLoopProbability(double openLoopProbability) {
+		this.openLoopProbability = openLoopProbability;
+	}
+
+	@Override
+	public void setScoreboard(IScoreboard scoreboard) {
+		this.scoreboard = scoreboard;
+	}
+
+	@Override
+	public void setTiming(Timing timing) {
+		this.timing = timing;
+	}
+
+	@Override
+	public void setLoadManager(LoadManager loadManager) {
+		this.loadManager = loadManager;
+	}
+
+	@Override
+	public void setGenerator(Generator generator) {
+		this.generator = generator;
+	}
+
+	@Override
+	public void setAsyncExecutor(AsyncExecutor asyncExecutor) {
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	void setScheduler(AgentScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+}
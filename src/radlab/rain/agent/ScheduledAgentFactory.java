@@ -0,0 +1,25 @@
+package radlab.rain.agent;
+
+/**
+ * Creates agents that are executed by the shared {@link AgentScheduler} instead of running in their own thread. Use
+ * this factory to simulate a large number of users with a small number of threads.
+ */
+public class ScheduledAgentFactory implements IAgentFactory {
+
+	// Open loop probability which is passed to all agents
+	private double openLoopProbability = -1;
+
+	public ScheduledAgentFactory() {
+	}
+
+	public ScheduledAgentFactory(double openLoopProbability) {
+		this.openLoopProbability = openLoopProbability;
+	}
+
+	@Override
+	public IAgent createAgent(long targetId, long id) {
+		ScheduledAgent agent = new ScheduledAgent(targetId, id);
+		agent.setOpenLoopProbability(openLoopProbability);
+		return agent;
+	}
+}
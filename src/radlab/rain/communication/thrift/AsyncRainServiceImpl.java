@@ -1,11 +1,13 @@
 package radlab.rain.communication.thrift;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.log4j.Logger;
 import org.apache.thrift.TException;
+import org.json.JSONException;
 
-import radlab.rain.RainConfig;
 import radlab.rain.Scenario;
 import de.tum.in.storm.rain.RainService;
 
@@ -13,22 +15,27 @@ public class AsyncRainServiceImpl implements RainService.Iface {
 
 	private static Logger logger = Logger.getLogger(AsyncRainServiceImpl.class);
 
-	private Scenario scenario;
+	private RemoteControl control;
 
-	public AsyncRainServiceImpl(Scenario scenario) {
-		this.scenario = scenario;
+	private LiveStatistics liveStatistics = new LiveStatistics();
+
+	public AsyncRainServiceImpl(RemoteControl control) {
+		this.control = control;
 	}
 
 	@Override
 	public boolean startBenchmark(long controllerTimestamp) throws TException {
 		logger.debug("received benchmark start message");
-		RainConfig.getInstance().waitForStartSignal = false;
-		return true;
+		return control.start(0);
 	}
 
 	@Override
 	public List<String> getTrackNames() throws TException {
 		logger.info("listing all track names");
+		Scenario scenario = control.getScenario();
+		if (scenario == null)
+			return new ArrayList<String>();
+
 		List<String> trackNames = scenario.getTargetNames();
 		return trackNames;
 	}
@@ -40,6 +47,42 @@ public class AsyncRainServiceImpl implements RainService.Iface {
 
 	@Override
 	public long getDurationTime() throws TException {
+		Scenario scenario = control.getScenario();
+		if (scenario == null)
+			return 0;
+
 		return scenario.getTargetSchedule().duration();
 	}
+
+	@Override
+	public boolean configure(String scenario) throws TException {
+		logger.info("received scenario configuration");
+		return control.configure(scenario);
+	}
+
+	@Override
+	public boolean startBenchmarkAt(long startTimestamp) throws TException {
+		logger.info("received benchmark start message for " + startTimestamp);
+		return control.start(startTimestamp);
+	}
+
+	@Override
+	public ByteBuffer getScorecards(long offset) throws TException {
+		return control.pullScorecards(offset);
+	}
+
+	@Override
+	public boolean scorecardsReceived(long length) throws TException {
+		logger.info("coordinator received " + length + " scorecard bytes");
+		return control.confirmScorecards(length);
+	}
+
+	@Override
+	public String getLiveStatistics() throws TException {
+		try {
+			return liveStatistics.pull(control.getScenario()).toString();
+		} catch (JSONException e) {
+			throw new TException("Could not build live statistics", e);
+		}
+	}
 }
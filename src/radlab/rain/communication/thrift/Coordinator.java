@@ -0,0 +1,254 @@
+package radlab.rain.communication.thrift;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import radlab.rain.BenchmarkFailedException;
+import radlab.rain.RainConfig;
+import radlab.rain.scoreboard.Aggregation;
+import radlab.rain.scoreboard.Scorecard;
+import radlab.rain.scoreboard.ScorecardCodec;
+import radlab.rain.util.ConfigUtil;
+import radlab.rain.util.SonarRecorder;
+import de.tum.in.storm.rain.RainService;
+
+/**
+ * Runs one scenario on multiple drivers. The drivers are started with useThrift, waitForScenario and
+ * waitForStartSignal. The coordinator splits the scenario across the drivers, pushes the shares, starts all drivers at
+ * the same wall clock timestamp and merges their scorecards once all drivers finished.
+ *
+ * Configuration:
+ *
+ * <pre>
+ * {
+ *   "drivers": ["host1:7852", "host2:7852"],
+ *   "split": "users",            // users (every driver runs all targets with its share of the users) or targets
+ *   "startDelay": 5000,          // ms between pushing the start signal and the start
+ *   "scenarioFile": "config/http.config.json",  // or an embedded "scenario" object
+ *   "scorecardFile": "run.scorecards"           // optional, scorecards of all drivers for offline merging
+ * }
+ * </pre>
+ *
+ * Driver clocks are expected to be synchronized (e.g. NTP).
+ */
+public class Coordinator {
+	private static Logger logger = Logger.getLogger(Coordinator.class);
+
+	// Interval in which the drivers are polled
+	private static final long POLL_INTERVAL = 1000;
+
+	private final List<String> drivers = new ArrayList<String>();
+	private final JSONObject scenario;
+	private final boolean splitTargets;
+	private final long startDelay;
+	private final long readyTimeout;
+	private final long resultTimeout;
+	private final String scorecardFile;
+
+	private final List<TTransport> transports = new ArrayList<TTransport>();
+	private final List<RainService.Client> clients = new ArrayList<RainService.Client>();
+
+	public Coordinator(JSONObject config) throws Exception {
+		JSONArray driverConf = config.getJSONArray("drivers");
+		for (int i = 0; i < driverConf.length(); i++)
+			drivers.add(driverConf.getString(i));
+		if (drivers.isEmpty())
+			throw new BenchmarkFailedException("No drivers configured");
+
+		if (config.has("scenarioFile"))
+			scenario = new JSONObject(ConfigUtil.readFileAsString(config.getString("scenarioFile")));
+		else
+			scenario = config.getJSONObject("scenario");
+
+		String split = config.optString("split", "users");
+		if (!split.equals("users") && !split.equals("targets"))
+			throw new BenchmarkFailedException("Unknown split: " + split);
+		splitTargets = split.equals("targets");
+
+		startDelay = config.optLong("startDelay", 5000);
+		readyTimeout = config.optLong("readyTimeout", 60000);
+		resultTimeout = config.optLong("resultTimeout", 600000);
+		scorecardFile = config.optString("scorecardFile", null);
+	}
+
+	/**
+	 * Scenario of each driver. Users are split by the drivers themselves (driverIndex, driverCount), targets are
+	 * assigned round robin.
+	 */
+	static List<JSONObject> split(JSONObject scenario, int drivers, boolean splitTargets) throws JSONException {
+		JSONArray schedule = scenario.getJSONArray("targetSchedule");
+		if (splitTargets && schedule.length() < drivers)
+			throw new JSONException("Fewer scheduled targets (" + schedule.length() + ") than drivers (" + drivers
+					+ ")");
+
+		List<JSONObject> shares = new ArrayList<JSONObject>(drivers);
+		for (int i = 0; i < drivers; i++) {
+			// Deep copy
+			JSONObject share = new JSONObject(scenario.toString());
+
+			if (splitTargets) {
+				JSONArray targets = new JSONArray();
+				for (int j = i; j < schedule.length(); j += drivers)
+					targets.put(schedule.get(j));
+				share.put("targetSchedule", targets);
+			} else {
+				share.put("driverIndex", i);
+				share.put("driverCount", drivers);
+			}
+
+			shares.add(share);
+		}
+		return shares;
+	}
+
+	public void run() throws Exception {
+		try {
+			connect();
+
+			// Push the scenario shares
+			List<JSONObject> shares = split(scenario, drivers.size(), splitTargets);
+			for (int i = 0; i < clients.size(); i++) {
+				if (!clients.get(i).configure(shares.get(i).toString()))
+					throw new BenchmarkFailedException("Driver " + drivers.get(i) + " rejected the scenario");
+			}
+
+			// Wait until all drivers built their scenario
+			long duration = awaitReady();
+
+			// Common start
+			long start = System.currentTimeMillis() + startDelay;
+			logger.info("Starting " + clients.size() + " drivers at " + start);
+			for (int i = 0; i < clients.size(); i++) {
+				if (!clients.get(i).startBenchmarkAt(start))
+					throw new BenchmarkFailedException("Driver " + drivers.get(i) + " rejected the start signal");
+			}
+
+			// Collect and merge the scorecards
+			List<Scorecard> scorecards = awaitScorecards(start + duration + resultTimeout);
+			if (scorecardFile != null) {
+				ScorecardCodec.writeFile(new File(scorecardFile), scorecards);
+				logger.info("Scorecards written to " + scorecardFile);
+			}
+			new Aggregation().aggregateScorecards(scorecards, duration);
+		} finally {
+			disconnect();
+		}
+	}
+
+	private void connect() throws TException {
+		for (String driver : drivers) {
+			int colon = driver.lastIndexOf(':');
+			String host = colon < 0 ? driver : driver.substring(0, colon);
+			int port = colon < 0 ? ThriftService.DEFAULT_PORT : Integer.parseInt(driver.substring(colon + 1));
+
+			// Non blocking server requires framed transport
+			TTransport transport = new TFramedTransport(new TSocket(host, port));
+			transport.open();
+			transports.add(transport);
+			clients.add(new RainService.Client(new TBinaryProtocol(transport)));
+			logger.info("Connected to driver " + driver);
+		}
+	}
+
+	private void disconnect() {
+		for (TTransport transport : transports)
+			transport.close();
+		transports.clear();
+		clients.clear();
+	}
+
+	/**
+	 * Waits until every driver reports a duration
+	 *
+	 * @return Longest duration of all drivers
+	 */
+	private long awaitReady() throws Exception {
+		long deadline = System.currentTimeMillis() + readyTimeout;
+		long duration = 0;
+		for (int i = 0; i < clients.size(); i++) {
+			long driverDuration;
+			while ((driverDuration = clients.get(i).getDurationTime()) <= 0) {
+				if (System.currentTimeMillis() > deadline)
+					throw new BenchmarkFailedException("Driver " + drivers.get(i) + " did not build its scenario");
+				Thread.sleep(POLL_INTERVAL);
+			}
+			duration = Math.max(duration, driverDuration);
+		}
+
+		logger.info("All drivers ready, duration: " + duration + " ms");
+		return duration;
+	}
+
+	private List<Scorecard> awaitScorecards(long deadline) throws Exception {
+		List<Scorecard> scorecards = new ArrayList<Scorecard>();
+		for (int i = 0; i < clients.size(); i++) {
+			byte[] encoded;
+			while ((encoded = fetchScorecards(clients.get(i))) == null) {
+				if (System.currentTimeMillis() > deadline)
+					throw new BenchmarkFailedException("Driver " + drivers.get(i) + " did not finish");
+				Thread.sleep(POLL_INTERVAL);
+			}
+
+			List<Scorecard> driverScorecards = ScorecardCodec.decode(encoded);
+			logger.info("Received " + driverScorecards.size() + " scorecards from driver " + drivers.get(i));
+			scorecards.addAll(driverScorecards);
+
+			// The driver exits after the ack, its response may get lost
+			try {
+				if (!clients.get(i).scorecardsReceived(encoded.length))
+					logger.warn("Driver " + drivers.get(i) + " rejected the scorecard ack");
+			} catch (TException e) {
+				logger.warn("Could not confirm scorecards of driver " + drivers.get(i), e);
+			}
+		}
+		return scorecards;
+	}
+
+	/**
+	 * Pulls the encoded scorecards of a driver chunk by chunk. Returns null if the driver did not finish yet.
+	 */
+	static byte[] fetchScorecards(RainService.Iface client) throws TException {
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+		while (true) {
+			ByteBuffer chunk = client.getScorecards(encoded.size());
+			int length = chunk.remaining();
+			if (length == 0 && encoded.size() == 0)
+				return null;
+
+			encoded.write(chunk.array(), chunk.arrayOffset() + chunk.position(), length);
+			if (length < RemoteControl.SCORECARD_CHUNK_SIZE)
+				return encoded.toByteArray();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			logger.info("Unspecified name/path to coordinator configuration file!");
+			System.exit(1);
+		}
+
+		try {
+			JSONObject config = new JSONObject(ConfigUtil.readFileAsString(args[0]));
+			new Coordinator(config).run();
+
+			// Merged scorecards write to Sonar
+			RainConfig.getInstance().triggerShutdown();
+			SonarRecorder.getInstance().join();
+		} finally {
+			org.apache.log4j.LogManager.shutdown();
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package radlab.rain.communication.thrift;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import radlab.rain.Scenario;
+import radlab.rain.scoreboard.IScoreboard;
+import radlab.rain.scoreboard.IntervalSummary;
+import radlab.rain.scoreboard.LatencyHistogram;
+import radlab.rain.scoreboard.LiveSnapshot;
+import radlab.rain.target.ITarget;
+
+/**
+ * Builds the live statistics of all targets from the snapshots published by their scoreboards. Throughput, error rate
+ * and response times refer to the interval since the previous pull, the scoreboard workers are never blocked. All
+ * clients share the previous pull. Interval summaries are included once, when they were sealed since the previous pull.
+ */
+class LiveStatistics {
+
+	// Snapshots of the previous pull by target id
+	private final Map<Long, LiveSnapshot> previous = new HashMap<Long, LiveSnapshot>();
+
+	// Index of the latest interval summary of the previous pull by target id
+	private final Map<Long, Long> previousInterval = new HashMap<Long, Long>();
+
+	synchronized JSONObject pull(Scenario scenario) throws JSONException {
+		JSONObject result = new JSONObject();
+		result.put("timestamp", System.currentTimeMillis());
+
+		JSONArray targets = new JSONArray();
+		result.put("targets", targets);
+
+		if (scenario == null)
+			return result;
+
+		for (ITarget target : scenario.getTargets()) {
+			// Target is not initialized yet
+			IScoreboard scoreboard = target.getScoreboard();
+			if (scoreboard == null)
+				continue;
+
+			LiveSnapshot current = scoreboard.getLiveSnapshot();
+			if (current == null)
+				continue;
+
+			LiveSnapshot last = previous.put(target.getId(), current);
+			targets.put(getStatistics(target, scoreboard, current, last));
+		}
+
+		return result;
+	}
+
+	private JSONObject getStatistics(ITarget target, IScoreboard scoreboard, LiveSnapshot current, LiveSnapshot last)
+			throws JSONException {
+		long successful = current.getOpsSuccessful();
+		long failed = current.getOpsFailed();
+		long interval = 0;
+		if (last != null) {
+			successful -= last.getOpsSuccessful();
+			failed -= last.getOpsFailed();
+			interval = current.getTimestamp() - last.getTimestamp();
+		}
+
+		JSONObject stats = new JSONObject();
+		stats.put("target_id", target.getId());
+		stats.put("timestamp", current.getTimestamp());
+		stats.put("interval", interval);
+		stats.put("active_users", target.getActiveUsers());
+		stats.put("drop_off_q_depth", scoreboard.getDropOffQueueDepth());
+		stats.put("total_ops_successful", current.getOpsSuccessful());
+		stats.put("total_ops_failed", current.getOpsFailed());
+		stats.put("ops_successful", successful);
+		stats.put("ops_failed", failed);
+		stats.put("throughput", interval > 0 ? successful * 1000d / interval : 0);
+		stats.put("error_rate", successful + failed > 0 ? (double) failed / (successful + failed) : 0);
+
+		LatencyHistogram responseTime = current.getResponseTimeSince(last);
+		stats.put("response_time_count", responseTime.getTotalCount());
+		stats.put("response_time_average_us", responseTime.getMean());
+		stats.put("response_time_50th_us", responseTime.getValueAtPercentile(50));
+		stats.put("response_time_90th_us", responseTime.getValueAtPercentile(90));
+		stats.put("response_time_99th_us", responseTime.getValueAtPercentile(99));
+		stats.put("response_time_999th_us", responseTime.getValueAtPercentile(99.9));
+
+		stats.put("intervals", getSealedIntervals(target, scoreboard));
+		return stats;
+	}
+
+	private JSONArray getSealedIntervals(ITarget target, IScoreboard scoreboard) throws JSONException {
+		JSONArray result = new JSONArray();
+		List<IntervalSummary> intervals = scoreboard.getIntervalSummaries();
+		if (intervals.isEmpty())
+			return result;
+
+		Long last = previousInterval.get(target.getId());
+		IntervalSummary latest = null;
+		for (IntervalSummary interval : intervals) {
+			if (last == null || interval.getIndex() > last)
+				result.put(interval.getStatistics());
+			latest = interval;
+		}
+
+		previousInterval.put(target.getId(), latest.getIndex());
+		return result;
+	}
+}
@@ -0,0 +1,134 @@
+package radlab.rain.communication.thrift;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import radlab.rain.Scenario;
+
+/**
+ * State shared between the benchmark and the thrift service. A coordinator pushes the scenario, starts the benchmark at
+ * a common timestamp and pulls the scorecards after the benchmark finished. Scorecards are pulled in chunks which fit
+ * into a thrift frame, the coordinator confirms the received length before the driver exits.
+ */
+public class RemoteControl {
+	private static Logger logger = Logger.getLogger(RemoteControl.class);
+
+	// Max size of a scorecard chunk, well below the max frame size of the framed transport (16MB)
+	public static final int SCORECARD_CHUNK_SIZE = 1024 * 1024;
+
+	private final CountDownLatch configured = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch pulled = new CountDownLatch(1);
+
+	private volatile JSONObject configuration;
+	private volatile long startTimestamp;
+	private volatile Scenario scenario;
+	private volatile byte[] scorecards;
+
+	/**
+	 * Sets the scenario configuration, only the first configuration is accepted
+	 */
+	public synchronized boolean configure(String scenario) {
+		if (configured.getCount() == 0) {
+			logger.warn("Scenario already configured");
+			return false;
+		}
+
+		try {
+			configuration = new JSONObject(scenario);
+		} catch (JSONException e) {
+			logger.error("Invalid scenario configuration", e);
+			return false;
+		}
+
+		configured.countDown();
+		return true;
+	}
+
+	public JSONObject awaitConfiguration() throws InterruptedException {
+		configured.await();
+		return configuration;
+	}
+
+	/**
+	 * Starts the benchmark at a wall clock timestamp, 0 starts it immediately
+	 */
+	public synchronized boolean start(long timestamp) {
+		if (started.getCount() == 0) {
+			logger.warn("Benchmark already started");
+			return false;
+		}
+
+		startTimestamp = timestamp;
+		started.countDown();
+		return true;
+	}
+
+	/**
+	 * Blocks until the start signal was received and the start timestamp is reached
+	 */
+	public void awaitStart() throws InterruptedException {
+		started.await();
+
+		long delay = startTimestamp - System.currentTimeMillis();
+		if (delay > 0) {
+			logger.info("Starting in " + delay + " ms");
+			Thread.sleep(delay);
+		} else if (startTimestamp > 0) {
+			logger.warn("Start timestamp passed " + (-delay) + " ms ago");
+		}
+	}
+
+	public Scenario getScenario() {
+		return scenario;
+	}
+
+	public void setScenario(Scenario scenario) {
+		this.scenario = scenario;
+	}
+
+	public void setScorecards(byte[] scorecards) {
+		this.scorecards = scorecards;
+	}
+
+	/**
+	 * Chunk of the encoded scorecards starting at the offset. Empty until the benchmark finished and after the last
+	 * chunk. All chunks but the last have SCORECARD_CHUNK_SIZE bytes.
+	 */
+	public ByteBuffer pullScorecards(long offset) {
+		byte[] data = scorecards;
+		if (data == null || offset < 0 || offset >= data.length)
+			return ByteBuffer.allocate(0);
+
+		int length = (int) Math.min(SCORECARD_CHUNK_SIZE, data.length - offset);
+		return ByteBuffer.wrap(data, (int) offset, length);
+	}
+
+	/**
+	 * Confirms that the coordinator received the given number of scorecard bytes. Returns false if the scorecards are
+	 * not available or the length does not match.
+	 */
+	public boolean confirmScorecards(long length) {
+		byte[] data = scorecards;
+		if (data == null || data.length != length) {
+			logger.warn("Coordinator confirmed " + length + " scorecard bytes, available: "
+					+ (data == null ? 0 : data.length));
+			return false;
+		}
+
+		pulled.countDown();
+		return true;
+	}
+
+	/**
+	 * Waits until the coordinator confirmed that it received all scorecards
+	 */
+	public boolean awaitPulled(long timeout) throws InterruptedException {
+		return pulled.await(timeout, TimeUnit.MILLISECONDS);
+	}
+}
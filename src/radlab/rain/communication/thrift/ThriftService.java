@@ -10,18 +10,17 @@ import org.apache.thrift.transport.TTransportException;
 
 import radlab.rain.IShutdown;
 import radlab.rain.RainConfig;
-import radlab.rain.Scenario;
 import de.tum.in.storm.rain.RainService;
 
 public class ThriftService implements IShutdown {
 
 	public static final int DEFAULT_PORT = 7852;
 
-	private int port = ThriftService.DEFAULT_PORT;
+	private int port = RainConfig.getInstance().thriftPort;
 
 	private RainNonblockingService serviceThread;
 
-	private Scenario scenario;
+	private RemoteControl control;
 
 	class RainNonblockingService extends Thread {
 
@@ -33,7 +32,7 @@ public class ThriftService implements IShutdown {
 			try {
 				TNonblockingServerTransport serverTransport = new TNonblockingServerSocket(port);
 
-				AsyncRainServiceImpl service = new AsyncRainServiceImpl(scenario);
+				AsyncRainServiceImpl service = new AsyncRainServiceImpl(control);
 				RainService.Processor<RainService.Iface> processor = new RainService.Processor<RainService.Iface>(
 						service);
 
@@ -53,8 +52,8 @@ public class ThriftService implements IShutdown {
 		}
 	}
 
-	public ThriftService(Scenario scenario) {
-		this.scenario = scenario;
+	public ThriftService(RemoteControl control) {
+		this.control = control;
 	}
 
 	public void shutdown() {
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 public interface IMultinomial {
 	public Integer size();
 	public Integer sampleOne();
+	public int sample();
 	public ArrayList<Integer> sampleWithReplacement(Integer n);
 	public ArrayList<Integer> sampleWithoutReplacement(Integer n);
 }
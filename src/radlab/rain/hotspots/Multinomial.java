@@ -1,14 +1,16 @@
 package radlab.rain.hotspots;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import radlab.rain.util.AliasTable;
 
 public class Multinomial implements IMultinomial {
 	
-	private ArrayList<Double> probabilities;
-	private ArrayList<Double> cdf;
+	private double[] probabilities;
+	private AliasTable table;
 	private Random rnd = new Random();
 	
 	/*public void shrink( int targetSize )
@@ -23,139 +25,206 @@ public class Multinomial implements IMultinomial {
 	
 	public Multinomial( double[] arrProbabilities )
 	{
-		ArrayList<Double> rawData = new ArrayList<Double>();
-		for( int i = 0; i < arrProbabilities.length; i++ )
-			rawData.add( arrProbabilities[i] );
-		this.probabilities = normalize( rawData );
-		this.cdf = computeCDF(this.probabilities);
+		this.probabilities = normalize( arrProbabilities );
+		this.table = new AliasTable( this.probabilities );
 	}	
 	
 	public Multinomial(ArrayList<Double> probabilities) {
-		this.probabilities = normalize(probabilities);
-		this.cdf = computeCDF(this.probabilities);
+		this(toArray(probabilities));
 	}
 	
 	public static Multinomial uniform(Integer n) {
-		ArrayList<Double> p = new ArrayList<Double>();
-		for (Integer i=0; i<n; i++) p.add(1.0);
+		double[] p = new double[n];
+		Arrays.fill(p, 1.0);
 		return(new Multinomial(p));
 	}
 	
 	public static Multinomial zipf(Integer n, Double shape) {
-		ArrayList<Double> p = new ArrayList<Double>();
-		for (Integer i=0; i<n; i++)
-			p.add(Math.pow(1.0/(i+1), shape));
+		double[] p = new double[n];
+		for (int i=0; i<n; i++)
+			p[i] = Math.pow(1.0/(i+1), shape);
 		return(new Multinomial(p).shuffle());
 	}
 	
 	public static Multinomial sparse(Integer k, Integer n) {
-		ArrayList<Double> p = new ArrayList<Double>(n);
-		for (Integer i=0; i<n; i++) 
-			if (i<k) p.add(1.0);
-			else p.add(0.0);
+		double[] p = new double[n];
+		for (int i=0; i<n && i<k; i++) 
+			p[i] = 1.0;
 		return(new Multinomial(p).shuffle());
 	}
 	
 	public static Multinomial sparse(ArrayList<Double> p, Integer n) {
-		ArrayList<Double> s = new ArrayList<Double>(n);
-		for (Integer i=0; i<n; i++) 
-			if (i<p.size()) s.add(p.get(i));
-			else p.add(0.0);
+		double[] s = new double[n];
+		for (int i=0; i<n && i<p.size(); i++) 
+			s[i] = p.get(i);
 		return(new Multinomial(s).shuffle());
 	}
 	
-	private ArrayList<Double> normalize(ArrayList<Double> p) {
-		Double sum = 0.0;
-		for (Double d: p) sum += d;
+	private static double[] toArray(ArrayList<Double> p) {
+		double[] a = new double[p.size()];
+		for (int i=0; i<a.length; i++) a[i] = p.get(i);
+		return(a);
+	}
+	
+	private static double[] normalize(double[] p) {
+		double sum = 0.0;
+		for (double d: p) sum += d;
 		
-		ArrayList<Double> normalized = new ArrayList<Double>();
-		for (Double d: p) normalized.add(d/sum);
+		double[] normalized = new double[p.length];
+		for (int i=0; i<p.length; i++) normalized[i] = p[i]/sum;
 		return(normalized);
 	}
 	
-	private ArrayList<Double> computeCDF(ArrayList<Double> p) {
-		ArrayList<Double> cdf = new ArrayList<Double>();
-		Double sum = 0.0;
-		for (Double d: p) {
-			sum += d;
-			cdf.add(sum);
-		}
-		return(cdf);
-	}
-
 	public Multinomial shuffle() {
-		ArrayList<Double> shuffled = new ArrayList<Double>(probabilities);
-		for (Integer i=0; i<size(); i++) {
-			Integer j = rnd.nextInt(size()-i)+i;
-			Double tmp = shuffled.get(i);
-			shuffled.set(i, shuffled.get(j));
-			shuffled.set(j, tmp);
+		double[] shuffled = probabilities.clone();
+		for (int i=0; i<shuffled.length; i++) {
+			int j = rnd.nextInt(shuffled.length-i)+i;
+			double tmp = shuffled[i];
+			shuffled[i] = shuffled[j];
+			shuffled[j] = tmp;
 		}
 		return(new Multinomial(shuffled));
 	}
 	
 	public Multinomial sort(Boolean increasing) {
-		ArrayList<Double> sorted = new ArrayList<Double>(probabilities);
-		if (increasing)
-			Collections.sort(sorted);
-		else
-			Collections.sort(sorted, new Decreasing());
+		double[] sorted = probabilities.clone();
+		Arrays.sort(sorted);
+		if (!increasing) {
+			for (int i=0, j=sorted.length-1; i<j; i++, j--) {
+				double tmp = sorted[i];
+				sorted[i] = sorted[j];
+				sorted[j] = tmp;
+			}
+		}
 		return(new Multinomial(sorted));
 	}
 	
-	public Integer size() { return(probabilities.size()); }
+	public Integer size() { return(probabilities.length); }
+	
+	public double probability(int i) { return(probabilities[i]); }
 	
 	/**
-	 * Sampling from the multinomial distribution without replacement. This is a rejection method so
-	 * it could be really slow when taking too many samples.
+	 * Sampling from the multinomial distribution without replacement.
 	 * 
-	 * @param n Number of samples to draw (n should be less or equal to size of the Multinomial).
+	 * @param n Number of samples to draw (n should be less or equal to the number of non zero probabilities).
 	 * @return
 	 */
 	public ArrayList<Integer> sampleWithoutReplacement(Integer n) {
-		assert n<=size() : "can't sample that many values without replacement";
+		int[] samples = sampleDistinct(n, ThreadLocalRandom.current());
+		ArrayList<Integer> result = new ArrayList<Integer>(samples.length);
+		for (int s: samples) result.add(s);
+		return(result);
+	}
+	
+	/**
+	 * Draws n distinct indices. Small draws sample from the alias table and reject duplicates. If too many samples
+	 * are rejected (the drawn indices hold most of the probability mass) the exponential keys method is used: each
+	 * index gets the key -ln(u)/p and the n smallest keys are taken, which takes O(size log n).
+	 */
+	public int[] sampleDistinct(int n, Random random) {
+		if (n < 0 || n > size())
+			throw new IllegalArgumentException("can't sample " + n + " values without replacement from " + size());
+		
+		int[] samples = new int[n];
+		if (n == 0)
+			return(samples);
+		
+		// Open addressing set of the drawn indices (-1 is empty)
+		int[] drawn = new int[Integer.highestOneBit(Math.max(n, 2) * 2 - 1) << 1];
+		Arrays.fill(drawn, -1);
+		int mask = drawn.length - 1;
 		
-		HashSet<Integer> samples = new HashSet<Integer>();
-		while (samples.size()<n) {
-			Boolean haveNew = false;
-			while (!haveNew) {
-				Integer s = sampleOne();
-				if (!samples.contains(s)) {
-					haveNew=true;
-					samples.add(s);
+		int count = 0;
+		int rejectionsLeft = 4 * n + 16;
+		while (count < n) {
+			int s = table.sample(random);
+			int slot = (s * 0x9E3779B9) & mask;
+			while (drawn[slot] != -1 && drawn[slot] != s)
+				slot = (slot + 1) & mask;
+			
+			if (drawn[slot] == s) {
+				if (--rejectionsLeft == 0)
+					return(sampleDistinctByKeys(n, random));
+				continue;
+			}
+			
+			drawn[slot] = s;
+			samples[count++] = s;
+		}
+		return(samples);
+	}
+	
+	private int[] sampleDistinctByKeys(int n, Random random) {
+		// Max heap of the n smallest keys
+		double[] keys = new double[n];
+		int[] indices = new int[n];
+		int count = 0;
+		
+		for (int i=0; i<probabilities.length; i++) {
+			if (probabilities[i] <= 0)
+				continue;
+			
+			double key = -Math.log(1.0 - random.nextDouble()) / probabilities[i];
+			if (count < n) {
+				// Sift up
+				int c = count++;
+				while (c > 0 && keys[(c - 1) / 2] < key) {
+					keys[c] = keys[(c - 1) / 2];
+					indices[c] = indices[(c - 1) / 2];
+					c = (c - 1) / 2;
 				}
+				keys[c] = key;
+				indices[c] = i;
+			} else if (key < keys[0]) {
+				// Replace the largest key and sift down
+				int c = 0;
+				while (true) {
+					int child = 2 * c + 1;
+					if (child >= n)
+						break;
+					if (child + 1 < n && keys[child + 1] > keys[child])
+						child++;
+					if (keys[child] <= key)
+						break;
+					keys[c] = keys[child];
+					indices[c] = indices[child];
+					c = child;
+				}
+				keys[c] = key;
+				indices[c] = i;
 			}
 		}
-		return(new ArrayList<Integer>(samples));
+		
+		if (count < n)
+			throw new IllegalArgumentException("can't sample " + n + " values without replacement, only " + count + " have a non zero probability");
+		return(indices);
 	}
 	
 	public ArrayList<Integer> sampleWithReplacement(Integer n) { 
-		ArrayList<Integer> samples = new ArrayList<Integer>();
-		for (Integer i=0; i<n; i++) samples.add(sampleOne());
+		ArrayList<Integer> samples = new ArrayList<Integer>(n);
+		for (int i=0; i<n; i++) samples.add(table.sample());
 		return(samples);
 	}
 	
 	public Integer sampleOne() {
-		Integer i0 = -1;
-		Integer i1 = cdf.size();
-		Integer i = 0;
-		Double r = rnd.nextDouble() * cdf.get(cdf.size()-1);
-		Boolean found = false;
-		
-		while (!found) {
-			i = (i0+i1)/2;
-//			logger.info(r+" "+i0+" "+i+" "+i1);
-			if ( (i==0&&r<=cdf.get(0)) || (i>0&&cdf.get(i-1)<r&&r<=cdf.get(i)) ) found = true;
-			else if (i>0&&r<=cdf.get(i-1)) i1=i;
-			else i0=i;			
-		}
-		return(i);
+		return(table.sample());
+	}
+	
+	/**
+	 * Samples one index in constant time with the thread local RNG (no boxing)
+	 */
+	public int sample() {
+		return(table.sample());
+	}
+	
+	public int sample(Random random) {
+		return(table.sample(random));
 	}
 	
 	public String toString() {
 		StringBuffer sb = new StringBuffer();
 		sb.append("probabilities: (");
-		for (Double d: probabilities) sb.append(d+",");
+		for (double d: probabilities) sb.append(d+",");
 		sb.append(")");
 		return(sb.toString());
 	}
@@ -23,6 +23,10 @@ public class MultinomialMixture implements IMultinomial {
 		return( multinomials.get( mix.sampleOne() ).sampleOne() ); 
 	}
 
+	public int sample() {
+		return( multinomials.get( mix.sample() ).sample() );
+	}
+
 	public ArrayList<Integer> sampleWithReplacement(Integer n) {
 		return( multinomials.get( mix.sampleOne() ).sampleWithReplacement(n) ); 
 	}
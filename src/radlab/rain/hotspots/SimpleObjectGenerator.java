@@ -16,7 +16,7 @@ public class SimpleObjectGenerator<O> implements IObjectGenerator<O> {
 	}
 	
 	public O next() {
-		return( objects.get( probabilities.sampleOne() ) );
+		return( objects.get( probabilities.sample() ) );
 	}
 
 	public Integer numberOfObjects() {
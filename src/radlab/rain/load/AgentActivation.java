@@ -0,0 +1,109 @@
+package radlab.rain.load;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Tells agents whether they are active and wakes them up when they become active. Agents with an id below the number
+ * of active users are active. An inactive agent parks itself with a wake up action. If the load manager raises the
+ * number of active users it runs the wake up actions of exactly those agents which became active. Inactive agents do
+ * not poll.
+ */
+public class AgentActivation {
+
+	// Number of active users, agents with a smaller id are active
+	private volatile long activeUsers;
+
+	// Wake up actions of all parked agents (indexed by agent id)
+	private final AtomicReferenceArray<Runnable> parked;
+	private final AtomicInteger parkedCount = new AtomicInteger();
+
+	public AgentActivation(int maxAgents, long activeUsers) {
+		this.parked = new AtomicReferenceArray<Runnable>(maxAgents);
+		this.activeUsers = activeUsers;
+	}
+
+	public boolean isActive(long id) {
+		return id < activeUsers;
+	}
+
+	/**
+	 * Parks an inactive agent. The wake up action is run once the agent becomes active. Returns false if the agent is
+	 * active already, the wake up action is not registered in this case.
+	 */
+	public boolean park(long id, Runnable wakeUp) {
+		if (isActive(id))
+			return false;
+
+		int index = (int) id;
+		parked.set(index, wakeUp);
+		parkedCount.incrementAndGet();
+
+		// Activated while parking, take the action back unless the load manager got it already
+		if (isActive(id) && parked.compareAndSet(index, wakeUp, null)) {
+			parkedCount.decrementAndGet();
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes the wake up action of a parked agent. Returns true if the action was still registered, the caller is
+	 * responsible to resume the agent in this case.
+	 */
+	public boolean cancel(long id, Runnable wakeUp) {
+		if (parked.compareAndSet((int) id, wakeUp, null)) {
+			parkedCount.decrementAndGet();
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Updates the number of active users and wakes up all agents which became active
+	 */
+	void setActiveUsers(long users) {
+		long previous = activeUsers;
+		activeUsers = users;
+
+		long end = Math.min(users, parked.length());
+		for (long id = Math.max(previous, 0); id < end; id++)
+			wake((int) id);
+	}
+
+	/**
+	 * Wakes up all parked agents, e.g. at the end of the benchmark
+	 */
+	void wakeAll() {
+		for (int i = 0; i < parked.length(); i++)
+			wake(i);
+	}
+
+	private void wake(int index) {
+		Runnable wakeUp = parked.getAndSet(index, null);
+		if (wakeUp != null) {
+			parkedCount.decrementAndGet();
+			wakeUp.run();
+		}
+	}
+
+	/**
+	 * Number of users the agents should simulate right now
+	 */
+	public long getActiveUsers() {
+		return activeUsers;
+	}
+
+	/**
+	 * Number of agents which are parked right now
+	 */
+	public int getParkedAgents() {
+		return parkedCount.get();
+	}
+
+	public int getMaxAgents() {
+		return parked.length();
+	}
+}
@@ -0,0 +1,140 @@
+package radlab.rain.load;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Inter-arrival times of an open loop load. Arrivals are scheduled on an absolute time line by the
+ * {@link radlab.rain.agent.ArrivalDispatcher}, the process only calculates the gap between two arrivals for the
+ * requested arrival rate.
+ */
+public abstract class ArrivalProcess {
+
+	private static final double NANOS_PER_SECOND = 1000000000d;
+
+	/**
+	 * Exponentially distributed gaps (Poisson arrivals)
+	 */
+	public static final ArrivalProcess POISSON = new ArrivalProcess() {
+		@Override
+		public long nextGapNanos(double rate, Random random) {
+			// 1 - nextDouble() is in (0, 1]
+			return (long) (-Math.log(1d - random.nextDouble()) * NANOS_PER_SECOND / rate);
+		}
+
+		@Override
+		public String toString() {
+			return "poisson";
+		}
+	};
+
+	/**
+	 * Equal gaps
+	 */
+	public static final ArrivalProcess CONSTANT = new ArrivalProcess() {
+		@Override
+		public long nextGapNanos(double rate, Random random) {
+			return (long) (NANOS_PER_SECOND / rate);
+		}
+
+		@Override
+		public String toString() {
+			return "constant";
+		}
+	};
+
+	/**
+	 * Gap to the next arrival
+	 *
+	 * @param rate
+	 *            Requested arrival rate in operations per second (> 0)
+	 */
+	public abstract long nextGapNanos(double rate, Random random);
+
+	/**
+	 * Replays the gaps of a recorded trace. The trace is repeated if it ends. If a rate is given the gaps are scaled so
+	 * that the mean rate of the trace matches the requested rate, the burstiness of the trace is kept. Not thread safe,
+	 * each trace is replayed by a single dispatcher.
+	 *
+	 * @param gapsNanos
+	 *            Gaps between the arrivals of the trace
+	 */
+	public static ArrivalProcess trace(final long[] gapsNanos) {
+		if (gapsNanos.length == 0)
+			throw new IllegalArgumentException("trace is empty");
+
+		long sum = 0;
+		for (long gap : gapsNanos)
+			sum += gap;
+		final double traceRate = gapsNanos.length * NANOS_PER_SECOND / Math.max(1, sum);
+		final long[] gaps = Arrays.copyOf(gapsNanos, gapsNanos.length);
+
+		return new ArrivalProcess() {
+			private int position = 0;
+
+			@Override
+			public long nextGapNanos(double rate, Random random) {
+				long gap = gaps[position];
+				position = (position + 1) % gaps.length;
+
+				if (rate <= 0)
+					return gap;
+				return (long) (gap * traceRate / rate);
+			}
+
+			@Override
+			public String toString() {
+				return "trace";
+			}
+		};
+	}
+
+	/**
+	 * Reads a trace file with one arrival timestamp in milliseconds per line. Empty lines and lines starting with # are
+	 * skipped. Timestamps have to be ascending.
+	 */
+	public static ArrivalProcess loadTrace(File file) throws IOException {
+		long[] gaps = new long[1024];
+		int count = 0;
+		long last = -1;
+
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+
+				long timestamp = Long.parseLong(line);
+				if (last >= 0) {
+					if (timestamp < last)
+						throw new IOException("Trace timestamps are not ascending: " + timestamp);
+					if (count == gaps.length)
+						gaps = Arrays.copyOf(gaps, count * 2);
+					gaps[count++] = (timestamp - last) * 1000000;
+				}
+				last = timestamp;
+			}
+		} finally {
+			reader.close();
+		}
+
+		return trace(Arrays.copyOf(gaps, count));
+	}
+
+	/**
+	 * Process by name (poisson or constant)
+	 */
+	public static ArrivalProcess valueOf(String name) {
+		if ("poisson".equalsIgnoreCase(name))
+			return POISSON;
+		if ("constant".equalsIgnoreCase(name))
+			return CONSTANT;
+		throw new IllegalArgumentException("Unknown arrival process: " + name);
+	}
+}
@@ -38,7 +38,10 @@ public class LoadDefinition {
 	private final long numberOfUsers;
 
 	private final String mixName;
-	private final int openLoopMaxOpsPerSec;
+
+	// Open loop arrivals (operations per second), zero if the load is closed loop only
+	private final double arrivalRate;
+	private final ArrivalProcess arrivalProcess;
 
 	private long activationCount;
 	private long timeStarted = -1;
@@ -52,15 +55,25 @@ public class LoadDefinition {
 		this.transitionTime = transitionTime;
 		this.numberOfUsers = numberOfUsers;
 		this.mixName = mixName;
-		this.openLoopMaxOpsPerSec = 0;
+		this.arrivalRate = 0;
+		this.arrivalProcess = null;
 	}
 
 	public LoadDefinition(long interval, int numberOfUsers, String mixName, long transitionTime, String name) {
+		this(interval, numberOfUsers, mixName, transitionTime);
+	}
+
+	/**
+	 * Load definition with open loop arrivals. The arrivals are issued in addition to the closed loop users.
+	 */
+	public LoadDefinition(long interval, int numberOfUsers, String mixName, long transitionTime, double arrivalRate,
+			ArrivalProcess arrivalProcess) {
 		this.interval = interval;
 		this.numberOfUsers = numberOfUsers;
 		this.mixName = mixName;
 		this.transitionTime = transitionTime;
-		this.openLoopMaxOpsPerSec = 0;
+		this.arrivalRate = arrivalRate;
+		this.arrivalProcess = arrivalProcess;
 	}
 
 	public long getInterval() {
@@ -83,8 +96,25 @@ public class LoadDefinition {
 		return timeStarted;
 	}
 
-	public int getOpenLoopMaxOpsPerSec() {
-		return openLoopMaxOpsPerSec;
+	public double getArrivalRate() {
+		return arrivalRate;
+	}
+
+	public ArrivalProcess getArrivalProcess() {
+		return arrivalProcess;
+	}
+
+	public boolean isOpenLoop() {
+		return arrivalRate > 0 && arrivalProcess != null;
+	}
+
+	/**
+	 * Share of a driver if the load is split across multiple drivers. The users of all shares add up to the users of
+	 * this definition, the arrival rate is divided evenly.
+	 */
+	public LoadDefinition share(int index, int count) {
+		long users = numberOfUsers * (index + 1) / count - numberOfUsers * index / count;
+		return new LoadDefinition(interval, (int) users, mixName, transitionTime, arrivalRate / count, arrivalProcess);
 	}
 
 	public void activate() {
@@ -8,6 +8,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import radlab.rain.Timing;
+import radlab.rain.util.SonarRecorder;
 
 public class LoadManager extends Thread {
 	private static Logger logger = Logger.getLogger(LoadManager.class);
@@ -15,20 +16,41 @@ public class LoadManager extends Thread {
 	// Target id of this load manager
 	private long targetId;
 
-	// Current load unit
+	// Current load unit (only used by the load manager thread)
 	private LoadDefinition currentLoad = null;
 
+	// Load state read by the agents
+	private volatile Snapshot snapshot = null;
+
 	// Ramp up time
 	private final long rampUp;
 
+	// Activation of the agents
+	private final AgentActivation activation;
+
+	// Interval in which the number of active users is updated during a transition
+	private static final long TRANSITION_STEP = 100;
+
+	// Interval in which the number of users is recorded
+	private static final long METRIC_INTERVAL = 1000;
+
+	// Sensor names of the user metrics
+	private final String usersSensor;
+	private final String activeUsersSensor;
+
 	// Keeps running as long as this flag is false
-	private boolean interrupted = false;
+	private volatile boolean interrupted = false;
 
 	// The current load profile index
 	private int nextLoadIndex = 0;
 
-	// Random number generator
-	private Random random = new Random();
+	// Random number generator for callers without their own
+	private static final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
 
 	// Reference to the load schedule
 	private LoadSchedule loadSchedule;
@@ -36,12 +58,72 @@ public class LoadManager extends Thread {
 	// Set of workload mix identifiers which is used for validation purpose only
 	private Set<String> mixes;
 
+	/**
+	 * Immutable load state which is published by the load manager thread. Agents read it without locking.
+	 */
+	private static final class Snapshot {
+		final LoadDefinition current;
+		final LoadDefinition next;
+		final long startTime;
+		final long intervalEndTime;
+		final long transitionEndTime;
+
+		Snapshot(LoadDefinition current, LoadDefinition next, boolean activated) {
+			this.current = current;
+			this.next = next;
+
+			if (activated) {
+				startTime = current.getTimeStarted();
+				intervalEndTime = startTime + current.getInterval();
+				transitionEndTime = intervalEndTime + current.getTransitionTime();
+			} else {
+				// Ramp up uses the first load definition until it gets activated
+				startTime = Long.MIN_VALUE;
+				intervalEndTime = Long.MAX_VALUE;
+				transitionEndTime = Long.MAX_VALUE;
+			}
+		}
+
+		LoadDefinition get(long now, Random random) {
+			// Is now between current load start and transition end time
+			if (now >= startTime && now <= transitionEndTime) {
+				if (now <= intervalEndTime)
+					// During main interval
+					return current;
+				else
+					// During transition time
+					return getLoadDefinitionInTransition(now, random);
+
+			} else if (now > transitionEndTime) {
+				return next;
+			} else {
+				throw new IllegalStateException("Time now is before current load start time");
+			}
+		}
+
+		private LoadDefinition getLoadDefinitionInTransition(long now, Random random) {
+			// Between interval end and transition end
+			double elapsedRatio = (double) (now - intervalEndTime) / (double) current.getTransitionTime();
+			double randomDouble = random.nextDouble();
+
+			if (randomDouble <= elapsedRatio)
+				return next;
+			else
+				return current;
+		}
+	}
+
 	public LoadManager(long targetId, Timing timing, LoadSchedule loadSchedule, Set<String> mixes) {
 		this.targetId = targetId;
 		this.rampUp = timing.rampUp;
 		this.loadSchedule = loadSchedule;
 		this.mixes = mixes;
 
+		// All agents with an id below the users of the first load definition start active
+		this.activation = new AgentActivation((int) loadSchedule.getMaxAgents(), loadSchedule.get(0).getNumberOfUsers());
+		this.usersSensor = "rain.users." + targetId;
+		this.activeUsersSensor = "rain.users.active." + targetId;
+
 		// Set thread name
 		setName("LoadManager");
 	}
@@ -50,49 +132,68 @@ public class LoadManager extends Thread {
 		// Set flag and interrupt thread if its waiting
 		this.interrupted = true;
 		super.interrupt();
+
+		// Release all parked agents
+		activation.wakeAll();
 	}
 
-	private LoadDefinition getLoadDefinitionInTransition(LoadDefinition nextLoad, long now, long intervalEndTime) {
-		// Between interval end and transition end
-		double elapsedRatio = (double) (now - intervalEndTime) / (double) currentLoad.getTransitionTime();
-		double randomDouble = this.random.nextDouble();
+	public AgentActivation getActivation() {
+		return activation;
+	}
 
-		if (randomDouble <= elapsedRatio)
-			return nextLoad;
-		else
-			return currentLoad;
+	/**
+	 * Load definition in effect right now. Lock free, transitions are blended with a thread local random.
+	 */
+	public LoadDefinition getCurrentLoadProfile() {
+		return getCurrentLoadProfile(random.get());
 	}
 
-	public synchronized LoadDefinition getCurrentLoadProfile() {
-		// Get next load definition
-		LoadDefinition nextLoad = getNextLoadProfile();
+	/**
+	 * Load definition in effect right now. Lock free, transitions are blended with the random of the caller.
+	 */
+	public LoadDefinition getCurrentLoadProfile(Random random) {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null)
+			return loadSchedule.get(0);
 
-		// Calculate when the current interval ends and when the transition ends.
-		long now = System.currentTimeMillis();
-		long intervalEndTime = currentLoad.getTimeStarted() + currentLoad.getInterval();
-		long transitionEndTime = intervalEndTime + currentLoad.getTransitionTime();
+		return snapshot.get(System.currentTimeMillis(), random);
+	}
 
-		// Is now between current load start and transition end time
-		if (now >= currentLoad.getTimeStarted() && now <= transitionEndTime) {
-			if (now <= intervalEndTime)
-				// During main interval
-				return currentLoad;
-			else
-				// During transition time
-				return getLoadDefinitionInTransition(nextLoad, now, intervalEndTime);
+	/**
+	 * Publishes the current load state to the agents
+	 */
+	private void publish(boolean activated) {
+		snapshot = new Snapshot(currentLoad, getNextLoadProfile(), activated);
+		activation.setActiveUsers(currentLoad.getNumberOfUsers());
+	}
 
-		} else if (now > transitionEndTime) {
-			return nextLoad;
-		} else {
-			throw new IllegalStateException("Time now is before current load start time");
-		}
+	/**
+	 * Number of users at the given time. The number of users changes linearly during a transition.
+	 */
+	private long getUsers(Snapshot snapshot, long now) {
+		long users = snapshot.current.getNumberOfUsers();
+		if (now <= snapshot.intervalEndTime)
+			return users;
+		if (now >= snapshot.transitionEndTime)
+			return snapshot.next.getNumberOfUsers();
+
+		double elapsedRatio = (double) (now - snapshot.intervalEndTime) / (double) snapshot.current.getTransitionTime();
+		return users + Math.round((snapshot.next.getNumberOfUsers() - users) * elapsedRatio);
+	}
+
+	/**
+	 * Records the number of users which should be active and the number of agents which are not parked
+	 */
+	private void recordUsers(long now) {
+		SonarRecorder recorder = SonarRecorder.getInstance();
+		recorder.record(usersSensor, now / 1000, activation.getActiveUsers());
+		recorder.record(activeUsersSensor, now / 1000, activation.getMaxAgents() - activation.getParkedAgents());
 	}
 
 	public void run() {
 		// The first load profile will be used during ramp-up phase
-		synchronized (this) {
-			currentLoad = loadSchedule.get(nextLoadIndex);
-		}
+		currentLoad = loadSchedule.get(nextLoadIndex);
+		publish(false);
 
 		// Log ramp up
 		logger.info("Ramping up for " + rampUp + "ms.");
@@ -116,19 +217,41 @@ public class LoadManager extends Thread {
 
 		// Activate load profile
 		currentLoad.activate();
+		publish(true);
 
 		// Main loop that goes over all load units in the load schedule
+		long nextMetric = System.currentTimeMillis();
 		while (!interrupted) {
 			try {
-				// Sleep for interval length + transition time
-				// method to acquire current load will handle transition time
-				Thread.sleep(currentLoad.getInterval() + currentLoad.getTransitionTime());
+				long now = System.currentTimeMillis();
+				Snapshot snapshot = this.snapshot;
 
-				logger.debug("advancing load schedule");
-				synchronized (this) {
-					// Advance the schedule and if that returns false, then we're done
+				if (now >= snapshot.transitionEndTime) {
+					logger.debug("advancing load schedule");
+					// Advance the schedule and publish the new state
 					currentLoad = advanceSchedule();
+					publish(true);
+					continue;
+				}
+
+				// Update the active users (linear during a transition)
+				activation.setActiveUsers(getUsers(snapshot, now));
+
+				if (now >= nextMetric) {
+					recordUsers(now);
+					nextMetric += METRIC_INTERVAL;
+					if (nextMetric <= now)
+						nextMetric = now + METRIC_INTERVAL;
 				}
+
+				// Sleep until the next metric, the end of the interval or the next transition step
+				long wakeUp = Math.min(nextMetric, snapshot.transitionEndTime);
+				if (now < snapshot.intervalEndTime)
+					wakeUp = Math.min(wakeUp, snapshot.intervalEndTime);
+				else
+					wakeUp = Math.min(wakeUp, now + TRANSITION_STEP);
+
+				Thread.sleep(Math.max(1, wakeUp - now));
 			} catch (InterruptedException e) {
 				continue;
 			} catch (Exception e) {
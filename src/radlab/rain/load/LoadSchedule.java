@@ -1,5 +1,6 @@
 package radlab.rain.load;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class LoadSchedule {
@@ -24,4 +25,21 @@ public class LoadSchedule {
 			i = Math.max(i, load.getNumberOfUsers());
 		return i;
 	}
+
+	/**
+	 * Schedule of one driver if the load is split across multiple drivers
+	 */
+	public LoadSchedule share(int index, int count) {
+		List<LoadDefinition> shares = new ArrayList<LoadDefinition>(loadUnits.size());
+		for (LoadDefinition load : loadUnits)
+			shares.add(load.share(index, count));
+		return new LoadSchedule(shares);
+	}
+
+	public boolean hasOpenLoop() {
+		for (LoadDefinition load : loadUnits)
+			if (load.isOpenLoop())
+				return true;
+		return false;
+	}
 }
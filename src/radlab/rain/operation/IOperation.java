@@ -25,6 +25,12 @@ public interface IOperation {
 	// Update execution sate if it was changed (e.g. by open loop load generation)
 	void setAsync(boolean async);
 
+	// Time (System.nanoTime) the operation was supposed to start, e.g. end of the think time
+	void setIntendedStartNanos(long intendedStartNanos);
+
+	// Intended start time or 0 if it was not set
+	long getIntendedStartNanos();
+
 	// Prepare before executing
 	void prepare();
 
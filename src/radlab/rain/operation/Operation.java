@@ -32,6 +32,7 @@
 package radlab.rain.operation;
 
 import radlab.rain.load.LoadDefinition;
+import radlab.rain.util.HttpPhases;
 
 /**
  * The Operation class is a encapsulation of "tasks to be done". An operation contains all features of the state
@@ -53,6 +54,14 @@ public abstract class Operation implements IOperation {
 	private long timeStarted;
 	private long timeFinished;
 
+	// High resolution statistics (System.nanoTime)
+	private long intendedStartNanos;
+	private long startNanos;
+	private long finishNanos;
+
+	// Time spent in the HTTP phases of all requests (nanoseconds, null if no HTTP request was executed)
+	private long[] httpPhases;
+
 	// Outcome of executing the operation
 	protected boolean failed = true;
 	protected Throwable failure;
@@ -64,14 +73,18 @@ public abstract class Operation implements IOperation {
 		// Invoke the pre-execute hook here before we start the clock to time the operation's execution
 		preExecute();
 		timeStarted = System.currentTimeMillis();
+		startNanos = System.nanoTime();
 		OperationExecution result = null;
+		HttpPhases.begin();
 		try {
 			execute();
 		} catch (Throwable e) {
 			failed = true;
 			failure = e;
 		} finally {
+			finishNanos = System.nanoTime();
 			timeFinished = System.currentTimeMillis();
+			httpPhases = HttpPhases.end();
 
 			// Invoke the post-execute hook here after we stop the clock to time the
 			// operation's execution
@@ -126,6 +139,22 @@ public abstract class Operation implements IOperation {
 		return timeFinished;
 	}
 
+	public void setIntendedStartNanos(long intendedStartNanos) {
+		this.intendedStartNanos = intendedStartNanos;
+	}
+
+	public long getIntendedStartNanos() {
+		return intendedStartNanos;
+	}
+
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public long getFinishNanos() {
+		return finishNanos;
+	}
+
 	public String getOperationName() {
 		return operationName;
 	}
@@ -152,6 +181,10 @@ public abstract class Operation implements IOperation {
 		return loadDefinitionStartTime;
 	}
 
+	public long[] getHttpPhases() {
+		return httpPhases;
+	}
+
 	public long getNumberOfActionsPerformed() {
 		return numberOfActionsPerformed;
 	}
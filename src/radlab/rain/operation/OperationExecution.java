@@ -52,8 +52,16 @@ public class OperationExecution {
 	final public long timeFinished;
 	final public long profileStartTime;
 
+	// High resolution timestamps (System.nanoTime)
+	final public long intendedStartNanos;
+	final public long startNanos;
+	final public long finishNanos;
+
 	final public long actionsPerformed;
 
+	// Nanoseconds per HTTP phase (see HttpPhases), null if the operation executed no HTTP request
+	final public long[] httpPhases;
+
 	private TraceLabels traceLabel = TraceLabels.NO_TRACE_LABEL;
 
 	/**
@@ -62,6 +70,14 @@ public class OperationExecution {
 	public OperationExecution(Operation operation) {
 		this.timeStarted = operation.getTimeStarted();
 		this.timeFinished = operation.getTimeFinished();
+		this.startNanos = operation.getStartNanos();
+		this.finishNanos = operation.getFinishNanos();
+
+		// Operations without an intended start time did not queue
+		long intendedStart = operation.getIntendedStartNanos();
+		if (intendedStart == 0 || intendedStart - startNanos > 0)
+			intendedStart = startNanos;
+		this.intendedStartNanos = intendedStart;
 		this.operationName = operation.getOperationName();
 		this.operationRequest = operation.getOperationRequest();
 		this.async = operation.isAsync();
@@ -69,6 +85,7 @@ public class OperationExecution {
 		this.generatedDuring = operation.getLoadDefinition();
 		this.profileStartTime = operation.getLoadDefinitionStartTime();
 		this.actionsPerformed = operation.getNumberOfActionsPerformed();
+		this.httpPhases = operation.getHttpPhases();
 	}
 
 	public TraceLabels getTraceLabel() {
@@ -82,4 +99,25 @@ public class OperationExecution {
 	public long getExecutionTime() {
 		return timeFinished - timeStarted;
 	}
+
+	/**
+	 * Time spent executing the operation (nanoseconds)
+	 */
+	public long getServiceTime() {
+		return finishNanos - startNanos;
+	}
+
+	/**
+	 * Time from the intended start until the operation finished, includes the queueing delay (nanoseconds)
+	 */
+	public long getResponseTime() {
+		return finishNanos - intendedStartNanos;
+	}
+
+	/**
+	 * Delay between the intended and the actual start of the operation (nanoseconds)
+	 */
+	public long getQueueingDelay() {
+		return startNanos - intendedStartNanos;
+	}
 }
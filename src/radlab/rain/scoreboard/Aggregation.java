@@ -1,18 +1,117 @@
 package radlab.rain.scoreboard;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.apache.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import radlab.rain.RainConfig;
 import radlab.rain.Scenario;
 import radlab.rain.target.ITarget;
 
+/**
+ * Merges scorecards into a global scorecard and one scorecard per aggregation identifier. Scorecards are merged by a
+ * parallel tree reduction: ranges of scorecards are merged into partial results which are merged pairwise. This works
+ * because merging scorecards is associative (counters are added, histograms and samples are combined).
+ */
 public class Aggregation {
 	private static Logger logger = Logger.getLogger(Scenario.class);
 
+	// Max number of scorecards merged sequentially by one task
+	private static final int MERGE_BATCH = 8;
+
+	/**
+	 * Scorecards to merge, called by multiple threads for different indices
+	 */
+	private static abstract class Source {
+		// Scorecard at the index or null if it is skipped
+		abstract Scorecard getScorecard(int index);
+	}
+
+	/**
+	 * Global scorecard and scorecards per aggregation identifier of a range of scorecards
+	 */
+	private static class Partial {
+		final Scorecard global;
+		final TreeMap<String, Scorecard> aggStats = new TreeMap<String, Scorecard>();
+
+		Partial(long benchmarkDuration) {
+			global = new Scorecard(-1, benchmarkDuration);
+		}
+
+		void add(Scorecard scorecard, String aggregationIdentifier) {
+			// 1. Merge everything into global scorecard
+			global.merge(scorecard);
+
+			// 2. Merge on operation level into the scorecard of the aggregation identifier
+			Scorecard aggCard = aggStats.get(aggregationIdentifier);
+			if (aggCard == null) {
+				aggCard = new Scorecard(-1, scorecard.getTimeActive(), aggregationIdentifier);
+				aggStats.put(aggregationIdentifier, aggCard);
+			}
+			aggCard.merge(scorecard);
+		}
+
+		void add(Partial other) {
+			global.merge(other.global);
+
+			for (Map.Entry<String, Scorecard> entry : other.aggStats.entrySet()) {
+				Scorecard aggCard = aggStats.get(entry.getKey());
+				if (aggCard == null)
+					aggStats.put(entry.getKey(), entry.getValue());
+				else
+					aggCard.merge(entry.getValue());
+			}
+		}
+	}
+
+	private static class MergeTask extends RecursiveTask<Partial> {
+		private static final long serialVersionUID = 1L;
+
+		private final Source source;
+		private final String[] aggregationIdentifiers;
+		private final int from;
+		private final int to;
+		private final long benchmarkDuration;
+
+		MergeTask(Source source, String[] aggregationIdentifiers, int from, int to, long benchmarkDuration) {
+			this.source = source;
+			this.aggregationIdentifiers = aggregationIdentifiers;
+			this.from = from;
+			this.to = to;
+			this.benchmarkDuration = benchmarkDuration;
+		}
+
+		@Override
+		protected Partial compute() {
+			if (to - from <= MERGE_BATCH) {
+				Partial partial = new Partial(benchmarkDuration);
+				for (int i = from; i < to; i++) {
+					Scorecard scorecard = source.getScorecard(i);
+					if (scorecard != null)
+						partial.add(scorecard, aggregationIdentifiers[i]);
+				}
+				return partial;
+			}
+
+			// Split in halves, the left half keeps the order of the aggregation identifiers
+			int middle = (from + to) >>> 1;
+			MergeTask left = new MergeTask(source, aggregationIdentifiers, from, middle, benchmarkDuration);
+			left.fork();
+			Partial right = new MergeTask(source, aggregationIdentifiers, middle, to, benchmarkDuration).compute();
+			Partial result = left.join();
+			result.add(right);
+			return result;
+		}
+	}
+
 	private void dumpTarget(ITarget target) throws JSONException {
 		// Write detailed statistics to sonar
 		IScoreboard scoreboard = target.getScoreboard();
@@ -29,37 +128,82 @@ public class Aggregation {
 		logger.info("Target scoreboard statistics - " + target.getId() + ": " + strStats);
 	}
 
-	public void aggregateScoreboards(List<ITarget> targets, long benchmarkDuration) throws JSONException {
-		TreeMap<String, Scorecard> aggStats = new TreeMap<String, Scorecard>();
-		Scorecard globalScorecard = new Scorecard(-1, benchmarkDuration);
-
-		// Aggregate all targets
-		for (ITarget target : targets) {
-			// 0. Dump target statistics to Sonar
-			try {
-				dumpTarget(target);
-			} catch (NullPointerException e) {
-				logger.error("Could not dump target: " + target.getId());
-				continue; 
+	/**
+	 * Merges the scorecards of all targets into a global scorecard and one scorecard per aggregation identifier
+	 *
+	 * @return Scorecards per aggregation identifier
+	 */
+	public Collection<Scorecard> aggregateScoreboards(List<ITarget> targets, long benchmarkDuration)
+			throws JSONException {
+		final List<ITarget> targetList = new ArrayList<ITarget>(targets);
+		final boolean logTargetStatistics = RainConfig.getInstance().logTargetStatistics;
+
+		// Identifiers are resolved sequentially, generators are not required to be thread safe
+		String[] aggregationIdentifiers = new String[targetList.size()];
+		for (int i = 0; i < aggregationIdentifiers.length; i++)
+			aggregationIdentifiers[i] = targetList.get(i).getAggregationIdentifier();
+
+		Partial result = reduce(new Source() {
+			@Override
+			Scorecard getScorecard(int index) {
+				ITarget target = targetList.get(index);
+
+				// 0. Dump target statistics to Sonar
+				if (logTargetStatistics) {
+					try {
+						dumpTarget(target);
+					} catch (NullPointerException e) {
+						logger.error("Could not dump target: " + target.getId());
+						return null;
+					} catch (JSONException e) {
+						logger.error("Could not dump target: " + target.getId(), e);
+					}
+				}
+
+				return target.getScoreboard().getScorecard();
 			}
+		}, aggregationIdentifiers, benchmarkDuration);
 
-			// 1. Merge everything into global scorecard
-			IScoreboard scoreboard = target.getScoreboard();
-			Scorecard summary = scoreboard.getScorecard();
-			globalScorecard.merge(summary);
-
-			// 2. Merge on operation level into global scorecards
-			String aggregationIdentifier = target.getAggregationIdentifier();
-			if (!aggStats.containsKey(aggregationIdentifier)) {
-				Scorecard aggCard = new Scorecard(-1, summary.getTimeActive(), aggregationIdentifier);
-				aggStats.put(aggregationIdentifier, aggCard);
+		dumpScorecards(result.global, result.aggStats);
+		return result.aggStats.values();
+	}
+
+	/**
+	 * Merges the scorecards of multiple drivers or runs (as returned by {@link #aggregateScoreboards(List, long)})
+	 *
+	 * @return Scorecards per aggregation identifier
+	 */
+	public Collection<Scorecard> aggregateScorecards(Collection<Scorecard> scorecards, long benchmarkDuration)
+			throws JSONException {
+		final List<Scorecard> scorecardList = new ArrayList<Scorecard>(scorecards);
+
+		String[] aggregationIdentifiers = new String[scorecardList.size()];
+		for (int i = 0; i < aggregationIdentifiers.length; i++)
+			aggregationIdentifiers[i] = scorecardList.get(i).getAggregationIdentifier();
+
+		Partial result = reduce(new Source() {
+			@Override
+			Scorecard getScorecard(int index) {
+				return scorecardList.get(index);
 			}
+		}, aggregationIdentifiers, benchmarkDuration);
 
-			// Get the current aggregated scorecard for this generator
-			Scorecard aggCard = aggStats.get(aggregationIdentifier);
-			aggCard.merge(summary);
+		dumpScorecards(result.global, result.aggStats);
+		return result.aggStats.values();
+	}
+
+	private Partial reduce(Source source, String[] aggregationIdentifiers, long benchmarkDuration) {
+		int threads = Math.max(1, RainConfig.getInstance().aggregationThreads);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			return pool.invoke(new MergeTask(source, aggregationIdentifiers, 0, aggregationIdentifiers.length,
+					benchmarkDuration));
+		} finally {
+			pool.shutdown();
 		}
+	}
 
+	private void dumpScorecards(Scorecard globalScorecard, TreeMap<String, Scorecard> aggStats) throws JSONException {
 		// Dump global scorecard
 		logger.info("Global scorecard: " + globalScorecard.getSummarizedStatistics().toString());
 
@@ -72,6 +216,5 @@ public class Aggregation {
 			String stats = card.getSummarizedStatistics().toString();
 			logger.info("Aggregated scorecard for - " + aggregationKey + ": " + stats);
 		}
-
 	}
 }
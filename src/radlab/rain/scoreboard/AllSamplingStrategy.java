@@ -31,94 +31,174 @@
 
 package radlab.rain.scoreboard;
 
-import java.util.LinkedList;
-
-import org.apache.commons.math3.stat.descriptive.moment.Mean;
-import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
-import org.apache.commons.math3.stat.descriptive.rank.Percentile;
-
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
 
+/**
+ * Keeps each sample seen. Samples are stored in primitive chunks which are allocated on demand, no sample is boxed. A
+ * sorted copy of all samples is cached and only rebuilt if new samples arrived since the last percentile query.
+ */
 public class AllSamplingStrategy implements IMetricSampler {
-	private final int SIZE = 1000;
-	private int index;
-	private LinkedList<double[]> samples = new LinkedList<double[]>();
+	private static final int CHUNK_BITS = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	// Sample chunks, only the first chunks up to count are used
+	private long[][] chunks = new long[16][];
+	private int count;
 
-	private boolean invalidBuffer = true;
-	private double[] buffer;
+	// Sorted view of all samples
+	private long[] sorted;
+	private boolean invalidSorted = true;
 
 	public AllSamplingStrategy() {
 		reset();
 	}
 
-	private void newBucket() {
-		double[] bucket = new double[SIZE];
-		samples.add(0, bucket);
-		index = 0;
-	}
-
 	// accept always keeps each sample seen
 	@Override
 	public boolean accept(long value) {
-		double[] bucket = samples.peek();
-		bucket[index++] = value;
-		invalidBuffer = true;
-		if (index >= SIZE)
-			newBucket();
+		int chunk = count >>> CHUNK_BITS;
+		ensureChunk(chunk);
+		chunks[chunk][count & CHUNK_MASK] = value;
+		count++;
+		invalidSorted = true;
 		return true;
 	}
 
-	private void updateBuffer() {
-		if (!invalidBuffer)
+	private void ensureChunk(int chunk) {
+		if (chunk >= chunks.length)
+			chunks = Arrays.copyOf(chunks, Math.max(chunks.length * 2, chunk + 1));
+		if (chunks[chunk] == null)
+			chunks[chunk] = new long[CHUNK_SIZE];
+	}
+
+	private long get(int i) {
+		return chunks[i >>> CHUNK_BITS][i & CHUNK_MASK];
+	}
+
+	private void updateSorted() {
+		if (!invalidSorted)
 			return;
 
-		buffer = new double[SIZE * samples.size()];
-		for (int i = 0; i < samples.size(); i++) {
-			double[] bucket = samples.get(i);
-			System.arraycopy(bucket, 0, buffer, i * SIZE, SIZE);
+		if (sorted == null || sorted.length < count)
+			sorted = new long[Math.max(count, CHUNK_SIZE)];
+
+		copyTo(sorted, 0);
+		Arrays.sort(sorted, 0, count);
+		invalidSorted = false;
+	}
+
+	private void copyTo(long[] target, int offset) {
+		int remaining = count;
+		for (int c = 0; remaining > 0; c++) {
+			int length = Math.min(remaining, CHUNK_SIZE);
+			System.arraycopy(chunks[c], 0, target, offset, length);
+			offset += length;
+			remaining -= length;
 		}
 	}
 
+	/**
+	 * Percentile estimation as done by the commons math Percentile with its default estimation type
+	 */
 	@Override
 	public long getNthPercentile(int pct) {
-		updateBuffer();
-		Percentile percentile = new Percentile(pct);
-		return (long) percentile.evaluate(buffer, 0, getSamplesCollected());
+		if (count == 0)
+			return 0;
+
+		updateSorted();
+		if (count == 1)
+			return sorted[0];
+
+		double pos = pct * (count + 1) / 100d;
+		double floorPos = Math.floor(pos);
+		int intPos = (int) floorPos;
+		double dif = pos - floorPos;
+
+		if (pos < 1)
+			return sorted[0];
+		if (pos >= count)
+			return sorted[count - 1];
+
+		double lower = sorted[intPos - 1];
+		double upper = sorted[intPos];
+		return (long) (lower + dif * (upper - lower));
 	}
 
-	@Override
-	public LinkedList<Long> getRawSamples() {
-		LinkedList<Long> data = new LinkedList<Long>();
-		for (int i = 0; i < samples.size(); i++) {
-			double[] bucket = samples.get(i);
+	/**
+	 * Sorted copy of all samples
+	 */
+	long[] getSortedSamples() {
+		if (count == 0)
+			return new long[0];
 
-			int max = SIZE;
-			if (i == (samples.size() - 1))
-				max = index;
+		updateSorted();
+		return Arrays.copyOf(sorted, count);
+	}
 
-			for (int j = 0; j < max; j++) {
-				data.add((long) bucket[j]);
+	/**
+	 * Unmodifiable view on the samples. Values are boxed on access only.
+	 */
+	@Override
+	public List<Long> getRawSamples() {
+		return new AbstractList<Long>() {
+			@Override
+			public Long get(int index) {
+				if (index < 0 || index >= count)
+					throw new IndexOutOfBoundsException("index: " + index + ", size: " + count);
+				return AllSamplingStrategy.this.get(index);
 			}
-		}
-		return data;
+
+			@Override
+			public int size() {
+				return count;
+			}
+		};
 	}
 
 	@Override
 	public double getSampleMean() {
-		updateBuffer();
-		Mean mean = new Mean();
-		return mean.evaluate(buffer, 0, getSamplesCollected());
+		if (count == 0)
+			return Double.NaN;
+
+		double sum = 0;
+		for (int i = 0; i < count; i++)
+			sum += get(i);
+		double mean = sum / count;
+
+		// Correction term (same as commons math Mean)
+		double correction = 0;
+		for (int i = 0; i < count; i++)
+			correction += get(i) - mean;
+		return mean + (correction / count);
 	}
 
 	@Override
 	public double getSampleStandardDeviation() {
-		updateBuffer();
-		StandardDeviation sd = new StandardDeviation();
-		return sd.evaluate(buffer, 0, getSamplesCollected());
+		if (count == 0)
+			return Double.NaN;
+		if (count == 1)
+			return 0;
+
+		double mean = getSampleMean();
+		double accum = 0;
+		double accum2 = 0;
+		for (int i = 0; i < count; i++) {
+			double dev = get(i) - mean;
+			accum += dev * dev;
+			accum2 += dev;
+		}
+
+		// Bias corrected variance (same as commons math Variance)
+		double variance = (accum - (accum2 * accum2 / count)) / (count - 1);
+		return Math.sqrt(variance);
 	}
 
 	@Override
 	public int getSamplesCollected() {
-		return (samples.size() - 1) * SIZE + index;
+		return count;
 	}
 
 	@Override
@@ -133,15 +213,43 @@ public class AllSamplingStrategy implements IMetricSampler {
 
 	@Override
 	public void reset() {
-		invalidBuffer = true;
-		samples.clear();
-		index = 0;
-		newBucket();
+		invalidSorted = true;
+		count = 0;
 	}
 
 	@Override
 	public void merge(IMetricSampler responseTimeSampler) {
-		for(long sample : responseTimeSampler.getRawSamples())
-			accept(sample); 
+		if (responseTimeSampler instanceof PoissonSamplingStrategy)
+			responseTimeSampler = ((PoissonSamplingStrategy) responseTimeSampler).getSampling();
+
+		if (responseTimeSampler instanceof AllSamplingStrategy) {
+			merge((AllSamplingStrategy) responseTimeSampler);
+			return;
+		}
+
+		for (long sample : responseTimeSampler.getRawSamples())
+			accept(sample);
+	}
+
+	/**
+	 * Bulk copy of all chunks
+	 */
+	private void merge(AllSamplingStrategy from) {
+		int remaining = from.count;
+		int source = 0;
+		while (remaining > 0) {
+			int chunk = count >>> CHUNK_BITS;
+			int offset = count & CHUNK_MASK;
+			ensureChunk(chunk);
+
+			int length = Math.min(remaining, Math.min(CHUNK_SIZE - offset, CHUNK_SIZE - (source & CHUNK_MASK)));
+			System.arraycopy(from.chunks[source >>> CHUNK_BITS], source & CHUNK_MASK, chunks[chunk], offset, length);
+
+			count += length;
+			source += length;
+			remaining -= length;
+		}
+
+		invalidSorted = true;
 	}
 }
@@ -0,0 +1,42 @@
+package radlab.rain.scoreboard;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Sampled state of the async executor of a target. Queued operations indicate that the target cannot keep up with the
+ * asynchronous load, rejected or blocked operations that the executor is overloaded.
+ */
+class AsyncSummary {
+	private long samples = 0;
+	private long totalActive = 0;
+	private long totalQueued = 0;
+	private int maxActive = 0;
+	private int maxQueued = 0;
+
+	// Counters of the executor (since start of the run)
+	private long rejected = 0;
+	private long blocked = 0;
+
+	synchronized void dropOff(int active, int queued, long rejected, long blocked) {
+		samples++;
+		totalActive += active;
+		totalQueued += queued;
+		maxActive = Math.max(maxActive, active);
+		maxQueued = Math.max(maxQueued, queued);
+		this.rejected = Math.max(this.rejected, rejected);
+		this.blocked = Math.max(this.blocked, blocked);
+	}
+
+	synchronized JSONObject getStatistics() throws JSONException {
+		JSONObject async = new JSONObject();
+		async.put("samples", samples);
+		async.put("average_active", samples > 0 ? (double) totalActive / samples : 0);
+		async.put("max_active", maxActive);
+		async.put("average_queued", samples > 0 ? (double) totalQueued / samples : 0);
+		async.put("max_queued", maxQueued);
+		async.put("rejected", rejected);
+		async.put("blocked", blocked);
+		return async;
+	}
+}
@@ -0,0 +1,34 @@
+package radlab.rain.scoreboard;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Connection leases of the HTTP connection pool for the routes of a target. A low reuse rate indicates that
+ * connections are closed between requests, long waits that the pool limits are too low for the load.
+ */
+class ConnectionPoolSummary {
+	private long leases = 0;
+	private long reused = 0;
+	private long totalWaitTime = 0;
+	private long maxWaitTime = 0;
+
+	synchronized void dropOff(boolean reused, long waitTime) {
+		leases++;
+		if (reused)
+			this.reused++;
+		totalWaitTime += waitTime;
+		maxWaitTime = Math.max(maxWaitTime, waitTime);
+	}
+
+	synchronized JSONObject getStatistics() throws JSONException {
+		// Wait times are recorded in nanoseconds, reported in milliseconds
+		JSONObject pool = new JSONObject();
+		pool.put("leases", leases);
+		pool.put("reused", reused);
+		pool.put("reuse_rate", leases > 0 ? (double) reused / leases : 0);
+		pool.put("average_wait_time", leases > 0 ? totalWaitTime / 1000000d / leases : 0);
+		pool.put("max_wait_time", maxWaitTime / 1000000d);
+		return pool;
+	}
+}
@@ -0,0 +1,276 @@
+package radlab.rain.scoreboard;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sharded multi-producer single-consumer queue used by the scoreboard to receive operation executions from the agents.
+ * Each shard is a bounded lock-free ring buffer. Producers are mapped onto a shard by their thread id so that agents
+ * only contend with the few other agents sharing the same shard. The consumer drains all shards in batches and parks if
+ * there is nothing to do. Producers unpark the consumer on demand.
+ */
+class DropOffQueue<E> {
+
+	// Default capacity of a single shard
+	static final int DEFAULT_SHARD_CAPACITY = 1024;
+
+	// Max time the consumer parks before it re-checks the queue (safety net)
+	private static final long MAX_PARK_NANOS = 100 * 1000 * 1000;
+
+	// Shards (ring buffers)
+	private final Shard<E>[] shards;
+	private final int shardMask;
+
+	// Consumer thread and its parking state
+	private volatile Thread consumer;
+	private volatile boolean consumerParked = false;
+
+	// Next shard to drain (consumer only)
+	private int nextShard = 0;
+
+	// Number of drained elements, published once per batch for the queue depth
+	private long drained = 0;
+	private final AtomicLong publishedDrained = new AtomicLong();
+
+	/**
+	 * Bounded lock-free ring buffer. Each slot carries a sequence number which tells producers and the consumer whether
+	 * the slot is free or filled (see D. Vyukov's bounded MPMC queue, reduced to a single consumer).
+	 */
+	private static final class Shard<E> {
+		private final AtomicReferenceArray<E> slots;
+		private final AtomicLongArray sequences;
+		private final int mask;
+
+		// Producer position
+		private final AtomicLong tail = new AtomicLong();
+
+		// Consumer position (only accessed by the consumer thread)
+		private long head = 0;
+
+		// Technical statistics
+		private final AtomicLong dropoffs = new AtomicLong();
+		private final AtomicLong waitTime = new AtomicLong();
+		private final AtomicLong maxWaitTime = new AtomicLong();
+		private final AtomicLong fullWaits = new AtomicLong();
+
+		Shard(int capacity) {
+			slots = new AtomicReferenceArray<E>(capacity);
+			sequences = new AtomicLongArray(capacity);
+			mask = capacity - 1;
+			for (int i = 0; i < capacity; i++)
+				sequences.set(i, i);
+		}
+
+		/**
+		 * Tries to claim a slot and publish the element. Returns false if the shard is full.
+		 */
+		boolean offer(E element) {
+			while (true) {
+				long position = tail.get();
+				int index = (int) (position & mask);
+				long difference = sequences.get(index) - position;
+
+				if (difference == 0) {
+					// Slot is free, try to claim it
+					if (tail.compareAndSet(position, position + 1)) {
+						slots.lazySet(index, element);
+						sequences.set(index, position + 1);
+						return true;
+					}
+				} else if (difference < 0) {
+					// Slot is still occupied by an element from the last lap
+					return false;
+				}
+
+				// Another producer claimed the slot, retry
+			}
+		}
+
+		E poll() {
+			int index = (int) (head & mask);
+			if (sequences.get(index) != head + 1)
+				return null;
+
+			E element = slots.get(index);
+			slots.lazySet(index, null);
+			sequences.lazySet(index, head + mask + 1);
+			head++;
+			return element;
+		}
+
+		boolean isEmpty() {
+			return sequences.get((int) (head & mask)) != head + 1;
+		}
+
+		void recordWait(long wait) {
+			dropoffs.incrementAndGet();
+			waitTime.addAndGet(wait);
+
+			long max = maxWaitTime.get();
+			while (wait > max && !maxWaitTime.compareAndSet(max, wait))
+				max = maxWaitTime.get();
+		}
+	}
+
+	DropOffQueue() {
+		this(defaultShardCount(), DEFAULT_SHARD_CAPACITY);
+	}
+
+	DropOffQueue(int shardCount, int shardCapacity) {
+		shardCount = nextPowerOfTwo(shardCount);
+		shardCapacity = nextPowerOfTwo(shardCapacity);
+
+		shards = newShards(shardCount);
+		for (int i = 0; i < shardCount; i++)
+			shards[i] = new Shard<E>(shardCapacity);
+		shardMask = shardCount - 1;
+	}
+
+	// Generic arrays cannot be created, the array only ever holds shards of E
+	@SuppressWarnings("unchecked")
+	private static <E> Shard<E>[] newShards(int count) {
+		return (Shard<E>[]) new Shard<?>[count];
+	}
+
+	private static int defaultShardCount() {
+		return Runtime.getRuntime().availableProcessors() * 2;
+	}
+
+	private static int nextPowerOfTwo(int value) {
+		int power = 1;
+		while (power < value)
+			power <<= 1;
+		return power;
+	}
+
+	/**
+	 * Registers the thread which drains this queue. Only this thread is allowed to call drain and await.
+	 */
+	void setConsumer(Thread consumer) {
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Adds an element to the shard of the calling thread. Blocks (spins with back off) only if the shard is full. The
+	 * time spent in this method is accounted as drop off wait time.
+	 */
+	void offer(E element) {
+		long start = System.nanoTime();
+		Shard<E> shard = shards[(int) (Thread.currentThread().getId() & shardMask)];
+
+		if (!shard.offer(element)) {
+			shard.fullWaits.incrementAndGet();
+			do {
+				// Consumer is behind, make sure it is running and back off
+				wakeConsumer();
+				LockSupport.parkNanos(1000);
+			} while (!shard.offer(element));
+		}
+
+		// Wake up the consumer if it is waiting for elements
+		if (consumerParked)
+			wakeConsumer();
+
+		shard.recordWait(System.nanoTime() - start);
+	}
+
+	private void wakeConsumer() {
+		Thread thread = consumer;
+		if (thread != null) {
+			consumerParked = false;
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Moves up to batch.length elements into the batch array. Shards are drained round robin so that no shard starves.
+	 * Returns the number of elements moved.
+	 */
+	int drain(E[] batch) {
+		int count = 0;
+		for (int i = 0; i < shards.length && count < batch.length; i++) {
+			Shard<E> shard = shards[nextShard];
+			nextShard = (nextShard + 1) & shardMask;
+
+			E element;
+			while (count < batch.length && (element = shard.poll()) != null)
+				batch[count++] = element;
+		}
+
+		if (count > 0) {
+			drained += count;
+			publishedDrained.lazySet(drained);
+		}
+		return count;
+	}
+
+	/**
+	 * Parks the consumer until a producer drops off an element or the timeout expires.
+	 */
+	void await(long timeoutNanos) {
+		consumerParked = true;
+		if (isEmpty())
+			LockSupport.parkNanos(this, Math.min(timeoutNanos, MAX_PARK_NANOS));
+		consumerParked = false;
+	}
+
+	/**
+	 * Wakes the consumer up, e.g. if the scoreboard is closed.
+	 */
+	void signal() {
+		wakeConsumer();
+	}
+
+	boolean isEmpty() {
+		for (Shard<E> shard : shards)
+			if (!shard.isEmpty())
+				return false;
+		return true;
+	}
+
+	/**
+	 * Approximate number of queued elements, can be called by any thread
+	 */
+	long getDepth() {
+		long offered = 0;
+		for (Shard<E> shard : shards)
+			offered += shard.tail.get();
+		return Math.max(0, offered - publishedDrained.get());
+	}
+
+	int getShardCount() {
+		return shards.length;
+	}
+
+	long getTotalDropoffs() {
+		long total = 0;
+		for (Shard<E> shard : shards)
+			total += shard.dropoffs.get();
+		return total;
+	}
+
+	// Total wait time in nanoseconds
+	long getTotalWaitTime() {
+		long total = 0;
+		for (Shard<E> shard : shards)
+			total += shard.waitTime.get();
+		return total;
+	}
+
+	// Max wait time in nanoseconds
+	long getMaxWaitTime() {
+		long max = 0;
+		for (Shard<E> shard : shards)
+			max = Math.max(max, shard.maxWaitTime.get());
+		return max;
+	}
+
+	long getFullWaits() {
+		long total = 0;
+		for (Shard<E> shard : shards)
+			total += shard.fullWaits.get();
+		return total;
+	}
+}
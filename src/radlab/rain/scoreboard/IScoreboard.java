@@ -31,6 +31,8 @@
 
 package radlab.rain.scoreboard;
 
+import java.util.List;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -53,6 +55,24 @@ public interface IScoreboard {
 
 	void dropOffWaitTime(long time, String opName, long waitTime);
 
+	// Receives the delay between the planned and the actual wake up of an agent (nanoseconds)
+	void dropOffSchedulingLag(long time, long lag);
+
+	// Receives a sample of the async executor state (rejected and blocked are counted since start of the run)
+	void dropOffAsyncState(long time, int active, int queued, long rejected, long blocked);
+
+	// Receives a connection lease of the HTTP connection pool (wait time in nanoseconds)
+	void dropOffConnectionLease(long time, boolean reused, long waitTime);
+
+	// Latest live snapshot published by the scoreboard, never blocks the scoreboard
+	LiveSnapshot getLiveSnapshot();
+
+	// Sealed summaries of the steady state intervals, oldest first, never blocks the scoreboard
+	List<IntervalSummary> getIntervalSummaries();
+
+	// Approximate number of operation executions waiting to be processed
+	long getDropOffQueueDepth();
+
 	// Returns a scorecard that contains aggregated stats
 	Scorecard getScorecard();
 
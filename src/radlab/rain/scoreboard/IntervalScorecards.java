@@ -0,0 +1,232 @@
+package radlab.rain.scoreboard;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import radlab.rain.Timing;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.operation.OperationExecution;
+
+/**
+ * Steady state statistics per interval of a target. Intervals are either the activations of the load definitions or
+ * fixed time windows (see intervalScorecardWindow). Operations count to the interval in which they started.
+ * Activations are taken from the load definition start time of the operations, operations generated during a
+ * transition count to the interval of the current load definition.
+ *
+ * Open intervals keep a response time histogram per operation. An interval is sealed into an immutable
+ * {@link IntervalSummary} once it ended and its operations had time to finish. At most intervalScorecardLimit summaries
+ * are kept, the oldest are dropped.
+ *
+ * Updated by the scoreboard worker thread only, the sealed summaries are read by any thread.
+ */
+class IntervalScorecards {
+
+	// Time an interval stays open after its end for operations which are still in flight
+	static final long SEAL_DELAY = 10000;
+
+	/**
+	 * Counters of one operation within an open interval
+	 */
+	private static class OpenOperation {
+		long opsSuccessful = 0;
+		long opsFailed = 0;
+		final LatencyHistogram responseTime = new LatencyHistogram();
+
+		void processResult(OperationExecution result) {
+			if (result.failed) {
+				opsFailed++;
+			} else {
+				opsSuccessful++;
+				responseTime.record(result.getResponseTime() / 1000);
+			}
+		}
+
+		IntervalSummary.OperationStatistics seal(String operationName) {
+			return new IntervalSummary.OperationStatistics(operationName, opsSuccessful, opsFailed, responseTime);
+		}
+	}
+
+	private static class OpenInterval {
+		final long start;
+		long end;
+		LoadDefinition load;
+
+		long opsLate = 0;
+		final OpenOperation total = new OpenOperation();
+		final TreeMap<String, OpenOperation> operations = new TreeMap<String, OpenOperation>();
+
+		OpenInterval(long start, long end, LoadDefinition load) {
+			this.start = start;
+			this.end = end;
+			this.load = load;
+		}
+
+		void processResult(OperationExecution result) {
+			OpenOperation operation = operations.get(result.operationName);
+			if (operation == null) {
+				operation = new OpenOperation();
+				operations.put(result.operationName, operation);
+			}
+
+			operation.processResult(result);
+			total.processResult(result);
+		}
+
+		IntervalSummary seal(long index, long end) {
+			IntervalSummary.OperationStatistics[] sealed = new IntervalSummary.OperationStatistics[operations.size()];
+			int i = 0;
+			for (Map.Entry<String, OpenOperation> entry : operations.entrySet())
+				sealed[i++] = entry.getValue().seal(entry.getKey());
+
+			return new IntervalSummary(index, start, end, load, opsLate, total.seal("all"), sealed);
+		}
+	}
+
+	private final Timing timing;
+
+	// Length of the fixed windows, zero for intervals per load definition activation
+	private final long window;
+
+	// Max number of sealed intervals
+	private final int limit;
+
+	// Open intervals by start time
+	private final TreeMap<Long, OpenInterval> open = new TreeMap<Long, OpenInterval>();
+
+	// Latest known activation of a load definition
+	private long lastActivation = -1;
+
+	// Sealed intervals, oldest first
+	private final List<IntervalSummary> sealed = new CopyOnWriteArrayList<IntervalSummary>();
+	private long nextIndex = 0;
+	private long sealedEnd = Long.MIN_VALUE;
+
+	// Operations of intervals which were sealed already and sealed intervals dropped because of the limit
+	private long opsDiscarded = 0;
+	private long intervalsDropped = 0;
+
+	IntervalScorecards(Timing timing, long window, int limit) {
+		this.timing = timing;
+		this.window = window;
+		this.limit = limit;
+	}
+
+	void processResult(OperationExecution result) {
+		OpenInterval interval = getInterval(result);
+		if (interval == null)
+			opsDiscarded++;
+		else
+			interval.processResult(result);
+	}
+
+	void processLateOperation(OperationExecution result) {
+		OpenInterval interval = getInterval(result);
+		if (interval == null)
+			opsDiscarded++;
+		else
+			interval.opsLate++;
+	}
+
+	private OpenInterval getInterval(OperationExecution result) {
+		// Operations which finished in steady state may have started before
+		long time = Math.max(result.timeStarted, timing.startSteadyState);
+
+		if (window > 0) {
+			long start = timing.startSteadyState + (time - timing.startSteadyState) / window * window;
+			if (start < sealedEnd)
+				return null;
+
+			OpenInterval interval = open.get(start);
+			if (interval == null) {
+				interval = new OpenInterval(start, start + window, null);
+				open.put(start, interval);
+			}
+			return interval;
+		}
+
+		// The first interval starts with the steady state, it belongs to the first activation
+		if (open.isEmpty() && nextIndex == 0)
+			open.put(timing.startSteadyState, new OpenInterval(timing.startSteadyState, Long.MAX_VALUE, null));
+		if (open.isEmpty())
+			return null;
+
+		// A newer activation ends the current interval (older start times are left over from previous cycles)
+		long activation = result.profileStartTime;
+		if (activation > lastActivation) {
+			OpenInterval current = open.lastEntry().getValue();
+			if (lastActivation < 0 || activation <= current.start) {
+				current.load = result.generatedDuring;
+			} else {
+				current.end = activation;
+				open.put(activation, new OpenInterval(activation, Long.MAX_VALUE, result.generatedDuring));
+			}
+			lastActivation = activation;
+		}
+
+		Map.Entry<Long, OpenInterval> entry = open.floorEntry(time);
+		if (entry == null)
+			return null;
+		return entry.getValue();
+	}
+
+	/**
+	 * Seals all intervals which ended more than SEAL_DELAY ago
+	 */
+	void roll(long now) {
+		while (!open.isEmpty()) {
+			OpenInterval oldest = open.firstEntry().getValue();
+			if (oldest.end == Long.MAX_VALUE || now - oldest.end < SEAL_DELAY)
+				return;
+
+			seal(open.pollFirstEntry().getValue());
+		}
+	}
+
+	/**
+	 * Seals all open intervals at the end of the run
+	 */
+	void sealAll() {
+		while (!open.isEmpty())
+			seal(open.pollFirstEntry().getValue());
+	}
+
+	private void seal(OpenInterval interval) {
+		// The last interval ends with the steady state
+		IntervalSummary summary = interval.seal(nextIndex++, Math.min(interval.end, timing.endSteadyState));
+		sealedEnd = Math.max(sealedEnd, interval.end);
+
+		sealed.add(summary);
+		if (sealed.size() > limit) {
+			sealed.remove(0);
+			intervalsDropped++;
+		}
+	}
+
+	/**
+	 * Sealed intervals, oldest first
+	 */
+	List<IntervalSummary> getSealed() {
+		return Collections.unmodifiableList(sealed);
+	}
+
+	JSONObject getStatistics() throws JSONException {
+		JSONObject result = new JSONObject();
+		result.put("window", window);
+		result.put("ops_discarded", opsDiscarded);
+		result.put("intervals_dropped", intervalsDropped);
+
+		JSONArray intervals = new JSONArray();
+		for (IntervalSummary interval : sealed)
+			intervals.put(interval.getStatistics());
+		result.put("intervals", intervals);
+
+		return result;
+	}
+}
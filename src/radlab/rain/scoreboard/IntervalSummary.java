@@ -0,0 +1,151 @@
+package radlab.rain.scoreboard;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import radlab.rain.load.LoadDefinition;
+
+/**
+ * Immutable statistics of a sealed interval (see {@link IntervalScorecards}). Only counters and response time
+ * percentiles are kept, the histograms of the interval are released when it is sealed.
+ */
+public final class IntervalSummary {
+
+	/**
+	 * Statistics of one operation within the interval (response times in microseconds)
+	 */
+	public static final class OperationStatistics {
+		private final String operationName;
+		private final long opsSuccessful;
+		private final long opsFailed;
+		private final double averageResponseTime;
+		private final long responseTime50th;
+		private final long responseTime90th;
+		private final long responseTime99th;
+		private final long responseTime999th;
+		private final long maxResponseTime;
+
+		OperationStatistics(String operationName, long opsSuccessful, long opsFailed, LatencyHistogram responseTime) {
+			this.operationName = operationName;
+			this.opsSuccessful = opsSuccessful;
+			this.opsFailed = opsFailed;
+			this.averageResponseTime = responseTime.getMean();
+			this.responseTime50th = responseTime.getValueAtPercentile(50);
+			this.responseTime90th = responseTime.getValueAtPercentile(90);
+			this.responseTime99th = responseTime.getValueAtPercentile(99);
+			this.responseTime999th = responseTime.getValueAtPercentile(99.9);
+			this.maxResponseTime = responseTime.getMax();
+		}
+
+		public String getOperationName() {
+			return operationName;
+		}
+
+		public long getOpsSuccessful() {
+			return opsSuccessful;
+		}
+
+		public long getOpsFailed() {
+			return opsFailed;
+		}
+
+		JSONObject getStatistics(long duration) throws JSONException {
+			long total = opsSuccessful + opsFailed;
+
+			JSONObject stats = new JSONObject();
+			stats.put("ops_successful", opsSuccessful);
+			stats.put("ops_failed", opsFailed);
+			stats.put("throughput", duration > 0 ? opsSuccessful * 1000d / duration : 0);
+			stats.put("error_rate", total > 0 ? (double) opsFailed / total : 0);
+			stats.put("response_time_average_us", averageResponseTime);
+			stats.put("response_time_50th_us", responseTime50th);
+			stats.put("response_time_90th_us", responseTime90th);
+			stats.put("response_time_99th_us", responseTime99th);
+			stats.put("response_time_999th_us", responseTime999th);
+			stats.put("response_time_max_us", maxResponseTime);
+			return stats;
+		}
+	}
+
+	// Sequence number of the interval within the run
+	private final long index;
+
+	// Wall clock time span of the interval
+	private final long start;
+	private final long end;
+
+	// Load definition of the interval, null for fixed windows
+	private final String mixName;
+	private final long users;
+	private final double arrivalRate;
+
+	// Operations which finished after the steady state
+	private final long opsLate;
+
+	private final OperationStatistics total;
+	private final OperationStatistics[] operations;
+
+	IntervalSummary(long index, long start, long end, LoadDefinition load, long opsLate, OperationStatistics total,
+			OperationStatistics[] operations) {
+		this.index = index;
+		this.start = start;
+		this.end = end;
+		this.mixName = load != null ? load.getMixName() : null;
+		this.users = load != null ? load.getNumberOfUsers() : -1;
+		this.arrivalRate = load != null ? load.getArrivalRate() : 0;
+		this.opsLate = opsLate;
+		this.total = total;
+		this.operations = operations;
+	}
+
+	public long getIndex() {
+		return index;
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	/**
+	 * Users of the load definition or -1 for fixed windows
+	 */
+	public long getUsers() {
+		return users;
+	}
+
+	public OperationStatistics getTotal() {
+		return total;
+	}
+
+	public OperationStatistics[] getOperations() {
+		return operations.clone();
+	}
+
+	public JSONObject getStatistics() throws JSONException {
+		long duration = end - start;
+
+		JSONObject result = new JSONObject();
+		result.put("index", index);
+		result.put("start_time", start);
+		result.put("end_time", end);
+		result.put("duration", duration);
+		if (users >= 0) {
+			result.put("users", users);
+			result.put("mix_name", mixName);
+			result.put("arrival_rate", arrivalRate);
+		}
+		result.put("total_ops_late", opsLate);
+		result.put("summary", total.getStatistics(duration));
+
+		JSONObject operational = new JSONObject();
+		for (OperationStatistics operation : operations)
+			operational.put(operation.operationName, operation.getStatistics(duration));
+		result.put("operational", operational);
+
+		return result;
+	}
+}
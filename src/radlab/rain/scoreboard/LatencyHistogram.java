@@ -0,0 +1,301 @@
+package radlab.rain.scoreboard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import radlab.rain.RainConfig;
+
+/**
+ * Fixed memory, log bucketed histogram for latencies (layout as used by HdrHistogram). Values are recorded with a
+ * configurable number of significant decimal digits. Values between 2^k and 2^(k+1) share one bucket which is split
+ * into linear sub buckets. The memory footprint only depends on the highest trackable value and the number of
+ * significant digits, not on the number of recorded values.
+ *
+ * Histograms with the same layout are merged by adding their counts. Percentiles of a merged histogram have the same
+ * error bound as the percentiles of a single histogram.
+ *
+ * Not thread safe, each histogram is updated by the scoreboard worker thread only.
+ */
+public class LatencyHistogram {
+
+	// Default highest trackable value, one hour in microseconds
+	public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 3600L * 1000 * 1000;
+
+	// Layout
+	private final long highestTrackableValue;
+	private final int significantDigits;
+	private final int subBucketHalfCountMagnitude;
+	private final int subBucketHalfCount;
+	private final long subBucketMask;
+	private final int leadingZeroCountBase;
+
+	// Counts of all sub buckets
+	private final long[] counts;
+
+	// Statistics
+	private long totalCount = 0;
+	private long minValue = Long.MAX_VALUE;
+	private long maxValue = 0;
+	private double totalValue = 0;
+
+	/**
+	 * Creates a histogram with the configured number of significant digits
+	 */
+	public LatencyHistogram() {
+		this(DEFAULT_HIGHEST_TRACKABLE_VALUE, RainConfig.getInstance().histogramSignificantDigits);
+	}
+
+	public LatencyHistogram(long highestTrackableValue, int significantDigits) {
+		if (significantDigits < 0 || significantDigits > 5)
+			throw new IllegalArgumentException("significant digits must be in [0, 5]");
+		if (highestTrackableValue < 2)
+			throw new IllegalArgumentException("highest trackable value must be >= 2");
+
+		this.highestTrackableValue = highestTrackableValue;
+		this.significantDigits = significantDigits;
+
+		// Number of linear sub buckets required to get the requested precision
+		long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+		int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestValueWithSingleUnitResolution) / Math.log(2));
+		subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+		int subBucketCount = 1 << (subBucketHalfCountMagnitude + 1);
+		subBucketHalfCount = subBucketCount / 2;
+		subBucketMask = subBucketCount - 1;
+		leadingZeroCountBase = 64 - subBucketHalfCountMagnitude - 1;
+
+		// Number of buckets to cover the highest trackable value
+		long smallestUntrackableValue = subBucketCount;
+		int bucketCount = 1;
+		while (smallestUntrackableValue <= highestTrackableValue) {
+			if (smallestUntrackableValue > Long.MAX_VALUE / 2) {
+				bucketCount++;
+				break;
+			}
+			smallestUntrackableValue <<= 1;
+			bucketCount++;
+		}
+
+		counts = new long[(bucketCount + 1) * subBucketHalfCount];
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as 0, values above the highest trackable value are recorded in the
+	 * highest bucket (the max value is kept exact).
+	 */
+	public void record(long value) {
+		record(value, 1);
+	}
+
+	public void record(long value, long count) {
+		if (count <= 0)
+			return;
+
+		if (value < 0)
+			value = 0;
+
+		counts[countsIndex(Math.min(value, highestTrackableValue))] += count;
+		totalCount += count;
+		totalValue += (double) value * count;
+		minValue = Math.min(minValue, value);
+		maxValue = Math.max(maxValue, value);
+	}
+
+	/**
+	 * Adds all counts of another histogram to this one
+	 */
+	public void add(LatencyHistogram other) {
+		if (other.totalCount == 0)
+			return;
+
+		if (sameLayout(other)) {
+			for (int i = 0; i < counts.length; i++)
+				counts[i] += other.counts[i];
+		} else {
+			// Different layout, re-record the representative value of each bucket
+			for (int i = 0; i < other.counts.length; i++) {
+				if (other.counts[i] > 0)
+					counts[countsIndex(Math.min(other.medianEquivalentValue(i), highestTrackableValue))] += other.counts[i];
+			}
+		}
+
+		totalCount += other.totalCount;
+		totalValue += other.totalValue;
+		minValue = Math.min(minValue, other.minValue);
+		maxValue = Math.max(maxValue, other.maxValue);
+	}
+
+	private boolean sameLayout(LatencyHistogram other) {
+		return other.counts.length == counts.length && other.subBucketHalfCount == subBucketHalfCount;
+	}
+
+	/**
+	 * Subtracts the counts of an older copy of this histogram. Used to calculate deltas between two snapshots of the same
+	 * histogram. Min and max are taken from this histogram.
+	 */
+	public void subtract(LatencyHistogram older) {
+		if (!sameLayout(older))
+			throw new IllegalArgumentException("histograms have different layouts");
+
+		for (int i = 0; i < counts.length; i++)
+			counts[i] -= older.counts[i];
+
+		totalCount -= older.totalCount;
+		totalValue -= older.totalValue;
+	}
+
+	public void reset() {
+		for (int i = 0; i < counts.length; i++)
+			counts[i] = 0;
+
+		totalCount = 0;
+		totalValue = 0;
+		minValue = Long.MAX_VALUE;
+		maxValue = 0;
+	}
+
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram(highestTrackableValue, significantDigits);
+		copy.add(this);
+		return copy;
+	}
+
+	/**
+	 * Value at the given percentile (0..100). The result is the highest value that is equivalent to the bucket which
+	 * contains the percentile, i.e. it is accurate to the configured number of significant digits.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (totalCount == 0)
+			return 0;
+
+		percentile = Math.min(Math.max(percentile, 0), 100);
+		long countAtPercentile = (long) Math.ceil((percentile / 100d) * totalCount);
+		countAtPercentile = Math.max(countAtPercentile, 1);
+
+		long runningCount = 0;
+		for (int i = 0; i < counts.length; i++) {
+			runningCount += counts[i];
+			if (runningCount >= countAtPercentile) {
+				long value = highestEquivalentValue(i);
+				return Math.max(Math.min(value, maxValue), minValue);
+			}
+		}
+
+		return maxValue;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public long getMin() {
+		return totalCount == 0 ? 0 : minValue;
+	}
+
+	public long getMax() {
+		return maxValue;
+	}
+
+	public double getMean() {
+		return totalCount == 0 ? 0 : totalValue / totalCount;
+	}
+
+	public int getSignificantDigits() {
+		return significantDigits;
+	}
+
+	public long getHighestTrackableValue() {
+		return highestTrackableValue;
+	}
+
+	/**
+	 * Writes the layout and all non empty buckets. Bucket indices are delta encoded.
+	 */
+	void write(DataOutput out) throws IOException {
+		Varints.writeUnsigned(out, highestTrackableValue);
+		out.writeByte(significantDigits);
+		Varints.writeUnsigned(out, totalCount);
+		if (totalCount == 0)
+			return;
+
+		Varints.writeUnsigned(out, minValue);
+		Varints.writeUnsigned(out, maxValue);
+		out.writeDouble(totalValue);
+
+		int buckets = 0;
+		for (int i = 0; i < counts.length; i++)
+			if (counts[i] != 0)
+				buckets++;
+
+		Varints.writeUnsigned(out, buckets);
+		int last = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) {
+				Varints.writeUnsigned(out, i - last);
+				Varints.writeUnsigned(out, counts[i]);
+				last = i;
+			}
+		}
+	}
+
+	static LatencyHistogram read(DataInput in) throws IOException {
+		long highestTrackableValue = Varints.readUnsigned(in);
+		int significantDigits = in.readByte();
+		if (significantDigits < 0 || significantDigits > 5 || highestTrackableValue < 2)
+			throw new IOException("invalid histogram layout");
+
+		LatencyHistogram histogram = new LatencyHistogram(highestTrackableValue, significantDigits);
+		histogram.totalCount = Varints.readUnsigned(in);
+		if (histogram.totalCount == 0)
+			return histogram;
+
+		histogram.minValue = Varints.readUnsigned(in);
+		histogram.maxValue = Varints.readUnsigned(in);
+		histogram.totalValue = in.readDouble();
+
+		int buckets = Varints.readLength(in);
+		int index = 0;
+		for (int i = 0; i < buckets; i++) {
+			long next = index + Varints.readUnsigned(in);
+			if (next >= histogram.counts.length)
+				throw new IOException("invalid histogram bucket " + next);
+			index = (int) next;
+			histogram.counts[index] = Varints.readUnsigned(in);
+		}
+		return histogram;
+	}
+
+	/*
+	 * Index calculations
+	 */
+
+	private int countsIndex(long value) {
+		int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(value | subBucketMask);
+		int subBucketIndex = (int) (value >>> bucketIndex);
+		int bucketBaseIndex = (bucketIndex + 1) << subBucketHalfCountMagnitude;
+		return bucketBaseIndex + (subBucketIndex - subBucketHalfCount);
+	}
+
+	private long lowestEquivalentValue(int index) {
+		int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+		int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+		if (bucketIndex < 0) {
+			subBucketIndex -= subBucketHalfCount;
+			bucketIndex = 0;
+		}
+		return ((long) subBucketIndex) << bucketIndex;
+	}
+
+	private long equivalentRangeSize(int index) {
+		int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+		return 1L << Math.max(bucketIndex, 0);
+	}
+
+	private long highestEquivalentValue(int index) {
+		return lowestEquivalentValue(index) + equivalentRangeSize(index) - 1;
+	}
+
+	private long medianEquivalentValue(int index) {
+		return lowestEquivalentValue(index) + (equivalentRangeSize(index) >> 1);
+	}
+}
@@ -0,0 +1,54 @@
+package radlab.rain.scoreboard;
+
+/**
+ * Cumulative state of a scoreboard which is published periodically by the scoreboard worker thread. Snapshots are
+ * immutable, other threads read them without synchronizing with the worker. Includes all operations since the start of
+ * the target (ramp up and ramp down too). Deltas are calculated by subtracting an older snapshot.
+ */
+public class LiveSnapshot {
+
+	private final long targetId;
+
+	// Time the snapshot was taken
+	private final long timestamp;
+
+	private final long opsSuccessful;
+	private final long opsFailed;
+
+	// Response times (us) of all successful operations
+	private final LatencyHistogram responseTime;
+
+	LiveSnapshot(long targetId, long timestamp, long opsSuccessful, long opsFailed, LatencyHistogram responseTime) {
+		this.targetId = targetId;
+		this.timestamp = timestamp;
+		this.opsSuccessful = opsSuccessful;
+		this.opsFailed = opsFailed;
+		this.responseTime = responseTime;
+	}
+
+	public long getTargetId() {
+		return targetId;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public long getOpsSuccessful() {
+		return opsSuccessful;
+	}
+
+	public long getOpsFailed() {
+		return opsFailed;
+	}
+
+	/**
+	 * Response times recorded since an older snapshot of the same target (all if older is null)
+	 */
+	public LatencyHistogram getResponseTimeSince(LiveSnapshot older) {
+		LatencyHistogram delta = responseTime.copy();
+		if (older != null)
+			delta.subtract(older.responseTime);
+		return delta;
+	}
+}
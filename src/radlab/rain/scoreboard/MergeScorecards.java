@@ -0,0 +1,73 @@
+package radlab.rain.scoreboard;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+import radlab.rain.RainConfig;
+import radlab.rain.util.SonarRecorder;
+
+/**
+ * Merges scorecard files of multiple drivers or runs (see scorecardFile) and logs the global and aggregated statistics.
+ *
+ * <pre>
+ * MergeScorecards [-o merged.scorecards] [-d durationMs] driver1.scorecards driver2.scorecards ...
+ * </pre>
+ *
+ * The duration is used for the global scorecard, it defaults to the longest interval of all input scorecards. The
+ * merged scorecards of each aggregation identifier are written to the output file and can be merged again.
+ */
+public class MergeScorecards {
+	private static Logger logger = Logger.getLogger(MergeScorecards.class);
+
+	public static void main(String[] args) throws Exception {
+		File output = null;
+		long duration = -1;
+		List<File> inputs = new ArrayList<File>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-o") && i + 1 < args.length)
+				output = new File(args[++i]);
+			else if (args[i].equals("-d") && i + 1 < args.length)
+				duration = Long.parseLong(args[++i]);
+			else
+				inputs.add(new File(args[i]));
+		}
+
+		if (inputs.isEmpty()) {
+			logger.info("Usage: MergeScorecards [-o merged.scorecards] [-d durationMs] scorecard files...");
+			System.exit(1);
+		}
+
+		try {
+			List<Scorecard> scorecards = new ArrayList<Scorecard>();
+			for (File input : inputs) {
+				List<Scorecard> fileScorecards = ScorecardCodec.readFile(input);
+				logger.info("Read " + fileScorecards.size() + " scorecards from " + input);
+				scorecards.addAll(fileScorecards);
+			}
+
+			if (duration < 0) {
+				duration = 0;
+				for (Scorecard scorecard : scorecards)
+					duration = Math.max(duration, scorecard.getTimeActive());
+			}
+
+			Collection<Scorecard> merged = new Aggregation().aggregateScorecards(scorecards, duration);
+
+			if (output != null) {
+				ScorecardCodec.writeFile(output, merged);
+				logger.info("Merged scorecards written to " + output);
+			}
+
+			// Merged scorecards write to Sonar
+			RainConfig.getInstance().triggerShutdown();
+			SonarRecorder.getInstance().join();
+		} finally {
+			org.apache.log4j.LogManager.shutdown();
+		}
+	}
+}
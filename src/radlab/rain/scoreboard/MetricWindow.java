@@ -0,0 +1,175 @@
+package radlab.rain.scoreboard;
+
+import radlab.rain.util.SonarRecorder;
+
+/**
+ * Aggregates the response times of one target over a fixed time window and writes one snapshot per window to Sonar.
+ * The window is updated in place by the scoreboard worker thread. No object is created per operation and memory does
+ * not depend on the number of operations in a window.
+ *
+ * The 50th, 90th and 99th percentile sensors report the true percentiles of the window (two significant digits). The
+ * former writer passed 0.5, 0.9 and 0.99 to the commons math Percentile, which expects values in (0, 100], so older
+ * runs reported the 0.5th, 0.9th and 0.99th percentile under these sensor names (values close to the minimum).
+ */
+class MetricWindow {
+
+	// Length of a window
+	static final long WINDOW_LENGTH = 3000;
+
+	// Highest tracked response time (ms), larger values are clamped
+	private static final long MAX_RESPONSE_TIME = 3600L * 1000;
+
+	private final SonarRecorder sonarRecorder;
+
+	// Start of the current window, zero until the first operation arrives
+	private long windowStart = 0;
+
+	// Totals of the scorecard at the start of the window
+	private long lastTotalResponseTime = 0;
+	private long lastNumObservations = 0;
+
+	// Totals of the scorecard at the last update
+	private long totalResponseTime = 0;
+	private long numObservations = 0;
+
+	// Response times of the current window
+	private final LatencyHistogram rtime = new LatencyHistogram(MAX_RESPONSE_TIME, 2);
+	private final long[] thrBuffer = new long[10];
+
+	// Sensor names are built once
+	private final String sensorAvgRTime;
+	private final String sensorRTime;
+	private final String sensorTObservations;
+	private final String sensorDObservations;
+	private final String sensorTRTime;
+	private final String sensorDRTime;
+	private final String sensorMin;
+	private final String sensorMax;
+	private final String sensor50th;
+	private final String sensor90th;
+	private final String sensor99th;
+	private final String[] sensorThr = new String[thrBuffer.length];
+
+	MetricWindow(long targetId) {
+		this.sonarRecorder = SonarRecorder.getInstance();
+
+		sensorAvgRTime = "rain.avgrtime." + targetId;
+		sensorRTime = "rain.rtime." + targetId;
+		sensorTObservations = "rain.tobservations." + targetId;
+		sensorDObservations = "rain.dobservations." + targetId;
+		sensorTRTime = "rain.trtime." + targetId;
+		sensorDRTime = "rain.drtime." + targetId;
+		sensorMin = "rain.rtime.min." + targetId;
+		sensorMax = "rain.rtime.max." + targetId;
+		sensor50th = "rain.rtime.50th." + targetId;
+		sensor90th = "rain.rtime.90th." + targetId;
+		sensor99th = "rain.rtime.99th." + targetId;
+		for (int i = 0; i < sensorThr.length; i++)
+			sensorThr[i] = "rain.thr-" + i + "." + targetId;
+	}
+
+	/**
+	 * Adds a successful operation to the window
+	 * 
+	 * @param timestamp
+	 *            Finish time of the operation
+	 * @param responseTime
+	 *            Response time of the operation (ms)
+	 * @param totalResponseTime
+	 *            Total response time of the scorecard including this operation
+	 * @param numObservations
+	 *            Total number of successful operations of the scorecard including this operation
+	 */
+	void accept(long timestamp, long responseTime, long totalResponseTime, long numObservations) {
+		long now = System.currentTimeMillis();
+
+		// First operation opens the first window
+		if (windowStart == 0) {
+			windowStart = now;
+			lastTotalResponseTime = totalResponseTime;
+			lastNumObservations = numObservations;
+		}
+
+		// Response time buckets (seconds)
+		int bucket = (int) (responseTime / 1000);
+		if (bucket < (thrBuffer.length - 1))
+			thrBuffer[bucket]++;
+		else
+			thrBuffer[thrBuffer.length - 1]++;
+
+		rtime.record(Math.min(responseTime, MAX_RESPONSE_TIME));
+
+		this.totalResponseTime = totalResponseTime;
+		this.numObservations = numObservations;
+
+		if (now - windowStart > WINDOW_LENGTH)
+			snapshot(timestamp, now);
+	}
+
+	/**
+	 * Closes the current window if it elapsed. Called periodically so that windows without operations are written too.
+	 */
+	void roll(long now) {
+		if (windowStart == 0)
+			return;
+
+		if (now - windowStart > WINDOW_LENGTH)
+			snapshot(now, now);
+	}
+
+	private void snapshot(long time, long now) {
+		long timestamp = time / 1000;
+
+		double totalAverageResponseTime = numObservations > 0 ? totalResponseTime / numObservations : 0;
+		long deltaObservations = numObservations - lastNumObservations;
+		long deltaResponseTime = totalResponseTime - lastTotalResponseTime;
+		double deltaAverageResponseTime = deltaObservations > 0 ? (double) deltaResponseTime / deltaObservations : 0;
+
+		// Total and delta average response time
+		log(timestamp, sensorAvgRTime, (long) totalAverageResponseTime);
+		log(timestamp, sensorRTime, (long) deltaAverageResponseTime);
+
+		// Total and delta observations
+		log(timestamp, sensorTObservations, numObservations);
+		log(timestamp, sensorDObservations, deltaObservations);
+
+		// Total and delta response time
+		log(timestamp, sensorTRTime, totalResponseTime);
+		log(timestamp, sensorDRTime, deltaResponseTime);
+
+		// Min, max and percentile response times of the window
+		log(timestamp, sensorMin, rtime.getMin());
+		log(timestamp, sensorMax, rtime.getMax());
+		log(timestamp, sensor50th, rtime.getValueAtPercentile(50));
+		log(timestamp, sensor90th, rtime.getValueAtPercentile(90));
+		log(timestamp, sensor99th, rtime.getValueAtPercentile(99));
+
+		// Response time buckets
+		for (int i = 0; i < thrBuffer.length; i++)
+			log(timestamp, sensorThr[i], thrBuffer[i]);
+
+		// Open next window
+		windowStart = now;
+		lastTotalResponseTime = totalResponseTime;
+		lastNumObservations = numObservations;
+
+		rtime.reset();
+		for (int i = 0; i < thrBuffer.length; i++)
+			thrBuffer[i] = 0;
+	}
+
+	/**
+	 * Response time percentile of the current window (ms)
+	 */
+	long getValueAtPercentile(double percentile) {
+		return rtime.getValueAtPercentile(percentile);
+	}
+
+	private void log(long timestamp, String sensor, long value) {
+		sonarRecorder.record(sensor, timestamp, value);
+	}
+
+	void close() {
+		sonarRecorder.disconnect();
+	}
+}
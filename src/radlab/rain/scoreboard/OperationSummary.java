@@ -31,12 +31,19 @@
 
 package radlab.rain.scoreboard;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 import org.apache.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import radlab.rain.RainConfig;
 import radlab.rain.operation.OperationExecution;
+import radlab.rain.util.HttpPhases;
 import de.tum.in.dss.psquare.PSquared;
 
 public class OperationSummary {
@@ -59,6 +66,25 @@ public class OperationSummary {
 	private long totalResponseTime = 0;
 	private long opsFailedRtimeThreshold = 0;
 
+	// High resolution timings (nanoseconds). The response time is measured from the intended start time and includes
+	// the queueing delay, the service time only covers the execution of the operation.
+	private long totalServiceTime = 0;
+	private long minServiceTime = Long.MAX_VALUE;
+	private long maxServiceTime = Long.MIN_VALUE;
+
+	private long totalIntendedResponseTime = 0;
+	private long maxIntendedResponseTime = Long.MIN_VALUE;
+
+	private long totalQueueingDelay = 0;
+	private long maxQueueingDelay = Long.MIN_VALUE;
+
+	// Mergeable response and service time histograms (microseconds)
+	private LatencyHistogram responseTimeHistogram = new LatencyHistogram();
+	private LatencyHistogram serviceTimeHistogram = new LatencyHistogram();
+
+	// Mergeable histograms of the HTTP phases (microseconds), created by the first operation with HTTP requests
+	private LatencyHistogram[] httpPhaseHistograms = null;
+
 	// Sample the response times so that we can give a "reasonable"
 	// estimate of the 90th and 99th percentiles.
 	private IMetricSampler responseTimeSampler;
@@ -108,6 +134,31 @@ public class OperationSummary {
 			// Update max and min response time
 			maxResponseTime = Math.max(maxResponseTime, responseTime);
 			minResponseTime = Math.min(minResponseTime, responseTime);
+
+			// Update high resolution timings
+			long serviceTime = result.getServiceTime();
+			totalServiceTime += serviceTime;
+			minServiceTime = Math.min(minServiceTime, serviceTime);
+			maxServiceTime = Math.max(maxServiceTime, serviceTime);
+
+			long intendedResponseTime = result.getResponseTime();
+			totalIntendedResponseTime += intendedResponseTime;
+			maxIntendedResponseTime = Math.max(maxIntendedResponseTime, intendedResponseTime);
+
+			long queueingDelay = result.getQueueingDelay();
+			totalQueueingDelay += queueingDelay;
+			maxQueueingDelay = Math.max(maxQueueingDelay, queueingDelay);
+
+			// Update histograms
+			responseTimeHistogram.record(intendedResponseTime / 1000);
+			serviceTimeHistogram.record(serviceTime / 1000);
+
+			if (result.httpPhases != null) {
+				if (httpPhaseHistograms == null)
+					httpPhaseHistograms = createPhaseHistograms();
+				for (int i = 0; i < HttpPhases.PHASES; i++)
+					httpPhaseHistograms[i].record(result.httpPhases[i] / 1000);
+			}
 		}
 	}
 
@@ -152,6 +203,21 @@ public class OperationSummary {
 		operation.put("rtime_max", maxResponseTime);
 		operation.put("rtime_min", minResponseTime);
 
+		operation.put("service_time_average_us", nNaN(averageMicros(totalServiceTime)));
+		operation.put("service_time_min_us", opsSuccessful > 0 ? toMicros(minServiceTime) : 0);
+		operation.put("service_time_max_us", opsSuccessful > 0 ? toMicros(maxServiceTime) : 0);
+		operation.put("response_time_average_us", nNaN(averageMicros(totalIntendedResponseTime)));
+		operation.put("response_time_max_us", opsSuccessful > 0 ? toMicros(maxIntendedResponseTime) : 0);
+		operation.put("queue_delay_average_us", nNaN(averageMicros(totalQueueingDelay)));
+		operation.put("queue_delay_max_us", opsSuccessful > 0 ? toMicros(maxQueueingDelay) : 0);
+
+		// Histogram percentiles remain valid after merge
+		putHistogram(operation, "response_time", responseTimeHistogram);
+		putHistogram(operation, "service_time", serviceTimeHistogram);
+
+		if (httpPhaseHistograms != null)
+			operation.put("http_phases", getPhaseStatistics());
+
 		if (!merged) {
 			operation.put("rtime_50th", nNaN(rtime50th.getPValue()));
 			operation.put("rtime_90th", nNaN(rtime90th.getPValue()));
@@ -172,6 +238,36 @@ public class OperationSummary {
 		return operation;
 	}
 
+	private void putHistogram(JSONObject operation, String prefix, LatencyHistogram histogram) throws JSONException {
+		operation.put(prefix + "_50th_us", histogram.getValueAtPercentile(50));
+		operation.put(prefix + "_90th_us", histogram.getValueAtPercentile(90));
+		operation.put(prefix + "_99th_us", histogram.getValueAtPercentile(99));
+		operation.put(prefix + "_999th_us", histogram.getValueAtPercentile(99.9));
+		operation.put(prefix + "_hist_max_us", histogram.getMax());
+	}
+
+	private static LatencyHistogram[] createPhaseHistograms() {
+		LatencyHistogram[] histograms = new LatencyHistogram[HttpPhases.PHASES];
+		for (int i = 0; i < histograms.length; i++)
+			histograms[i] = new LatencyHistogram();
+		return histograms;
+	}
+
+	private JSONObject getPhaseStatistics() throws JSONException {
+		JSONObject phases = new JSONObject();
+		for (HttpPhases.Phase phase : HttpPhases.Phase.values()) {
+			LatencyHistogram histogram = httpPhaseHistograms[phase.ordinal()];
+			JSONObject stats = new JSONObject();
+			stats.put("average_us", nNaN(histogram.getMean()));
+			stats.put("50th_us", histogram.getValueAtPercentile(50));
+			stats.put("90th_us", histogram.getValueAtPercentile(90));
+			stats.put("99th_us", histogram.getValueAtPercentile(99));
+			stats.put("max_us", histogram.getMax());
+			phases.put(phase.getLabel(), stats);
+		}
+		return phases;
+	}
+
 	private double nNaN(double val) {
 		if (Double.isNaN(val))
 			return 0;
@@ -181,6 +277,14 @@ public class OperationSummary {
 		return val;
 	}
 
+	private double averageMicros(long totalNanos) {
+		return toMicros(totalNanos) / (double) opsSuccessful;
+	}
+
+	private static double toMicros(long nanos) {
+		return nanos / 1000d;
+	}
+
 	private final double toSeconds(double timestamp) {
 		return timestamp / 1000d;
 	}
@@ -189,6 +293,113 @@ public class OperationSummary {
 		return responseTimeSampler;
 	}
 
+	/**
+	 * Writes all mergeable state. The percentile estimators can't be merged and are not written. Counters are written
+	 * as varints, samples sorted and delta encoded.
+	 */
+	void write(DataOutput out) throws IOException {
+		Varints.writeUnsigned(out, opsSuccessful);
+		Varints.writeUnsigned(out, opsFailed);
+		Varints.writeUnsigned(out, actionsSuccessful);
+		Varints.writeUnsigned(out, opsAsync);
+		Varints.writeUnsigned(out, opsSync);
+		Varints.writeUnsigned(out, opsFailedRtimeThreshold);
+
+		// Min and max values are only set if an operation was successful
+		Varints.writeSigned(out, totalResponseTime);
+		Varints.writeSigned(out, totalServiceTime);
+		Varints.writeSigned(out, totalIntendedResponseTime);
+		Varints.writeSigned(out, totalQueueingDelay);
+		if (opsSuccessful > 0) {
+			Varints.writeSigned(out, minResponseTime);
+			Varints.writeSigned(out, maxResponseTime);
+			Varints.writeSigned(out, minServiceTime);
+			Varints.writeSigned(out, maxServiceTime);
+			Varints.writeSigned(out, maxIntendedResponseTime);
+			Varints.writeSigned(out, maxQueueingDelay);
+		}
+
+		responseTimeHistogram.write(out);
+		serviceTimeHistogram.write(out);
+
+		out.writeBoolean(httpPhaseHistograms != null);
+		if (httpPhaseHistograms != null) {
+			for (int i = 0; i < HttpPhases.PHASES; i++)
+				httpPhaseHistograms[i].write(out);
+		}
+
+		long[] sorted = sortedSamples(responseTimeSampler);
+		Varints.writeUnsigned(out, sorted.length);
+		long last = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			Varints.writeSigned(out, sorted[i] - last);
+			last = sorted[i];
+		}
+	}
+
+	/**
+	 * Sorted samples of the sampler, copied from the primitive chunks of the sampler if possible
+	 */
+	private static long[] sortedSamples(IMetricSampler sampler) {
+		if (sampler instanceof PoissonSamplingStrategy)
+			sampler = ((PoissonSamplingStrategy) sampler).getSampling();
+		if (sampler instanceof AllSamplingStrategy)
+			return ((AllSamplingStrategy) sampler).getSortedSamples();
+
+		List<Long> samples = sampler.getRawSamples();
+		long[] sorted = new long[samples.size()];
+		for (int i = 0; i < sorted.length; i++)
+			sorted[i] = samples.get(i);
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	/**
+	 * Reads a summary written by {@link #write(DataOutput)}. The summary is flagged as merged and keeps all samples.
+	 */
+	static OperationSummary read(DataInput in) throws IOException {
+		OperationSummary summary = new OperationSummary(new AllSamplingStrategy());
+		summary.merged = true;
+
+		summary.opsSuccessful = Varints.readUnsigned(in);
+		summary.opsFailed = Varints.readUnsigned(in);
+		summary.actionsSuccessful = Varints.readUnsigned(in);
+		summary.opsAsync = Varints.readUnsigned(in);
+		summary.opsSync = Varints.readUnsigned(in);
+		summary.opsFailedRtimeThreshold = Varints.readUnsigned(in);
+
+		summary.totalResponseTime = Varints.readSigned(in);
+		summary.totalServiceTime = Varints.readSigned(in);
+		summary.totalIntendedResponseTime = Varints.readSigned(in);
+		summary.totalQueueingDelay = Varints.readSigned(in);
+		if (summary.opsSuccessful > 0) {
+			summary.minResponseTime = Varints.readSigned(in);
+			summary.maxResponseTime = Varints.readSigned(in);
+			summary.minServiceTime = Varints.readSigned(in);
+			summary.maxServiceTime = Varints.readSigned(in);
+			summary.maxIntendedResponseTime = Varints.readSigned(in);
+			summary.maxQueueingDelay = Varints.readSigned(in);
+		}
+
+		summary.responseTimeHistogram = LatencyHistogram.read(in);
+		summary.serviceTimeHistogram = LatencyHistogram.read(in);
+
+		if (in.readBoolean()) {
+			summary.httpPhaseHistograms = new LatencyHistogram[HttpPhases.PHASES];
+			for (int i = 0; i < HttpPhases.PHASES; i++)
+				summary.httpPhaseHistograms[i] = LatencyHistogram.read(in);
+		}
+
+		int samples = Varints.readLength(in);
+		long sample = 0;
+		for (int i = 0; i < samples; i++) {
+			sample += Varints.readSigned(in);
+			summary.responseTimeSampler.accept(sample);
+		}
+
+		return summary;
+	}
+
 	public void merge(OperationSummary from) {
 		// Active merged status
 		merged = true;
@@ -207,6 +418,27 @@ public class OperationSummary {
 		totalResponseTime += from.totalResponseTime;
 		opsFailedRtimeThreshold += from.opsFailedRtimeThreshold;
 
+		totalServiceTime += from.totalServiceTime;
+		minServiceTime = Math.min(minServiceTime, from.minServiceTime);
+		maxServiceTime = Math.max(maxServiceTime, from.maxServiceTime);
+
+		totalIntendedResponseTime += from.totalIntendedResponseTime;
+		maxIntendedResponseTime = Math.max(maxIntendedResponseTime, from.maxIntendedResponseTime);
+
+		totalQueueingDelay += from.totalQueueingDelay;
+		maxQueueingDelay = Math.max(maxQueueingDelay, from.maxQueueingDelay);
+
+		// Merge histograms
+		responseTimeHistogram.add(from.responseTimeHistogram);
+		serviceTimeHistogram.add(from.serviceTimeHistogram);
+
+		if (from.httpPhaseHistograms != null) {
+			if (httpPhaseHistograms == null)
+				httpPhaseHistograms = createPhaseHistograms();
+			for (int i = 0; i < HttpPhases.PHASES; i++)
+				httpPhaseHistograms[i].add(from.httpPhaseHistograms[i]);
+		}
+
 		// Merge response time sampler
 		responseTimeSampler.merge(from.getResponseTimeSampler());
 	}
@@ -222,4 +454,12 @@ public class OperationSummary {
 	public long getTotalResponseTime() {
 		return totalResponseTime;
 	}
+
+	public LatencyHistogram getResponseTimeHistogram() {
+		return responseTimeHistogram;
+	}
+
+	public LatencyHistogram getServiceTimeHistogram() {
+		return serviceTimeHistogram;
+	}
 }
@@ -31,19 +31,17 @@
 
 package radlab.rain.scoreboard;
 
-import java.util.LinkedList;
+import java.util.List;
 
 import radlab.rain.RainConfig;
 import radlab.rain.util.NegativeExponential;
 import radlab.rain.util.SonarRecorder;
-import de.tum.in.sonar.collector.Identifier;
-import de.tum.in.sonar.collector.MetricReading;
 
 public class PoissonSamplingStrategy implements IMetricSampler {
 	// All sampled values are stored in Sonar
 	private SonarRecorder sonarRecorder;
 	private long targetId;
-	private String operation;
+	private String sensor;
 
 	// Settings
 	private final double meanSamplingInterval = RainConfig.getInstance().meanResponseTimeSamplingInterval;
@@ -58,7 +56,7 @@ public class PoissonSamplingStrategy implements IMetricSampler {
 
 	public PoissonSamplingStrategy(long targetId, String operation) {
 		this.targetId = targetId;
-		this.operation = operation;
+		this.sensor = "rain.rtime.sampler." + targetId + "." + operation;
 
 		// Initialize random number generator
 		this.random = new NegativeExponential(this.meanSamplingInterval);
@@ -129,14 +127,7 @@ public class PoissonSamplingStrategy implements IMetricSampler {
 		if (targetId < 0)
 			return;
 
-		Identifier id = new Identifier();
-		id.setSensor("rain.rtime.sampler." + targetId + "." + operation);
-		id.setTimestamp(System.currentTimeMillis() / 1000);
-
-		MetricReading mvalue = new MetricReading();
-		mvalue.setValue(value);
-
-		sonarRecorder.record(id, mvalue);
+		sonarRecorder.record(sensor, System.currentTimeMillis() / 1000, value);
 	}
 
 	@Override
@@ -144,7 +135,11 @@ public class PoissonSamplingStrategy implements IMetricSampler {
 		sampling.merge(responseTimeSampler);
 	}
 
-	public LinkedList<Long> getRawSamples() {
+	public List<Long> getRawSamples() {
 		return sampling.getRawSamples();
 	}
+
+	AllSamplingStrategy getSampling() {
+		return sampling;
+	}
 }
@@ -0,0 +1,42 @@
+package radlab.rain.scoreboard;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Delay between the planned and the actual wake up time of agents. Large delays indicate that the driver itself cannot
+ * keep up and operations are started late (coordinated omission). Updated concurrently by all agents of a target.
+ */
+class SchedulingLagSummary {
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalLag = new AtomicLong();
+	private final AtomicLong maxLag = new AtomicLong();
+
+	void dropOff(long lag) {
+		count.incrementAndGet();
+		totalLag.addAndGet(lag);
+
+		long max = maxLag.get();
+		while (lag > max && !maxLag.compareAndSet(max, lag))
+			max = maxLag.get();
+	}
+
+	JSONObject getStatistics() throws JSONException {
+		long count = this.count.get();
+		long totalLag = this.totalLag.get();
+
+		double averageLag = 0;
+		if (count > 0)
+			averageLag = (double) totalLag / (double) count;
+
+		// Results (milliseconds)
+		JSONObject lag = new JSONObject();
+		lag.put("samples", count);
+		lag.put("total_scheduling_lag", totalLag / 1000000d);
+		lag.put("average_scheduling_lag", averageLag / 1000000d);
+		lag.put("max_scheduling_lag", maxLag.get() / 1000000d);
+		return lag;
+	}
+}
@@ -31,8 +31,8 @@
 
 package radlab.rain.scoreboard;
 
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -42,6 +42,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import radlab.rain.RainConfig;
 import radlab.rain.Timing;
 import radlab.rain.operation.OperationExecution;
 
@@ -55,30 +56,50 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 	private Timing timing;
 
 	// Set to terminate the thread
-	private boolean running = false;
+	private volatile boolean running = false;
 
-	// Technical statistics
-	private long totalDropoffs = 0;
-	private long totalDropOffWaitTime = 0;
-	private long maxDropOffWaitTime = 0;
+	// Max number of operation executions processed per batch
+	private static final int DROP_OFF_BATCH = 256;
 
 	// Technical statistics of wait time for each operation
 	private Map<String, WaitTimeSummary> waitTimeMap = new TreeMap<String, WaitTimeSummary>();
 
-	// Metric writer thread
-	private MetricWriterThread metricWriter = null;
+	// Delay between planned and actual agent wake ups
+	private SchedulingLagSummary schedulingLag = new SchedulingLagSummary();
 
-	// Dropoff queues
-	private List<OperationExecution> dropOffQ = new LinkedList<OperationExecution>();
-	private List<OperationExecution> processingQ = new LinkedList<OperationExecution>();
+	// Sampled state of the async executor
+	private AsyncSummary asyncState = new AsyncSummary();
 
-	// Dropoff queue locks
-	private Object swapDropoffQueueLock = new Object();
+	// Connection leases of the HTTP connection pool
+	private ConnectionPoolSummary connectionPool = new ConnectionPoolSummary();
+
+	// Response time window which is written to Sonar
+	private MetricWindow metricWindow = null;
+
+	// Dropoff queue (sharded, lock-free)
+	private DropOffQueue<OperationExecution> dropOffQ = new DropOffQueue<OperationExecution>();
+
+	// Dropoff lock for wait times
 	private Object waitTimeDropOffLock = new Object();
 
 	// All relevant counters are stored in this scorecard
 	private Scorecard scorecard = null;
 
+	// Steady state statistics per load interval (null if disabled)
+	private IntervalScorecards intervals = null;
+
+	// Interval in which live snapshots are published
+	private static final long LIVE_INTERVAL = 1000;
+
+	// Live counters of all operations (worker thread only)
+	private long liveOpsSuccessful = 0;
+	private long liveOpsFailed = 0;
+	private final LatencyHistogram liveResponseTime = new LatencyHistogram();
+	private long lastLivePublish = 0;
+
+	// Last published live snapshot
+	private volatile LiveSnapshot liveSnapshot;
+
 	/**
 	 * Each scoreboard is attached to one target
 	 */
@@ -96,6 +117,14 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 
 		// Create a final scorecard
 		scorecard = new Scorecard(targetId, runDuration);
+
+		// Create the interval scorecards
+		RainConfig config = RainConfig.getInstance();
+		if (config.intervalScorecardLimit > 0)
+			intervals = new IntervalScorecards(timing, config.intervalScorecardWindow, config.intervalScorecardLimit);
+
+		// Empty live snapshot until the worker publishes one
+		liveSnapshot = new LiveSnapshot(targetId, System.currentTimeMillis(), 0, 0, liveResponseTime.copy());
 	}
 
 	@Override
@@ -124,6 +153,45 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 		}
 	}
 
+	@Override
+	public void dropOffSchedulingLag(long time, long lag) {
+		// Scoreboard closed?
+		if (!running)
+			return;
+
+		// In steady state
+		if (!timing.inSteadyState(time))
+			return;
+
+		schedulingLag.dropOff(lag);
+	}
+
+	@Override
+	public void dropOffAsyncState(long time, int active, int queued, long rejected, long blocked) {
+		// Scoreboard closed?
+		if (!running)
+			return;
+
+		// In steady state
+		if (!timing.inSteadyState(time))
+			return;
+
+		asyncState.dropOff(active, queued, rejected, blocked);
+	}
+
+	@Override
+	public void dropOffConnectionLease(long time, boolean reused, long waitTime) {
+		// Scoreboard closed?
+		if (!running)
+			return;
+
+		// In steady state
+		if (!timing.inSteadyState(time))
+			return;
+
+		connectionPool.dropOff(reused, waitTime);
+	}
+
 	@Override
 	public void dropOffOperation(OperationExecution result) {
 		// Scoreboard closed?
@@ -140,39 +208,27 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 		else if (timing.inRampDown(result.timeStarted))
 			result.setTraceLabel(TraceLabels.RAMP_DOWN_LABEL);
 
-		// Put all results into the dropoff queue
-		long lockStart = System.currentTimeMillis();
-		synchronized (swapDropoffQueueLock) {
-			// Calculate time required to acquire this lock
-			long dropOffWaitTime = (System.currentTimeMillis() - lockStart);
-
-			// Update internal dropoff statistics
-			totalDropOffWaitTime += dropOffWaitTime;
-			totalDropoffs++;
-			maxDropOffWaitTime = Math.max(maxDropOffWaitTime, dropOffWaitTime);
-
-			// Dropoff this operation execution
-			dropOffQ.add(result);
-		}
+		// Put all results into the dropoff queue (wait time statistics are recorded by the queue)
+		dropOffQ.offer(result);
 	}
 
 	public void start() {
 		// Thread is running
 		running = true;
 
-		// Start snapshot thread
-		metricWriter = new MetricWriterThread();
-		metricWriter.setName("Scoreboard-Snapshot-Writer");
-		metricWriter.start();
+		// Metric snapshots are written by the worker thread
+		metricWindow = new MetricWindow(targetId);
 
 		// Start worker thread
 		setName("Scoreboard-Worker");
+		dropOffQ.setConsumer(this);
 		super.start();
 	}
 
 	public void dispose() {
-		// Disable running flag
+		// Disable running flag and wake up the worker
 		running = false;
+		dropOffQ.signal();
 
 		// Worker thread
 		try {
@@ -189,84 +245,101 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 			logger.info(this + " Interrupted waiting on worker thread exit!");
 		}
 
-		// Snapshot thread
-		try {
-			// Stop snapshot thread
-			if (metricWriter != null) {
-				// Set stop flag
-				metricWriter.interrupt();
-
-				// Wait to join
-				logger.debug(this + " waiting metric snapshot writer thread to join");
-				metricWriter.join(60 * 1000);
-
-				// If its still alive try to interrupt again
-				if (metricWriter.isAlive()) {
-					logger.debug(this + " interrupting snapshot thread.");
-					metricWriter.interrupt();
-				}
-			}
-		} catch (InterruptedException ie) {
-			logger.info(this + " Interrupted waiting on snapshot thread exit!");
-		}
+		// Metric snapshots
+		if (metricWindow != null)
+			metricWindow.close();
 	}
 
 	@Override
 	public void run() {
 		logger.info(this + " starting scoreboard worker thread...");
 
+		// Batch of operation executions taken from the dropoff queue
+		OperationExecution[] batch = new OperationExecution[DROP_OFF_BATCH];
+
 		// Run as long as the scoreboard is not done or the dropoff queue still contains entries
 		while (running || !dropOffQ.isEmpty()) {
-			if (!dropOffQ.isEmpty()) {
+			int count = dropOffQ.drain(batch);
+
+			// Wait until an agent drops off an operation
+			if (count == 0) {
+				long now = System.currentTimeMillis();
+				metricWindow.roll(now);
+				rollIntervals(now);
+				publishLiveSnapshot(now, false);
+				dropOffQ.await(1000 * 1000 * 1000);
+				continue;
+			}
 
-				// Queue swap (dropOffQ with processingQ)
-				synchronized (swapDropoffQueueLock) {
-					List<OperationExecution> temp = processingQ;
-					processingQ = dropOffQ;
-					dropOffQ = temp;
+			// Process all entries of the batch
+			for (int i = 0; i < count; i++) {
+				OperationExecution result = batch[i];
+				batch[i] = null;
+				TraceLabels traceLabel = result.getTraceLabel();
+
+				// Live statistics include all operations
+				if (result.failed) {
+					liveOpsFailed++;
+				} else {
+					liveOpsSuccessful++;
+					liveResponseTime.record(result.getResponseTime() / 1000);
 				}
 
-				// Process all entries in the working queue
-				while (!processingQ.isEmpty()) {
-					OperationExecution result = processingQ.remove(0);
-					TraceLabels traceLabel = result.getTraceLabel();
-
-					// Process this operation by its label
-					switch (traceLabel) {
-					case STEADY_STATE_TRACE_LABEL:
-						processSteadyStateResult(result);
-						break;
-					case LATE_LABEL:
-						processLateStateResult(result);
-						break;
-					default:
-						// Not processed
-						break;
-					}
-				}
-			} else {
-				// Wait some time, until the dropOffQ fills up
-				try {
-					Thread.sleep(1000);
-				} catch (InterruptedException tie) {
-					logger.info(this + " worker thread interrupted.");
+				// Process this operation by its label
+				switch (traceLabel) {
+				case STEADY_STATE_TRACE_LABEL:
+					processSteadyStateResult(result);
+					break;
+				case LATE_LABEL:
+					processLateStateResult(result);
+					break;
+				default:
+					// Not processed
+					break;
 				}
 			}
+
+			long now = System.currentTimeMillis();
+			rollIntervals(now);
+			publishLiveSnapshot(now, false);
 		}
 
+		// Seal the intervals which are still open
+		if (intervals != null)
+			intervals.sealAll();
+
+		// Final live snapshot
+		publishLiveSnapshot(System.currentTimeMillis(), true);
+
 		// Debugging
-		logger.debug(this + " drop off queue size (should be 0): " + dropOffQ.size());
-		logger.debug(this + " processing queue size (should be 0): " + processingQ.size());
+		logger.debug(this + " drop off queue empty (should be true): " + dropOffQ.isEmpty());
 		logger.debug(this + " worker thread finished!");
 	}
 
+	private void publishLiveSnapshot(long now, boolean force) {
+		if (!force && now - lastLivePublish < LIVE_INTERVAL)
+			return;
+
+		lastLivePublish = now;
+		liveSnapshot = new LiveSnapshot(targetId, now, liveOpsSuccessful, liveOpsFailed, liveResponseTime.copy());
+	}
+
+	private void rollIntervals(long now) {
+		if (intervals != null)
+			intervals.roll(now);
+	}
+
 	private void processLateStateResult(OperationExecution result) {
 		scorecard.processLateOperation(result);
+		if (intervals != null)
+			intervals.processLateOperation(result);
 	}
 
 	private void processSteadyStateResult(OperationExecution result) {
 		// Process statistics
 		scorecard.processResult(result);
+		if (intervals != null)
+			intervals.processResult(result);
 
 		// If interactive, look at the total response time.
 		if (!result.failed)
@@ -274,26 +347,21 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 	}
 
 	private void issueMetricSnapshot(OperationExecution result) {
-		// If snapshot thread doesn't exist
-		if (metricWriter == null)
-			return;
-
-		long responseTime = result.getExecutionTime();
-
-		// Transferable stat object
-		ResponseTimeStat responseTimeStat = new ResponseTimeStat(result.timeFinished, responseTime, scorecard
-				.getTotalOpResponseTime(), scorecard.getTotalOpsSuccessful(), result.operationName,
-				result.operationRequest, targetId);
-
-		// Accept stat object
-		metricWriter.accept(responseTimeStat);
+		// Update the current window in place
+		metricWindow.accept(result.timeFinished, result.getExecutionTime(), scorecard.getTotalOpResponseTime(),
+				scorecard.getTotalOpsSuccessful());
 	}
 
 	@Override
 	public JSONObject getStatistics() throws JSONException {
+		// Dropoff statistics (wait times are recorded in nanoseconds, reported in milliseconds)
+		long totalDropoffs = dropOffQ.getTotalDropoffs();
+		double totalDropOffWaitTime = toMillis(dropOffQ.getTotalWaitTime());
+		double maxDropOffWaitTime = toMillis(dropOffQ.getMaxWaitTime());
+
 		double averageDropOffQTime = 0;
 		if (totalDropoffs > 0)
-			averageDropOffQTime = (double) totalDropOffWaitTime / (double) totalDropoffs;
+			averageDropOffQTime = totalDropOffWaitTime / (double) totalDropoffs;
 
 		// Results
 		JSONObject result = new JSONObject();
@@ -305,12 +373,19 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 		result.put("total_dropoffs", totalDropoffs);
 		result.put("average_drop_off_q_time", averageDropOffQTime);
 		result.put("max_drop_off_q_time", maxDropOffWaitTime);
+		result.put("drop_off_q_shards", dropOffQ.getShardCount());
+		result.put("drop_off_q_full_waits", dropOffQ.getFullWaits());
 
 		// Add final scorecard statistics
 		result.put("final_scorecard", scorecard.getSummarizedStatistics(timing.steadyStateDuration()));
+		if (intervals != null)
+			result.put("interval_scorecards", intervals.getStatistics());
 
 		// Add other statistics
 		result.put("wait_stats", getWaitTimeStatistics());
+		result.put("scheduling_lag", schedulingLag.getStatistics());
+		result.put("async_executor", asyncState.getStatistics());
+		result.put("connection_pool", connectionPool.getStatistics());
 
 		return result;
 	}
@@ -328,6 +403,10 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 				// Wait time summary for the operation
 				WaitTimeSummary waitSummary = waitTimeMap.get(operationName);
 
+				// Open loop arrivals have no wait times
+				if (waitSummary == null)
+					continue;
+
 				// Print out the operation summary.
 				JSONObject wait = waitSummary.getStatistics();
 				wait.put("operation_name", operationName);
@@ -338,6 +417,27 @@ public class Scoreboard extends Thread implements Runnable, IScoreboard {
 		return result;
 	}
 
+	private static double toMillis(long nanos) {
+		return nanos / 1000000d;
+	}
+
+	@Override
+	public LiveSnapshot getLiveSnapshot() {
+		return liveSnapshot;
+	}
+
+	@Override
+	public List<IntervalSummary> getIntervalSummaries() {
+		if (intervals == null)
+			return Collections.emptyList();
+		return intervals.getSealed();
+	}
+
+	@Override
+	public long getDropOffQueueDepth() {
+		return dropOffQ.getDepth();
+	}
+
 	@Override
 	public Scorecard getScorecard() {
 		return scorecard;
@@ -1,5 +1,8 @@
 package radlab.rain.scoreboard;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
@@ -154,6 +157,44 @@ public class Scorecard {
 		}
 	}
 
+	void write(DataOutput out) throws IOException {
+		Varints.writeSigned(out, targetId);
+		Varints.writeSigned(out, intervalDuration);
+		out.writeBoolean(aggregationIdentifier != null);
+		if (aggregationIdentifier != null)
+			out.writeUTF(aggregationIdentifier);
+
+		Varints.writeUnsigned(out, totalOpsInitiated);
+		Varints.writeUnsigned(out, totalOpsLate);
+		summary.write(out);
+
+		synchronized (operationSummaryMap) {
+			Varints.writeUnsigned(out, operationSummaryMap.size());
+			for (Map.Entry<String, OperationSummary> entry : operationSummaryMap.entrySet()) {
+				out.writeUTF(entry.getKey());
+				entry.getValue().write(out);
+			}
+		}
+	}
+
+	static Scorecard read(DataInput in) throws IOException {
+		long targetId = Varints.readSigned(in);
+		long intervalDuration = Varints.readSigned(in);
+		String aggregationIdentifier = in.readBoolean() ? in.readUTF() : null;
+
+		Scorecard scorecard = new Scorecard(targetId, intervalDuration, aggregationIdentifier);
+		scorecard.totalOpsInitiated = Varints.readUnsigned(in);
+		scorecard.totalOpsLate = Varints.readUnsigned(in);
+		scorecard.summary = OperationSummary.read(in);
+
+		int operations = Varints.readLength(in);
+		for (int i = 0; i < operations; i++) {
+			String operationName = in.readUTF();
+			scorecard.operationSummaryMap.put(operationName, OperationSummary.read(in));
+		}
+		return scorecard;
+	}
+
 	String getAggregationIdentifier() {
 		return aggregationIdentifier;
 	}
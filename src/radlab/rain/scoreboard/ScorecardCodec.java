@@ -0,0 +1,95 @@
+package radlab.rain.scoreboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binary encoding of scorecards. Encoded scorecards keep all mergeable state (counters, histograms and response time
+ * samples), so scorecards of multiple drivers or runs can be merged later with the same results as if all targets ran
+ * on one driver.
+ *
+ * Layout: magic, version and the number of scorecards, followed by the scorecards. Integral values are stored as
+ * varints, histograms only contain non empty buckets with delta encoded indices and samples are sorted and delta
+ * encoded. The same layout is used for scorecard files and the thrift service.
+ */
+public final class ScorecardCodec {
+
+	// Header of encoded scorecards
+	private static final int MAGIC = 0x5241494E;
+	private static final int VERSION = 2;
+
+	private ScorecardCodec() {
+	}
+
+	public static byte[] encode(Collection<Scorecard> scorecards) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			write(buffer, scorecards);
+			return buffer.toByteArray();
+		} catch (IOException e) {
+			// Not thrown by in-memory streams
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static List<Scorecard> decode(byte[] data) throws IOException {
+		return read(new ByteArrayInputStream(data));
+	}
+
+	public static void write(OutputStream stream, Collection<Scorecard> scorecards) throws IOException {
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		Varints.writeUnsigned(out, scorecards.size());
+		for (Scorecard scorecard : scorecards)
+			scorecard.write(out);
+		out.flush();
+	}
+
+	public static List<Scorecard> read(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		if (in.readInt() != MAGIC)
+			throw new IOException("not an encoded scorecard");
+
+		int version = in.readByte();
+		if (version != VERSION)
+			throw new IOException("unsupported scorecard version " + version);
+
+		int count = Varints.readLength(in);
+		List<Scorecard> scorecards = new ArrayList<Scorecard>();
+		for (int i = 0; i < count; i++)
+			scorecards.add(Scorecard.read(in));
+		return scorecards;
+	}
+
+	public static void writeFile(File file, Collection<Scorecard> scorecards) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			write(out, scorecards);
+		} finally {
+			out.close();
+		}
+	}
+
+	public static List<Scorecard> readFile(File file) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return read(in);
+		} finally {
+			in.close();
+		}
+	}
+}
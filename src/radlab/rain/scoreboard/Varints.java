@@ -0,0 +1,50 @@
+package radlab.rain.scoreboard;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable length encoding of the scorecard codec (7 bits per byte, little endian). Signed values are zig-zag encoded
+ * first so that small negative values stay short.
+ */
+final class Varints {
+
+	private Varints() {
+	}
+
+	static void writeUnsigned(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static long readUnsigned(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("varint too long");
+	}
+
+	static void writeSigned(DataOutput out, long value) throws IOException {
+		writeUnsigned(out, (value << 1) ^ (value >> 63));
+	}
+
+	static long readSigned(DataInput in) throws IOException {
+		long value = readUnsigned(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static int readLength(DataInput in) throws IOException {
+		long length = readUnsigned(in);
+		if (length > Integer.MAX_VALUE)
+			throw new IOException("invalid length " + length);
+		return (int) length;
+	}
+}
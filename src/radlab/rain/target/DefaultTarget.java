@@ -31,13 +31,13 @@
 
 package radlab.rain.target;
 
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.log4j.Logger;
 import org.json.JSONArray;
@@ -45,9 +45,13 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import radlab.rain.BenchmarkFailedException;
+import radlab.rain.RainConfig;
 import radlab.rain.Timing;
+import radlab.rain.agent.ArrivalDispatcher;
+import radlab.rain.agent.AsyncExecutor;
 import radlab.rain.agent.IAgent;
 import radlab.rain.agent.IAgentFactory;
+import radlab.rain.agent.ScheduledAgentFactory;
 import radlab.rain.load.LoadDefinition;
 import radlab.rain.load.LoadManager;
 import radlab.rain.load.LoadSchedule;
@@ -56,6 +60,7 @@ import radlab.rain.operation.Generator;
 import radlab.rain.operation.IGeneratorFactory;
 import radlab.rain.scoreboard.IScoreboard;
 import radlab.rain.scoreboard.Scoreboard;
+import radlab.rain.util.HttpConnectionPool;
 
 public abstract class DefaultTarget extends Thread implements ITarget {
 	// Logger
@@ -96,11 +101,23 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 	// Agent factory
 	protected IAgentFactory agentFactory;
 
+	// Simulate users with scheduled agents instead of the agents of the agent factory
+	protected boolean scheduledAgents = false;
+
 	// Execution times
 	protected double openLoopProbability = 0d;
 	protected double meanCycleTime = 0;
 	protected double meanThinkTime = 0;
 
+	// Async executor
+	protected int asyncThreads = 200;
+	protected int asyncQueueCapacity = 1000;
+	protected String asyncOverloadPolicy = "drop";
+
+	// HTTP routes of the target (URL to max connections, 0 keeps the default), the scoreboard receives their lease
+	// statistics
+	protected Map<String, Integer> httpRoutes = new HashMap<String, Integer>();
+
 	// Sampling
 	protected double metricSnapshotInterval = 60.0;
 	protected long meanResponseTimeSamplingInterval = 500;
@@ -108,8 +125,11 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 	// List of all load generating units
 	protected List<IAgent> agents = new ArrayList<IAgent>();
 
-	// Executer thread pool
-	protected ExecutorService executor;
+	// Pool for asynchronous operations of all agents
+	protected AsyncExecutor asyncExecutor;
+
+	// Time to wait for outstanding asynchronous operations after all agents joined
+	private static final long ASYNC_DRAIN_TIMEOUT = 10000;
 
 	/*
 	 * Abstract methods
@@ -128,6 +148,11 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 		// Create load schedule creator and load schedule
 		try {
 			loadSchedule = loadScheduleFactory.createSchedule(timing);
+
+			// Users are split across drivers
+			RainConfig config = RainConfig.getInstance();
+			if (config.driverCount > 1)
+				loadSchedule = loadSchedule.share(config.driverIndex, config.driverCount);
 		} catch (JSONException e) {
 			throw new BenchmarkFailedException("Error while configuring target load schedule", e);
 		}
@@ -138,25 +163,52 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 		// Create a new load manager
 		loadManager = new LoadManager(id, timing, loadSchedule, mixMatrices.keySet());
 
-		// Create a new thread pool
-		executor = Executors.newCachedThreadPool();
+		// Create the async executor
+		asyncExecutor = new AsyncExecutor(id, asyncThreads, asyncQueueCapacity,
+				AsyncExecutor.OverloadPolicy.valueOf(asyncOverloadPolicy.toUpperCase()));
+		asyncExecutor.setScoreboard(scoreboard);
+
+		// Connection pool limits and statistics of the target routes
+		for (Map.Entry<String, Integer> route : httpRoutes.entrySet()) {
+			URI uri;
+			try {
+				uri = new URI(route.getKey());
+			} catch (URISyntaxException e) {
+				throw new BenchmarkFailedException("Invalid HTTP route " + route.getKey(), e);
+			}
+			if (uri.getHost() == null)
+				throw new BenchmarkFailedException("HTTP route without host: " + route.getKey());
+
+			HttpConnectionPool.getInstance().configureRoute(uri.getScheme(), uri.getHost(), uri.getPort(),
+					route.getValue(), scoreboard);
+		}
 	}
 
 	protected void init() throws BenchmarkFailedException {
 		// Do nothing
 	}
 
-	private void createAgents(ExecutorService executor) throws Exception {
+	private Generator createGenerator() {
+		Generator generator = generatorFactory.createGenerator();
+		generator.setMeanCycleTime((long) (meanCycleTime * 1000));
+		generator.setMeanThinkTime((long) (meanThinkTime * 1000));
+		generator.initialize();
+		return generator;
+	}
+
+	private void createAgents(AsyncExecutor asyncExecutor) throws Exception {
 		// Determine maximum number of required lg units that are required by the schedule
 		long maxAgents = loadSchedule.getMaxAgents();
 
+		// Scheduled agents share the agent scheduler instead of running one thread each
+		IAgentFactory agentFactory = this.agentFactory;
+		if (scheduledAgents)
+			agentFactory = new ScheduledAgentFactory(openLoopProbability);
+
 		// Create all agents
 		for (int i = 0; i < maxAgents; i++) {
 			// Setup generator for each agent
-			Generator generator = generatorFactory.createGenerator();
-			generator.setMeanCycleTime((long) (meanCycleTime * 1000));
-			generator.setMeanThinkTime((long) (meanThinkTime * 1000));
-			generator.initialize();
+			Generator generator = createGenerator();
 
 			// Allow the load generation strategy to be configurable
 			IAgent agent = agentFactory.createAgent(this.id, i);
@@ -164,15 +216,27 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 			agent.setGenerator(generator);
 			agent.setTiming(timing);
 			agent.setScoreboard(scoreboard);
+			agent.setAsyncExecutor(asyncExecutor);
 
 			// Add thread to thread list and start the thread
 			agents.add(agent);
 		}
+
+		// Open loop arrivals are issued by a single dispatcher
+		if (loadSchedule.hasOpenLoop()) {
+			IAgent dispatcher = new ArrivalDispatcher(this.id);
+			dispatcher.setLoadManager(loadManager);
+			dispatcher.setGenerator(createGenerator());
+			dispatcher.setTiming(timing);
+			dispatcher.setScoreboard(scoreboard);
+			dispatcher.setAsyncExecutor(asyncExecutor);
+			agents.add(dispatcher);
+		}
 	}
 
 	private void createAgents() {
 		try {
-			createAgents(executor);
+			createAgents(asyncExecutor);
 			logger.debug("Agents created: " + agents.size());
 		} catch (Exception e) {
 			logger.error("Could not create agents", e);
@@ -221,6 +285,17 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 		}
 
 		logger.info("All agents joined for target " + getId());
+
+		// Wait for outstanding asynchronous operations
+		try {
+			if (!asyncExecutor.shutdown(ASYNC_DRAIN_TIMEOUT))
+				logger.warn("Async operations still running after " + ASYNC_DRAIN_TIMEOUT + "ms for target " + id);
+		} catch (InterruptedException e) {
+			logger.error("Interrupted while waiting for async operations");
+		}
+
+		logger.info("Async executor of target " + id + " - submitted: " + asyncExecutor.getSubmitted()
+				+ " rejected: " + asyncExecutor.getRejected() + " blocked: " + asyncExecutor.getBlocked());
 	}
 
 	public void run() {
@@ -321,10 +396,16 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 		disposeAgents();
 		logger.info("Agents disposed");
 
+		// Stop async operations which did not finish
+		asyncExecutor.shutdownNow();
+
 		// Shutdown load manager thread
 		disposeLoadManager();
 		logger.info("Load manager disposed");
 
+		// Stop recording connection leases
+		HttpConnectionPool.getInstance().releaseRoutes(scoreboard);
+
 		// Stop the scoreboard
 		scoreboard.dispose();
 		logger.info("Scoreboard disposed");
@@ -343,6 +424,38 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 		if (config.has("meanThinkTime"))
 			meanThinkTime = config.getDouble("meanThinkTime");
 
+		// Agents
+		if (config.has("scheduledAgents"))
+			scheduledAgents = config.getBoolean("scheduledAgents");
+
+		// Async executor
+		if (config.has("asyncThreads"))
+			asyncThreads = config.getInt("asyncThreads");
+
+		if (config.has("asyncQueueCapacity"))
+			asyncQueueCapacity = config.getInt("asyncQueueCapacity");
+
+		if (config.has("asyncOverloadPolicy"))
+			asyncOverloadPolicy = config.getString("asyncOverloadPolicy");
+
+		// HTTP routes, e.g. [ { "url": "http://host:8080", "maxConnections": 50 } ]
+		if (config.has("httpRoutes")) {
+			JSONArray routes = config.getJSONArray("httpRoutes");
+			for (int i = 0; i < routes.length(); i++) {
+				JSONObject route = routes.getJSONObject(i);
+				httpRoutes.put(route.getString("url"), route.optInt("maxConnections", 0));
+			}
+		}
+
+		// Route of the target host, e.g. "host:8080" or "https://host"
+		if (config.has("baseUrl")) {
+			String baseUrl = config.getString("baseUrl");
+			if (!baseUrl.contains("://"))
+				baseUrl = "http://" + baseUrl;
+			if (!httpRoutes.containsKey(baseUrl))
+				httpRoutes.put(baseUrl, 0);
+		}
+
 		// Load Mix Matrices/Behavior Directives
 		if (config.has("behavior")) {
 			JSONObject behavior = config.getJSONObject("behavior");
@@ -390,6 +503,13 @@ public abstract class DefaultTarget extends Thread implements ITarget {
 		return scoreboard;
 	}
 
+	public long getActiveUsers() {
+		LoadManager loadManager = this.loadManager;
+		if (loadManager == null)
+			return 0;
+		return loadManager.getActivation().getActiveUsers();
+	}
+
 	public void setLoadScheduleFactory(LoadScheduleFactory loadScheduleFactory) {
 		this.loadScheduleFactory = loadScheduleFactory;
 	}
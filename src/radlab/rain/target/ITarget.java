@@ -22,6 +22,9 @@ public interface ITarget extends Runnable {
 	// Get statistics for this target
 	IScoreboard getScoreboard();
 
+	// Number of currently active users
+	long getActiveUsers();
+
 	// Statistics aggregation identifier
 	String getAggregationIdentifier();
 
@@ -31,8 +31,12 @@
 
 package radlab.rain.target;
 
+import java.util.Random;
+
 import org.apache.log4j.Logger;
 
+import radlab.rain.util.AliasTable;
+
 public class MixMatrix {
 	private static Logger logger = Logger.getLogger(MixMatrix.class);
 
@@ -40,15 +44,20 @@ public class MixMatrix {
 	private double[][] mix;
 	private double[][] selectionMix = null;
 
+	// Alias table of each row for constant time transitions (null if the row has no transitions)
+	private AliasTable[] transitions;
+
 	public MixMatrix() {
 		normalize();
 		createSelectionMatrix();
+		createTransitions();
 	}
 
 	public MixMatrix(double[][] mix) {
 		this.mix = mix;
 		normalize();
 		createSelectionMatrix();
+		createTransitions();
 	}
 
 	public boolean isSelectionMixAvailable() {
@@ -85,6 +94,36 @@ public class MixMatrix {
 		}
 	}
 
+	private void createTransitions() {
+		transitions = new AliasTable[mix.length];
+		for (int i = 0; i < mix.length; i++) {
+			boolean reachable = false;
+			for (int j = 0; j < mix[i].length; j++)
+				reachable |= mix[i][j] > 0;
+
+			if (reachable)
+				transitions[i] = new AliasTable(mix[i]);
+		}
+	}
+
+	/**
+	 * Chooses the next state of the Markov chain in constant time (thread local RNG)
+	 */
+	public int nextState(int currentState) {
+		return transitions(currentState).sample();
+	}
+
+	public int nextState(int currentState, Random random) {
+		return transitions(currentState).sample(random);
+	}
+
+	private AliasTable transitions(int state) {
+		AliasTable table = transitions[state];
+		if (table == null)
+			throw new IllegalStateException("No transitions from state " + state);
+		return table;
+	}
+
 	public double[][] getSelectionMix() {
 		return selectionMix;
 	}
@@ -0,0 +1,110 @@
+package radlab.rain.util;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples from a discrete distribution in constant time using the alias method (Vose's construction). Each of the n
+ * columns holds the probability of its own index and an alias index which receives the remaining probability mass of
+ * the column. A sample picks a column uniformly and decides between the column and its alias with one comparison.
+ *
+ * Construction takes O(n) time and two primitive arrays. Tables are immutable and can be shared between threads, the
+ * default RNG is thread local.
+ */
+public final class AliasTable {
+
+	// Scale of the acceptance thresholds
+	private static final double THRESHOLD_SCALE = 1L << 31;
+
+	// Column entries: threshold for choosing the column itself instead of its alias (upper 32 bits) and alias index
+	// (lower 32 bits). One array keeps a sample at one cache miss for large tables.
+	private final long[] columns;
+
+	/**
+	 * @param weights
+	 *            Non negative weights, need not be normalized
+	 */
+	public AliasTable(double[] weights) {
+		int n = weights.length;
+		if (n == 0)
+			throw new IllegalArgumentException("no weights");
+
+		double sum = 0;
+		for (int i = 0; i < n; i++) {
+			if (weights[i] < 0 || Double.isNaN(weights[i]) || Double.isInfinite(weights[i]))
+				throw new IllegalArgumentException("invalid weight " + weights[i] + " at " + i);
+			sum += weights[i];
+		}
+		if (sum <= 0)
+			throw new IllegalArgumentException("weights sum up to zero");
+
+		double[] probability = new double[n];
+		int[] alias = new int[n];
+
+		// Scaled probabilities, the average column holds exactly 1
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = weights[i] * n / sum;
+			if (scaled[i] < 1)
+				small[smallCount++] = i;
+			else
+				large[largeCount++] = i;
+		}
+
+		// Fill each small column with mass of a large one
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+
+			probability[less] = scaled[less];
+			alias[less] = more;
+
+			scaled[more] = (scaled[more] + scaled[less]) - 1;
+			if (scaled[more] < 1)
+				small[smallCount++] = more;
+			else
+				large[largeCount++] = more;
+		}
+
+		// Remaining columns are full (up to rounding errors)
+		while (largeCount > 0) {
+			int i = large[--largeCount];
+			probability[i] = 1;
+			alias[i] = i;
+		}
+		while (smallCount > 0) {
+			int i = small[--smallCount];
+			probability[i] = 1;
+			alias[i] = i;
+		}
+
+		columns = new long[n];
+		for (int i = 0; i < n; i++) {
+			long threshold = (long) Math.ceil(probability[i] * THRESHOLD_SCALE);
+			columns[i] = (threshold << 32) | (alias[i] & 0xFFFFFFFFL);
+		}
+	}
+
+	/**
+	 * Samples an index with the thread local RNG
+	 */
+	public int sample() {
+		return sample(ThreadLocalRandom.current());
+	}
+
+	public int sample(Random random) {
+		// One uniform number selects the column (integer part) and decides on the alias (fraction)
+		double u = random.nextDouble() * columns.length;
+		int column = Math.min((int) u, columns.length - 1);
+		long entry = columns[column];
+		return (long) ((u - column) * THRESHOLD_SCALE) < (entry >>> 32) ? column : (int) entry;
+	}
+
+	public int size() {
+		return columns.length;
+	}
+}
@@ -0,0 +1,262 @@
+package radlab.rain.util;
+
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.log4j.Logger;
+
+import radlab.rain.IShutdown;
+import radlab.rain.RainConfig;
+import radlab.rain.scoreboard.IScoreboard;
+
+/**
+ * Connection pool shared by all {@link HttpTransport}s of the JVM. Connections are kept alive and reused across agents,
+ * idle connections are closed by a background thread. All HTTPS connections are created from one SSL context so that
+ * TLS sessions are resumed instead of negotiated for every new connection.
+ *
+ * Targets set the connection limit of their routes and receive the lease statistics (connection reuse and time spent
+ * waiting for a connection) of these routes.
+ */
+public class HttpConnectionPool implements IShutdown {
+	private static Logger logger = Logger.getLogger(HttpConnectionPool.class);
+
+	private static Object lock = new Object();
+	private static HttpConnectionPool singleton;
+
+	// Maximum interval of the idle connection checks
+	private static final long EVICT_INTERVAL = 5000;
+
+	private final SSLSocketFactory sslSocketFactory;
+	private final LeaseTrackingManager connectionManager;
+	private final long idleTimeout;
+	private final Thread evictor;
+
+	// Lease statistics of all routes
+	private final AtomicLong leases = new AtomicLong();
+	private final AtomicLong reusedLeases = new AtomicLong();
+	private final AtomicLong leaseWaitTime = new AtomicLong();
+
+	/**
+	 * Connection manager which records for each lease if a pooled connection was reused and how long the lease took
+	 */
+	private class LeaseTrackingManager extends ThreadSafeClientConnManager {
+		LeaseTrackingManager(SchemeRegistry registry) {
+			super(registry);
+		}
+
+		@Override
+		protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+			return new TimedConnectionOperator(registry);
+		}
+
+		@Override
+		public ClientConnectionRequest requestConnection(final HttpRoute route, Object state) {
+			final ClientConnectionRequest request = super.requestConnection(route, state);
+			return new ClientConnectionRequest() {
+				@Override
+				public ManagedClientConnection getConnection(long timeout, TimeUnit unit) throws InterruptedException,
+						ConnectionPoolTimeoutException {
+					long start = System.nanoTime();
+					ManagedClientConnection connection = request.getConnection(timeout, unit);
+
+					// Pooled connections are still open
+					leased(route, connection.isOpen(), System.nanoTime() - start);
+					return connection;
+				}
+
+				@Override
+				public void abortRequest() {
+					request.abortRequest();
+				}
+			};
+		}
+	}
+
+	/**
+	 * @param maxTotal
+	 *            Maximum number of connections, 0 for no limit
+	 * @param maxPerRoute
+	 *            Maximum number of connections to one host and port, 0 for no limit
+	 * @param idleTimeout
+	 *            Time after which idle connections are closed
+	 */
+	public HttpConnectionPool(int maxTotal, int maxPerRoute, long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+		SSLContext sslContext = createSSLContext();
+		this.sslSocketFactory = new SSLSocketFactory(sslContext, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
+
+		// Socket factories record connect and TLS handshake times
+		SchemeRegistry registry = new SchemeRegistry();
+		registry.register(new Scheme("http", 80, new TimedSocketFactory()));
+		registry.register(new Scheme("https", 443, new TimedSSLSocketFactory(sslContext, sslSocketFactory)));
+
+		connectionManager = new LeaseTrackingManager(registry);
+		connectionManager.setMaxTotal(limit(maxTotal));
+		connectionManager.setDefaultMaxPerRoute(limit(maxPerRoute));
+
+		evictor = new Thread("HttpConnectionEvictor") {
+			public void run() {
+				long interval = Math.max(1, Math.min(EVICT_INTERVAL, HttpConnectionPool.this.idleTimeout));
+				try {
+					while (!isInterrupted()) {
+						Thread.sleep(interval);
+						connectionManager.closeExpiredConnections();
+						connectionManager.closeIdleConnections(HttpConnectionPool.this.idleTimeout, TimeUnit.MILLISECONDS);
+					}
+				} catch (InterruptedException e) {
+					// Pool shut down
+				}
+			}
+		};
+		evictor.setDaemon(true);
+		evictor.start();
+	}
+
+	private static int limit(int max) {
+		return max > 0 ? max : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Pool shared by the whole JVM
+	 */
+	public static HttpConnectionPool getInstance() {
+		synchronized (lock) {
+			if (HttpConnectionPool.singleton == null) {
+				RainConfig config = RainConfig.getInstance();
+				HttpConnectionPool.singleton = new HttpConnectionPool(config.httpMaxTotalConnections,
+						config.httpMaxConnectionsPerRoute, config.httpIdleTimeout);
+
+				// Register for shutdown
+				config.register(HttpConnectionPool.singleton);
+			}
+		}
+
+		return HttpConnectionPool.singleton;
+	}
+
+	/**
+	 * Creates an SSL context which accepts all certificates
+	 */
+	private static SSLContext createSSLContext() {
+		try {
+			SSLContext context = SSLContext.getInstance("TLS");
+			X509TrustManager trustAll = new X509TrustManager() {
+				public void checkClientTrusted(X509Certificate[] xcs, String string) throws CertificateException {
+				}
+
+				public void checkServerTrusted(X509Certificate[] xcs, String string) throws CertificateException {
+				}
+
+				public X509Certificate[] getAcceptedIssuers() {
+					return null;
+				}
+			};
+			context.init(null, new TrustManager[] { trustAll }, null);
+			return context;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not create SSL context", e);
+		}
+	}
+
+	/**
+	 * Sets the connection limit of a route (0 keeps the default) and sends its lease statistics to the scoreboard
+	 * (optional). A route which is configured by multiple targets reports to the last one.
+	 */
+	public void configureRoute(String scheme, String host, int port, int maxConnections, IScoreboard scoreboard) {
+		Scheme registered = connectionManager.getSchemeRegistry().getScheme(scheme);
+		port = registered.resolvePort(port);
+		boolean secure = registered.isLayered();
+
+		if (maxConnections > 0) {
+			connectionManager.setMaxForRoute(new HttpRoute(new HttpHost(host, port, scheme), null, secure),
+					maxConnections);
+
+			// URLs without a port result in routes without a port
+			if (port == registered.getDefaultPort())
+				connectionManager.setMaxForRoute(new HttpRoute(new HttpHost(host, -1, scheme), null, secure),
+						maxConnections);
+		}
+
+		if (scoreboard != null)
+			HttpRouteScoreboards.register(scheme, host, port, scoreboard);
+
+		logger.info("Configured route " + HttpRouteScoreboards.routeKey(scheme, host, port) + " max connections: "
+				+ maxConnections);
+	}
+
+	/**
+	 * Stops sending lease statistics to the scoreboard
+	 */
+	public void releaseRoutes(IScoreboard scoreboard) {
+		HttpRouteScoreboards.release(scoreboard);
+	}
+
+	private void leased(HttpRoute route, boolean reused, long waitTime) {
+		leases.incrementAndGet();
+		if (reused)
+			reusedLeases.incrementAndGet();
+		leaseWaitTime.addAndGet(waitTime);
+
+		HttpHost target = route.getTargetHost();
+		Scheme scheme = connectionManager.getSchemeRegistry().getScheme(target);
+		HttpRouteScoreboards.leased(target.getSchemeName(), target.getHostName(), scheme.resolvePort(target.getPort()),
+				reused, waitTime);
+	}
+
+	public ClientConnectionManager getConnectionManager() {
+		return connectionManager;
+	}
+
+	public SSLSocketFactory getSSLSocketFactory() {
+		return sslSocketFactory;
+	}
+
+	public int getConnectionsInPool() {
+		return connectionManager.getConnectionsInPool();
+	}
+
+	public long getLeases() {
+		return leases.get();
+	}
+
+	public long getReusedLeases() {
+		return reusedLeases.get();
+	}
+
+	/**
+	 * Total time spent waiting for connections in nanoseconds
+	 */
+	public long getLeaseWaitTime() {
+		return leaseWaitTime.get();
+	}
+
+	@Override
+	public void shutdown() {
+		logger.info("Shutting down HTTP connection pool, leases: " + leases.get() + " reused: " + reusedLeases.get());
+		evictor.interrupt();
+		connectionManager.shutdown();
+	}
+
+	@Override
+	public String getName() {
+		return "HttpConnectionPool";
+	}
+}
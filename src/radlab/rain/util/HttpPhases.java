@@ -0,0 +1,99 @@
+package radlab.rain.util;
+
+/**
+ * Records where the time of the HTTP requests of an operation is spent. The recording is bound to the thread executing
+ * the operation: {@link radlab.rain.operation.Operation} starts it before and ends it after the execution, the HTTP
+ * transport and the connection pool add the time of each phase. Times of all requests of the operation are summed up.
+ */
+public final class HttpPhases {
+
+	public enum Phase {
+		// Host name resolution of new connections
+		DNS("dns"),
+
+		// TCP connect of new connections
+		CONNECT("connect"),
+
+		// TLS handshake of new connections
+		TLS("tls"),
+
+		// Request sent until the response headers of the final response arrived
+		FIRST_BYTE("first_byte"),
+
+		// Reading the body of the final response
+		BODY("body"),
+
+		// Requests and responses of redirect hops (without their connection setup)
+		REDIRECT("redirect");
+
+		private final String label;
+
+		private Phase(String label) {
+			this.label = label;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	// Number of phases
+	public static final int PHASES = Phase.values().length;
+
+	private static class Recording {
+		final long[] times = new long[PHASES];
+		boolean active = false;
+		boolean recorded = false;
+	}
+
+	private static final ThreadLocal<Recording> recording = new ThreadLocal<Recording>() {
+		protected Recording initialValue() {
+			return new Recording();
+		}
+	};
+
+	private HttpPhases() {
+	}
+
+	/**
+	 * Starts recording on the current thread
+	 */
+	public static void begin() {
+		Recording r = recording.get();
+		for (int i = 0; i < PHASES; i++)
+			r.times[i] = 0;
+		r.active = true;
+		r.recorded = false;
+	}
+
+	/**
+	 * Adds time to a phase, ignored if no recording is active
+	 */
+	public static void add(Phase phase, long nanos) {
+		Recording r = recording.get();
+		if (!r.active)
+			return;
+
+		r.times[phase.ordinal()] += nanos;
+		r.recorded = true;
+	}
+
+	/**
+	 * Time spent on setting up connections (DNS, connect and TLS) since the recording started
+	 */
+	public static long connectionSetup() {
+		long[] times = recording.get().times;
+		return times[Phase.DNS.ordinal()] + times[Phase.CONNECT.ordinal()] + times[Phase.TLS.ordinal()];
+	}
+
+	/**
+	 * Stops recording on the current thread
+	 * 
+	 * @return Nanoseconds per phase (indexed by ordinal) or null if no HTTP request was executed
+	 */
+	public static long[] end() {
+		Recording r = recording.get();
+		r.active = false;
+		return r.recorded ? r.times.clone() : null;
+	}
+}
@@ -0,0 +1,54 @@
+package radlab.rain.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import radlab.rain.scoreboard.IScoreboard;
+
+/**
+ * Scoreboards which receive the connection lease statistics (connection reuse and time spent waiting for a connection)
+ * of an HTTP route. Shared by the {@link HttpConnectionPool} and the {@link NioHttpClient}, targets register the
+ * routes they use.
+ */
+public final class HttpRouteScoreboards {
+
+	private static final Map<String, IScoreboard> scoreboards = new ConcurrentHashMap<String, IScoreboard>();
+
+	private HttpRouteScoreboards() {
+	}
+
+	/**
+	 * Sends the lease statistics of the route to the scoreboard. A route which is registered by multiple targets
+	 * reports to the last one.
+	 */
+	public static void register(String scheme, String host, int port, IScoreboard scoreboard) {
+		scoreboards.put(routeKey(scheme, host, port), scoreboard);
+	}
+
+	/**
+	 * Stops sending lease statistics to the scoreboard
+	 */
+	public static void release(IScoreboard scoreboard) {
+		for (Iterator<IScoreboard> it = scoreboards.values().iterator(); it.hasNext();) {
+			if (it.next() == scoreboard)
+				it.remove();
+		}
+	}
+
+	/**
+	 * Records a connection lease of the route (port resolved), ignored if no scoreboard is registered
+	 */
+	static void leased(String scheme, String host, int port, boolean reused, long waitTime) {
+		if (scoreboards.isEmpty())
+			return;
+
+		IScoreboard scoreboard = scoreboards.get(routeKey(scheme, host, port));
+		if (scoreboard != null)
+			scoreboard.dropOffConnectionLease(System.currentTimeMillis(), reused, waitTime);
+	}
+
+	static String routeKey(String scheme, String host, int port) {
+		return scheme.toLowerCase() + "://" + host.toLowerCase() + ":" + port;
+	}
+}
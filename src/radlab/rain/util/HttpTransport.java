@@ -33,19 +33,20 @@ package radlab.rain.util;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpMessage;
@@ -59,6 +60,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.params.HttpClientParams;
 import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.params.ConnManagerParams;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.conn.ssl.SSLSocketFactory;
@@ -70,6 +72,9 @@ import org.apache.http.protocol.HTTP;
 import org.apache.http.util.EntityUtils;
 import org.apache.log4j.Logger;
 
+import radlab.rain.RainConfig;
+import radlab.rain.util.HttpPhases.Phase;
+
 /**
  * The HttpTransport class is used to issue various HTTP requests.
  */
@@ -84,6 +89,12 @@ public class HttpTransport
 		postHeaders.put( "Content-Type", "application/x-www-form-urlencoded" );
 	}
 	
+	/** Initial size of the reusable body buffers. */
+	private static final int INITIAL_BUFFER_SIZE = 16384;
+	
+	/** Body buffers larger than this are released before the next request. */
+	private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+	
 	/** The HTTP client used to make requests. */
 	private HttpClient _httpClient;
 	
@@ -109,6 +120,9 @@ public class HttpTransport
 	
 	/** HTTP client configuration: Time to wait between data packets. */
 	private int _socketIdleTimeout = 10000;
+	
+	/** HTTP client configuration: Time to wait for a pooled connection. */
+	private long _connectionLeaseTimeout = RainConfig.getInstance().httpLeaseTimeout;
 
 	/* URL where we end it if we're redirected at any point. */
 	private String _finalUrl = "";
@@ -116,6 +130,29 @@ public class HttpTransport
 	/** Turn on/off debugging/request profiling */
 	private boolean _debug = false;
 	
+	/** How the body of the next response is consumed, reset to FULL by each request. */
+	private ResponseMode _responseMode = ResponseMode.FULL;
+	
+	/** Number of body bytes decoded in PREFIX mode. */
+	private int _prefixLimit = 4096;
+	
+	/** Raw body of the last response in BYTE_BUFFER mode, grows as needed and is reused. */
+	private ByteBuffer _byteBuffer = ByteBuffer.allocate( INITIAL_BUFFER_SIZE );
+	
+	/** Decodes FULL bodies chunk by chunk from the byte buffer into the response buffer. */
+	private final CharsetDecoder _decoder = Charset.defaultCharset().newDecoder()
+			.onMalformedInput( CodingErrorAction.REPLACE ).onUnmappableCharacter( CodingErrorAction.REPLACE );
+	private final CharBuffer _charBuffer = CharBuffer.allocate( INITIAL_BUFFER_SIZE );
+	
+	/** Body bytes received by the last HTTP request executed. */
+	private long _bytesReceived = 0;
+	
+	/** Nanoseconds from sending the last request until its final response headers arrived. */
+	private long _timeToFirstByte = 0;
+	
+	/** Nanoseconds from sending the last request until its body was consumed. */
+	private long _timeToLastByte = 0;
+	
 	/**
 	 * Returns the HTTP client used to execute requests.
 	 * 
@@ -265,9 +302,99 @@ public class HttpTransport
 		this._socketIdleTimeout = val;
 	}
 	
+	/**
+	 * Returns the time to wait for a connection of the pool.
+	 * 
+	 * @return  The time to wait for a connection of the pool.
+	 */
+	public long getConnectionLeaseTimeout()
+	{
+		return this._connectionLeaseTimeout;
+	}
+	
+	/**
+	 * Sets the time to wait for a connection of the pool. Requests which do
+	 * not get a connection in time fail with a ConnectionPoolTimeoutException.
+	 * 
+	 * @param val   The new configuration.
+	 */
+	public void setConnectionLeaseTimeout( long val )
+	{
+		this._connectionLeaseTimeout = val;
+	}
+	
 	public boolean getDebug() { return this._debug; }
 	public void setDebug( boolean val ) { this._debug = val; }
 	
+	/**
+	 * Returns how response bodies are consumed.
+	 * 
+	 * @return  The current response mode.
+	 */
+	public ResponseMode getResponseMode()
+	{
+		return this._responseMode;
+	}
+	
+	/**
+	 * Sets how the body of the next response is consumed. Operations which do
+	 * not inspect the body should use DISCARD or HEADERS_ONLY. The mode applies
+	 * to one request only, the transport is shared by all operations of a
+	 * generator.
+	 * 
+	 * @param val   The new response mode.
+	 */
+	public void setResponseMode( ResponseMode val )
+	{
+		this._responseMode = val;
+	}
+	
+	public int getPrefixLimit() { return this._prefixLimit; }
+	public void setPrefixLimit( int val ) { this._prefixLimit = val; }
+	
+	/**
+	 * Returns the raw body of the last response in BYTE_BUFFER mode. The buffer
+	 * is ready for reading and is overwritten by the next request.
+	 * 
+	 * @return  The body bytes of the last response.
+	 */
+	public ByteBuffer getByteBuffer()
+	{
+		return this._byteBuffer;
+	}
+	
+	/**
+	 * Returns the number of body bytes received by the last request. The bytes
+	 * are counted in all modes but HEADERS_ONLY.
+	 * 
+	 * @return  The body size of the last response.
+	 */
+	public long getBytesReceived()
+	{
+		return this._bytesReceived;
+	}
+	
+	/**
+	 * Returns the time until the headers of the final response arrived
+	 * (including redirects).
+	 * 
+	 * @return  Time to first byte of the last request in nanoseconds.
+	 */
+	public long getTimeToFirstByte()
+	{
+		return this._timeToFirstByte;
+	}
+	
+	/**
+	 * Returns the time until the body of the final response was consumed.
+	 * 
+	 * @return  Time to last byte of the last request in nanoseconds.
+	 */
+	public long getTimeToLastByte()
+	{
+		return this._timeToLastByte;
+	}
+	
 	/**
 	 * Stores the body of the given response into the given buffer. The buffer
 	 * is guaranteed to contain only the response after this method.
@@ -356,60 +483,40 @@ public class HttpTransport
 	}
 	
 	/**
-	 * Creates an HttpTransport. This entails creating and initializing the
-	 * HTTP client used to execute requests.
+	 * Creates an HttpTransport. The HTTP client executes requests on the
+	 * connection pool shared by all transports, cookies and settings are kept
+	 * per transport.
 	 */
 	public HttpTransport()
 	{
-		/* Multi-threaded/partly-open loop operation
-		HttpParams params = new BasicHttpParams();
-		// Increase max total connection to 200
-		ConnManagerParams.setMaxTotalConnections(params, 200);
-		// Increase default max connection per route to 20
-		ConnPerRouteBean connPerRoute = new ConnPerRouteBean(20);
-		// Increase max connections for localhost:80 to 50
-		HttpHost localhost = new HttpHost("locahost", 80);
-		connPerRoute.setMaxForRoute(new HttpRoute(localhost), 50);
-		ConnManagerParams.setMaxConnectionsPerRoute(params, connPerRoute);
-
-		SchemeRegistry schemeRegistry = new SchemeRegistry();
-		schemeRegistry.register(
-		        new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
-		schemeRegistry.register(
-		        new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
-
-		ClientConnectionManager cm = new ThreadSafeClientConnManager(params, schemeRegistry);
-		this._httpClient = new DefaultHttpClient(cm, params);
-		*/
-		
-		// Single-threaded (100% closed loop) operation
-		this._httpClient = wrapClient( new DefaultHttpClient() );
-		
+		this( new DefaultHttpClient( HttpConnectionPool.getInstance().getConnectionManager() ) );
 	}
 	
-	// Allow the apache http client to skip checks (and avoid throwing exceptions) for expired or self-signed certificates
-	// Adapted from: http://tech.chitgoks.com/2011/04/24/how-to-avoid-javax-net-ssl-sslpeerunverifiedexception-peer-not-authenticated-problem-using-apache-httpclient/ 
+	/**
+	 * Creates an HttpTransport which executes requests with the given client.
+	 */
+	HttpTransport( HttpClient httpClient )
+	{
+		this._httpClient = httpClient;
+	}
+	
+	/**
+	 * Returns a client on the connection manager of the given client which
+	 * accepts all SSL certificates. The registry of the shared pool is left
+	 * as is, its timed socket factory already accepts all certificates.
+	 */
 	public static HttpClient wrapClient(HttpClient base) 
 	{
 	    try
 	    {
-	        SSLContext ctx = SSLContext.getInstance("TLS");
-	        // Create a trust manager that skips all the certificate checks
-	        X509TrustManager tm = new X509TrustManager() 
-	        {
-	            public void checkClientTrusted(X509Certificate[] xcs, String string) throws CertificateException {}
-	            public void checkServerTrusted(X509Certificate[] xcs, String string) throws CertificateException {}
-	            public X509Certificate[] getAcceptedIssuers() { return null; }
-	        };
-	        
-	        // Initialize our SSLContext with the custom do-nothing trust manager
-	        ctx.init( null, new TrustManager[]{tm}, null );
-	        SSLSocketFactory ssf = new SSLSocketFactory( ctx, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER );	        
-	        //ssf.setHostnameVerifier( SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER ); [deprecated]
+	        HttpConnectionPool pool = HttpConnectionPool.getInstance();
 	        ClientConnectionManager ccm = base.getConnectionManager();
-	        SchemeRegistry sr = ccm.getSchemeRegistry();
-	        sr.register( new Scheme( "https", 443, ssf ) );
-	        //sr.register( new Scheme( "https", ssf, 443 ) ); [deprecated]
+	        if( ccm != pool.getConnectionManager() )
+	        {
+	            // Socket factory of the shared pool, TLS sessions are resumed across clients
+	            SchemeRegistry sr = ccm.getSchemeRegistry();
+	            sr.register( new Scheme( "https", 443, pool.getSSLSocketFactory() ) );
+	        }
 	        return new DefaultHttpClient( ccm, base.getParams() );
 	    } 
 	    catch (Exception ex) 
@@ -422,8 +529,8 @@ public class HttpTransport
 	 * Reconfigures the HTTP client used for execution based on the variables
 	 * set in the HttpTransport.<br />
 	 * <br />
-	 * The HttpTransport variables include: <code>_connectionTimeout</code>
-	 * and <code>_socketIdleTimeout</code>.
+	 * The HttpTransport variables include: <code>_connectionTimeout</code>,
+	 * <code>_socketIdleTimeout</code> and <code>_connectionLeaseTimeout</code>.
 	 */
 	private void configureHttpClient()
 	{
@@ -440,6 +547,7 @@ public class HttpTransport
 		
 		HttpConnectionParams.setConnectionTimeout( params, this._connectTimeout );
 		HttpConnectionParams.setSoTimeout( params, this._socketIdleTimeout );
+		ConnManagerParams.setTimeout( params, this._connectionLeaseTimeout );
 	}
 	
 	/**
@@ -497,6 +605,20 @@ public class HttpTransport
 		HttpPost httpPost = new HttpPost( url );
 		
 		// Set the POST parameters.
+		httpPost.setEntity( HttpTransport.createFormEntity( postBody ) );
+		
+		// Return the response body.
+		return this.fetch(httpPost, headers);
+	}
+	
+	/**
+	 * Creates the URL encoded form entity of a POST body (key=value pairs separated by &amp;).
+	 * 
+	 * @param postBody  The contents of the POST body.
+	 * @return          The form entity.
+	 */
+	public static UrlEncodedFormEntity createFormEntity( String postBody )
+	{
 		try
 		{
 			List<NameValuePair> params = new ArrayList<NameValuePair>();
@@ -506,15 +628,12 @@ public class HttpTransport
 				String[] keyValue = pair.split( "=", 2 );
 				params.add( new BasicNameValuePair( keyValue[0], keyValue[1] ) );
 			}
-			httpPost.setEntity( new UrlEncodedFormEntity( params, HTTP.UTF_8 ) );
+			return new UrlEncodedFormEntity( params, HTTP.UTF_8 );
 		}
 		catch ( Exception e )
 		{
 			throw new RuntimeException( "Error parsing postBody: " + postBody, e );
 		}
-		
-		// Return the response body.
-		return this.fetch(httpPost, headers);
 	}
 	
 	/**
@@ -603,9 +722,18 @@ public class HttpTransport
 		// Update the HTTP client configuration.
 		this.configureHttpClient();
 		
+		// The response mode applies to this request only
+		ResponseMode responseMode = this._responseMode;
+		this._responseMode = ResponseMode.FULL;
+		
 		// By default we'll end up at the URI being requested (unless a redirect occurs)
 		this._finalUrl = httpRequest.getURI().toString();
 		
+		// Phase timing, connection setup is recorded by the connection pool
+		long requestStart = System.nanoTime();
+		long hopStart = requestStart;
+		long hopSetup = HttpPhases.connectionSetup();
+		
 		long start = System.currentTimeMillis();
 		// Execute the HTTP request and get the response entity.
 		HttpResponse response = this._httpClient.execute( httpRequest );
@@ -641,6 +769,12 @@ public class HttpTransport
 				//entity.consumeContent();
 				EntityUtils.consume( entity );
 				end = System.currentTimeMillis();
+				
+				long hopEnd = System.nanoTime();
+				HttpPhases.add( Phase.REDIRECT, hopEnd - hopStart - (HttpPhases.connectionSetup() - hopSetup) );
+				hopStart = hopEnd;
+				hopSetup = HttpPhases.connectionSetup();
+				
 				if( this._debug )
 					logger.info( "HttpClient request consume content: " + httpRequest.getRequestLine() + " (" +  (end - start)/1000.0 + ")" );
 								
@@ -679,31 +813,241 @@ public class HttpTransport
 			}
 		}
 		
+		long headersReceived = System.nanoTime();
+		this._timeToFirstByte = headersReceived - requestStart;
+		HttpPhases.add( Phase.FIRST_BYTE, headersReceived - hopStart - (HttpPhases.connectionSetup() - hopSetup) );
 		
 		// Read the final response of the request.
+		boolean aborted = false;
 		try
 		{
-			HttpTransport.readResponseIntoBuffer( entity, this._responseBuffer );
+			aborted = this.consumeResponse( httpRequest, entity, responseMode );
 		}
 		catch( RuntimeException e )
 		{
 			httpRequest.abort();
+			aborted = true;
 			throw e;
 		}
 		finally
 		{
-			//entity.consumeContent();
-			EntityUtils.consume( entity );
+			if( !aborted )
+				EntityUtils.consume( entity );
+			long finished = System.nanoTime();
+			this._timeToLastByte = finished - requestStart;
+			HttpPhases.add( Phase.BODY, finished - headersReceived );
 		}
 		
 		return this._responseBuffer;
 	}
 	
 	/**
-	 * Cleans up the HTTP client allocated for use by this HttpTransport.
+	 * Consumes the body of the final response according to the response mode.
+	 * 
+	 * @return  True if the request was aborted instead of reading the body.
+	 * 
+	 * @throws IOException
+	 */
+	private boolean consumeResponse( HttpUriRequest httpRequest, HttpEntity entity, ResponseMode responseMode ) throws IOException
+	{
+		this.releaseLargeBuffers();
+		this._responseBuffer.setLength( 0 );
+		this._byteBuffer.clear();
+		this._bytesReceived = 0;
+		
+		if( entity == null )
+		{
+			this._byteBuffer.flip();
+			return false;
+		}
+		
+		// Closes the connection, reading the rest of the body would cost more
+		if( responseMode == ResponseMode.HEADERS_ONLY )
+		{
+			this._byteBuffer.flip();
+			httpRequest.abort();
+			return true;
+		}
+		
+		InputStream in = entity.getContent();
+		try
+		{
+			switch( responseMode )
+			{
+			case DISCARD:
+				// The byte buffer is only used as scratch space
+				this._bytesReceived = this.discard( in );
+				this._byteBuffer.clear();
+				break;
+			case PREFIX:
+				int captured = this.readIntoByteBuffer( in, this._prefixLimit );
+				this._responseBuffer.append( new String( this._byteBuffer.array(), 0, captured, getCharset( entity ) ) );
+				this._bytesReceived = captured + this.discard( in );
+				this._byteBuffer.clear();
+				break;
+			case BYTE_BUFFER:
+				this._bytesReceived = this.readIntoByteBuffer( in, Integer.MAX_VALUE );
+				break;
+			default:
+				this._bytesReceived = this.decode( in );
+				this._byteBuffer.clear();
+				break;
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		
+		this._byteBuffer.flip();
+		return false;
+	}
+	
+	/**
+	 * Drops buffers which grew for a large response, so that one large
+	 * response does not pin its memory for the lifetime of the transport.
+	 */
+	private void releaseLargeBuffers()
+	{
+		if( this._byteBuffer.capacity() > MAX_RETAINED_BUFFER_SIZE )
+			this._byteBuffer = ByteBuffer.allocate( INITIAL_BUFFER_SIZE );
+		
+		if( this._responseBuffer.capacity() > MAX_RETAINED_BUFFER_SIZE )
+		{
+			this._responseBuffer.setLength( 0 );
+			this._responseBuffer.trimToSize();
+		}
+	}
+	
+	/**
+	 * Decodes the stream with the default charset into the response buffer in
+	 * chunks of the byte buffer. Same content as the former line by line copy,
+	 * line terminators are dropped.
+	 * 
+	 * @return  The number of bytes read.
+	 */
+	private long decode( InputStream in ) throws IOException
+	{
+		ByteBuffer bytes = this._byteBuffer;
+		this._decoder.reset();
+		
+		long total = 0;
+		int read;
+		while( ( read = in.read( bytes.array(), bytes.position(), bytes.remaining() ) ) >= 0 )
+		{
+			bytes.position( bytes.position() + read );
+			total += read;
+			
+			// Incomplete characters are kept for the next chunk
+			bytes.flip();
+			this.decodeChunk( bytes, false );
+			bytes.compact();
+		}
+		
+		bytes.flip();
+		this.decodeChunk( bytes, true );
+		this._decoder.flush( this._charBuffer );
+		this.appendChars();
+		return total;
+	}
+	
+	private void decodeChunk( ByteBuffer bytes, boolean endOfInput )
+	{
+		CoderResult result;
+		do
+		{
+			result = this._decoder.decode( bytes, this._charBuffer, endOfInput );
+			this.appendChars();
+		}
+		while( result.isOverflow() );
+	}
+	
+	/**
+	 * Appends the decoded characters without line terminators and empties the char buffer.
+	 */
+	private void appendChars()
+	{
+		char[] chars = this._charBuffer.array();
+		int length = this._charBuffer.position();
+		int start = 0;
+		for( int i = 0; i < length; i++ )
+		{
+			if( chars[i] == '\n' || chars[i] == '\r' )
+			{
+				this._responseBuffer.append( chars, start, i - start );
+				start = i + 1;
+			}
+		}
+		this._responseBuffer.append( chars, start, length - start );
+		this._charBuffer.clear();
+	}
+	
+	/**
+	 * Reads up to limit bytes into the byte buffer, growing it if required.
+	 * 
+	 * @return  The number of bytes read.
+	 */
+	private int readIntoByteBuffer( InputStream in, int limit ) throws IOException
+	{
+		int total = 0;
+		while( total < limit )
+		{
+			if( !this._byteBuffer.hasRemaining() )
+			{
+				ByteBuffer larger = ByteBuffer.allocate( this._byteBuffer.capacity() * 2 );
+				this._byteBuffer.flip();
+				larger.put( this._byteBuffer );
+				this._byteBuffer = larger;
+			}
+			
+			int length = Math.min( this._byteBuffer.remaining(), limit - total );
+			int read = in.read( this._byteBuffer.array(), this._byteBuffer.position(), length );
+			if( read < 0 )
+				break;
+			this._byteBuffer.position( this._byteBuffer.position() + read );
+			total += read;
+		}
+		return total;
+	}
+	
+	/**
+	 * Reads the rest of the stream into the byte buffer without keeping it.
+	 * 
+	 * @return  The number of bytes read.
+	 */
+	private long discard( InputStream in ) throws IOException
+	{
+		byte[] scratch = this._byteBuffer.array();
+		long total = 0;
+		int read;
+		while( ( read = in.read( scratch ) ) >= 0 )
+			total += read;
+		return total;
+	}
+	
+	private static Charset getCharset( HttpEntity entity )
+	{
+		try
+		{
+			String charset = EntityUtils.getContentCharSet( entity );
+			if( charset != null && Charset.isSupported( charset ) )
+				return Charset.forName( charset );
+		}
+		catch( RuntimeException e )
+		{
+			// Malformed or unknown charset, use the default
+		}
+		return Charset.forName( HTTP.DEFAULT_CONTENT_CHARSET );
+	}
+	
+	/**
+	 * Cleans up the HTTP client allocated for use by this HttpTransport. The
+	 * shared connection pool is closed on shutdown of the benchmark.
 	 */
 	public void dispose()
 	{
-		this._httpClient.getConnectionManager().shutdown();
+		ClientConnectionManager connectionManager = this._httpClient.getConnectionManager();
+		if( connectionManager != HttpConnectionPool.getInstance().getConnectionManager() )
+			connectionManager.shutdown();
 	}
 }
@@ -0,0 +1,17 @@
+package radlab.rain.util;
+
+import de.tum.in.sonar.collector.Identifier;
+import de.tum.in.sonar.collector.MetricReading;
+
+/**
+ * Destination of the metric batches written by the {@link SonarRecorder}.
+ */
+public interface IMetricSink {
+
+	/**
+	 * Writes the first count entries of the arrays. The arrays are reused for the next batch.
+	 */
+	void write(Identifier[] ids, MetricReading[] values, int count) throws Exception;
+
+	void close();
+}
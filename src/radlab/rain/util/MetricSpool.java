@@ -0,0 +1,241 @@
+package radlab.rain.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import de.tum.in.sonar.collector.Identifier;
+import de.tum.in.sonar.collector.MetricReading;
+
+/**
+ * Append only, memory mapped log of metric readings. Used by the {@link SonarRecorder} for all batches which could not
+ * be written to Sonar. The spool is replayed later by {@link MetricSpoolReplay}.
+ *
+ * File layout: magic, version and hostname, followed by records. Each record starts with a tag byte. Sensor names are
+ * written once and referenced by id afterwards. Timestamps are stored as delta to the previous record. Integral values
+ * are stored as zig-zag varints, all other values as 8 byte doubles. A zero tag marks the end of the spool, the file is
+ * mapped in segments which are zero filled until written.
+ */
+public class MetricSpool implements IMetricSink {
+	private static Logger logger = Logger.getLogger(MetricSpool.class);
+
+	// File format
+	static final int MAGIC = 0x5253504C;
+	static final byte VERSION = 1;
+	static final byte TAG_END = 0;
+	static final byte TAG_SENSOR = 1;
+	static final byte TAG_LONG = 2;
+	static final byte TAG_DOUBLE = 3;
+
+	// Size of a mapped segment
+	private static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+
+	// Largest integral value stored as varint
+	private static final double MAX_EXACT_LONG = 1L << 53;
+
+	private final File file;
+
+	private RandomAccessFile raf;
+	private FileChannel channel;
+	private MappedByteBuffer segment;
+	private long segmentOffset = 0;
+
+	// Sensor dictionary
+	private final Map<String, Integer> sensorIds = new HashMap<String, Integer>();
+
+	// Last timestamp written
+	private long lastTimestamp = 0;
+
+	// Encoding buffer for one record
+	private byte[] record = new byte[256];
+	private int recordLength;
+
+	private long readings = 0;
+
+	public MetricSpool(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Opens the spool file with the first write
+	 */
+	private void open(String hostname) throws IOException {
+		logger.info("Spooling metrics to " + file.getAbsolutePath());
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+
+		raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(0);
+			channel = raf.getChannel();
+			mapSegment(0);
+		} catch (IOException e) {
+			raf.close();
+			channel = null;
+			throw e;
+		}
+
+		// Header
+		byte[] host = (hostname == null ? "" : hostname).getBytes("UTF-8");
+		recordLength = 0;
+		putInt(MAGIC);
+		putByte(VERSION);
+		putVarint(host.length);
+		putBytes(host);
+		append();
+	}
+
+	private void mapSegment(long offset) throws IOException {
+		segment = channel.map(FileChannel.MapMode.READ_WRITE, offset, SEGMENT_SIZE);
+		segmentOffset = offset;
+	}
+
+	@Override
+	public synchronized void write(Identifier[] ids, MetricReading[] values, int count) throws IOException {
+		if (channel == null)
+			open(count > 0 ? ids[0].getHostname() : null);
+
+		for (int i = 0; i < count; i++)
+			append(ids[i].getSensor(), ids[i].getTimestamp(), values[i].getValue());
+	}
+
+	private void append(String sensor, long timestamp, double value) throws IOException {
+		// Sensor definition
+		Integer sensorId = sensorIds.get(sensor);
+		if (sensorId == null) {
+			sensorId = sensorIds.size();
+			sensorIds.put(sensor, sensorId);
+
+			byte[] name = sensor.getBytes("UTF-8");
+			recordLength = 0;
+			putByte(TAG_SENSOR);
+			putVarint(sensorId);
+			putVarint(name.length);
+			putBytes(name);
+			append();
+		}
+
+		// Reading
+		recordLength = 0;
+		boolean integral = value == Math.rint(value) && Math.abs(value) < MAX_EXACT_LONG;
+		putByte(integral ? TAG_LONG : TAG_DOUBLE);
+		putVarint(sensorId);
+		putVarLong(zigZag(timestamp - lastTimestamp));
+		if (integral)
+			putVarLong(zigZag((long) value));
+		else
+			putLong(Double.doubleToRawLongBits(value));
+		append();
+
+		lastTimestamp = timestamp;
+		readings++;
+	}
+
+	/**
+	 * Copies the encoded record into the mapped file
+	 */
+	private void append() throws IOException {
+		// Keep one byte for the end tag
+		if (segment.remaining() <= recordLength) {
+			long offset = segmentOffset + segment.position();
+			segment.force();
+			mapSegment(offset);
+		}
+
+		segment.put(record, 0, recordLength);
+	}
+
+	@Override
+	public synchronized void close() {
+		if (channel == null)
+			return;
+
+		try {
+			long length = segmentOffset + segment.position();
+			segment.force();
+			segment = null;
+			channel.close();
+			raf.close();
+
+			// Remove zero filled tail of the last segment
+			RandomAccessFile truncate = new RandomAccessFile(file, "rw");
+			try {
+				truncate.setLength(length);
+			} finally {
+				truncate.close();
+			}
+
+			logger.info("Spooled " + readings + " metric readings to " + file.getAbsolutePath());
+		} catch (IOException e) {
+			logger.error("Could not close metric spool " + file, e);
+		}
+
+		channel = null;
+	}
+
+	public synchronized long getReadings() {
+		return readings;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/*
+	 * Encoding
+	 */
+
+	static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private void ensure(int bytes) {
+		if (recordLength + bytes > record.length)
+			record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + bytes));
+	}
+
+	private void putByte(byte value) {
+		ensure(1);
+		record[recordLength++] = value;
+	}
+
+	private void putBytes(byte[] bytes) {
+		ensure(bytes.length);
+		System.arraycopy(bytes, 0, record, recordLength, bytes.length);
+		recordLength += bytes.length;
+	}
+
+	private void putInt(int value) {
+		ensure(4);
+		for (int shift = 24; shift >= 0; shift -= 8)
+			record[recordLength++] = (byte) (value >>> shift);
+	}
+
+	private void putLong(long value) {
+		ensure(8);
+		for (int shift = 56; shift >= 0; shift -= 8)
+			record[recordLength++] = (byte) (value >>> shift);
+	}
+
+	private void putVarint(int value) {
+		putVarLong(value & 0xFFFFFFFFL);
+	}
+
+	private void putVarLong(long value) {
+		ensure(10);
+		while ((value & ~0x7FL) != 0) {
+			record[recordLength++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		record[recordLength++] = (byte) value;
+	}
+}
@@ -0,0 +1,125 @@
+package radlab.rain.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the readings of a {@link MetricSpool} file in the order they were written.
+ */
+public class MetricSpoolReader {
+
+	private final DataInputStream in;
+	private final String hostname;
+
+	// Sensor dictionary
+	private final List<String> sensors = new ArrayList<String>();
+
+	// Current reading
+	private String sensor;
+	private long timestamp = 0;
+	private double value;
+
+	public MetricSpoolReader(File file) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+		// Header
+		if (in.readInt() != MetricSpool.MAGIC) {
+			in.close();
+			throw new IOException("Not a metric spool: " + file);
+		}
+
+		byte version = in.readByte();
+		if (version != MetricSpool.VERSION) {
+			in.close();
+			throw new IOException("Unsupported metric spool version " + version + ": " + file);
+		}
+
+		byte[] host = new byte[(int) readVarLong()];
+		in.readFully(host);
+		hostname = new String(host, "UTF-8");
+	}
+
+	/**
+	 * Moves to the next reading
+	 * 
+	 * @return false if the spool has no more readings
+	 */
+	public boolean next() throws IOException {
+		while (true) {
+			int tag = in.read();
+			switch (tag) {
+			case -1:
+			case MetricSpool.TAG_END:
+				return false;
+
+			case MetricSpool.TAG_SENSOR:
+				int id = (int) readVarLong();
+				byte[] name = new byte[(int) readVarLong()];
+				in.readFully(name);
+				if (id != sensors.size())
+					throw new IOException("Corrupt metric spool, unexpected sensor id " + id);
+				sensors.add(new String(name, "UTF-8"));
+				break;
+
+			case MetricSpool.TAG_LONG:
+			case MetricSpool.TAG_DOUBLE:
+				try {
+					sensor = sensors.get((int) readVarLong());
+					timestamp += unZigZag(readVarLong());
+					if (tag == MetricSpool.TAG_LONG)
+						value = unZigZag(readVarLong());
+					else
+						value = Double.longBitsToDouble(in.readLong());
+				} catch (EOFException e) {
+					// Record was not written completely
+					return false;
+				}
+				return true;
+
+			default:
+				throw new IOException("Corrupt metric spool, unknown tag " + tag);
+			}
+		}
+	}
+
+	public String getHostname() {
+		return hostname;
+	}
+
+	public String getSensor() {
+		return sensor;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Corrupt metric spool, varint too long");
+	}
+}
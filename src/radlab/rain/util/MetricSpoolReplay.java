@@ -0,0 +1,103 @@
+package radlab.rain.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import de.tum.in.sonar.collector.Identifier;
+import de.tum.in.sonar.collector.MetricReading;
+
+/**
+ * Replays a {@link MetricSpool} file. The readings are either written to Sonar or exported as CSV or JSON (one object
+ * per line) to stdout.
+ * 
+ * Usage: MetricSpoolReplay spool-file (csv | json | sonar host [port])
+ */
+public class MetricSpoolReplay {
+
+	// Readings written to Sonar with one pipelined batch
+	private static final int BATCH_SIZE = 200;
+
+	public static void exportCsv(MetricSpoolReader reader, PrintStream out) throws IOException {
+		out.println("hostname,sensor,timestamp,value");
+		while (reader.next())
+			out.println(reader.getHostname() + "," + reader.getSensor() + "," + reader.getTimestamp() + ","
+					+ reader.getValue());
+	}
+
+	public static void exportJson(MetricSpoolReader reader, PrintStream out) throws IOException, JSONException {
+		while (reader.next()) {
+			JSONObject reading = new JSONObject();
+			reading.put("hostname", reader.getHostname());
+			reading.put("sensor", reader.getSensor());
+			reading.put("timestamp", reader.getTimestamp());
+			reading.put("value", reader.getValue());
+			out.println(reading.toString());
+		}
+	}
+
+	public static long replay(MetricSpoolReader reader, IMetricSink sink) throws Exception {
+		Identifier[] ids = new Identifier[BATCH_SIZE];
+		MetricReading[] values = new MetricReading[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			ids[i] = new Identifier();
+			values[i] = new MetricReading();
+		}
+
+		long total = 0;
+		int count = 0;
+		while (reader.next()) {
+			ids[count].setHostname(reader.getHostname());
+			ids[count].setSensor(reader.getSensor());
+			ids[count].setTimestamp(reader.getTimestamp());
+			values[count].setValue(reader.getValue());
+
+			if (++count == BATCH_SIZE) {
+				sink.write(ids, values, count);
+				total += count;
+				count = 0;
+			}
+		}
+
+		if (count > 0) {
+			sink.write(ids, values, count);
+			total += count;
+		}
+
+		return total;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: MetricSpoolReplay spool-file (csv | json | sonar host [port])");
+			System.exit(1);
+		}
+
+		MetricSpoolReader reader = new MetricSpoolReader(new File(args[0]));
+		try {
+			String mode = args[1];
+			if (mode.equals("csv")) {
+				exportCsv(reader, System.out);
+			} else if (mode.equals("json")) {
+				exportJson(reader, System.out);
+			} else if (mode.equals("sonar") && args.length >= 3) {
+				int port = args.length >= 4 ? Integer.parseInt(args[3]) : ThriftMetricSink.DEFAULT_PORT;
+				ThriftMetricSink sink = new ThriftMetricSink(args[2], port);
+				try {
+					long total = replay(reader, sink);
+					System.out.println("Replayed " + total + " readings to " + args[2] + ":" + port);
+				} finally {
+					sink.close();
+				}
+			} else {
+				System.err.println("Unknown mode: " + mode);
+				System.exit(1);
+			}
+		} finally {
+			reader.close();
+		}
+	}
+}
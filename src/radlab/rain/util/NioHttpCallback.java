@@ -0,0 +1,12 @@
+package radlab.rain.util;
+
+/**
+ * Receives the result of an asynchronous request of the {@link NioHttpClient}. Callbacks run on an I/O thread of the
+ * client and must not block.
+ */
+public interface NioHttpCallback {
+
+	void completed(NioHttpResponse response);
+
+	void failed(Exception e);
+}
@@ -0,0 +1,397 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpStatus;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.log4j.Logger;
+
+import radlab.rain.IShutdown;
+import radlab.rain.RainConfig;
+
+/**
+ * Non-blocking HTTP/1.1 client. A few reactor threads multiplex all connections. Connections are pooled per route
+ * (host and port) and kept alive between requests. If all connections of a route are busy requests wait in the route
+ * until a connection is released or their connect timeout passed. Redirects are followed without blocking a thread.
+ * Connection reuse and the time spent waiting for a connection are reported like the leases of the
+ * {@link HttpConnectionPool}.
+ *
+ * Plain HTTP only, use {@link HttpTransport} for HTTPS targets.
+ */
+public class NioHttpClient implements IShutdown {
+	private static Logger logger = Logger.getLogger(NioHttpClient.class);
+
+	static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+	// Permanent redirect which keeps method and body (RFC 7538), not defined by HttpStatus of httpcore 4.1
+	static final int SC_PERMANENT_REDIRECT = 308;
+
+	private static Object lock = new Object();
+	private static NioHttpClient singleton;
+
+	/**
+	 * Connections and waiting requests of one route
+	 */
+	static class RoutePool {
+		final String host;
+		final int port;
+		final InetSocketAddress address;
+
+		// Guarded by the pool
+		final ArrayDeque<NioHttpConnection> idle = new ArrayDeque<NioHttpConnection>();
+		final ArrayDeque<NioHttpExchange> pending = new ArrayDeque<NioHttpExchange>();
+		int connections = 0;
+
+		RoutePool(String host, int port, InetSocketAddress address) {
+			this.host = host;
+			this.port = port;
+			this.address = address;
+		}
+	}
+
+	// Settings
+	private final int maxConnectionsPerRoute;
+	private final long keepAliveMillis;
+
+	private final NioHttpReactor[] reactors;
+	private final AtomicInteger nextReactor = new AtomicInteger();
+
+	private final ConcurrentHashMap<String, RoutePool> pools = new ConcurrentHashMap<String, RoutePool>();
+
+	// Lease statistics of all routes
+	private final AtomicLong leases = new AtomicLong();
+	private final AtomicLong queueWaitTime = new AtomicLong();
+	private final AtomicLong queueTimeouts = new AtomicLong();
+
+	private volatile boolean shutdown = false;
+
+	/**
+	 * @param ioThreads
+	 *            Number of reactor threads
+	 * @param maxConnectionsPerRoute
+	 *            Maximum number of connections to one host and port
+	 * @param keepAliveMillis
+	 *            Time after which idle connections are closed
+	 */
+	public NioHttpClient(int ioThreads, int maxConnectionsPerRoute, long keepAliveMillis) throws IOException {
+		this.maxConnectionsPerRoute = Math.max(1, maxConnectionsPerRoute);
+		this.keepAliveMillis = keepAliveMillis;
+
+		reactors = new NioHttpReactor[Math.max(1, ioThreads)];
+		for (int i = 0; i < reactors.length; i++) {
+			// The first reactor checks the waiting requests
+			reactors[i] = new NioHttpReactor("NioHttpReactor-" + i, i == 0 ? this : null);
+			reactors[i].start();
+		}
+	}
+
+	/**
+	 * Client shared by the whole JVM
+	 */
+	public static NioHttpClient getInstance() {
+		synchronized (lock) {
+			if (NioHttpClient.singleton == null) {
+				RainConfig config = RainConfig.getInstance();
+				try {
+					NioHttpClient.singleton = new NioHttpClient(config.nioIoThreads, config.nioMaxConnectionsPerRoute,
+							config.nioKeepAliveMillis);
+				} catch (IOException e) {
+					throw new IllegalStateException("Could not create HTTP reactors", e);
+				}
+
+				// Register for shutdown
+				config.register(NioHttpClient.singleton);
+			}
+		}
+
+		return NioHttpClient.singleton;
+	}
+
+	/**
+	 * Executes the exchange on a pooled connection
+	 */
+	void execute(NioHttpExchange exchange) {
+		if (shutdown) {
+			exchange.fail(new IOException("HTTP client is shut down"));
+			return;
+		}
+
+		RoutePool pool;
+		try {
+			pool = getPool(exchange.getUri());
+		} catch (IOException e) {
+			exchange.fail(e);
+			return;
+		}
+
+		NioHttpConnection connection;
+		boolean reused = true;
+		synchronized (pool) {
+			connection = pool.idle.pollLast();
+			if (connection == null) {
+				// Wait for a connection
+				if (pool.connections >= maxConnectionsPerRoute) {
+					exchange.queuedNanos = System.nanoTime();
+					pool.pending.add(exchange);
+					return;
+				}
+
+				pool.connections++;
+				connection = new NioHttpConnection(this, pool, nextReactor());
+				reused = false;
+			}
+		}
+
+		leased(pool, reused, 0);
+		connection.startLater(exchange);
+	}
+
+	private void leased(RoutePool pool, boolean reused, long waitTime) {
+		leases.incrementAndGet();
+		queueWaitTime.addAndGet(waitTime);
+		HttpRouteScoreboards.leased("http", pool.host, pool.port, reused, waitTime);
+	}
+
+	/**
+	 * Fails waiting requests whose connect timeout passed
+	 */
+	void checkPending() {
+		long now = System.nanoTime();
+		for (RoutePool pool : pools.values()) {
+			List<NioHttpExchange> expired = null;
+			synchronized (pool) {
+				for (Iterator<NioHttpExchange> it = pool.pending.iterator(); it.hasNext();) {
+					NioHttpExchange exchange = it.next();
+					if (exchange.connectTimeout > 0
+							&& now - exchange.queuedNanos > TimeUnit.MILLISECONDS.toNanos(exchange.connectTimeout)) {
+						it.remove();
+						if (expired == null)
+							expired = new ArrayList<NioHttpExchange>();
+						expired.add(exchange);
+					}
+				}
+			}
+
+			if (expired == null)
+				continue;
+
+			queueTimeouts.addAndGet(expired.size());
+			for (NioHttpExchange exchange : expired)
+				exchange.fail(new ConnectionPoolTimeoutException("Timeout waiting for a connection to " + pool.host
+						+ ":" + pool.port));
+		}
+	}
+
+	private RoutePool getPool(URI uri) throws IOException {
+		if (!"http".equalsIgnoreCase(uri.getScheme()))
+			throw new IOException("Unsupported scheme: " + uri);
+		if (uri.getHost() == null)
+			throw new IOException("Missing host: " + uri);
+
+		int port = uri.getPort() == -1 ? 80 : uri.getPort();
+		String route = uri.getHost() + ":" + port;
+
+		RoutePool pool = pools.get(route);
+		if (pool == null) {
+			// Address is resolved once per route
+			InetSocketAddress address = new InetSocketAddress(uri.getHost(), port);
+			if (address.isUnresolved())
+				throw new UnknownHostException(uri.getHost());
+
+			pool = new RoutePool(uri.getHost(), port, address);
+			RoutePool existing = pools.putIfAbsent(route, pool);
+			if (existing != null)
+				pool = existing;
+		}
+
+		return pool;
+	}
+
+	private NioHttpReactor nextReactor() {
+		return reactors[(nextReactor.getAndIncrement() & Integer.MAX_VALUE) % reactors.length];
+	}
+
+	/**
+	 * Keep-alive connection finished its exchange, it is reused by a waiting exchange or becomes idle
+	 */
+	void release(NioHttpConnection connection) {
+		RoutePool pool = connection.pool;
+		NioHttpExchange next;
+		long waitTime;
+		synchronized (pool) {
+			next = pool.pending.poll();
+			if (next == null) {
+				pool.idle.addLast(connection);
+				return;
+			}
+			waitTime = System.nanoTime() - next.queuedNanos;
+		}
+
+		leased(pool, true, waitTime);
+		connection.start(next);
+	}
+
+	/**
+	 * Removes a closed idle connection from its pool. Returns false if the connection is not idle.
+	 */
+	boolean removeIdle(NioHttpConnection connection) {
+		RoutePool pool = connection.pool;
+		synchronized (pool) {
+			if (pool.idle.remove(connection)) {
+				pool.connections--;
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Connection was closed, a waiting exchange gets a new connection
+	 */
+	void closed(NioHttpConnection connection) {
+		RoutePool pool = connection.pool;
+		NioHttpExchange next;
+		NioHttpConnection replacement = null;
+		long waitTime = 0;
+		synchronized (pool) {
+			pool.connections--;
+			next = pool.pending.poll();
+			if (next != null) {
+				pool.connections++;
+				replacement = new NioHttpConnection(this, pool, nextReactor());
+				waitTime = System.nanoTime() - next.queuedNanos;
+			}
+		}
+
+		if (replacement != null) {
+			leased(pool, false, waitTime);
+			replacement.startLater(next);
+		}
+	}
+
+	/**
+	 * Response received, follows redirects or completes the exchange
+	 */
+	void completed(NioHttpExchange exchange, NioHttpResponse response) {
+		int status = response.getStatusCode();
+		boolean redirect = status == HttpStatus.SC_MOVED_PERMANENTLY || status == HttpStatus.SC_MOVED_TEMPORARILY
+				|| status == HttpStatus.SC_SEE_OTHER || status == HttpStatus.SC_TEMPORARY_REDIRECT
+				|| status == SC_PERMANENT_REDIRECT;
+
+		if (!exchange.followRedirects || !redirect) {
+			exchange.complete(response);
+			return;
+		}
+
+		Header location = response.getFirstHeader("Location");
+		if (location == null) {
+			exchange.fail(new IOException("Unspecified location header for a redirect response."));
+			return;
+		}
+
+		URI target;
+		try {
+			target = exchange.getUri().resolve(location.getValue().trim());
+		} catch (IllegalArgumentException e) {
+			exchange.fail(new IOException("Invalid redirect location: " + location.getValue()));
+			return;
+		}
+
+		if (!exchange.redirect(target, status)) {
+			exchange.fail(new IOException("Too many redirects! Limit: " + exchange.redirectLimit));
+			return;
+		}
+
+		execute(exchange);
+	}
+
+	boolean isShutdown() {
+		return shutdown;
+	}
+
+	long getKeepAliveMillis() {
+		return keepAliveMillis;
+	}
+
+	/**
+	 * Number of open connections of all routes
+	 */
+	public int getOpenConnections() {
+		int connections = 0;
+		for (RoutePool pool : pools.values()) {
+			synchronized (pool) {
+				connections += pool.connections;
+			}
+		}
+		return connections;
+	}
+
+	/**
+	 * Number of requests waiting for a connection
+	 */
+	public int getPendingRequests() {
+		int pending = 0;
+		for (RoutePool pool : pools.values()) {
+			synchronized (pool) {
+				pending += pool.pending.size();
+			}
+		}
+		return pending;
+	}
+
+	public long getLeases() {
+		return leases.get();
+	}
+
+	/**
+	 * Total time requests spent waiting for a connection in nanoseconds
+	 */
+	public long getQueueWaitTime() {
+		return queueWaitTime.get();
+	}
+
+	/**
+	 * Number of requests which failed because they did not get a connection within their connect timeout
+	 */
+	public long getQueueTimeouts() {
+		return queueTimeouts.get();
+	}
+
+	@Override
+	public void shutdown() {
+		logger.info("Shutting down NIO HTTP client");
+		shutdown = true;
+
+		// Fail all waiting requests
+		for (RoutePool pool : pools.values()) {
+			NioHttpExchange[] pending;
+			synchronized (pool) {
+				pending = pool.pending.toArray(new NioHttpExchange[pool.pending.size()]);
+				pool.pending.clear();
+			}
+			for (NioHttpExchange exchange : pending)
+				exchange.fail(new IOException("HTTP client is shut down"));
+		}
+
+		for (NioHttpReactor reactor : reactors)
+			reactor.shutdown();
+	}
+
+	@Override
+	public String getName() {
+		return "NioHttpClient";
+	}
+}
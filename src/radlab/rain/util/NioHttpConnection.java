@@ -0,0 +1,506 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+
+/**
+ * Keep-alive connection of the {@link NioHttpClient}. Executes one exchange at a time (no pipelining). All methods
+ * except {@link #startLater(NioHttpExchange)} are called by the reactor thread of the connection only.
+ */
+class NioHttpConnection {
+
+	// Longest accepted status or header line
+	private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+	private enum State {
+		CONNECTING, WRITING, STATUS_LINE, HEADERS, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS, BODY_UNTIL_CLOSE,
+		IDLE, CLOSED
+	}
+
+	private final NioHttpClient client;
+	final NioHttpClient.RoutePool pool;
+	private final NioHttpReactor reactor;
+
+	private SocketChannel channel;
+	private SelectionKey key;
+	private State state = State.IDLE;
+
+	// Set if the pool does not count this connection anymore
+	private boolean released = false;
+
+	private final ByteBuffer in = ByteBuffer.allocate(16 * 1024);
+	private ByteBuffer out;
+
+	// Current exchange
+	private NioHttpExchange exchange;
+	private boolean reused = false;
+	private boolean responseStarted;
+	private boolean requestSent;
+	private long deadline;
+	private long idleSince;
+
+	// Response parser
+	private byte[] line = new byte[256];
+	private int lineLength;
+	private boolean lineComplete;
+	private int statusCode;
+	private boolean http10;
+	private final List<Header> headers = new ArrayList<Header>();
+	private long contentLength;
+	private boolean chunked;
+	private boolean closeConnection;
+	private boolean keepAliveHeader;
+	private long remaining;
+	private byte[] body;
+	private int bodyLength;
+	private long bytesReceived;
+
+	NioHttpConnection(NioHttpClient client, NioHttpClient.RoutePool pool, NioHttpReactor reactor) {
+		this.client = client;
+		this.pool = pool;
+		this.reactor = reactor;
+	}
+
+	/**
+	 * Starts the exchange on the reactor thread
+	 */
+	void startLater(final NioHttpExchange exchange) {
+		reactor.execute(new Runnable() {
+			@Override
+			public void run() {
+				start(exchange);
+			}
+		});
+	}
+
+	void start(NioHttpExchange exchange) {
+		this.exchange = exchange;
+		this.responseStarted = false;
+		this.requestSent = false;
+
+		try {
+			if (state == State.CLOSED || client.isShutdown())
+				throw new IOException("Connection closed");
+
+			out = ByteBuffer.wrap(exchange.encode());
+
+			if (channel == null) {
+				connect();
+			} else {
+				reused = true;
+				state = State.WRITING;
+				key.interestOps(SelectionKey.OP_WRITE);
+				progress();
+			}
+		} catch (IOException e) {
+			fail(e);
+		} catch (RuntimeException e) {
+			// Unresolved addresses and closed selectors
+			fail(new IOException(e.toString(), e));
+		}
+	}
+
+	private void connect() throws IOException {
+		channel = SocketChannel.open();
+		channel.configureBlocking(false);
+		channel.socket().setTcpNoDelay(true);
+		key = channel.register(reactor.selector, 0, this);
+
+		deadline = System.currentTimeMillis() + exchange.connectTimeout;
+		if (channel.connect(pool.address)) {
+			state = State.WRITING;
+			key.interestOps(SelectionKey.OP_WRITE);
+		} else {
+			state = State.CONNECTING;
+			key.interestOps(SelectionKey.OP_CONNECT);
+		}
+	}
+
+	/**
+	 * Handles a ready key
+	 */
+	void handle(SelectionKey key) {
+		try {
+			if (key.isConnectable()) {
+				if (channel.finishConnect()) {
+					state = State.WRITING;
+					key.interestOps(SelectionKey.OP_WRITE);
+					progress();
+				}
+			} else if (key.isWritable()) {
+				if (channel.write(out) > 0)
+					requestSent = true;
+				progress();
+				if (!out.hasRemaining()) {
+					out = null;
+					resetResponse();
+					state = State.STATUS_LINE;
+					key.interestOps(SelectionKey.OP_READ);
+				}
+			} else if (key.isReadable()) {
+				read();
+			}
+		} catch (IOException e) {
+			fail(e);
+		} catch (RuntimeException e) {
+			fail(new IOException(e.toString(), e));
+		}
+	}
+
+	private void read() throws IOException {
+		int read = channel.read(in);
+
+		// Idle connection was closed by the server or sent unexpected data
+		if (state == State.IDLE) {
+			closeIdle();
+			return;
+		}
+
+		if (read < 0) {
+			if (state == State.BODY_UNTIL_CLOSE) {
+				finish();
+			} else {
+				fail(new IOException("Connection closed by server"));
+			}
+			return;
+		}
+
+		if (read > 0) {
+			if (!responseStarted)
+				exchange.firstByteNanos = System.nanoTime();
+			responseStarted = true;
+			progress();
+		}
+
+		in.flip();
+		boolean complete = parse();
+		in.compact();
+
+		if (complete)
+			finish();
+	}
+
+	/**
+	 * Parses the buffered input. Returns true if the response is complete.
+	 */
+	private boolean parse() throws IOException {
+		while (in.hasRemaining()) {
+			switch (state) {
+			case STATUS_LINE:
+				if (!readLine())
+					return false;
+				parseStatusLine();
+				state = State.HEADERS;
+				break;
+
+			case HEADERS:
+				if (!readLine())
+					return false;
+				if (lineLength == 0) {
+					if (headersComplete())
+						return true;
+				} else {
+					parseHeader();
+				}
+				break;
+
+			case BODY:
+				readBody();
+				if (remaining == 0)
+					return true;
+				break;
+
+			case CHUNK_SIZE:
+				if (!readLine())
+					return false;
+				remaining = parseChunkSize();
+				state = remaining == 0 ? State.TRAILERS : State.CHUNK_DATA;
+				break;
+
+			case CHUNK_DATA:
+				readBody();
+				if (remaining == 0)
+					state = State.CHUNK_END;
+				break;
+
+			case CHUNK_END:
+				if (!readLine())
+					return false;
+				state = State.CHUNK_SIZE;
+				break;
+
+			case TRAILERS:
+				if (!readLine())
+					return false;
+				if (lineLength == 0)
+					return true;
+				break;
+
+			case BODY_UNTIL_CLOSE:
+				remaining = in.remaining();
+				readBody();
+				break;
+
+			default:
+				throw new IOException("Unexpected data in state " + state);
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Reads up to the next line feed. Returns false if the line is not complete yet.
+	 */
+	private boolean readLine() throws IOException {
+		if (lineComplete) {
+			lineLength = 0;
+			lineComplete = false;
+		}
+
+		while (in.hasRemaining()) {
+			byte b = in.get();
+			if (b == '\n') {
+				if (lineLength > 0 && line[lineLength - 1] == '\r')
+					lineLength--;
+				lineComplete = true;
+				return true;
+			}
+
+			if (lineLength == line.length) {
+				if (lineLength >= MAX_LINE_LENGTH)
+					throw new IOException("Response line too long");
+				line = Arrays.copyOf(line, lineLength * 2);
+			}
+			line[lineLength++] = b;
+		}
+
+		return false;
+	}
+
+	private String lineString(int offset) {
+		return new String(line, offset, lineLength - offset, NioHttpClient.ISO_8859_1);
+	}
+
+	private void parseStatusLine() throws IOException {
+		// HTTP/1.1 200 OK
+		String status = lineString(0);
+		if (!status.startsWith("HTTP/") || status.length() < 12)
+			throw new IOException("Invalid status line: " + status);
+
+		http10 = status.startsWith("HTTP/1.0");
+		try {
+			statusCode = Integer.parseInt(status.substring(9, 12));
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid status line: " + status);
+		}
+	}
+
+	private void parseHeader() {
+		int colon = 0;
+		while (colon < lineLength && line[colon] != ':')
+			colon++;
+		if (colon == lineLength)
+			return;
+
+		String name = new String(line, 0, colon, NioHttpClient.ISO_8859_1).trim();
+		String value = lineString(colon + 1).trim();
+		headers.add(new BasicHeader(name, value));
+
+		if (name.equalsIgnoreCase("Content-Length")) {
+			try {
+				contentLength = Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				contentLength = -1;
+			}
+		} else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+			chunked = value.toLowerCase().contains("chunked");
+		} else if (name.equalsIgnoreCase("Connection")) {
+			closeConnection = value.equalsIgnoreCase("close");
+			keepAliveHeader = value.equalsIgnoreCase("keep-alive");
+		}
+	}
+
+	/**
+	 * Decides how the body is framed. Returns true if the response has no body.
+	 */
+	private boolean headersComplete() {
+		// Interim response, the final response follows
+		if (statusCode / 100 == 1) {
+			resetResponse();
+			state = State.STATUS_LINE;
+			return false;
+		}
+
+		if (exchange.getMethod().equals("HEAD") || statusCode == 204 || statusCode == 304) {
+			body = new byte[0];
+			return true;
+		}
+
+		if (chunked) {
+			body = new byte[Math.min(1024, exchange.bodyLimit)];
+			state = State.CHUNK_SIZE;
+			return false;
+		}
+
+		if (contentLength >= 0) {
+			body = new byte[(int) Math.min(contentLength, exchange.bodyLimit)];
+			remaining = contentLength;
+			state = State.BODY;
+			return contentLength == 0;
+		}
+
+		// Body ends when the server closes the connection
+		body = new byte[Math.min(4096, exchange.bodyLimit)];
+		closeConnection = true;
+		state = State.BODY_UNTIL_CLOSE;
+		return false;
+	}
+
+	private long parseChunkSize() throws IOException {
+		int end = 0;
+		while (end < lineLength && line[end] != ';')
+			end++;
+
+		try {
+			return Long.parseLong(new String(line, 0, end, NioHttpClient.ISO_8859_1).trim(), 16);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid chunk size: " + lineString(0));
+		}
+	}
+
+	private void readBody() {
+		int count = (int) Math.min(remaining, in.remaining());
+
+		// Bytes beyond the body limit are skipped
+		int kept = Math.min(count, exchange.bodyLimit - bodyLength);
+		if (bodyLength + kept > body.length)
+			body = Arrays.copyOf(body, Math.min(Math.max(body.length * 2, bodyLength + kept), exchange.bodyLimit));
+
+		in.get(body, bodyLength, kept);
+		in.position(in.position() + count - kept);
+		bodyLength += kept;
+		bytesReceived += count;
+		remaining -= count;
+	}
+
+	private void resetResponse() {
+		lineLength = 0;
+		lineComplete = false;
+		statusCode = 0;
+		http10 = false;
+		headers.clear();
+		contentLength = -1;
+		chunked = false;
+		closeConnection = false;
+		keepAliveHeader = false;
+		remaining = 0;
+		body = null;
+		bodyLength = 0;
+		bytesReceived = 0;
+	}
+
+	/**
+	 * Response complete, hands the connection back to the pool
+	 */
+	private void finish() {
+		NioHttpExchange exchange = this.exchange;
+		this.exchange = null;
+
+		long now = System.nanoTime();
+		NioHttpResponse response = new NioHttpResponse(statusCode, headers.toArray(new Header[headers.size()]), body,
+				bodyLength, bytesReceived, exchange.firstByteNanos - exchange.startNanos, now - exchange.startNanos,
+				exchange.getUri().toString());
+
+		boolean keepAlive = !closeConnection && (!http10 || keepAliveHeader);
+		in.clear();
+		body = null;
+
+		if (keepAlive) {
+			state = State.IDLE;
+			idleSince = System.currentTimeMillis();
+			key.interestOps(SelectionKey.OP_READ);
+			client.release(this);
+		} else {
+			discard();
+		}
+
+		client.completed(exchange, response);
+	}
+
+	/**
+	 * Closes the connection and fails the current exchange. Requests on a reused connection which failed before the
+	 * response started are retried once on a new connection (the server may have closed the idle connection). Requests
+	 * which are not idempotent are only retried if none of their bytes were sent, the server may have processed them.
+	 */
+	void fail(IOException e) {
+		NioHttpExchange exchange = this.exchange;
+		this.exchange = null;
+
+		boolean retry = exchange != null && reused && !responseStarted && !exchange.retried
+				&& (!requestSent || exchange.isIdempotent());
+		discard();
+
+		if (exchange != null) {
+			if (retry) {
+				exchange.retried = true;
+				client.execute(exchange);
+			} else {
+				exchange.fail(e);
+			}
+		}
+	}
+
+	private void discard() {
+		close();
+		if (!released) {
+			released = true;
+			client.closed(this);
+		}
+	}
+
+	/**
+	 * Closes an idle connection. If the connection was leased in the meantime the pending start fails and releases it.
+	 */
+	private void closeIdle() {
+		close();
+		if (client.removeIdle(this))
+			released = true;
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private void progress() {
+		deadline = System.currentTimeMillis() + exchange.socketTimeout;
+	}
+
+	/**
+	 * Closes expired idle connections and fails exchanges which timed out
+	 */
+	void checkTimeout(long now) {
+		if (state == State.IDLE) {
+			if (now - idleSince > client.getKeepAliveMillis())
+				closeIdle();
+		} else if (exchange != null && now > deadline) {
+			fail(new SocketTimeoutException(state == State.CONNECTING ? "Connect timed out" : "Read timed out"));
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.http.HttpStatus;
+import org.apache.log4j.Logger;
+
+/**
+ * One request of the {@link NioHttpClient} including all its redirects. Doubles as the future of the request.
+ */
+class NioHttpExchange implements Future<NioHttpResponse> {
+	private static Logger logger = Logger.getLogger(NioHttpExchange.class);
+
+	// Request
+	private String method;
+	private URI uri;
+	private final Map<String, String> headers;
+	private byte[] body;
+
+	// Settings
+	final boolean followRedirects;
+	private int redirectsLeft;
+	final int redirectLimit;
+	final int connectTimeout;
+	final int socketTimeout;
+
+	// Number of body bytes kept in the response, the rest is only counted
+	final int bodyLimit;
+
+	// Timing of the exchange, the first byte is the one of the final response
+	final long startNanos = System.nanoTime();
+	long firstByteNanos;
+
+	// Set if the request was retried on a new connection
+	boolean retried = false;
+
+	// Time the exchange started waiting for a connection of its route, guarded by the route pool
+	long queuedNanos;
+
+	private final NioHttpCallback callback;
+
+	// Completion
+	private final CountDownLatch done = new CountDownLatch(1);
+	private volatile NioHttpResponse response;
+	private volatile Exception failure;
+
+	NioHttpExchange(String method, URI uri, Map<String, String> headers, byte[] body, boolean followRedirects,
+			int redirectLimit, int connectTimeout, int socketTimeout, int bodyLimit, NioHttpCallback callback) {
+		this.method = method;
+		this.uri = uri;
+		this.headers = headers;
+		this.body = body;
+		this.followRedirects = followRedirects;
+		this.redirectLimit = redirectLimit;
+		this.redirectsLeft = redirectLimit;
+		this.connectTimeout = connectTimeout;
+		this.socketTimeout = socketTimeout;
+		this.bodyLimit = bodyLimit;
+		this.callback = callback;
+	}
+
+	URI getUri() {
+		return uri;
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	/**
+	 * Requests which can be sent again without changing the outcome (RFC 7231)
+	 */
+	boolean isIdempotent() {
+		return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS") || method.equals("PUT")
+				|| method.equals("DELETE") || method.equals("TRACE");
+	}
+
+	/**
+	 * Points the exchange to the redirect location. 307 and 308 keep method and body, all other redirects turn into a
+	 * GET. Returns false if the redirect limit is reached.
+	 */
+	boolean redirect(URI location, int status) {
+		if (redirectsLeft <= 0)
+			return false;
+
+		redirectsLeft--;
+		if (status != HttpStatus.SC_TEMPORARY_REDIRECT && status != NioHttpClient.SC_PERMANENT_REDIRECT) {
+			method = "GET";
+			body = null;
+		}
+		uri = location;
+		retried = false;
+		return true;
+	}
+
+	/**
+	 * Encodes request line, headers and body
+	 */
+	byte[] encode() throws IOException {
+		StringBuilder head = new StringBuilder(256);
+		String path = uri.getRawPath();
+		if (path == null || path.isEmpty())
+			path = "/";
+
+		head.append(method).append(' ').append(path);
+		if (uri.getRawQuery() != null)
+			head.append('?').append(uri.getRawQuery());
+		head.append(" HTTP/1.1\r\n");
+
+		head.append("Host: ").append(uri.getHost());
+		if (uri.getPort() != -1 && uri.getPort() != 80)
+			head.append(':').append(uri.getPort());
+		head.append("\r\n");
+
+		if (headers != null) {
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				if (header.getKey().equalsIgnoreCase("Host") || header.getKey().equalsIgnoreCase("Content-Length"))
+					continue;
+				head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+			}
+		}
+
+		if (body != null)
+			head.append("Content-Length: ").append(body.length).append("\r\n");
+		head.append("\r\n");
+
+		byte[] encodedHead = toBytes(head);
+		if (body == null)
+			return encodedHead;
+
+		byte[] request = new byte[encodedHead.length + body.length];
+		System.arraycopy(encodedHead, 0, request, 0, encodedHead.length);
+		System.arraycopy(body, 0, request, encodedHead.length, body.length);
+		return request;
+	}
+
+	private static byte[] toBytes(StringBuilder head) throws UnsupportedEncodingException {
+		return head.toString().getBytes("ISO-8859-1");
+	}
+
+	void complete(NioHttpResponse response) {
+		if (done.getCount() == 0)
+			return;
+
+		this.response = response;
+		done.countDown();
+
+		if (callback != null) {
+			try {
+				callback.completed(response);
+			} catch (RuntimeException e) {
+				logger.error("Exception in HTTP callback", e);
+			}
+		}
+	}
+
+	void fail(Exception e) {
+		if (done.getCount() == 0)
+			return;
+
+		this.failure = e;
+		done.countDown();
+
+		if (callback != null) {
+			try {
+				callback.failed(e);
+			} catch (RuntimeException re) {
+				logger.error("Exception in HTTP callback", re);
+			}
+		}
+	}
+
+	/**
+	 * Requests in flight cannot be cancelled
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		return false;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return false;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	@Override
+	public NioHttpResponse get() throws InterruptedException, ExecutionException {
+		done.await();
+		return result();
+	}
+
+	@Override
+	public NioHttpResponse get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+			TimeoutException {
+		if (!done.await(timeout, unit))
+			throw new TimeoutException();
+		return result();
+	}
+
+	private NioHttpResponse result() throws ExecutionException {
+		if (failure != null)
+			throw new ExecutionException(failure);
+		return response;
+	}
+}
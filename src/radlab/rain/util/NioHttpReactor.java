@@ -0,0 +1,98 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.log4j.Logger;
+
+/**
+ * I/O thread of the {@link NioHttpClient}. Owns a selector and all connections registered with it. Other threads hand
+ * work to the reactor through its task queue.
+ */
+class NioHttpReactor extends Thread {
+	private static Logger logger = Logger.getLogger(NioHttpReactor.class);
+
+	// Interval of the timeout checks
+	private static final long CHECK_INTERVAL = 100;
+
+	final Selector selector;
+
+	// Client whose waiting requests are checked for timeouts by this reactor (optional)
+	private final NioHttpClient client;
+
+	private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+	private volatile boolean running = true;
+
+	NioHttpReactor(String name, NioHttpClient client) throws IOException {
+		this.selector = Selector.open();
+		this.client = client;
+		setName(name);
+		setDaemon(true);
+	}
+
+	/**
+	 * Runs the task on the reactor thread
+	 */
+	void execute(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	void shutdown() {
+		running = false;
+		selector.wakeup();
+	}
+
+	public void run() {
+		long nextCheck = System.currentTimeMillis() + CHECK_INTERVAL;
+
+		while (running) {
+			try {
+				selector.select(CHECK_INTERVAL);
+				runTasks();
+
+				Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+				while (selected.hasNext()) {
+					SelectionKey key = selected.next();
+					selected.remove();
+					if (key.isValid())
+						((NioHttpConnection) key.attachment()).handle(key);
+				}
+
+				long now = System.currentTimeMillis();
+				if (now >= nextCheck) {
+					for (SelectionKey key : selector.keys().toArray(new SelectionKey[0]))
+						((NioHttpConnection) key.attachment()).checkTimeout(now);
+					if (client != null)
+						client.checkPending();
+					nextCheck = now + CHECK_INTERVAL;
+				}
+			} catch (IOException e) {
+				logger.error("I/O error in HTTP reactor", e);
+			} catch (RuntimeException e) {
+				logger.error("Unexpected exception in HTTP reactor", e);
+			}
+		}
+
+		// Fail all connections, pending starts fail because the client is shut down
+		runTasks();
+		for (SelectionKey key : selector.keys().toArray(new SelectionKey[0]))
+			((NioHttpConnection) key.attachment()).fail(new IOException("HTTP client shut down"));
+
+		try {
+			selector.close();
+		} catch (IOException e) {
+			logger.error("Could not close selector", e);
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null)
+			task.run();
+	}
+}
@@ -0,0 +1,126 @@
+package radlab.rain.util;
+
+import java.nio.charset.Charset;
+import java.util.Hashtable;
+
+import org.apache.http.Header;
+
+/**
+ * Response of a request executed by the {@link NioHttpClient}. The body is kept as received (no line handling).
+ */
+public class NioHttpResponse {
+
+	private static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
+
+	private final int statusCode;
+	private final Header[] headers;
+	private final byte[] body;
+	private final int bodyLength;
+	private final long bytesReceived;
+	private final long timeToFirstByte;
+	private final long timeToLastByte;
+	private final String finalUrl;
+
+	NioHttpResponse(int statusCode, Header[] headers, byte[] body, int bodyLength, long bytesReceived,
+			long timeToFirstByte, long timeToLastByte, String finalUrl) {
+		this.statusCode = statusCode;
+		this.headers = headers;
+		this.body = body;
+		this.bodyLength = bodyLength;
+		this.bytesReceived = bytesReceived;
+		this.timeToFirstByte = timeToFirstByte;
+		this.timeToLastByte = timeToLastByte;
+		this.finalUrl = finalUrl;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public Header[] getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * First header with the given name (case insensitive) or null
+	 */
+	public Header getFirstHeader(String name) {
+		for (Header header : headers) {
+			if (header.getName().equalsIgnoreCase(name))
+				return header;
+		}
+		return null;
+	}
+
+	public Hashtable<String, String> getHeaderMap() {
+		Hashtable<String, String> headerMap = new Hashtable<String, String>();
+		for (Header h : headers)
+			headerMap.put(h.getName(), h.getValue());
+		return headerMap;
+	}
+
+	/**
+	 * Body buffer, only the first {@link #getBodyLength()} bytes are valid
+	 */
+	public byte[] getBody() {
+		return body;
+	}
+
+	public int getBodyLength() {
+		return bodyLength;
+	}
+
+	/**
+	 * Body bytes received, larger than the body length if the response mode limited the body
+	 */
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+
+	/**
+	 * Nanoseconds from creating the request until the first byte of the final response (including redirects)
+	 */
+	public long getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	/**
+	 * Nanoseconds from creating the request until the final response was complete
+	 */
+	public long getTimeToLastByte() {
+		return timeToLastByte;
+	}
+
+	/**
+	 * Decodes the body with the charset of the content type (UTF-8 if not specified)
+	 */
+	public String getBodyAsString() {
+		return new String(body, 0, bodyLength, getCharset());
+	}
+
+	private Charset getCharset() {
+		Header contentType = getFirstHeader("Content-Type");
+		if (contentType == null)
+			return DEFAULT_CHARSET;
+
+		for (String param : contentType.getValue().split(";")) {
+			param = param.trim();
+			if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+				try {
+					return Charset.forName(param.substring(8).replace("\"", "").trim());
+				} catch (Exception e) {
+					return DEFAULT_CHARSET;
+				}
+			}
+		}
+
+		return DEFAULT_CHARSET;
+	}
+
+	/**
+	 * URL of the response after following redirects
+	 */
+	public String getFinalUrl() {
+		return finalUrl;
+	}
+}
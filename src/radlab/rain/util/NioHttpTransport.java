@@ -0,0 +1,427 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Drop-in alternative to {@link HttpTransport} which executes requests on the shared {@link NioHttpClient}. The
+ * blocking fetch methods wait for the response, the async variants return a future and optionally call back on
+ * completion. Thousands of agents share the pooled connections and a few I/O threads.
+ *
+ * Like HttpTransport an instance keeps the state of the last blocking request and is used by one agent at a time.
+ */
+public class NioHttpTransport {
+
+	/** Client which executes the requests. */
+	private final NioHttpClient client;
+
+	/** Contents of the response of the last HTTP request executed. */
+	private StringBuilder responseBuffer = new StringBuilder();
+
+	/** HTTP status code of the last HTTP request executed. */
+	private int statusCode = HttpStatus.SC_OK;
+
+	/** HTTP headers of the last HTTP request executed. */
+	private Header[] headers = new Header[0];
+
+	/** URL where we end it if we're redirected at any point. */
+	private String finalUrl = "";
+
+	/** Whether to follow redirects. */
+	private boolean followRedirects = true;
+
+	/** Maximum number of redirects to follow. */
+	private int redirectLimit = 3;
+
+	/** Time to wait for connection to be established. */
+	private int connectTimeout = 10000;
+
+	/** Time to wait between data packets. */
+	private int socketIdleTimeout = 10000;
+
+	/** How the body of the next response is consumed, reset to FULL by each request. */
+	private ResponseMode responseMode = ResponseMode.FULL;
+
+	/** Number of body bytes kept in PREFIX mode. */
+	private int prefixLimit = 4096;
+
+	/** Raw body of the last blocking request in BYTE_BUFFER mode. */
+	private ByteBuffer byteBuffer = ByteBuffer.allocate(0);
+
+	/** Body bytes received, time to first and last byte (ns) of the last blocking request. */
+	private long bytesReceived = 0;
+	private long timeToFirstByte = 0;
+	private long timeToLastByte = 0;
+
+	/**
+	 * Creates a transport on the JVM wide client
+	 */
+	public NioHttpTransport() {
+		this(NioHttpClient.getInstance());
+	}
+
+	public NioHttpTransport(NioHttpClient client) {
+		this.client = client;
+	}
+
+	/*
+	 * Blocking requests
+	 */
+
+	/**
+	 * Executes the given URL as an HTTP GET request.
+	 */
+	public StringBuilder fetchUrl(String url) throws IOException {
+		return fetchUrl(url, (Map<String, String>) null);
+	}
+
+	/**
+	 * Executes the given URL as an HTTP GET request with the given headers.
+	 */
+	public StringBuilder fetchUrl(String url, Map<String, String> headers) throws IOException {
+		return fetch(createGet(url, headers, null));
+	}
+
+	/**
+	 * Executes the given URL and postBody as an HTTP POST request.
+	 */
+	public StringBuilder fetchUrl(String url, String postBody) throws IOException {
+		return fetchUrl(url, postBody, (Map<String, String>) null);
+	}
+
+	/**
+	 * Executes the given URL and postBody as an HTTP POST request with the given headers.
+	 */
+	public StringBuilder fetchUrl(String url, String postBody, Map<String, String> headers) throws IOException {
+		return fetch(createPost(url, postBody, headers, null));
+	}
+
+	public StringBuilder fetch(HttpGet httpGet) throws IOException {
+		return fetch((HttpUriRequest) httpGet);
+	}
+
+	public StringBuilder fetch(HttpGet httpGet, Map<String, String> headers) throws IOException {
+		if (headers != null)
+			HttpTransport.setHeaders(httpGet, headers);
+		return fetch((HttpUriRequest) httpGet);
+	}
+
+	public StringBuilder fetch(HttpPost httpPost) throws IOException {
+		return fetch((HttpUriRequest) httpPost);
+	}
+
+	public StringBuilder fetch(HttpPost httpPost, Map<String, String> headers) throws IOException {
+		if (headers != null) {
+			HttpTransport.checkContentType(headers);
+			HttpTransport.setHeaders(httpPost, headers);
+		}
+		return fetch((HttpUriRequest) httpPost);
+	}
+
+	/**
+	 * Executes a request that was built with the Apache HTTP client classes. Headers and entity are taken from the
+	 * request.
+	 */
+	public StringBuilder fetch(HttpUriRequest httpRequest) throws IOException {
+		return fetch(createExchange(httpRequest, null));
+	}
+
+	private StringBuilder fetch(NioHttpExchange exchange) throws IOException {
+		// The response mode applies to this request only
+		ResponseMode mode = responseMode;
+		responseMode = ResponseMode.FULL;
+
+		// By default we'll end up at the URI being requested (unless a redirect occurs)
+		finalUrl = exchange.getUri().toString();
+
+		client.execute(exchange);
+
+		NioHttpResponse response;
+		try {
+			response = exchange.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + finalUrl);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		}
+
+		statusCode = response.getStatusCode();
+		headers = response.getHeaders();
+		finalUrl = response.getFinalUrl();
+		bytesReceived = response.getBytesReceived();
+		timeToFirstByte = response.getTimeToFirstByte();
+		timeToLastByte = response.getTimeToLastByte();
+
+		responseBuffer.setLength(0);
+		byteBuffer.clear().limit(0);
+		switch (mode) {
+		case FULL:
+		case PREFIX:
+			responseBuffer.append(response.getBodyAsString());
+			break;
+		case BYTE_BUFFER:
+			// Wraps the body of the response without copying
+			byteBuffer = ByteBuffer.wrap(response.getBody(), 0, response.getBodyLength());
+			break;
+		default:
+			break;
+		}
+		return responseBuffer;
+	}
+
+	/*
+	 * Asynchronous requests
+	 */
+
+	public Future<NioHttpResponse> fetchUrlAsync(String url) throws IOException {
+		return fetchUrlAsync(url, (Map<String, String>) null, null);
+	}
+
+	/**
+	 * Executes an HTTP GET request asynchronously.
+	 *
+	 * @param callback
+	 *            Called on an I/O thread once the request completed (optional)
+	 */
+	public Future<NioHttpResponse> fetchUrlAsync(String url, Map<String, String> headers, NioHttpCallback callback)
+			throws IOException {
+		return execute(createGet(url, headers, callback));
+	}
+
+	/**
+	 * Executes an HTTP POST request asynchronously.
+	 *
+	 * @param callback
+	 *            Called on an I/O thread once the request completed (optional)
+	 */
+	public Future<NioHttpResponse> fetchUrlAsync(String url, String postBody, Map<String, String> headers,
+			NioHttpCallback callback) throws IOException {
+		return execute(createPost(url, postBody, headers, callback));
+	}
+
+	public Future<NioHttpResponse> fetchAsync(HttpUriRequest httpRequest, NioHttpCallback callback) throws IOException {
+		return execute(createExchange(httpRequest, callback));
+	}
+
+	private Future<NioHttpResponse> execute(NioHttpExchange exchange) {
+		responseMode = ResponseMode.FULL;
+		client.execute(exchange);
+		return exchange;
+	}
+
+	/*
+	 * Request creation
+	 */
+
+	private NioHttpExchange createGet(String url, Map<String, String> headers, NioHttpCallback callback)
+			throws IOException {
+		return createExchange("GET", toUri(url), defaultHeaders(headers), null, callback);
+	}
+
+	private NioHttpExchange createPost(String url, String postBody, Map<String, String> headers,
+			NioHttpCallback callback) throws IOException {
+		HttpEntity entity = HttpTransport.createFormEntity(postBody);
+
+		Map<String, String> requestHeaders = defaultHeaders(headers);
+		if (!containsHeader(requestHeaders, "Content-Type"))
+			requestHeaders.put("Content-Type", entity.getContentType().getValue());
+
+		return createExchange("POST", toUri(url), requestHeaders, EntityUtils.toByteArray(entity), callback);
+	}
+
+	private NioHttpExchange createExchange(HttpUriRequest httpRequest, NioHttpCallback callback) throws IOException {
+		Map<String, String> requestHeaders = new LinkedHashMap<String, String>();
+		for (Header header : httpRequest.getAllHeaders())
+			requestHeaders.put(header.getName(), header.getValue());
+
+		byte[] body = null;
+		if (httpRequest instanceof HttpEntityEnclosingRequest) {
+			HttpEntity entity = ((HttpEntityEnclosingRequest) httpRequest).getEntity();
+			if (entity != null) {
+				body = EntityUtils.toByteArray(entity);
+				if (entity.getContentType() != null && !containsHeader(requestHeaders, "Content-Type"))
+					requestHeaders.put("Content-Type", entity.getContentType().getValue());
+			}
+		}
+
+		return createExchange(httpRequest.getMethod(), httpRequest.getURI(), requestHeaders, body, callback);
+	}
+
+	private NioHttpExchange createExchange(String method, URI uri, Map<String, String> headers, byte[] body,
+			NioHttpCallback callback) {
+		return new NioHttpExchange(method, uri, headers, body, followRedirects, redirectLimit, connectTimeout,
+				socketIdleTimeout, bodyLimit(), callback);
+	}
+
+	/**
+	 * The body is read in all modes so that the connection stays reusable, only the kept bytes differ
+	 */
+	private int bodyLimit() {
+		switch (responseMode) {
+		case DISCARD:
+		case HEADERS_ONLY:
+			return 0;
+		case PREFIX:
+			return prefixLimit;
+		default:
+			return Integer.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Copies the headers and adds the default Accept-Language header (see {@link HttpTransport#setHeaders})
+	 */
+	private static Map<String, String> defaultHeaders(Map<String, String> headers) {
+		Map<String, String> requestHeaders = new LinkedHashMap<String, String>();
+		if (headers != null)
+			requestHeaders.putAll(headers);
+		if (!containsHeader(requestHeaders, "Accept-Language"))
+			requestHeaders.put("Accept-Language", "en-us,en;q=0.5");
+		return requestHeaders;
+	}
+
+	private static boolean containsHeader(Map<String, String> headers, String name) {
+		for (String key : headers.keySet()) {
+			if (key.equalsIgnoreCase(name))
+				return true;
+		}
+		return false;
+	}
+
+	private static URI toUri(String url) throws IOException {
+		try {
+			return new URI(url);
+		} catch (URISyntaxException e) {
+			throw new IOException("Invalid URL: " + url, e);
+		}
+	}
+
+	/*
+	 * State of the last blocking request and configuration
+	 */
+
+	public NioHttpClient getClient() {
+		return client;
+	}
+
+	public StringBuilder getResponseBuffer() {
+		return responseBuffer;
+	}
+
+	public String getFinalUrl() {
+		return finalUrl;
+	}
+
+	public int getResponseLength() {
+		return responseBuffer.length();
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	public Header[] getHeaders() {
+		return headers;
+	}
+
+	public Hashtable<String, String> getHeaderMap() {
+		Hashtable<String, String> headerMap = new Hashtable<String, String>();
+		for (Header h : headers)
+			headerMap.put(h.getName(), h.getValue());
+		return headerMap;
+	}
+
+	public ResponseMode getResponseMode() {
+		return responseMode;
+	}
+
+	/**
+	 * Sets how the body of the next response is consumed, also applies to async requests. The mode is reset to FULL by
+	 * each request.
+	 */
+	public void setResponseMode(ResponseMode val) {
+		this.responseMode = val;
+	}
+
+	public int getPrefixLimit() {
+		return prefixLimit;
+	}
+
+	public void setPrefixLimit(int val) {
+		this.prefixLimit = val;
+	}
+
+	public ByteBuffer getByteBuffer() {
+		return byteBuffer;
+	}
+
+	public long getBytesReceived() {
+		return bytesReceived;
+	}
+
+	public long getTimeToFirstByte() {
+		return timeToFirstByte;
+	}
+
+	public long getTimeToLastByte() {
+		return timeToLastByte;
+	}
+
+	public boolean getFollowRedirects() {
+		return followRedirects;
+	}
+
+	public void setFollowRedirects(boolean val) {
+		this.followRedirects = val;
+	}
+
+	public int getRedirectLimit() {
+		return redirectLimit;
+	}
+
+	public void setRedirectLimit(int val) {
+		this.redirectLimit = val;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int val) {
+		this.connectTimeout = val;
+	}
+
+	public int getSocketIdleTimeout() {
+		return socketIdleTimeout;
+	}
+
+	public void setSocketIdleTimeout(int val) {
+		this.socketIdleTimeout = val;
+	}
+
+	/**
+	 * Nothing to release, the connections belong to the shared client
+	 */
+	public void dispose() {
+	}
+}
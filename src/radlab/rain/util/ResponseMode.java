@@ -0,0 +1,22 @@
+package radlab.rain.util;
+
+/**
+ * How an HTTP transport consumes the next response body. Operations which do not look at the body choose a cheaper
+ * mode than FULL to save driver CPU on decoding.
+ */
+public enum ResponseMode {
+	// Decode the whole body into the response buffer
+	FULL,
+
+	// Read and count the body, keep nothing
+	DISCARD,
+
+	// Do not read the body (the connection is not reused)
+	HEADERS_ONLY,
+
+	// Decode the first bytes of the body into the response buffer, discard the rest
+	PREFIX,
+
+	// Copy the raw body into a reusable byte buffer of the transport
+	BYTE_BUFFER;
+}
@@ -1,49 +1,108 @@
 package radlab.rain.util;
 
+import java.io.File;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.log4j.Logger;
-import org.apache.thrift.TException;
-import org.apache.thrift.protocol.TBinaryProtocol;
-import org.apache.thrift.protocol.TProtocol;
-import org.apache.thrift.transport.TSocket;
-import org.apache.thrift.transport.TTransport;
-import org.apache.thrift.transport.TTransportException;
 
 import radlab.rain.IShutdown;
 import radlab.rain.RainConfig;
-import de.tum.in.sonar.collector.CollectService;
 import de.tum.in.sonar.collector.Identifier;
 import de.tum.in.sonar.collector.MetricReading;
 
+/**
+ * Ships metric readings to Sonar. Readings are stored in a bounded ring buffer and written by the recorder thread in
+ * batches. A batch is written as soon as it is full or the linger time of its first reading passed. If the buffer is
+ * full new readings are dropped. With the sample policy only every n-th reading is kept once the buffer is half full.
+ * Batches which cannot be written to Sonar are appended to a local spool file (see {@link MetricSpool}).
+ */
 public class SonarRecorder extends Thread implements IShutdown {
 	private static Logger logger = Logger.getLogger(SonarRecorder.class);
 
 	private static Object lock = new Object();
 	private static SonarRecorder singleton;
 
-	private CollectService.Client client;
-	private TTransport transport;
-	private String hostname;
+	// Interval of the recorder's own statistics
+	private static final long STATISTICS_INTERVAL = 3000;
+
+	/**
+	 * What happens if readings arrive faster than they are written
+	 */
+	public enum DropPolicy {
+		// Drop new readings if the buffer is full
+		DROP,
 
-	private class Job {
-		Identifier id;
-		MetricReading value;
+		// Keep every n-th reading if the buffer is half full, drop new readings if the buffer is full
+		SAMPLE;
 	}
 
-	private boolean running = true;
-	private BlockingQueue<Job> queue = new LinkedBlockingQueue<Job>();
+	// Destination of all batches
+	private final IMetricSink sink;
+
+	// Destination of batches which could not be written to the sink (optional)
+	private final IMetricSink spool;
+	private String hostname;
+
+	// Settings
+	private final int batchSize;
+	private final long lingerNanos;
+	private final DropPolicy dropPolicy;
+	private final int sampleRate;
+
+	// Ring buffer with all readings which are not written yet
+	private final ReentrantLock bufferLock = new ReentrantLock();
+	private final Condition notEmpty = bufferLock.newCondition();
+	private final String[] sensors;
+	private final long[] timestamps;
+	private final double[] values;
+	private int head = 0;
+	private int size = 0;
+	private long sampleCounter = 0;
+
+	// Statistics
+	private long recorded = 0;
+	private long dropped = 0;
+	private long written = 0;
+	private long spooled = 0;
+	private long failed = 0;
+	private long batches = 0;
+	private int maxQueueDepth = 0;
+	private int lastBatchSize = 0;
+
+	private volatile boolean running = true;
 
 	private SonarRecorder() {
+		this(new ThriftMetricSink(RainConfig.getInstance().sonarHost, ThriftMetricSink.DEFAULT_PORT), createSpool(),
+				RainConfig.getInstance().sonarQueueCapacity, RainConfig.getInstance().sonarBatchSize, RainConfig
+						.getInstance().sonarLingerMillis, DropPolicy.valueOf(RainConfig.getInstance().sonarDropPolicy
+						.toUpperCase()), RainConfig.getInstance().sonarSampleRate);
+
+		// Register for shutdown
+		RainConfig.getInstance().register(this);
+	}
+
+	SonarRecorder(IMetricSink sink, IMetricSink spool, int capacity, int batchSize, long lingerMillis,
+			DropPolicy dropPolicy, int sampleRate) {
+		this.sink = sink;
+		this.spool = spool;
+		this.batchSize = Math.max(1, batchSize);
+		this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+		this.dropPolicy = dropPolicy;
+		this.sampleRate = Math.max(1, sampleRate);
+
+		sensors = new String[capacity];
+		timestamps = new long[capacity];
+		values = new double[capacity];
+
 		try {
-			connect();
-		} catch (TTransportException e) {
-			logger.error("Connection with sonar failed", e);
+			hostname = InetAddress.getLocalHost().getHostName();
 		} catch (UnknownHostException e) {
-			logger.error("Connection with sonar failed, could not determine INet address", e);
+			logger.error("Could not determine INet address", e);
+			hostname = "unknown";
 		}
 
 		// Set thread name
@@ -51,15 +110,30 @@ public class SonarRecorder extends Thread implements IShutdown {
 
 		// Launch thread
 		this.start();
+	}
 
-		// Register for shutdown
-		RainConfig.getInstance().register(this);
+	/**
+	 * Spool file of this run, the file is only created if a batch could not be written
+	 */
+	private static IMetricSink createSpool() {
+		String directory = RainConfig.getInstance().sonarSpoolDirectory;
+		if (directory == null || directory.isEmpty())
+			return null;
+
+		return new MetricSpool(new File(directory, "metrics-" + System.currentTimeMillis() + ".spool"));
 	}
 
 	public void shutdown() {
 		logger.info("Shutting down SonarRecorder");
 		this.running = false;
-		this.interrupt();
+
+		// Wake up the recorder thread (not interrupted, the spool file channel would be closed)
+		bufferLock.lock();
+		try {
+			notEmpty.signal();
+		} finally {
+			bufferLock.unlock();
+		}
 	}
 
 	public static SonarRecorder getInstance() {
@@ -71,52 +145,227 @@ public class SonarRecorder extends Thread implements IShutdown {
 		return SonarRecorder.singleton;
 	}
 
-	private void connect() throws TTransportException, UnknownHostException {
-		// Read configuration
-		String sonarServer = RainConfig.getInstance().sonarHost;
-		logger.debug("sonar server: " + sonarServer);
+	public void disconnect() {
+		// transport.close();
+	}
 
-		// Get hostname
-		InetAddress addr = InetAddress.getLocalHost();
-		hostname = addr.getHostName();
+	public void run() {
+		// Batch is reused for all writes
+		Identifier[] ids = new Identifier[batchSize];
+		MetricReading[] readings = new MetricReading[batchSize];
+		for (int i = 0; i < batchSize; i++) {
+			ids[i] = new Identifier();
+			readings[i] = new MetricReading();
+		}
 
-		// Get Sonar connection
-		transport = new TSocket(sonarServer, 7921);
-		transport.open();
+		long nextStatistics = System.currentTimeMillis() + STATISTICS_INTERVAL;
+		while (running || !isEmpty()) {
+			try {
+				// Publish own statistics
+				long now = System.currentTimeMillis();
+				if (now >= nextStatistics) {
+					recordStatistics(now);
+					nextStatistics = now + STATISTICS_INTERVAL;
+				}
 
-		TProtocol protocol = new TBinaryProtocol(transport);
+				int count = takeBatch(ids, readings);
+				if (count > 0)
+					writeBatch(ids, readings, count);
+			} catch (InterruptedException e) {
+				// Thread will terminate if the running flag is not set
+			}
+		}
+
+		sink.close();
+		if (spool != null)
+			spool.close();
 
-		// Create new client
-		client = new CollectService.Client(protocol);
+		logger.info("SonarRecorder stopped, readings recorded: " + recorded + " written: " + written + " spooled: "
+				+ spooled + " dropped: " + dropped + " failed: " + failed);
 	}
 
-	public void disconnect() {
-		// transport.close();
+	private boolean isEmpty() {
+		bufferLock.lock();
+		try {
+			return size == 0;
+		} finally {
+			bufferLock.unlock();
+		}
 	}
 
-	public void run() {
-		while (running || !queue.isEmpty()) {
-			try {
-				Job job = queue.take();
-				job.id.setHostname(hostname);
-				client.logMetric(job.id, job.value);
-			} catch (InterruptedException e) {
-			} catch (TException e) {
-				logger.error("Sonar recorder could not log metric", e);
+	/**
+	 * Waits for the first reading and collects readings until the batch is full or the linger time passed
+	 */
+	private int takeBatch(Identifier[] ids, MetricReading[] readings) throws InterruptedException {
+		int count = 0;
+
+		bufferLock.lock();
+		try {
+			// Wait for the first reading (at least once per statistics interval)
+			if (size == 0 && running)
+				notEmpty.await(STATISTICS_INTERVAL, TimeUnit.MILLISECONDS);
+
+			long lingerEnd = System.nanoTime() + lingerNanos;
+			while (size > 0 || running) {
+				// Move readings into the batch
+				while (size > 0 && count < batchSize) {
+					ids[count].setSensor(sensors[head]);
+					ids[count].setTimestamp(timestamps[head]);
+					ids[count].setHostname(hostname);
+					readings[count].setValue(values[head]);
+					sensors[head] = null;
+
+					head = (head + 1) % sensors.length;
+					size--;
+					count++;
+				}
+
+				if (count == 0 || count >= batchSize || !running)
+					break;
+
+				// Linger for more readings
+				long remaining = lingerEnd - System.nanoTime();
+				if (remaining <= 0)
+					break;
+				notEmpty.awaitNanos(remaining);
 			}
+		} finally {
+			bufferLock.unlock();
+		}
+
+		return count;
+	}
+
+	private void writeBatch(Identifier[] ids, MetricReading[] readings, int count) {
+		try {
+			sink.write(ids, readings, count);
+			written += count;
+		} catch (Exception e) {
+			if (spool == null) {
+				failed += count;
+				logger.error("Sonar recorder could not log " + count + " metrics", e);
+			} else {
+				spoolBatch(ids, readings, count);
+			}
+		}
+
+		bufferLock.lock();
+		try {
+			batches++;
+			lastBatchSize = count;
+		} finally {
+			bufferLock.unlock();
+		}
+	}
+
+	private void spoolBatch(Identifier[] ids, MetricReading[] readings, int count) {
+		try {
+			spool.write(ids, readings, count);
+			spooled += count;
+		} catch (Exception e) {
+			failed += count;
+			logger.error("Sonar recorder could not spool " + count + " metrics", e);
 		}
 	}
 
+	private void recordStatistics(long now) {
+		long timestamp = now / 1000;
+
+		int queueDepth;
+		int batchSize;
+		long dropped;
+		bufferLock.lock();
+		try {
+			queueDepth = maxQueueDepth;
+			batchSize = lastBatchSize;
+			dropped = this.dropped;
+			maxQueueDepth = size;
+		} finally {
+			bufferLock.unlock();
+		}
+
+		record("rain.sonar.queue", timestamp, queueDepth);
+		record("rain.sonar.batch", timestamp, batchSize);
+		record("rain.sonar.drops", timestamp, dropped);
+	}
+
 	public void record(Identifier id, MetricReading value) {
+		record(id.getSensor(), id.getTimestamp(), value.getValue());
+	}
+
+	/**
+	 * Records a reading without creating Thrift objects
+	 *
+	 * @param timestamp
+	 *            Timestamp in seconds
+	 */
+	public void record(String sensor, long timestamp, double value) {
 		// Only accept new records if recorder is still running
 		if (!running)
 			return;
 
-		// Get a new object from pool
-		Job job = new Job();
-		job.id = id;
-		job.value = value;
-		queue.add(job);
+		bufferLock.lock();
+		try {
+			recorded++;
+
+			// Buffer is full
+			if (size == sensors.length) {
+				dropped++;
+				return;
+			}
+
+			// Sample readings if the buffer fills up
+			if (dropPolicy == DropPolicy.SAMPLE && size >= sensors.length / 2 && (sampleCounter++ % sampleRate) != 0) {
+				dropped++;
+				return;
+			}
+
+			int tail = (head + size) % sensors.length;
+			sensors[tail] = sensor;
+			timestamps[tail] = timestamp;
+			values[tail] = value;
+			size++;
+			maxQueueDepth = Math.max(maxQueueDepth, size);
+
+			notEmpty.signal();
+		} finally {
+			bufferLock.unlock();
+		}
+	}
+
+	public long getRecorded() {
+		bufferLock.lock();
+		try {
+			return recorded;
+		} finally {
+			bufferLock.unlock();
+		}
+	}
+
+	public long getDropped() {
+		bufferLock.lock();
+		try {
+			return dropped;
+		} finally {
+			bufferLock.unlock();
+		}
 	}
 
+	public long getBatches() {
+		bufferLock.lock();
+		try {
+			return batches;
+		} finally {
+			bufferLock.unlock();
+		}
+	}
+
+	public int getQueueDepth() {
+		bufferLock.lock();
+		try {
+			return size;
+		} finally {
+			bufferLock.unlock();
+		}
+	}
 }
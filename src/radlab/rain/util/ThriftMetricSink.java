@@ -0,0 +1,167 @@
+package radlab.rain.util;
+
+import org.apache.log4j.Logger;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+import de.tum.in.sonar.collector.CollectService;
+import de.tum.in.sonar.collector.Identifier;
+import de.tum.in.sonar.collector.MetricReading;
+
+/**
+ * Writes metric batches to a Sonar collector. All logMetric calls of a batch are pipelined: the requests are written
+ * into the socket buffer and flushed at once, afterwards all responses are read. A batch costs one round trip instead
+ * of one round trip per reading.
+ *
+ * The generated client only accepts the response of the last call it sent. Therefore the messages are written and read
+ * with the protocol directly, each call has its own sequence id.
+ */
+public class ThriftMetricSink implements IMetricSink {
+	private static Logger logger = Logger.getLogger(ThriftMetricSink.class);
+
+	// Default port of the Sonar collector
+	public static final int DEFAULT_PORT = 7921;
+
+	// Minimum time between two connection attempts
+	private static final long RECONNECT_INTERVAL = 10000;
+
+	private final String host;
+	private final int port;
+
+	private DeferredFlushTransport transport;
+	private TProtocol protocol;
+	private long lastConnectAttempt = 0;
+
+	// Sequence id of the last call
+	private int seqId = 0;
+
+	// Message structs are reused for all calls
+	private final CollectService.logMetric_args args = new CollectService.logMetric_args();
+	private final CollectService.logMetric_result result = new CollectService.logMetric_result();
+
+	/**
+	 * Transport that ignores the flush after each call. The batch is flushed explicitly.
+	 */
+	private static class DeferredFlushTransport extends TTransport {
+		private final TTransport delegate;
+
+		DeferredFlushTransport(TTransport delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return delegate.isOpen();
+		}
+
+		@Override
+		public void open() throws TTransportException {
+			delegate.open();
+		}
+
+		@Override
+		public void close() {
+			delegate.close();
+		}
+
+		@Override
+		public int read(byte[] buf, int off, int len) throws TTransportException {
+			return delegate.read(buf, off, len);
+		}
+
+		@Override
+		public void write(byte[] buf, int off, int len) throws TTransportException {
+			delegate.write(buf, off, len);
+		}
+
+		@Override
+		public void flush() {
+			// Batch is flushed by flushBatch
+		}
+
+		void flushBatch() throws TTransportException {
+			delegate.flush();
+		}
+	}
+
+	public ThriftMetricSink(String host, int port) {
+		this.host = host;
+		this.port = port;
+	}
+
+	private boolean connect() {
+		if (protocol != null)
+			return true;
+
+		// Do not try to connect on each batch
+		long now = System.currentTimeMillis();
+		if (now - lastConnectAttempt < RECONNECT_INTERVAL)
+			return false;
+		lastConnectAttempt = now;
+
+		try {
+			logger.debug("sonar server: " + host + ":" + port);
+			transport = new DeferredFlushTransport(new TSocket(host, port));
+			transport.open();
+			protocol = new TBinaryProtocol(transport);
+			return true;
+		} catch (TTransportException e) {
+			logger.error("Connection with sonar failed", e);
+			transport = null;
+			return false;
+		}
+	}
+
+	@Override
+	public void write(Identifier[] ids, MetricReading[] values, int count) throws Exception {
+		if (!connect())
+			throw new TTransportException(TTransportException.NOT_OPEN, "Not connected with sonar");
+
+		try {
+			// Send all calls
+			int firstSeqId = seqId + 1;
+			for (int i = 0; i < count; i++) {
+				protocol.writeMessageBegin(new TMessage("logMetric", TMessageType.CALL, ++seqId));
+				args.setId(ids[i]);
+				args.setValue(values[i]);
+				args.write(protocol);
+				protocol.writeMessageEnd();
+			}
+			transport.flushBatch();
+
+			// Receive all responses in order
+			for (int i = 0; i < count; i++) {
+				TMessage message = protocol.readMessageBegin();
+				if (message.type == TMessageType.EXCEPTION) {
+					TApplicationException exception = TApplicationException.read(protocol);
+					protocol.readMessageEnd();
+					throw exception;
+				}
+				if (message.seqid != firstSeqId + i)
+					throw new TApplicationException(TApplicationException.BAD_SEQUENCE_ID,
+							"logMetric failed: out of sequence response");
+				result.read(protocol);
+				protocol.readMessageEnd();
+			}
+		} catch (TException e) {
+			// Responses of the broken batch cannot be matched anymore
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (transport != null)
+			transport.close();
+		transport = null;
+		protocol = null;
+	}
+}
@@ -0,0 +1,29 @@
+package radlab.rain.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+
+import radlab.rain.util.HttpPhases.Phase;
+
+/**
+ * Connection operator of the {@link HttpConnectionPool} which records the host name resolution time
+ */
+class TimedConnectionOperator extends DefaultClientConnectionOperator {
+
+	TimedConnectionOperator(SchemeRegistry schemes) {
+		super(schemes);
+	}
+
+	@Override
+	protected InetAddress[] resolveHostname(String host) throws UnknownHostException {
+		long start = System.nanoTime();
+		try {
+			return super.resolveHostname(host);
+		} finally {
+			HttpPhases.add(Phase.DNS, System.nanoTime() - start);
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.scheme.LayeredSchemeSocketFactory;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.params.HttpParams;
+
+import radlab.rain.util.HttpPhases.Phase;
+
+/**
+ * TLS socket factory of the {@link HttpConnectionPool}. Connects a plain socket and layers TLS on top of it to record
+ * connect and handshake time separately. Certificates and host names are not verified.
+ */
+class TimedSSLSocketFactory extends TimedSocketFactory implements LayeredSchemeSocketFactory {
+
+	private final javax.net.ssl.SSLSocketFactory tls;
+
+	// Used for tunneled connections
+	private final SSLSocketFactory layered;
+
+	TimedSSLSocketFactory(SSLContext context, SSLSocketFactory layered) {
+		this.tls = context.getSocketFactory();
+		this.layered = layered;
+	}
+
+	@Override
+	public Socket connectSocket(Socket socket, InetSocketAddress remote, InetSocketAddress local, HttpParams params)
+			throws IOException, ConnectTimeoutException {
+		Socket plain = super.connectSocket(socket, remote, local, params);
+
+		long start = System.nanoTime();
+		try {
+			SSLSocket ssl = (SSLSocket) tls.createSocket(plain, remote.getHostName(), remote.getPort(), true);
+			ssl.startHandshake();
+			return ssl;
+		} catch (IOException e) {
+			plain.close();
+			throw e;
+		} finally {
+			HttpPhases.add(Phase.TLS, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public Socket createLayeredSocket(Socket socket, String target, int port, boolean autoClose) throws IOException,
+			UnknownHostException {
+		return layered.createLayeredSocket(socket, target, port, autoClose);
+	}
+}
@@ -0,0 +1,55 @@
+package radlab.rain.util;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+
+import radlab.rain.util.HttpPhases.Phase;
+
+/**
+ * Plain socket factory of the {@link HttpConnectionPool} which records the TCP connect time
+ */
+class TimedSocketFactory implements SchemeSocketFactory {
+
+	@Override
+	public Socket createSocket(HttpParams params) throws IOException {
+		return new Socket();
+	}
+
+	@Override
+	public Socket connectSocket(Socket socket, InetSocketAddress remote, InetSocketAddress local, HttpParams params)
+			throws IOException, ConnectTimeoutException {
+		if (socket == null)
+			socket = new Socket();
+
+		if (local != null) {
+			socket.setReuseAddress(HttpConnectionParams.getSoReuseaddr(params));
+			socket.bind(local);
+		}
+
+		long start = System.nanoTime();
+		try {
+			socket.setSoTimeout(HttpConnectionParams.getSoTimeout(params));
+			socket.connect(remote, HttpConnectionParams.getConnectionTimeout(params));
+		} catch (SocketTimeoutException e) {
+			throw new ConnectTimeoutException("Connect to " + remote + " timed out");
+		} finally {
+			HttpPhases.add(Phase.CONNECT, System.nanoTime() - start);
+		}
+
+		return socket;
+	}
+
+	@Override
+	public boolean isSecure(Socket socket) {
+		return socket instanceof SSLSocket;
+	}
+}
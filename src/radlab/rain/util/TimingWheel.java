@@ -0,0 +1,244 @@
+package radlab.rain.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Hierarchical timing wheel. Tasks are registered with a deadline (System.nanoTime based). A single timer thread
+ * advances the wheel and hands all expired tasks to an executor (dispatcher pool). Registering a task is lock free and
+ * costs one small node. A registered task does not block any thread until it expires.
+ *
+ * The wheel has four levels with 256 slots each. Level 0 has the resolution of one tick, each higher level covers 256
+ * slots of the level below. Entries are cascaded down as time advances. The timer thread only wakes up for ticks that
+ * have expiring entries (or a cascade) and is unparked if a task with an earlier deadline is registered.
+ */
+public class TimingWheel extends Thread {
+	private static Logger logger = Logger.getLogger(TimingWheel.class);
+
+	// Wheel layout
+	private static final int LEVELS = 4;
+	private static final int SLOT_BITS = 8;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	// Tick duration in nanoseconds
+	private final long tickNanos;
+
+	// Reference time of tick 0
+	private final long startNanos;
+
+	// Executor which runs expired tasks
+	private final Executor dispatcher;
+
+	// Slots (single linked lists), only accessed by the timer thread
+	private final Node[][] wheel = new Node[LEVELS][SLOTS];
+	private long entries = 0;
+
+	// Last tick processed by the timer thread
+	private long currentTick = 0;
+
+	// Newly registered entries which have not been added to the wheel yet
+	private final AtomicReference<Node> inbox = new AtomicReference<Node>();
+
+	// Tick the timer thread is going to wake up
+	private volatile long plannedWakeUpTick = Long.MAX_VALUE;
+
+	// Keeps running as long as this flag is true
+	private volatile boolean running = true;
+
+	private static final class Node {
+		final Runnable task;
+		final long deadlineTick;
+		Node next;
+
+		Node(Runnable task, long deadlineTick) {
+			this.task = task;
+			this.deadlineTick = deadlineTick;
+		}
+	}
+
+	public TimingWheel(long tickNanos, Executor dispatcher) {
+		this.tickNanos = Math.max(1, tickNanos);
+		this.dispatcher = dispatcher;
+		this.startNanos = System.nanoTime();
+
+		setName("TimingWheel");
+		setDaemon(true);
+	}
+
+	/**
+	 * Registers a task that is dispatched as soon as System.nanoTime() reaches the deadline.
+	 */
+	public void schedule(Runnable task, long deadlineNanos) {
+		long deadlineTick = toTick(deadlineNanos);
+		Node node = new Node(task, deadlineTick);
+
+		// Push the node onto the inbox stack
+		Node head;
+		do {
+			head = inbox.get();
+			node.next = head;
+		} while (!inbox.compareAndSet(head, node));
+
+		// Wake up the timer thread if the new deadline is earlier than its wake up time
+		if (deadlineTick < plannedWakeUpTick)
+			LockSupport.unpark(this);
+	}
+
+	private long toTick(long nanos) {
+		long delta = nanos - startNanos;
+		if (delta <= 0)
+			return 0;
+
+		// Round up so that tasks never run early
+		return (delta + tickNanos - 1) / tickNanos;
+	}
+
+	public void shutdown() {
+		running = false;
+		LockSupport.unpark(this);
+	}
+
+	@Override
+	public void run() {
+		logger.debug("Timing wheel started with a tick of " + tickNanos + "ns");
+
+		while (running) {
+			try {
+				long nowTick = (System.nanoTime() - startNanos) / tickNanos;
+
+				// Add new entries and advance the wheel up to now
+				drainInbox();
+				while (currentTick < nowTick) {
+					currentTick++;
+					advance(currentTick);
+				}
+
+				// Entries which arrived while advancing
+				drainInbox();
+
+				// Park until the next tick with work
+				long wakeUpTick = nextWakeUpTick();
+				plannedWakeUpTick = wakeUpTick;
+				if (inbox.get() == null) {
+					if (wakeUpTick == Long.MAX_VALUE)
+						LockSupport.park(this);
+					else
+						LockSupport.parkNanos(this, startNanos + wakeUpTick * tickNanos - System.nanoTime());
+				}
+				plannedWakeUpTick = Long.MAX_VALUE;
+			} catch (Throwable e) {
+				logger.error("Timing wheel failed to dispatch tasks", e);
+			}
+		}
+
+		logger.debug("Timing wheel stopped, " + entries + " entries left");
+	}
+
+	private void drainInbox() {
+		Node node = inbox.getAndSet(null);
+		while (node != null) {
+			Node next = node.next;
+			if (node.deadlineTick <= currentTick)
+				dispatch(node);
+			else
+				insert(node, currentTick);
+			node = next;
+		}
+	}
+
+	/**
+	 * Inserts a node relative to the given base tick
+	 */
+	private void insert(Node node, long baseTick) {
+		long deadlineTick = node.deadlineTick;
+		long delta = Math.min(deadlineTick - baseTick, MAX_DELTA);
+		if (delta < 0)
+			delta = 0;
+
+		int level = 0;
+		while (delta >= (1L << (SLOT_BITS * (level + 1))))
+			level++;
+
+		// Entries beyond the wheel horizon are put into the last slot of the horizon and cascaded again
+		if (deadlineTick - baseTick > MAX_DELTA)
+			deadlineTick = baseTick + MAX_DELTA;
+
+		int slot = (int) ((deadlineTick >> (SLOT_BITS * level)) & SLOT_MASK);
+		node.next = wheel[level][slot];
+		wheel[level][slot] = node;
+		entries++;
+	}
+
+	/**
+	 * Processes one tick: cascades higher levels if a lower level wrapped and expires all level 0 entries
+	 */
+	private void advance(long tick) {
+		// Find the highest level which needs a cascade
+		int cascadeLevel = 0;
+		while (cascadeLevel < LEVELS - 1 && ((tick >> (SLOT_BITS * cascadeLevel)) & SLOT_MASK) == 0)
+			cascadeLevel++;
+
+		// Cascade from the highest level down
+		for (int level = cascadeLevel; level > 0; level--) {
+			int slot = (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK);
+			Node node = wheel[level][slot];
+			wheel[level][slot] = null;
+			while (node != null) {
+				Node next = node.next;
+				entries--;
+				insert(node, tick);
+				node = next;
+			}
+		}
+
+		// Expire level 0 slot
+		int slot = (int) (tick & SLOT_MASK);
+		Node node = wheel[0][slot];
+		wheel[0][slot] = null;
+		while (node != null) {
+			Node next = node.next;
+			entries--;
+			if (node.deadlineTick <= tick)
+				dispatch(node);
+			else
+				insert(node, tick);
+			node = next;
+		}
+	}
+
+	private void dispatch(Node node) {
+		node.next = null;
+		try {
+			dispatcher.execute(node.task);
+		} catch (Exception e) {
+			logger.error("Could not dispatch expired task", e);
+		}
+	}
+
+	/**
+	 * Next tick that has expiring level 0 entries or requires a cascade
+	 */
+	private long nextWakeUpTick() {
+		if (entries == 0)
+			return Long.MAX_VALUE;
+
+		// Scan level 0 until the next cascade
+		long tick = currentTick + 1;
+		while ((tick & SLOT_MASK) != 0) {
+			if (wheel[0][(int) (tick & SLOT_MASK)] != null)
+				return tick;
+			tick++;
+		}
+
+		return tick;
+	}
+
+	public long getTickNanos() {
+		return tickNanos;
+	}
+}
@@ -0,0 +1,194 @@
+package radlab.rain.util;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf distributed ranks with constant expected sampling time, independent of the number of elements. Uses the
+ * rejection-inversion method of Hormann and Derflinger: a uniform number is mapped through the inverse of the
+ * integrated density and accepted if it falls under the probability of the nearest rank, which happens in almost all
+ * draws. No tables are required, so key spaces of 10^9 and more cost the same as small ones.
+ *
+ * Bounded samplers return ranks in [1, n] for any exponent > 0, unbounded samplers ranks in [1, inf) for exponents >
+ * 1. Rank 1 is the most popular. Keys optionally scramble the ranks with a fixed permutation of [0, n) so that popular
+ * keys are spread over the key space. The permutation only depends on n, all agents agree on the hot keys.
+ *
+ * Samplers are immutable and can be shared between threads, the default RNG is thread local.
+ */
+public class ZipfSampler {
+
+	// Seed of the key permutation
+	private static final long SCRAMBLE_SEED = 0x5DEECE66DL;
+
+	// Unbounded ranks above this are rejected
+	private static final double MAX_RANK = (double) (1L << 62);
+
+	private final long n;
+	private final double exponent;
+	private final boolean bounded;
+	private final boolean scrambled;
+
+	// Rejection-inversion constants
+	private final double hIntegralX1;
+	private final double hIntegralNumberOfElements;
+	private final double s;
+
+	// Permutation of [0, 2^bits), cycle walking keeps it inside [0, n)
+	private final long mask;
+	private final int shift;
+	private final long offset;
+
+	/**
+	 * Ranks in [1, n]
+	 */
+	public ZipfSampler(long n, double exponent) {
+		this(n, exponent, false);
+	}
+
+	/**
+	 * Ranks in [1, n], keys in [0, n) which are scrambled if requested
+	 */
+	public ZipfSampler(long n, double exponent, boolean scrambled) {
+		this(n, exponent, true, scrambled);
+	}
+
+	/**
+	 * Ranks in [1, inf), requires an exponent > 1
+	 */
+	public static ZipfSampler unbounded(double exponent) {
+		if (!(exponent > 1))
+			throw new IllegalArgumentException("unbounded zipf requires an exponent > 1: " + exponent);
+		return new ZipfSampler(Long.MAX_VALUE, exponent, false, false);
+	}
+
+	private ZipfSampler(long n, double exponent, boolean bounded, boolean scrambled) {
+		if (n < 1)
+			throw new IllegalArgumentException("number of elements must be > 0: " + n);
+		if (!(exponent > 0))
+			throw new IllegalArgumentException("exponent must be > 0: " + exponent);
+
+		this.n = n;
+		this.exponent = exponent;
+		this.bounded = bounded;
+		this.scrambled = scrambled;
+
+		hIntegralX1 = hIntegral(1.5) - 1;
+		hIntegralNumberOfElements = bounded ? hIntegral(n + 0.5) : 1 / (exponent - 1);
+		s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+
+		int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(n - 1));
+		mask = bits == 64 ? -1L : (1L << bits) - 1;
+		shift = bits / 2;
+		offset = SCRAMBLE_SEED & mask;
+	}
+
+	public long nextRank() {
+		return nextRank(ThreadLocalRandom.current());
+	}
+
+	public long nextRank(Random random) {
+		while (true) {
+			// Uniform in (hIntegralX1, hIntegralNumberOfElements]
+			double u = hIntegralNumberOfElements + random.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+			double x = hIntegralInverse(u);
+
+			if (!bounded && !(x < MAX_RANK))
+				continue;
+
+			long k = (long) (x + 0.5);
+			if (k < 1)
+				k = 1;
+			else if (k > n)
+				k = n;
+
+			// Accept without evaluating h in most cases
+			if (k - x <= s || u >= hIntegral(k + 0.5) - h(k))
+				return k;
+		}
+	}
+
+	/**
+	 * Key in [0, n) of the next rank, see {@link #keyOf(long)}
+	 */
+	public long nextKey() {
+		return keyOf(nextRank(ThreadLocalRandom.current()));
+	}
+
+	public long nextKey(Random random) {
+		return keyOf(nextRank(random));
+	}
+
+	/**
+	 * Maps a rank to its key: rank - 1 or its scrambled position
+	 */
+	public long keyOf(long rank) {
+		long key = rank - 1;
+		if (!scrambled)
+			return key;
+
+		// Bijection of [0, 2^bits), repeated until the key is in range (expected less than two rounds)
+		do {
+			key = permute(key);
+		} while (Long.compareUnsigned(key, n) >= 0);
+		return key;
+	}
+
+	private long permute(long x) {
+		// Odd multiplications, xor shifts and additions are bijective modulo 2^bits
+		x = (x * 0x9E3779B97F4A7C15L + offset) & mask;
+		x ^= x >>> shift;
+		x = (x * 0xC2B2AE3D27D4EB4FL) & mask;
+		x ^= x >>> shift;
+		x = (x * 0x165667B19E3779F9L + 1) & mask;
+		x ^= x >>> shift;
+		return x;
+	}
+
+	public long getNumberOfElements() {
+		return bounded ? n : Long.MAX_VALUE;
+	}
+
+	public double getExponent() {
+		return exponent;
+	}
+
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	public boolean isScrambled() {
+		return scrambled;
+	}
+
+	// Unnormalized density h(x) = x^-exponent
+	private double h(double x) {
+		return Math.exp(-exponent * Math.log(x));
+	}
+
+	// Integral of h, (x^(1-exponent) - 1) / (1-exponent) and log(x) for exponent 1
+	private double hIntegral(double x) {
+		double logX = Math.log(x);
+		return helper2((1 - exponent) * logX) * logX;
+	}
+
+	private double hIntegralInverse(double x) {
+		double t = x * (1 - exponent);
+		if (t < -1)
+			t = -1;
+		return Math.exp(helper1(t) * x);
+	}
+
+	// log(1+x)/x, stable around 0
+	private static double helper1(double x) {
+		if (Math.abs(x) > 1e-8)
+			return Math.log1p(x) / x;
+		return 1 - x * (0.5 - x * (1 / 3d - x * 0.25));
+	}
+
+	// (exp(x)-1)/x, stable around 0
+	private static double helper2(double x) {
+		if (Math.abs(x) > 1e-8)
+			return Math.expm1(x) / x;
+		return 1 + x * 0.5 * (1 + x * (1 / 3d) * (1 + x * 0.25));
+	}
+}
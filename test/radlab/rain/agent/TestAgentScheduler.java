@@ -0,0 +1,67 @@
+package radlab.rain.agent;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestAgentScheduler {
+
+	private static Runnable countDown(final CountDownLatch latch) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		};
+	}
+
+	@Test
+	public void testScheduleAt() throws Exception {
+		AgentScheduler scheduler = new AgentScheduler(2, 100);
+		try {
+			CountDownLatch done = new CountDownLatch(1);
+			long start = System.currentTimeMillis();
+			scheduler.scheduleAt(countDown(done), start + 50);
+
+			assertTrue(done.await(2, TimeUnit.SECONDS));
+			assertTrue(System.currentTimeMillis() - start >= 45);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testBlockingOperationsDoNotOccupySteps() throws Exception {
+		AgentScheduler scheduler = new AgentScheduler(1, 100);
+		final CountDownLatch gate = new CountDownLatch(1);
+		try {
+			// More blocking operations than scheduler threads
+			final CountDownLatch running = new CountDownLatch(5);
+			for (int i = 0; i < 5; i++) {
+				scheduler.executeBlocking(new Runnable() {
+					@Override
+					public void run() {
+						running.countDown();
+						try {
+							gate.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+			}
+			assertTrue(running.await(2, TimeUnit.SECONDS));
+
+			// Steps still run while all operations block
+			CountDownLatch step = new CountDownLatch(1);
+			scheduler.execute(countDown(step));
+			assertTrue(step.await(2, TimeUnit.SECONDS));
+		} finally {
+			gate.countDown();
+			scheduler.shutdown();
+		}
+	}
+}
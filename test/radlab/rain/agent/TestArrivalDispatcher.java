@@ -0,0 +1,158 @@
+package radlab.rain.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import radlab.rain.RainConfig;
+import radlab.rain.Timing;
+import radlab.rain.load.ArrivalProcess;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.load.LoadManager;
+import radlab.rain.load.LoadSchedule;
+import radlab.rain.operation.Generator;
+import radlab.rain.operation.IOperation;
+import radlab.rain.operation.Operation;
+import radlab.rain.scoreboard.Scoreboard;
+
+public class TestArrivalDispatcher {
+
+	/**
+	 * Operation that waits for the release latch
+	 */
+	private static class LatchOperation extends Operation {
+		private final CountDownLatch release;
+
+		LatchOperation(CountDownLatch release) {
+			this.operationName = "latch";
+			this.release = release;
+		}
+
+		@Override
+		protected void execute() throws Throwable {
+			failed = !release.await(5, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public boolean isAsync() {
+			return true;
+		}
+
+		@Override
+		public void setAsync(boolean async) {
+		}
+	}
+
+	private static class TestGenerator extends Generator {
+		final List<IOperation> operations = new CopyOnWriteArrayList<IOperation>();
+		private final CountDownLatch release;
+		private final boolean empty;
+
+		TestGenerator(CountDownLatch release, boolean empty) {
+			this.release = release;
+			this.empty = empty;
+		}
+
+		@Override
+		public void initialize() {
+		}
+
+		@Override
+		public IOperation nextRequest(int lastOperation) {
+			if (empty)
+				return null;
+
+			IOperation operation = new LatchOperation(release);
+			operations.add(operation);
+			return operation;
+		}
+
+		@Override
+		public void dispose() {
+		}
+	}
+
+	private ArrivalDispatcher run(double rate, long duration, TestGenerator generator, AsyncExecutor executor)
+			throws Exception {
+		RainConfig.getInstance().sonarHost = "localhost";
+		RainConfig.getInstance().sonarSpoolDirectory = "";
+
+		Timing timing = new Timing(0, duration, 0);
+		LoadDefinition load = new LoadDefinition(duration, 0, null, 0, rate, ArrivalProcess.CONSTANT);
+		LoadManager loadManager = new LoadManager(0, timing, new LoadSchedule(Arrays.asList(load)),
+				new HashSet<String>());
+		Scoreboard scoreboard = new Scoreboard(0);
+		scoreboard.initialize(timing, 0);
+
+		ArrivalDispatcher dispatcher = new ArrivalDispatcher(0);
+		dispatcher.setTiming(timing);
+		dispatcher.setLoadManager(loadManager);
+		dispatcher.setScoreboard(scoreboard);
+		dispatcher.setGenerator(generator);
+		dispatcher.setAsyncExecutor(executor);
+		dispatcher.start();
+
+		assertTrue(dispatcher.joinAgent(duration + 5000));
+		return dispatcher;
+	}
+
+	@Test
+	public void testArrivalsFollowTheRate() throws Exception {
+		CountDownLatch release = new CountDownLatch(0);
+		TestGenerator generator = new TestGenerator(release, false);
+		AsyncExecutor executor = new AsyncExecutor(0, 4, 1000, AsyncExecutor.OverloadPolicy.DROP);
+
+		// 200 arrivals per second for 500ms
+		ArrivalDispatcher dispatcher = run(200, 500, generator, executor);
+		assertTrue(executor.shutdown(5000));
+
+		long requested = dispatcher.getRequested();
+		assertTrue("requested: " + requested, requested >= 80 && requested <= 102);
+		assertEquals(requested, dispatcher.getIssued());
+		assertEquals(requested, dispatcher.getCompleted());
+		assertEquals(0, dispatcher.getDropped());
+
+		// Arrivals are planned on an absolute time line, independent of when they were issued
+		List<IOperation> operations = generator.operations;
+		for (int i = 1; i < operations.size(); i++) {
+			long gap = operations.get(i).getIntendedStartNanos() - operations.get(i - 1).getIntendedStartNanos();
+			assertEquals(TimeUnit.MILLISECONDS.toNanos(5), gap);
+		}
+	}
+
+	@Test
+	public void testRejectedArrivalsAreDropped() throws Exception {
+		// One thread and one queue slot, all other arrivals are rejected while the operations wait
+		CountDownLatch release = new CountDownLatch(1);
+		AsyncExecutor executor = new AsyncExecutor(0, 1, 1, AsyncExecutor.OverloadPolicy.DROP);
+
+		ArrivalDispatcher dispatcher = run(200, 300, new TestGenerator(release, false), executor);
+		release.countDown();
+		assertTrue(executor.shutdown(5000));
+
+		assertEquals(2, dispatcher.getIssued());
+		assertEquals(2, dispatcher.getCompleted());
+		assertEquals(dispatcher.getRequested() - 2, dispatcher.getDropped());
+		assertEquals(dispatcher.getDropped(), executor.getRejected());
+	}
+
+	@Test
+	public void testEmptyGeneratorIsDropped() throws Exception {
+		AsyncExecutor executor = new AsyncExecutor(0, 1, 10, AsyncExecutor.OverloadPolicy.DROP);
+
+		ArrivalDispatcher dispatcher = run(100, 200, new TestGenerator(null, true), executor);
+		assertTrue(executor.shutdown(5000));
+
+		assertTrue(dispatcher.getRequested() > 0);
+		assertEquals(dispatcher.getRequested(), dispatcher.getDropped());
+		assertEquals(0, executor.getSubmitted());
+	}
+}
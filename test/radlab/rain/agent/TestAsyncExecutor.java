@@ -0,0 +1,107 @@
+package radlab.rain.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestAsyncExecutor {
+
+	/**
+	 * Task that waits for the release latch
+	 */
+	private static class LatchTask implements Runnable {
+		private final CountDownLatch release;
+		private final AtomicInteger executed;
+
+		LatchTask(CountDownLatch release, AtomicInteger executed) {
+			this.release = release;
+			this.executed = executed;
+		}
+
+		@Override
+		public void run() {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executed.incrementAndGet();
+		}
+	}
+
+	@Test
+	public void testDropCountsRejectedOperations() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger executed = new AtomicInteger();
+		AsyncExecutor executor = new AsyncExecutor(0, 1, 1, AsyncExecutor.OverloadPolicy.DROP);
+
+		// First runs, second waits in the queue, third is dropped
+		assertTrue(executor.submit(new LatchTask(release, executed)));
+		assertTrue(executor.submit(new LatchTask(release, executed)));
+		assertFalse(executor.submit(new LatchTask(release, executed)));
+		assertEquals(1, executor.getQueued());
+
+		release.countDown();
+		assertTrue(executor.shutdown(5000));
+
+		assertEquals(2, executed.get());
+		assertEquals(3, executor.getSubmitted());
+		assertEquals(1, executor.getRejected());
+		assertEquals(0, executor.getBlocked());
+	}
+
+	@Test
+	public void testBlockWaitsForSpace() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger executed = new AtomicInteger();
+		final AsyncExecutor executor = new AsyncExecutor(0, 1, 1, AsyncExecutor.OverloadPolicy.BLOCK);
+
+		assertTrue(executor.submit(new LatchTask(release, executed)));
+		assertTrue(executor.submit(new LatchTask(release, executed)));
+
+		// Third submission blocks until the queue has space
+		final LatchTask third = new LatchTask(release, executed);
+		final AtomicBoolean accepted = new AtomicBoolean();
+		Thread submitter = new Thread() {
+			public void run() {
+				accepted.set(executor.submit(third));
+			}
+		};
+		submitter.start();
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (executor.getBlocked() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+		assertEquals(1, executor.getBlocked());
+		assertTrue(submitter.isAlive());
+
+		release.countDown();
+		submitter.join(5000);
+		assertTrue(accepted.get());
+		assertTrue(executor.shutdown(5000));
+
+		assertEquals(3, executed.get());
+		assertEquals(3, executor.getSubmitted());
+		assertEquals(0, executor.getRejected());
+	}
+
+	@Test
+	public void testBlockRejectsAfterShutdown() throws Exception {
+		AtomicInteger executed = new AtomicInteger();
+		AsyncExecutor executor = new AsyncExecutor(0, 1, 1, AsyncExecutor.OverloadPolicy.BLOCK);
+		assertTrue(executor.shutdown(5000));
+
+		// A shut down executor must not block the agent
+		assertFalse(executor.submit(new LatchTask(new CountDownLatch(0), executed)));
+		assertEquals(1, executor.getRejected());
+		assertEquals(0, executor.getBlocked());
+		assertEquals(0, executed.get());
+	}
+}
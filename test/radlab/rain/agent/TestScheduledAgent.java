@@ -0,0 +1,190 @@
+package radlab.rain.agent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import radlab.rain.RainConfig;
+import radlab.rain.Timing;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.load.LoadManager;
+import radlab.rain.load.LoadSchedule;
+import radlab.rain.operation.Generator;
+import radlab.rain.operation.IOperation;
+import radlab.rain.operation.Operation;
+import radlab.rain.scoreboard.Scoreboard;
+
+public class TestScheduledAgent {
+
+	/**
+	 * Operation that blocks until all operations of the test are in flight
+	 */
+	private static class BlockingOperation extends Operation {
+		private final CountDownLatch inFlight;
+
+		BlockingOperation(CountDownLatch inFlight) {
+			this.operationName = "blocking";
+			this.inFlight = inFlight;
+		}
+
+		@Override
+		protected void execute() throws Throwable {
+			inFlight.countDown();
+			failed = !inFlight.await(5, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public boolean isAsync() {
+			return false;
+		}
+
+		@Override
+		public void setAsync(boolean async) {
+		}
+	}
+
+	private static class TestGenerator extends Generator {
+		final AtomicInteger requests = new AtomicInteger();
+		private final CountDownLatch inFlight;
+
+		TestGenerator(CountDownLatch inFlight) {
+			this.inFlight = inFlight;
+		}
+
+		@Override
+		public void initialize() {
+		}
+
+		@Override
+		public IOperation nextRequest(int lastOperation) {
+			requests.incrementAndGet();
+			return inFlight != null ? new BlockingOperation(inFlight) : null;
+		}
+
+		@Override
+		public void dispose() {
+		}
+	}
+
+	/**
+	 * Scheduler which counts the park timeouts scheduled at the end of the steady state
+	 */
+	private static class CountingScheduler extends AgentScheduler {
+		final AtomicInteger parkTimeouts = new AtomicInteger();
+		private final long parkTimeoutTime;
+
+		CountingScheduler(Timing timing) {
+			super(2, 100);
+			this.parkTimeoutTime = timing.endSteadyState + 1;
+		}
+
+		@Override
+		public void scheduleAt(Runnable task, long time) {
+			if (time == parkTimeoutTime)
+				parkTimeouts.incrementAndGet();
+			super.scheduleAt(task, time);
+		}
+	}
+
+	private List<ScheduledAgent> startAgents(int users, long duration, AgentScheduler scheduler,
+			List<TestGenerator> generators, CountDownLatch inFlight) throws Exception {
+		Timing timing = new Timing(0, duration, 0);
+		LoadSchedule schedule = new LoadSchedule(Arrays.asList(new LoadDefinition(duration, users)));
+		LoadManager loadManager = new LoadManager(0, timing, schedule, new HashSet<String>());
+		return startAgents(users, timing, loadManager, scheduler, generators, inFlight);
+	}
+
+	private List<ScheduledAgent> startAgents(int users, Timing timing, LoadManager loadManager,
+			AgentScheduler scheduler, List<TestGenerator> generators, CountDownLatch inFlight) throws Exception {
+		RainConfig.getInstance().sonarHost = "localhost";
+		RainConfig.getInstance().sonarSpoolDirectory = "";
+
+		Scoreboard scoreboard = new Scoreboard(0);
+		scoreboard.initialize(timing, users);
+
+		List<ScheduledAgent> agents = new ArrayList<ScheduledAgent>();
+		for (int i = 0; i < users; i++) {
+			TestGenerator generator = new TestGenerator(inFlight);
+			generator.setMeanThinkTime(10);
+			generators.add(generator);
+
+			ScheduledAgent agent = new ScheduledAgent(0, i);
+			agent.setTiming(timing);
+			agent.setLoadManager(loadManager);
+			agent.setScoreboard(scoreboard);
+			agent.setGenerator(generator);
+			agent.setScheduler(scheduler);
+			agent.start();
+			agents.add(agent);
+		}
+		return agents;
+	}
+
+	@Test
+	public void testOperationsInFlightExceedSchedulerThreads() throws Exception {
+		AgentScheduler scheduler = new AgentScheduler(2, 100);
+		try {
+			CountDownLatch inFlight = new CountDownLatch(10);
+			List<ScheduledAgent> agents = startAgents(10, 500, scheduler, new ArrayList<TestGenerator>(), inFlight);
+
+			// All ten users block in an operation at the same time with two scheduler threads
+			assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+			for (ScheduledAgent agent : agents)
+				assertTrue(agent.joinAgent(5000));
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testEmptyGeneratorBacksOff() throws Exception {
+		AgentScheduler scheduler = new AgentScheduler(2, 100);
+		try {
+			List<TestGenerator> generators = new ArrayList<TestGenerator>();
+			List<ScheduledAgent> agents = startAgents(1, 500, scheduler, generators, null);
+			assertTrue(agents.get(0).joinAgent(5000));
+
+			// Retries are delayed instead of spinning
+			int requests = generators.get(0).requests.get();
+			assertTrue("requests: " + requests, requests <= 500 / ScheduledAgent.RETRY_DELAY + 2);
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void testParkTimeoutScheduledOnce() throws Exception {
+		// Second agent is parked and activated three times
+		List<LoadDefinition> definitions = new ArrayList<LoadDefinition>();
+		for (int i = 0; i < 3; i++) {
+			definitions.add(new LoadDefinition(150, 1));
+			definitions.add(new LoadDefinition(150, 2));
+		}
+
+		Timing timing = new Timing(0, 900, 0);
+		LoadManager loadManager = new LoadManager(0, timing, new LoadSchedule(definitions), new HashSet<String>());
+		CountingScheduler scheduler = new CountingScheduler(timing);
+		try {
+			List<ScheduledAgent> agents = startAgents(2, timing, loadManager, scheduler,
+					new ArrayList<TestGenerator>(), null);
+			loadManager.start();
+
+			for (ScheduledAgent agent : agents)
+				assertTrue(agent.joinAgent(5000));
+			assertEquals(1, scheduler.parkTimeouts.get());
+		} finally {
+			loadManager.interrupt();
+			scheduler.shutdown();
+		}
+	}
+}
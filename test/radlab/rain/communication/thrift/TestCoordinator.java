@@ -0,0 +1,69 @@
+package radlab.rain.communication.thrift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class TestCoordinator {
+
+	private static JSONObject scenario(int targets) throws JSONException {
+		JSONArray schedule = new JSONArray();
+		for (int i = 0; i < targets; i++)
+			schedule.put(new JSONObject().put("target", "t" + i));
+		return new JSONObject().put("timing", new JSONObject().put("duration", 10)).put("targetSchedule", schedule);
+	}
+
+	@Test
+	public void testSplitUsers() throws JSONException {
+		JSONObject scenario = scenario(2);
+		List<JSONObject> shares = Coordinator.split(scenario, 3, false);
+
+		assertEquals(3, shares.size());
+		for (int i = 0; i < 3; i++) {
+			JSONObject share = shares.get(i);
+			assertEquals(i, share.getInt("driverIndex"));
+			assertEquals(3, share.getInt("driverCount"));
+			assertEquals(2, share.getJSONArray("targetSchedule").length());
+			assertEquals(10, share.getJSONObject("timing").getInt("duration"));
+		}
+
+		// Shares are copies
+		shares.get(0).getJSONObject("timing").put("duration", 20);
+		assertEquals(10, shares.get(1).getJSONObject("timing").getInt("duration"));
+		assertFalse(scenario.has("driverIndex"));
+	}
+
+	@Test
+	public void testSplitTargets() throws JSONException {
+		List<JSONObject> shares = Coordinator.split(scenario(5), 2, true);
+
+		// Round robin
+		JSONArray first = shares.get(0).getJSONArray("targetSchedule");
+		JSONArray second = shares.get(1).getJSONArray("targetSchedule");
+		assertEquals(3, first.length());
+		assertEquals(2, second.length());
+		assertEquals("t0", first.getJSONObject(0).getString("target"));
+		assertEquals("t2", first.getJSONObject(1).getString("target"));
+		assertEquals("t4", first.getJSONObject(2).getString("target"));
+		assertEquals("t1", second.getJSONObject(0).getString("target"));
+		assertEquals("t3", second.getJSONObject(1).getString("target"));
+		assertFalse(shares.get(0).has("driverIndex"));
+	}
+
+	@Test
+	public void testSplitTargetsRequiresOnePerDriver() throws JSONException {
+		try {
+			Coordinator.split(scenario(1), 2, true);
+			fail("Split succeeded");
+		} catch (JSONException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package radlab.rain.communication.thrift;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.json.JSONObject;
+import org.junit.Assume;
+import org.junit.Test;
+
+import de.tum.in.storm.rain.RainService;
+
+public class TestRemoteControl {
+
+	private static byte[] random(int length) {
+		byte[] data = new byte[length];
+		new Random(1).nextBytes(data);
+		return data;
+	}
+
+	private static int freePort() throws Exception {
+		ServerSocket socket = new ServerSocket(0);
+		int port = socket.getLocalPort();
+		socket.close();
+		return port;
+	}
+
+	private static TTransport connect(int port) throws Exception {
+		// The service is started asynchronously
+		long deadline = System.currentTimeMillis() + 5000;
+		while (true) {
+			TTransport transport = new TFramedTransport(new TSocket("127.0.0.1", port));
+			try {
+				transport.open();
+				return transport;
+			} catch (TTransportException e) {
+				if (System.currentTimeMillis() > deadline)
+					throw e;
+				Thread.sleep(50);
+			}
+		}
+	}
+
+	@Test
+	public void testConfigureOnce() throws Exception {
+		RemoteControl control = new RemoteControl();
+		assertFalse(control.configure("no json"));
+		assertTrue(control.configure("{\"timing\": 1}"));
+		assertFalse(control.configure("{\"timing\": 2}"));
+		assertEquals(1, control.awaitConfiguration().getInt("timing"));
+	}
+
+	@Test
+	public void testStartAt() throws Exception {
+		RemoteControl control = new RemoteControl();
+		long start = System.currentTimeMillis() + 200;
+		assertTrue(control.start(start));
+		assertFalse(control.start(0));
+
+		control.awaitStart();
+		assertTrue(System.currentTimeMillis() >= start);
+	}
+
+	@Test
+	public void testScorecardChunks() throws Exception {
+		RemoteControl control = new RemoteControl();
+		assertEquals(0, control.pullScorecards(0).remaining());
+		assertFalse(control.confirmScorecards(0));
+
+		byte[] data = random(RemoteControl.SCORECARD_CHUNK_SIZE * 2 + 10);
+		control.setScorecards(data);
+
+		ByteBuffer chunk = control.pullScorecards(RemoteControl.SCORECARD_CHUNK_SIZE);
+		assertEquals(RemoteControl.SCORECARD_CHUNK_SIZE, chunk.remaining());
+		assertEquals(data[RemoteControl.SCORECARD_CHUNK_SIZE], chunk.get());
+		assertEquals(10, control.pullScorecards(RemoteControl.SCORECARD_CHUNK_SIZE * 2).remaining());
+		assertEquals(0, control.pullScorecards(data.length).remaining());
+
+		// Pulling alone does not release the driver
+		assertFalse(control.awaitPulled(10));
+		assertFalse(control.confirmScorecards(data.length - 1));
+		assertFalse(control.awaitPulled(10));
+		assertTrue(control.confirmScorecards(data.length));
+		assertTrue(control.awaitPulled(10));
+	}
+
+	@Test
+	public void testFetchScorecards() throws Exception {
+		RemoteControl control = new RemoteControl();
+		AsyncRainServiceImpl service = new AsyncRainServiceImpl(control);
+		assertNull(Coordinator.fetchScorecards(service));
+
+		// Exact multiple of the chunk size
+		byte[] data = random(RemoteControl.SCORECARD_CHUNK_SIZE * 2);
+		control.setScorecards(data);
+		assertArrayEquals(data, Coordinator.fetchScorecards(service));
+
+		data = random(100);
+		control.setScorecards(data);
+		assertArrayEquals(data, Coordinator.fetchScorecards(service));
+	}
+
+	@Test
+	public void testLoopback() throws Exception {
+		// The thrift transports require a slf4j binding at runtime, which is not part of lib
+		try {
+			Class.forName("org.slf4j.impl.StaticLoggerBinder");
+		} catch (ClassNotFoundException e) {
+			Assume.assumeTrue(false);
+		}
+
+		RemoteControl control = new RemoteControl();
+		ThriftService service = new ThriftService(control);
+		int port = freePort();
+		service.setPort(port);
+		service.start();
+
+		TTransport transport = connect(port);
+		try {
+			RainService.Client client = new RainService.Client(new TBinaryProtocol(transport));
+
+			assertTrue(client.configure("{\"timing\": 1}"));
+			assertEquals(1, control.awaitConfiguration().getInt("timing"));
+			assertFalse(client.configure(new JSONObject().toString()));
+
+			long start = System.currentTimeMillis() + 100;
+			assertTrue(client.startBenchmarkAt(start));
+			control.awaitStart();
+			assertTrue(System.currentTimeMillis() >= start);
+
+			// Running benchmark has no scorecards
+			assertNull(Coordinator.fetchScorecards(client));
+
+			// Larger than the max frame size of the framed transport
+			byte[] data = random(20 * 1024 * 1024);
+			control.setScorecards(data);
+			byte[] received = Coordinator.fetchScorecards(client);
+			assertArrayEquals(data, received);
+
+			assertFalse(control.awaitPulled(10));
+			assertTrue(client.scorecardsReceived(received.length));
+			assertTrue(control.awaitPulled(1000));
+		} finally {
+			transport.close();
+			service.stop();
+		}
+	}
+}
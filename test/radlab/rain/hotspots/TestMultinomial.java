@@ -0,0 +1,55 @@
+package radlab.rain.hotspots;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TestMultinomial {
+
+	private static Set<Integer> distinct(int[] samples) {
+		Set<Integer> set = new HashSet<Integer>();
+		for (int s : samples)
+			set.add(s);
+		return set;
+	}
+
+	@Test
+	public void testSampleDistinct() {
+		Random random = new Random(42);
+		Multinomial zipf = Multinomial.zipf(1000, 1.0);
+
+		// Few samples (rejection) and almost all objects (exponential keys)
+		assertEquals(10, distinct(zipf.sampleDistinct(10, random)).size());
+		assertEquals(1000, distinct(zipf.sampleDistinct(1000, random)).size());
+		assertEquals(990, distinct(zipf.sampleDistinct(990, random)).size());
+	}
+
+	@Test
+	public void testSampleDistinctFirstDraw() {
+		// Object 0 holds 90% of the mass, it is included in most draws of two objects
+		Multinomial m = new Multinomial(new double[] { 9, 0.5, 0.5 });
+		Random random = new Random(42);
+
+		int draws = 100000;
+		int included = 0;
+		for (int i = 0; i < draws; i++) {
+			int[] samples = m.sampleDistinct(2, random);
+			assertTrue(samples[0] != samples[1]);
+			if (samples[0] == 0 || samples[1] == 0)
+				included++;
+		}
+
+		// P(0 not drawn) = 2 * 0.05 * (0.5 / 9.5)
+		assertEquals(1 - 2 * 0.05 * (0.5 / 9.5), included / (double) draws, 0.003);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSampleDistinctZeroProbabilities() {
+		Multinomial.sparse(5, 10).sampleDistinct(6, new Random(42));
+	}
+}
@@ -0,0 +1,58 @@
+package radlab.rain.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestAgentActivation {
+
+	private static Runnable counter(final AtomicInteger[] wakeUps, final int id) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				wakeUps[id].incrementAndGet();
+			}
+		};
+	}
+
+	@Test
+	public void testWakeUpOnRamp() {
+		AgentActivation activation = new AgentActivation(10, 2);
+
+		AtomicInteger[] wakeUps = new AtomicInteger[10];
+		Runnable[] actions = new Runnable[10];
+		for (int i = 0; i < 10; i++) {
+			wakeUps[i] = new AtomicInteger();
+			actions[i] = counter(wakeUps, i);
+		}
+
+		// Active agents are not parked
+		assertFalse(activation.park(0, actions[0]));
+		assertFalse(activation.park(1, actions[1]));
+		for (int i = 2; i < 10; i++)
+			assertTrue(activation.park(i, actions[i]));
+		assertEquals(8, activation.getParkedAgents());
+
+		// Ramp up wakes exactly the agents which became active
+		activation.setActiveUsers(5);
+		for (int i = 0; i < 10; i++)
+			assertEquals("agent " + i, i >= 2 && i < 5 ? 1 : 0, wakeUps[i].get());
+		assertEquals(5, activation.getParkedAgents());
+
+		// Ramp down does not wake anyone
+		activation.setActiveUsers(3);
+		assertEquals(5, activation.getParkedAgents());
+
+		// Cancelled agents are not woken up
+		assertTrue(activation.cancel(9, actions[9]));
+		assertFalse(activation.cancel(9, actions[9]));
+		activation.setActiveUsers(10);
+		assertEquals(0, wakeUps[9].get());
+		assertEquals(1, wakeUps[8].get());
+		assertEquals(0, activation.getParkedAgents());
+	}
+}
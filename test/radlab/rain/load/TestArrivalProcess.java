@@ -0,0 +1,39 @@
+package radlab.rain.load;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestArrivalProcess {
+
+	@Test
+	public void testPoissonRate() {
+		Random random = new Random(42);
+		int arrivals = 200000;
+
+		long sum = 0;
+		for (int i = 0; i < arrivals; i++)
+			sum += ArrivalProcess.POISSON.nextGapNanos(500, random);
+
+		// Mean gap of 2ms
+		assertEquals(2000000d, sum / (double) arrivals, 20000d);
+	}
+
+	@Test
+	public void testTraceScaling() {
+		// Bursty trace with a mean rate of 10 ops/sec
+		ArrivalProcess trace = ArrivalProcess.trace(new long[] { 10000000, 10000000, 280000000 });
+
+		// Unscaled replay
+		assertEquals(10000000, trace.nextGapNanos(0, null));
+		assertEquals(10000000, trace.nextGapNanos(0, null));
+		assertEquals(280000000, trace.nextGapNanos(0, null));
+
+		// Twice the rate halves all gaps
+		assertEquals(5000000, trace.nextGapNanos(20, null));
+		assertEquals(5000000, trace.nextGapNanos(20, null));
+		assertEquals(140000000, trace.nextGapNanos(20, null));
+	}
+}
@@ -0,0 +1,64 @@
+package radlab.rain.load;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TestLoadSchedule {
+
+	@Test
+	public void testUsersAddUp() {
+		LoadDefinition load = new LoadDefinition(1000, 10, "mix", 100);
+
+		// 10 users on 3 drivers
+		long[] expected = { 3, 3, 4 };
+		long users = 0;
+		for (int i = 0; i < 3; i++) {
+			LoadDefinition share = load.share(i, 3);
+			assertEquals(expected[i], share.getNumberOfUsers());
+			assertEquals(1000, share.getInterval());
+			assertEquals("mix", share.getMixName());
+			assertEquals(100, share.getTransitionTime());
+			users += share.getNumberOfUsers();
+		}
+		assertEquals(10, users);
+
+		// More drivers than users
+		users = 0;
+		for (int i = 0; i < 4; i++)
+			users += new LoadDefinition(1000, 2).share(i, 4).getNumberOfUsers();
+		assertEquals(2, users);
+	}
+
+	@Test
+	public void testArrivalRateIsDivided() {
+		LoadDefinition load = new LoadDefinition(1000, 0, null, 0, 90, ArrivalProcess.POISSON);
+
+		for (int i = 0; i < 3; i++) {
+			LoadDefinition share = load.share(i, 3);
+			assertEquals(30, share.getArrivalRate(), 1e-9);
+			assertEquals(ArrivalProcess.POISSON, share.getArrivalProcess());
+			assertEquals(0, share.getNumberOfUsers());
+		}
+	}
+
+	@Test
+	public void testScheduleShare() {
+		LoadSchedule schedule = new LoadSchedule(Arrays.asList(new LoadDefinition(1000, 5), new LoadDefinition(2000,
+				7, null, 0, 10, ArrivalProcess.CONSTANT)));
+
+		long[] users = new long[2];
+		for (int i = 0; i < 2; i++) {
+			LoadSchedule share = schedule.share(i, 2);
+			assertEquals(2, share.size());
+			assertEquals(2000, share.get(1).getInterval());
+			assertEquals(5, share.get(1).getArrivalRate(), 1e-9);
+			users[0] += share.get(0).getNumberOfUsers();
+			users[1] += share.get(1).getNumberOfUsers();
+		}
+		assertEquals(5, users[0]);
+		assertEquals(7, users[1]);
+	}
+}
@@ -0,0 +1,67 @@
+package radlab.rain.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TestOperationExecution {
+
+	private static class SleepOperation extends Operation {
+		private final long sleep;
+
+		SleepOperation(long sleep) {
+			this.operationName = "sleep";
+			this.sleep = sleep;
+		}
+
+		@Override
+		protected void execute() throws Throwable {
+			Thread.sleep(sleep);
+			failed = false;
+		}
+
+		@Override
+		public boolean isAsync() {
+			return false;
+		}
+
+		@Override
+		public void setAsync(boolean async) {
+		}
+	}
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void testResponseTimeIncludesQueueingDelay() {
+		SleepOperation operation = new SleepOperation(5);
+		operation.setIntendedStartNanos(System.nanoTime() - 20 * MILLIS);
+		OperationExecution result = operation.run();
+
+		assertTrue(result.getServiceTime() >= 5 * MILLIS);
+		assertTrue(result.getQueueingDelay() >= 20 * MILLIS);
+		assertEquals(result.getQueueingDelay() + result.getServiceTime(), result.getResponseTime());
+	}
+
+	@Test
+	public void testMissingIntendedStart() {
+		OperationExecution result = new SleepOperation(1).run();
+
+		assertEquals(0, result.getQueueingDelay());
+		assertEquals(result.getServiceTime(), result.getResponseTime());
+	}
+
+	@Test
+	public void testIntendedStartAfterStart() {
+		// Operations never start before their intended start, a later one does not count as negative delay
+		SleepOperation operation = new SleepOperation(1);
+		operation.setIntendedStartNanos(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+		OperationExecution result = operation.run();
+
+		assertEquals(0, result.getQueueingDelay());
+		assertEquals(result.getServiceTime(), result.getResponseTime());
+	}
+}
@@ -0,0 +1,48 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import radlab.rain.RainConfig;
+
+public class TestAggregation {
+
+	@Test
+	public void testParallelMergeEqualsSequentialMerge() throws Exception {
+		List<Scorecard> scorecards = new ArrayList<Scorecard>();
+		for (int i = 0; i < 100; i++)
+			scorecards.add(TestScorecardCodec.createScorecard("id" + (i % 3), 50 + i));
+
+		// Sequential merge in list order
+		TreeMap<String, Scorecard> expected = new TreeMap<String, Scorecard>();
+		for (Scorecard scorecard : scorecards) {
+			String identifier = scorecard.getAggregationIdentifier();
+			if (!expected.containsKey(identifier))
+				expected.put(identifier, new Scorecard(-1, scorecard.getTimeActive(), identifier));
+			expected.get(identifier).merge(scorecard);
+		}
+
+		int threads = RainConfig.getInstance().aggregationThreads;
+		try {
+			RainConfig.getInstance().aggregationThreads = 4;
+			Collection<Scorecard> merged = new Aggregation().aggregateScorecards(scorecards, 10000);
+
+			assertEquals(expected.size(), merged.size());
+			Iterator<Scorecard> actual = merged.iterator();
+			for (Scorecard scorecard : expected.values()) {
+				Scorecard next = actual.next();
+				assertEquals(scorecard.getAggregationIdentifier(), next.getAggregationIdentifier());
+				TestScorecardCodec.assertSameStatistics(scorecard, next);
+			}
+		} finally {
+			RainConfig.getInstance().aggregationThreads = threads;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.descriptive.moment.Mean;
+import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.apache.commons.math3.stat.descriptive.rank.Percentile;
+import org.junit.Test;
+
+public class TestAllSamplingStrategy {
+
+	private static double[] fill(AllSamplingStrategy sampler, int count, long seed) {
+		Random random = new Random(seed);
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			long value = (long) (Math.abs(random.nextGaussian()) * 1000);
+			sampler.accept(value);
+			values[i] = value;
+		}
+		return values;
+	}
+
+	private static void assertSameEstimates(double[] values, AllSamplingStrategy sampler) {
+		assertEquals(values.length, sampler.getSamplesCollected());
+		for (int pct : new int[] { 1, 50, 90, 95, 99 })
+			assertEquals("p" + pct, (long) new Percentile().evaluate(values, pct), sampler.getNthPercentile(pct));
+
+		assertEquals(new Mean().evaluate(values), sampler.getSampleMean(), 1e-9);
+		assertEquals(new StandardDeviation().evaluate(values), sampler.getSampleStandardDeviation(), 1e-9);
+	}
+
+	@Test
+	public void testEstimatesMatchCommonsMath() {
+		// Spans several chunks
+		AllSamplingStrategy sampler = new AllSamplingStrategy();
+		double[] values = fill(sampler, 5000, 1);
+		assertSameEstimates(values, sampler);
+
+		// Sorted view is refreshed after new samples
+		sampler.accept(1000000);
+		assertEquals(1000000, sampler.getNthPercentile(100));
+	}
+
+	@Test
+	public void testMergeAcrossChunkBoundaries() {
+		AllSamplingStrategy a = new AllSamplingStrategy();
+		AllSamplingStrategy b = new AllSamplingStrategy();
+		double[] first = fill(a, 1500, 2);
+		double[] second = fill(b, 1700, 3);
+		a.merge(b);
+
+		double[] all = new double[first.length + second.length];
+		System.arraycopy(first, 0, all, 0, first.length);
+		System.arraycopy(second, 0, all, first.length, second.length);
+		assertSameEstimates(all, a);
+
+		// Samples keep their order
+		List<Long> raw = a.getRawSamples();
+		for (int i = 0; i < all.length; i++)
+			assertEquals((long) all[i], (long) raw.get(i));
+	}
+
+	@Test
+	public void testReset() {
+		AllSamplingStrategy sampler = new AllSamplingStrategy();
+		fill(sampler, 2000, 4);
+		sampler.reset();
+
+		assertEquals(0, sampler.getSamplesCollected());
+		assertEquals(0, sampler.getNthPercentile(50));
+		assertEquals(0, sampler.getRawSamples().size());
+
+		double[] values = fill(sampler, 10, 5);
+		assertSameEstimates(values, sampler);
+	}
+
+	@Test
+	public void testSortedSamples() {
+		AllSamplingStrategy sampler = new AllSamplingStrategy();
+		assertEquals(0, sampler.getSortedSamples().length);
+
+		double[] values = fill(sampler, 3000, 6);
+		Arrays.sort(values);
+		long[] sorted = sampler.getSortedSamples();
+		assertEquals(values.length, sorted.length);
+		for (int i = 0; i < values.length; i++)
+			assertEquals((long) values[i], sorted[i]);
+
+		// Copy is not affected by new samples
+		sampler.accept(-1);
+		assertEquals((long) values[0], sorted[0]);
+		assertEquals(-1, sampler.getSortedSamples()[0]);
+	}
+}
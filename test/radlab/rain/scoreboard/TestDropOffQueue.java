@@ -0,0 +1,72 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestDropOffQueue {
+
+	@Test
+	public void testConcurrentDropOff() throws InterruptedException {
+		final int producers = 8;
+		final int perProducer = 50000;
+
+		// Small shards to exercise the full queue path
+		final DropOffQueue<Long> queue = new DropOffQueue<Long>(4, 64);
+		queue.setConsumer(Thread.currentThread());
+
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			final long base = (long) p * perProducer;
+			threads[p] = new Thread() {
+				public void run() {
+					for (int i = 0; i < perProducer; i++)
+						queue.offer(base + i);
+				}
+			};
+			threads[p].start();
+		}
+
+		// Drain and check that every element arrives exactly once
+		boolean[] seen = new boolean[producers * perProducer];
+		Long[] batch = new Long[100];
+		int received = 0;
+		while (received < seen.length) {
+			int count = queue.drain(batch);
+			if (count == 0)
+				queue.await(1000 * 1000);
+
+			for (int i = 0; i < count; i++) {
+				int value = batch[i].intValue();
+				assertTrue("duplicate element " + value, !seen[value]);
+				seen[value] = true;
+			}
+			received += count;
+		}
+
+		for (Thread thread : threads)
+			thread.join();
+
+		assertTrue(queue.isEmpty());
+		assertEquals(seen.length, queue.getTotalDropoffs());
+		assertEquals(0, queue.getDepth());
+	}
+
+	@Test
+	public void testDepth() {
+		DropOffQueue<Long> queue = new DropOffQueue<Long>(2, 16);
+		queue.setConsumer(Thread.currentThread());
+		for (long i = 0; i < 10; i++)
+			queue.offer(i);
+		assertEquals(10, queue.getDepth());
+
+		Long[] batch = new Long[4];
+		assertEquals(4, queue.drain(batch));
+		assertEquals(6, queue.getDepth());
+
+		batch = new Long[16];
+		assertEquals(6, queue.drain(batch));
+		assertEquals(0, queue.getDepth());
+	}
+}
@@ -0,0 +1,115 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import radlab.rain.Timing;
+import radlab.rain.load.LoadDefinition;
+import radlab.rain.operation.Operation;
+import radlab.rain.operation.OperationExecution;
+
+public class TestIntervalScorecards {
+
+	private static class TestOperation extends Operation {
+		private final boolean fail;
+
+		TestOperation(String name, boolean fail) {
+			this.operationName = name;
+			this.fail = fail;
+		}
+
+		@Override
+		protected void execute() throws Throwable {
+			failed = fail;
+		}
+
+		@Override
+		public boolean isAsync() {
+			return false;
+		}
+
+		@Override
+		public void setAsync(boolean async) {
+		}
+	}
+
+	private static OperationExecution run(String name, boolean fail, LoadDefinition load) {
+		TestOperation operation = new TestOperation(name, fail);
+		operation.setLoadDefinition(load);
+		return operation.run();
+	}
+
+	@Test
+	public void testIntervalsPerActivation() throws Exception {
+		IntervalScorecards intervals = new IntervalScorecards(new Timing(0, 60000, 0), 0, 100);
+
+		LoadDefinition low = new LoadDefinition(1000, 10);
+		low.activate();
+		intervals.processResult(run("a", false, low));
+		OperationExecution straggler = run("a", false, low);
+
+		Thread.sleep(5);
+		LoadDefinition high = new LoadDefinition(1000, 20);
+		high.activate();
+		intervals.processResult(run("a", false, high));
+		intervals.processResult(run("b", true, high));
+
+		// Generated for the previous load definition during the transition
+		intervals.processResult(run("a", false, low));
+
+		// Interval of the first activation is sealed after the seal delay
+		intervals.roll(high.getTimeStarted() + IntervalScorecards.SEAL_DELAY - 1);
+		assertEquals(0, intervals.getSealed().size());
+		intervals.roll(high.getTimeStarted() + IntervalScorecards.SEAL_DELAY);
+		assertEquals(1, intervals.getSealed().size());
+
+		// Operations of sealed intervals are discarded
+		intervals.processResult(straggler);
+
+		intervals.sealAll();
+		List<IntervalSummary> sealed = intervals.getSealed();
+		assertEquals(2, sealed.size());
+
+		IntervalSummary first = sealed.get(0);
+		assertEquals(0, first.getIndex());
+		assertEquals(10, first.getUsers());
+		assertEquals(high.getTimeStarted(), first.getEnd());
+		assertEquals(1, first.getTotal().getOpsSuccessful());
+
+		IntervalSummary second = sealed.get(1);
+		assertEquals(1, second.getIndex());
+		assertEquals(20, second.getUsers());
+		assertEquals(high.getTimeStarted(), second.getStart());
+		assertEquals(2, second.getTotal().getOpsSuccessful());
+		assertEquals(1, second.getTotal().getOpsFailed());
+		assertEquals(2, second.getOperations().length);
+
+		JSONObject statistics = intervals.getStatistics();
+		assertEquals(1, statistics.getLong("ops_discarded"));
+		assertEquals(2, statistics.getJSONArray("intervals").length());
+	}
+
+	@Test
+	public void testFixedWindowsAreLimited() throws Exception {
+		IntervalScorecards intervals = new IntervalScorecards(new Timing(0, 60000, 0), 1, 2);
+
+		LoadDefinition load = new LoadDefinition(1000, 1);
+		for (int i = 0; i < 3; i++) {
+			intervals.processResult(run("a", false, load));
+			Thread.sleep(2);
+		}
+
+		intervals.sealAll();
+		List<IntervalSummary> sealed = intervals.getSealed();
+		assertEquals(2, sealed.size());
+		assertEquals(1, sealed.get(0).getIndex());
+		assertEquals(2, sealed.get(1).getIndex());
+		assertEquals(-1, sealed.get(1).getUsers());
+		assertEquals(1, sealed.get(1).getEnd() - sealed.get(1).getStart());
+		assertEquals(1, intervals.getStatistics().getLong("intervals_dropped"));
+	}
+}
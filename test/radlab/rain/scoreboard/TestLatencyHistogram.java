@@ -0,0 +1,51 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestLatencyHistogram {
+
+	private static void assertWithin(long expected, long actual, double error) {
+		assertTrue("expected " + expected + " but was " + actual, Math.abs(actual - expected) <= expected * error + 1);
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, 2);
+		for (long i = 1; i <= 100000; i++)
+			histogram.record(i);
+
+		assertEquals(100000, histogram.getTotalCount());
+		assertEquals(1, histogram.getMin());
+		assertEquals(100000, histogram.getMax());
+		assertWithin(50000, histogram.getValueAtPercentile(50), 0.01);
+		assertWithin(90000, histogram.getValueAtPercentile(90), 0.01);
+		assertWithin(99000, histogram.getValueAtPercentile(99), 0.01);
+		assertWithin(99900, histogram.getValueAtPercentile(99.9), 0.01);
+	}
+
+	@Test
+	public void testMerge() {
+		LatencyHistogram all = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, 3);
+		LatencyHistogram merged = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, 3);
+		LatencyHistogram[] parts = new LatencyHistogram[4];
+		for (int p = 0; p < parts.length; p++)
+			parts[p] = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE, 3);
+
+		for (long i = 0; i < 40000; i++) {
+			long value = (i * 7919) % 250000;
+			all.record(value);
+			parts[(int) (i % parts.length)].record(value);
+		}
+
+		for (LatencyHistogram part : parts)
+			merged.add(part);
+
+		assertEquals(all.getTotalCount(), merged.getTotalCount());
+		assertEquals(all.getMax(), merged.getMax());
+		for (double percentile : new double[] { 50, 90, 99, 99.9 })
+			assertEquals(all.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+	}
+}
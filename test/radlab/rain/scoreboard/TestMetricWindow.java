@@ -0,0 +1,29 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import radlab.rain.RainConfig;
+
+public class TestMetricWindow {
+
+	@Test
+	public void testPercentilesOfWindow() {
+		RainConfig.getInstance().sonarHost = "localhost";
+		RainConfig.getInstance().sonarSpoolDirectory = "";
+
+		// Response times 1..1000ms
+		MetricWindow window = new MetricWindow(0);
+		long total = 0;
+		for (int i = 1; i <= 1000; i++) {
+			total += i;
+			window.accept(System.currentTimeMillis(), i, total, i);
+		}
+
+		// True percentiles, the former writer reported about 5, 9 and 10 for these sensors
+		assertEquals(500, window.getValueAtPercentile(50), 5);
+		assertEquals(900, window.getValueAtPercentile(90), 9);
+		assertEquals(990, window.getValueAtPercentile(99), 10);
+	}
+}
@@ -0,0 +1,66 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import radlab.rain.operation.Operation;
+import radlab.rain.operation.OperationExecution;
+
+public class TestOperationSummary {
+
+	private static class SleepOperation extends Operation {
+		private final long sleep;
+
+		SleepOperation(long sleep) {
+			this.operationName = "sleep";
+			this.sleep = sleep;
+		}
+
+		@Override
+		protected void execute() throws Throwable {
+			Thread.sleep(sleep);
+			failed = false;
+		}
+
+		@Override
+		public boolean isAsync() {
+			return false;
+		}
+
+		@Override
+		public void setAsync(boolean async) {
+		}
+	}
+
+	private static OperationExecution run(long sleep, long queueingDelay) {
+		SleepOperation operation = new SleepOperation(sleep);
+		operation.setIntendedStartNanos(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(queueingDelay));
+		return operation.run();
+	}
+
+	@Test
+	public void testHighResolutionTimings() throws Exception {
+		OperationSummary summary = new OperationSummary(new AllSamplingStrategy());
+		summary.processResult(run(2, 0));
+		summary.processResult(run(2, 30));
+
+		JSONObject stats = summary.getStatistics(1000);
+		assertEquals(2, stats.getLong("ops_successful"));
+		assertTrue(stats.getDouble("service_time_min_us") >= 2000);
+		assertTrue(stats.getDouble("queue_delay_max_us") >= 30000);
+		assertTrue(stats.getDouble("response_time_max_us") >= 32000);
+		assertTrue(stats.getDouble("queue_delay_average_us") >= 15000);
+
+		// Merged summaries keep the maxima of both sides
+		OperationSummary merged = new OperationSummary(new AllSamplingStrategy());
+		merged.merge(summary);
+		merged.merge(new OperationSummary(new AllSamplingStrategy()));
+		assertEquals(stats.getDouble("queue_delay_max_us"), merged.getStatistics(1000).getDouble("queue_delay_max_us"),
+				0);
+	}
+}
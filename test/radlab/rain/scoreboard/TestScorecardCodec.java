@@ -0,0 +1,149 @@
+package radlab.rain.scoreboard;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import radlab.rain.operation.Operation;
+
+public class TestScorecardCodec {
+
+	private static class TestOperation extends Operation {
+		private final boolean fail;
+
+		TestOperation(String name, boolean fail) {
+			this.operationName = name;
+			this.fail = fail;
+		}
+
+		@Override
+		protected void execute() throws Throwable {
+			trace();
+			failed = fail;
+		}
+
+		@Override
+		public boolean isAsync() {
+			return false;
+		}
+
+		@Override
+		public void setAsync(boolean async) {
+		}
+	}
+
+	static Scorecard createScorecard(String identifier, int operations) {
+		Scorecard scorecard = new Scorecard(1, 10000, identifier);
+		for (int i = 0; i < operations; i++)
+			scorecard.processResult(new TestOperation("op" + (i % 3), i % 10 == 0).run());
+		return scorecard;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Scorecard a = createScorecard("a", 1000);
+		Scorecard b = createScorecard("b", 500);
+
+		List<Scorecard> decoded = ScorecardCodec.decode(ScorecardCodec.encode(Arrays.asList(a, b)));
+		assertEquals(2, decoded.size());
+		assertEquals("a", decoded.get(0).getAggregationIdentifier());
+		assertEquals("b", decoded.get(1).getAggregationIdentifier());
+		assertEquals(a.getTimeActive(), decoded.get(0).getTimeActive());
+
+		assertSameStatistics(a, decoded.get(0));
+		assertSameStatistics(b, decoded.get(1));
+	}
+
+	@Test
+	public void testMergeDecoded() throws Exception {
+		Scorecard a = createScorecard("a", 1000);
+		Scorecard b = createScorecard("a", 700);
+
+		Scorecard direct = new Scorecard(-1, 10000, "a");
+		direct.merge(a);
+		direct.merge(b);
+
+		List<Scorecard> cards = new ArrayList<Scorecard>();
+		cards.addAll(ScorecardCodec.decode(ScorecardCodec.encode(Arrays.asList(a))));
+		cards.addAll(ScorecardCodec.decode(ScorecardCodec.encode(Arrays.asList(b))));
+		Scorecard remote = new Scorecard(-1, 10000, "a");
+		for (Scorecard card : cards)
+			remote.merge(card);
+
+		assertSameStatistics(direct, remote);
+	}
+
+	@Test
+	public void testFileRoundTrip() throws Exception {
+		Scorecard a = createScorecard("a", 300);
+		Scorecard empty = new Scorecard(2, 5000, "b");
+
+		File file = File.createTempFile("rain", ".scorecards");
+		try {
+			ScorecardCodec.writeFile(file, Arrays.asList(a, empty));
+			List<Scorecard> decoded = ScorecardCodec.readFile(file);
+			assertEquals(2, decoded.size());
+			assertSameStatistics(a, decoded.get(0));
+			assertSameOperation(empty.getSummarizedStatistics().getJSONObject("summary"), decoded.get(1)
+					.getSummarizedStatistics().getJSONObject("summary"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testVarints() throws Exception {
+		long[] values = { 0, 1, -1, 127, 128, -129, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE };
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(buffer);
+		for (long value : values) {
+			Varints.writeSigned(out, value);
+			Varints.writeUnsigned(out, value);
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+		for (long value : values) {
+			assertEquals(value, Varints.readSigned(in));
+			assertEquals(value, Varints.readUnsigned(in));
+		}
+		assertEquals(0, in.available());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidData() throws Exception {
+		ScorecardCodec.decode(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+	}
+
+	static void assertSameStatistics(Scorecard expected, Scorecard actual) throws Exception {
+		JSONObject e = expected.getSummarizedStatistics();
+		JSONObject a = actual.getSummarizedStatistics();
+		assertEquals(e.getLong("total_ops_initiated"), a.getLong("total_ops_initiated"));
+		assertEquals(e.getLong("total_ops_late"), a.getLong("total_ops_late"));
+		assertSameOperation(e.getJSONObject("summary"), a.getJSONObject("summary"));
+
+		JSONObject eo = e.getJSONObject("operational");
+		JSONObject ao = a.getJSONObject("operational");
+		for (String op : new String[] { "op0", "op1", "op2" })
+			assertSameOperation(eo.getJSONObject(op), ao.getJSONObject(op));
+	}
+
+	private static void assertSameOperation(JSONObject e, JSONObject a) throws Exception {
+		for (String key : new String[] { "ops_successful", "ops_failed", "actions_successful", "rtime_total",
+				"rtime_max", "rtime_min", "response_time_50th_us", "response_time_99th_us", "service_time_999th_us",
+				"service_time_hist_max_us", "sampler_samples_collected" })
+			assertEquals(key, e.get(key).toString(), a.get(key).toString());
+		assertEquals(e.getDouble("service_time_average_us"), a.getDouble("service_time_average_us"), 1e-9);
+	}
+}
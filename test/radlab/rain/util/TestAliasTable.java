@@ -0,0 +1,34 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestAliasTable {
+
+	@Test
+	public void testDistribution() {
+		double[] weights = { 5, 0, 1, 3, 0.5, 0.5 };
+		AliasTable table = new AliasTable(weights);
+		Random random = new Random(42);
+
+		int samples = 1000000;
+		int[] counts = new int[weights.length];
+		for (int i = 0; i < samples; i++)
+			counts[table.sample(random)]++;
+
+		// Weights sum up to 10
+		for (int i = 0; i < weights.length; i++)
+			assertEquals(weights[i] / 10, counts[i] / (double) samples, 0.003);
+
+		// Zero weights are never sampled
+		assertEquals(0, counts[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoMass() {
+		new AliasTable(new double[] { 0, 0 });
+	}
+}
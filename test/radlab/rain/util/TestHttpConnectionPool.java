@@ -0,0 +1,192 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import radlab.rain.scoreboard.IScoreboard;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class TestHttpConnectionPool {
+
+	private HttpServer server;
+	private HttpConnectionPool pool;
+	private String base;
+
+	/**
+	 * The Apache client requires commons-logging at runtime, which is not part of lib
+	 */
+	private static boolean isApacheClientAvailable() {
+		try {
+			Class.forName("org.apache.commons.logging.LogFactory");
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		Assume.assumeTrue(isApacheClientAvailable());
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(4));
+		server.createContext("/text", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				byte[] body = "text".getBytes("UTF-8");
+				exchange.sendResponseHeaders(200, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+		});
+		server.createContext("/slow", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					Thread.sleep(1000);
+				} catch (InterruptedException e) {
+					// Respond right away
+				}
+				exchange.sendResponseHeaders(200, -1);
+				exchange.close();
+			}
+		});
+		server.start();
+
+		base = "http://127.0.0.1:" + server.getAddress().getPort();
+		pool = new HttpConnectionPool(4, 2, 200);
+	}
+
+	@After
+	public void tearDown() {
+		if (pool != null)
+			pool.shutdown();
+		if (server != null)
+			server.stop(0);
+	}
+
+	@Test
+	public void testConnectionsAreReused() throws IOException {
+		HttpTransport transport = new HttpTransport(new DefaultHttpClient(pool.getConnectionManager()));
+		for (int i = 0; i < 3; i++)
+			assertEquals("text", transport.fetchUrl(base + "/text").toString());
+
+		// One connection for all requests, the first lease opened it
+		assertEquals(3, pool.getLeases());
+		assertEquals(2, pool.getReusedLeases());
+		assertEquals(1, pool.getConnectionsInPool());
+	}
+
+	@Test
+	public void testIdleConnectionsAreClosed() throws Exception {
+		HttpTransport transport = new HttpTransport(new DefaultHttpClient(pool.getConnectionManager()));
+		transport.fetchUrl(base + "/text");
+		assertEquals(1, pool.getConnectionsInPool());
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (pool.getConnectionsInPool() > 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(50);
+		assertEquals(0, pool.getConnectionsInPool());
+	}
+
+	@Test
+	public void testWrapClientKeepsTimedSSLFactory() {
+		ClientConnectionManager shared = HttpConnectionPool.getInstance().getConnectionManager();
+		HttpClient wrapped = HttpTransport.wrapClient(new DefaultHttpClient(shared));
+
+		// The shared registry still records handshake times
+		assertTrue(wrapped.getConnectionManager() == shared);
+		Object factory = shared.getSchemeRegistry().getScheme("https").getSchemeSocketFactory();
+		assertTrue(factory instanceof TimedSSLSocketFactory);
+	}
+
+	@Test
+	public void testNoLimitByDefault() {
+		HttpConnectionPool unlimited = new HttpConnectionPool(0, 0, 200);
+		try {
+			ThreadSafeClientConnManager manager = (ThreadSafeClientConnManager) unlimited.getConnectionManager();
+			assertEquals(Integer.MAX_VALUE, manager.getMaxTotal());
+			assertEquals(Integer.MAX_VALUE, manager.getDefaultMaxPerRoute());
+		} finally {
+			unlimited.shutdown();
+		}
+	}
+
+	@Test
+	public void testLeaseTimeout() throws Exception {
+		// Occupies the only connection of the route
+		pool.configureRoute("http", "127.0.0.1", server.getAddress().getPort(), 1, null);
+		Thread slow = new Thread() {
+			public void run() {
+				try {
+					new HttpTransport(new DefaultHttpClient(pool.getConnectionManager())).fetchUrl(base + "/slow");
+				} catch (IOException e) {
+					// Checked by the lease count
+				}
+			}
+		};
+		slow.start();
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (pool.getLeases() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+
+		HttpTransport transport = new HttpTransport(new DefaultHttpClient(pool.getConnectionManager()));
+		transport.setConnectionLeaseTimeout(100);
+		long start = System.currentTimeMillis();
+		try {
+			transport.fetchUrl(base + "/text");
+			fail("Connection leased");
+		} catch (ConnectionPoolTimeoutException e) {
+			// Expected
+		}
+		assertTrue(System.currentTimeMillis() - start < 900);
+
+		slow.join(5000);
+	}
+
+	@Test
+	public void testRouteReportsToScoreboard() throws IOException {
+		final AtomicInteger leases = new AtomicInteger();
+		IScoreboard scoreboard = (IScoreboard) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { IScoreboard.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("dropOffConnectionLease"))
+							leases.incrementAndGet();
+						return null;
+					}
+				});
+
+		// No limit override, statistics only
+		pool.configureRoute("http", "127.0.0.1", server.getAddress().getPort(), 0, scoreboard);
+		HttpTransport transport = new HttpTransport(new DefaultHttpClient(pool.getConnectionManager()));
+		transport.fetchUrl(base + "/text");
+		assertEquals(1, leases.get());
+
+		pool.releaseRoutes(scoreboard);
+		transport.fetchUrl(base + "/text");
+		assertEquals(1, leases.get());
+	}
+}
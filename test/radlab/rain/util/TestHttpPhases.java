@@ -0,0 +1,165 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.junit.Assume;
+import org.junit.Test;
+
+import radlab.rain.util.HttpPhases.Phase;
+
+public class TestHttpPhases {
+
+	/**
+	 * Server which accepts connections and closes them right away
+	 */
+	private static class ClosingServer extends Thread {
+		final ServerSocket socket;
+
+		ClosingServer() throws IOException {
+			socket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+			setDaemon(true);
+		}
+
+		public void run() {
+			try {
+				while (true)
+					socket.accept().close();
+			} catch (IOException e) {
+				// Closed
+			}
+		}
+
+		InetSocketAddress getAddress() {
+			return new InetSocketAddress(socket.getInetAddress(), socket.getLocalPort());
+		}
+	}
+
+	private static HttpParams params() {
+		HttpParams params = new BasicHttpParams();
+		HttpConnectionParams.setConnectionTimeout(params, 5000);
+		HttpConnectionParams.setSoTimeout(params, 5000);
+		return params;
+	}
+
+	@Test
+	public void testPhasesAreSummedPerRecording() {
+		// Nothing is recorded outside of a recording
+		HttpPhases.add(Phase.BODY, 10);
+		HttpPhases.begin();
+		assertNull(HttpPhases.end());
+
+		HttpPhases.begin();
+		HttpPhases.add(Phase.DNS, 1);
+		HttpPhases.add(Phase.CONNECT, 2);
+		HttpPhases.add(Phase.TLS, 4);
+		HttpPhases.add(Phase.BODY, 8);
+		HttpPhases.add(Phase.BODY, 8);
+		assertEquals(7, HttpPhases.connectionSetup());
+
+		long[] times = HttpPhases.end();
+		assertEquals(HttpPhases.PHASES, times.length);
+		assertEquals(16, times[Phase.BODY.ordinal()]);
+		assertEquals(0, times[Phase.REDIRECT.ordinal()]);
+
+		// Next recording starts from zero
+		HttpPhases.begin();
+		HttpPhases.add(Phase.FIRST_BYTE, 1);
+		times = HttpPhases.end();
+		assertEquals(1, times[Phase.FIRST_BYTE.ordinal()]);
+		assertEquals(0, times[Phase.BODY.ordinal()]);
+	}
+
+	@Test
+	public void testRecordingIsBoundToThread() throws Exception {
+		HttpPhases.begin();
+
+		Thread other = new Thread() {
+			public void run() {
+				HttpPhases.add(Phase.BODY, 10);
+			}
+		};
+		other.start();
+		other.join();
+
+		assertNull(HttpPhases.end());
+	}
+
+	@Test
+	public void testSocketFactoryRecordsConnect() throws Exception {
+		ClosingServer server = new ClosingServer();
+		server.start();
+		try {
+			TimedSocketFactory factory = new TimedSocketFactory();
+
+			HttpPhases.begin();
+			Socket socket = factory.connectSocket(factory.createSocket(params()), server.getAddress(), null, params());
+			socket.close();
+
+			long[] times = HttpPhases.end();
+			assertTrue(times[Phase.CONNECT.ordinal()] > 0);
+			assertEquals(0, times[Phase.TLS.ordinal()]);
+		} finally {
+			server.socket.close();
+		}
+	}
+
+	@Test
+	public void testSSLSocketFactoryRecordsFailedHandshake() throws Exception {
+		ClosingServer server = new ClosingServer();
+		server.start();
+		try {
+			SSLContext context = SSLContext.getInstance("TLS");
+			context.init(null, null, null);
+			TimedSSLSocketFactory factory = new TimedSSLSocketFactory(context, new SSLSocketFactory(context,
+					SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER));
+
+			// The server closes the connection during the handshake
+			HttpPhases.begin();
+			try {
+				factory.connectSocket(null, server.getAddress(), null, params());
+				fail("Handshake succeeded");
+			} catch (IOException e) {
+				// Expected
+			}
+
+			long[] times = HttpPhases.end();
+			assertTrue(times[Phase.CONNECT.ordinal()] > 0);
+			assertTrue(times[Phase.TLS.ordinal()] > 0);
+		} finally {
+			server.socket.close();
+		}
+	}
+
+	@Test
+	public void testConnectionOperatorRecordsDns() throws Exception {
+		// The Apache connection operator requires commons-logging at runtime, which is not part of lib
+		try {
+			Class.forName("org.apache.commons.logging.LogFactory");
+		} catch (ClassNotFoundException e) {
+			Assume.assumeTrue(false);
+		}
+
+		TimedConnectionOperator operator = new TimedConnectionOperator(new SchemeRegistry());
+
+		HttpPhases.begin();
+		operator.resolveHostname("127.0.0.1");
+		long[] times = HttpPhases.end();
+		assertTrue(times[Phase.DNS.ordinal()] > 0);
+	}
+}
@@ -0,0 +1,179 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestHttpTransport {
+
+	/**
+	 * Client which answers each request with the body registered for its path
+	 */
+	private static class StubHttpClient implements HttpClient {
+		private final HttpParams params = new BasicHttpParams();
+		final Map<String, byte[]> bodies = new HashMap<String, byte[]>();
+
+		public HttpParams getParams() {
+			return params;
+		}
+
+		public ClientConnectionManager getConnectionManager() {
+			return null;
+		}
+
+		public HttpResponse execute(HttpUriRequest request) throws IOException {
+			return execute(request, (HttpContext) null);
+		}
+
+		public HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+			byte[] body = bodies.get(request.getURI().getPath());
+			if (body == null)
+				throw new IOException("Unknown path " + request.getURI());
+
+			HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+			response.setEntity(new ByteArrayEntity(body));
+			return response;
+		}
+
+		public HttpResponse execute(HttpHost target, HttpRequest request) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		public HttpResponse execute(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> handler) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> handler, HttpContext context)
+				throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> handler)
+				throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> handler,
+				HttpContext context) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static final String base = "http://127.0.0.1";
+
+	// Lines of the body, longer than the initial body buffer
+	private static final int LINES = 10000;
+
+	private HttpTransport transport;
+
+	private static byte[] lines() {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < LINES; i++)
+			body.append("line \u00e4\u00f6\u00fc ").append(i).append("\r\n");
+		return body.toString().getBytes(Charset.defaultCharset());
+	}
+
+	/**
+	 * Body as decoded by the former line by line copy
+	 */
+	private static String decoded(byte[] body) {
+		return new String(body, Charset.defaultCharset()).replace("\r", "").replace("\n", "");
+	}
+
+	@Before
+	public void setUp() {
+		StubHttpClient client = new StubHttpClient();
+		client.bodies.put("/lines", lines());
+		client.bodies.put("/large", new byte[4 * 1024 * 1024]);
+		transport = new HttpTransport(client);
+	}
+
+	@Test
+	public void testFullDropsLineTerminators() throws IOException {
+		// Multi byte characters span the chunk boundaries of the decoder
+		assertEquals(decoded(lines()), transport.fetchUrl(base + "/lines").toString());
+		assertEquals(lines().length, transport.getBytesReceived());
+		assertEquals(200, transport.getStatusCode());
+	}
+
+	@Test
+	public void testResponseModes() throws IOException {
+		long length = lines().length;
+
+		transport.setResponseMode(ResponseMode.DISCARD);
+		assertEquals(0, transport.fetchUrl(base + "/lines").length());
+		assertEquals(length, transport.getBytesReceived());
+		assertTrue(transport.getTimeToLastByte() >= transport.getTimeToFirstByte());
+
+		transport.setResponseMode(ResponseMode.PREFIX);
+		transport.setPrefixLimit(4);
+		assertEquals("line", transport.fetchUrl(base + "/lines").toString());
+		assertEquals(length, transport.getBytesReceived());
+
+		transport.setResponseMode(ResponseMode.BYTE_BUFFER);
+		transport.fetchUrl(base + "/lines");
+		assertEquals(length, transport.getByteBuffer().remaining());
+
+		transport.setResponseMode(ResponseMode.HEADERS_ONLY);
+		assertEquals(0, transport.fetchUrl(base + "/lines").length());
+		assertEquals(0, transport.getBytesReceived());
+		assertEquals(200, transport.getStatusCode());
+	}
+
+	@Test
+	public void testResponseModeAppliesToOneRequest() throws IOException {
+		transport.setResponseMode(ResponseMode.DISCARD);
+		assertEquals(0, transport.fetchUrl(base + "/lines").length());
+		assertEquals(ResponseMode.FULL, transport.getResponseMode());
+
+		// Next request of the shared transport is decoded again
+		assertEquals(decoded(lines()), transport.fetchUrl(base + "/lines").toString());
+	}
+
+	@Test
+	public void testPhasesAreRecorded() throws IOException {
+		HttpPhases.begin();
+		transport.fetchUrl(base + "/lines");
+		long[] times = HttpPhases.end();
+
+		// Connection setup is recorded by the connection pool, not by the transport
+		assertTrue(times[HttpPhases.Phase.BODY.ordinal()] > 0);
+		assertEquals(0, times[HttpPhases.Phase.CONNECT.ordinal()]);
+		assertEquals(0, times[HttpPhases.Phase.REDIRECT.ordinal()]);
+	}
+
+	@Test
+	public void testLargeBuffersAreReleased() throws IOException {
+		transport.setResponseMode(ResponseMode.BYTE_BUFFER);
+		transport.fetchUrl(base + "/large");
+		assertEquals(4 * 1024 * 1024, transport.getByteBuffer().remaining());
+
+		transport.setResponseMode(ResponseMode.BYTE_BUFFER);
+		transport.fetchUrl(base + "/lines");
+		assertTrue(transport.getByteBuffer().capacity() <= 1024 * 1024);
+	}
+}
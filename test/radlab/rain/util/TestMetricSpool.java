@@ -0,0 +1,61 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import de.tum.in.sonar.collector.Identifier;
+import de.tum.in.sonar.collector.MetricReading;
+
+public class TestMetricSpool {
+
+	private static double valueOf(int i) {
+		return (i % 3 == 0) ? i * 0.25 : -i;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		File file = File.createTempFile("rain", ".spool");
+		file.deleteOnExit();
+
+		// Enough readings to span several mapped segments
+		final int count = 1000000;
+		final int batch = 100;
+
+		MetricSpool spool = new MetricSpool(file);
+		Identifier[] ids = new Identifier[batch];
+		MetricReading[] values = new MetricReading[batch];
+		for (int i = 0; i < batch; i++) {
+			ids[i] = new Identifier();
+			ids[i].setHostname("host0");
+			values[i] = new MetricReading();
+		}
+
+		for (int i = 0; i < count; i += batch) {
+			for (int j = 0; j < batch; j++) {
+				ids[j].setSensor("rain.sensor." + ((i + j) % 7));
+				ids[j].setTimestamp(1000000 + (i + j) / 10 - (j % 2));
+				values[j].setValue(valueOf(i + j));
+			}
+			spool.write(ids, values, batch);
+		}
+		spool.close();
+		assertEquals(count, spool.getReadings());
+
+		MetricSpoolReader reader = new MetricSpoolReader(file);
+		assertEquals("host0", reader.getHostname());
+		for (int i = 0; i < count; i++) {
+			assertTrue(reader.next());
+			assertEquals("rain.sensor." + (i % 7), reader.getSensor());
+			assertEquals(1000000 + i / 10 - ((i % batch) % 2), reader.getTimestamp());
+			assertEquals(valueOf(i), reader.getValue(), 0);
+		}
+		assertFalse(reader.next());
+		reader.close();
+	}
+}
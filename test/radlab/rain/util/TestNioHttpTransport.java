@@ -0,0 +1,377 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import radlab.rain.scoreboard.IScoreboard;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class TestNioHttpTransport {
+
+	private HttpServer server;
+	private NioHttpClient client;
+	private String base;
+
+	// Responses of /slow wait for the release
+	private final CountDownLatch slowRelease = new CountDownLatch(1);
+
+	private static void respond(HttpExchange exchange, int status, byte[] body, boolean chunked) throws IOException {
+		exchange.sendResponseHeaders(status, chunked ? 0 : body.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.close();
+	}
+
+	private static byte[] readBody(HttpExchange exchange) throws IOException {
+		InputStream in = exchange.getRequestBody();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		int read;
+		while ((read = in.read(buffer)) > 0)
+			body.write(buffer, 0, read);
+		return body.toByteArray();
+	}
+
+	/**
+	 * Serves the first request of each connection and closes the connection after reading the second one, like a
+	 * server which went away while the request was sent.
+	 */
+	private static class ClosingServer extends Thread {
+		final ServerSocket socket;
+		final AtomicInteger requests = new AtomicInteger();
+
+		ClosingServer() throws IOException {
+			socket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+			setDaemon(true);
+		}
+
+		public void run() {
+			try {
+				while (true) {
+					Socket connection = socket.accept();
+					try {
+						InputStream in = connection.getInputStream();
+						readRequest(in);
+						OutputStream out = connection.getOutputStream();
+						out.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok".getBytes("ISO-8859-1"));
+						out.flush();
+						readRequest(in);
+					} finally {
+						connection.close();
+					}
+				}
+			} catch (IOException e) {
+				// Closed
+			}
+		}
+
+		private void readRequest(InputStream in) throws IOException {
+			StringBuilder head = new StringBuilder();
+			while (head.length() < 4 || !head.substring(head.length() - 4).equals("\r\n\r\n")) {
+				int c = in.read();
+				if (c < 0)
+					throw new IOException("Connection closed");
+				head.append((char) c);
+			}
+
+			int contentLength = 0;
+			for (String line : head.toString().split("\r\n")) {
+				if (line.toLowerCase().startsWith("content-length:"))
+					contentLength = Integer.parseInt(line.substring(15).trim());
+			}
+			for (int i = 0; i < contentLength; i++)
+				in.read();
+			requests.incrementAndGet();
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(8));
+
+		server.createContext("/text", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				respond(exchange, 200, "line 1\nline 2\n".getBytes("UTF-8"), false);
+			}
+		});
+		server.createContext("/chunked", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				StringBuilder body = new StringBuilder();
+				for (int i = 0; i < 10000; i++)
+					body.append(i).append('\n');
+				respond(exchange, 200, body.toString().getBytes("UTF-8"), true);
+			}
+		});
+		server.createContext("/redirect", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().add("Location", "/text");
+				respond(exchange, 302, new byte[0], false);
+			}
+		});
+		server.createContext("/redirect303", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().add("Location", "/method");
+				respond(exchange, 303, new byte[0], false);
+			}
+		});
+		server.createContext("/redirect307", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().add("Location", "/method");
+				respond(exchange, 307, new byte[0], false);
+			}
+		});
+		server.createContext("/redirect308", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().add("Location", "/method");
+				respond(exchange, 308, new byte[0], false);
+			}
+		});
+		server.createContext("/method", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				String body = new String(readBody(exchange), "UTF-8");
+				respond(exchange, 200, (exchange.getRequestMethod() + " " + body).getBytes("UTF-8"), false);
+			}
+		});
+		server.createContext("/echo", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				respond(exchange, 200, readBody(exchange), false);
+			}
+		});
+		server.createContext("/slow", new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					slowRelease.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// Respond right away
+				}
+				respond(exchange, 200, "slow".getBytes("UTF-8"), false);
+			}
+		});
+		server.start();
+
+		base = "http://127.0.0.1:" + server.getAddress().getPort();
+		client = new NioHttpClient(2, 4, 30000);
+	}
+
+	@After
+	public void tearDown() {
+		slowRelease.countDown();
+		client.shutdown();
+		server.stop(0);
+	}
+
+	@Test
+	public void testFetch() throws IOException {
+		NioHttpTransport transport = new NioHttpTransport(client);
+
+		// Body is kept as is
+		assertEquals("line 1\nline 2\n", transport.fetchUrl(base + "/text").toString());
+		assertEquals(200, transport.getStatusCode());
+
+		// Chunked body
+		String chunked = transport.fetchUrl(base + "/chunked").toString();
+		assertTrue(chunked.startsWith("0\n1\n"));
+		assertTrue(chunked.endsWith("9999\n"));
+
+		// Redirects
+		assertEquals("line 1\nline 2\n", transport.fetchUrl(base + "/redirect").toString());
+		assertEquals(base + "/text", transport.getFinalUrl());
+
+		transport.setFollowRedirects(false);
+		transport.fetchUrl(base + "/redirect");
+		assertEquals(302, transport.getStatusCode());
+
+		// Form post
+		assertEquals("a=1&b=x+y", transport.fetchUrl(base + "/echo", "a=1&b=x y").toString());
+
+		// Keep alive, all requests used one connection
+		assertEquals(1, client.getOpenConnections());
+	}
+
+	@Test
+	public void testRedirectMethods() throws IOException {
+		NioHttpTransport transport = new NioHttpTransport(client);
+
+		// 303 turns the request into a GET, 307 and 308 keep method and body
+		assertEquals("GET ", transport.fetchUrl(base + "/redirect303", "a=1").toString());
+		assertEquals("POST a=1", transport.fetchUrl(base + "/redirect307", "a=1").toString());
+		assertEquals("POST a=1", transport.fetchUrl(base + "/redirect308", "a=1").toString());
+		assertEquals(base + "/method", transport.getFinalUrl());
+	}
+
+	@Test
+	public void testRetryOnlyIdempotentRequests() throws Exception {
+		ClosingServer closing = new ClosingServer();
+		closing.start();
+		String url = "http://127.0.0.1:" + closing.socket.getLocalPort() + "/";
+		try {
+			NioHttpTransport transport = new NioHttpTransport(client);
+
+			// GET on the reused connection is retried on a new connection
+			assertEquals("ok", transport.fetchUrl(url).toString());
+			assertEquals("ok", transport.fetchUrl(url).toString());
+			assertEquals(3, closing.requests.get());
+
+			// POST was sent on the reused connection and is not sent again
+			try {
+				transport.fetchUrl(url, "a=1");
+				fail("POST was retried");
+			} catch (IOException e) {
+				// Expected
+			}
+			assertEquals(4, closing.requests.get());
+		} finally {
+			closing.socket.close();
+		}
+	}
+
+	@Test
+	public void testResponseModes() throws IOException {
+		NioHttpTransport transport = new NioHttpTransport(client);
+
+		transport.setResponseMode(ResponseMode.DISCARD);
+		assertEquals(0, transport.fetchUrl(base + "/chunked").length());
+		assertEquals(48890, transport.getBytesReceived());
+		assertTrue(transport.getTimeToLastByte() >= transport.getTimeToFirstByte());
+
+		transport.setResponseMode(ResponseMode.PREFIX);
+		transport.setPrefixLimit(4);
+		assertEquals("0\n1\n", transport.fetchUrl(base + "/chunked").toString());
+		assertEquals(48890, transport.getBytesReceived());
+
+		transport.setResponseMode(ResponseMode.BYTE_BUFFER);
+		transport.fetchUrl(base + "/text");
+		assertEquals(14, transport.getByteBuffer().remaining());
+
+		// Connection is reused after skipped bodies
+		assertEquals(1, client.getOpenConnections());
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		NioHttpTransport transport = new NioHttpTransport(client);
+
+		final int requests = 200;
+		final CountDownLatch latch = new CountDownLatch(requests);
+		final AtomicInteger completed = new AtomicInteger();
+		NioHttpCallback callback = new NioHttpCallback() {
+			public void completed(NioHttpResponse response) {
+				if (response.getBodyLength() == 14)
+					completed.incrementAndGet();
+				latch.countDown();
+			}
+
+			public void failed(Exception e) {
+				latch.countDown();
+			}
+		};
+
+		List<Future<NioHttpResponse>> futures = new ArrayList<Future<NioHttpResponse>>();
+		for (int i = 0; i < requests; i++)
+			futures.add(transport.fetchUrlAsync(base + "/text", null, callback));
+
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		assertEquals(requests, completed.get());
+		for (Future<NioHttpResponse> future : futures)
+			assertEquals(200, future.get().getStatusCode());
+
+		// Route limit
+		assertTrue(client.getOpenConnections() <= 4);
+		assertEquals(0, client.getPendingRequests());
+	}
+
+	@Test
+	public void testQueuedRequestsTimeOut() throws Exception {
+		NioHttpClient single = new NioHttpClient(1, 1, 30000);
+		try {
+			// Occupies the only connection of the route
+			NioHttpTransport transport = new NioHttpTransport(single);
+			Future<NioHttpResponse> slow = transport.fetchUrlAsync(base + "/slow");
+
+			transport.setConnectTimeout(200);
+			long start = System.currentTimeMillis();
+			try {
+				transport.fetchUrl(base + "/text");
+				fail("Request got a connection");
+			} catch (ConnectionPoolTimeoutException e) {
+				// Expected
+			}
+			long waited = System.currentTimeMillis() - start;
+			assertTrue("waited: " + waited, waited >= 200 && waited < 4000);
+			assertEquals(1, single.getQueueTimeouts());
+			assertEquals(0, single.getPendingRequests());
+
+			slowRelease.countDown();
+			assertEquals("slow", slow.get(5, TimeUnit.SECONDS).getBodyAsString());
+		} finally {
+			single.shutdown();
+		}
+	}
+
+	@Test
+	public void testQueueWaitIsReported() throws Exception {
+		final List<Long> waitTimes = new CopyOnWriteArrayList<Long>();
+		IScoreboard scoreboard = (IScoreboard) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { IScoreboard.class }, new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("dropOffConnectionLease"))
+							waitTimes.add((Long) args[2]);
+						return null;
+					}
+				});
+		HttpRouteScoreboards.register("http", "127.0.0.1", server.getAddress().getPort(), scoreboard);
+
+		NioHttpClient single = new NioHttpClient(1, 1, 30000);
+		try {
+			NioHttpTransport transport = new NioHttpTransport(single);
+			Future<NioHttpResponse> slow = transport.fetchUrlAsync(base + "/slow");
+			Future<NioHttpResponse> queued = transport.fetchUrlAsync(base + "/text");
+			assertEquals(1, single.getPendingRequests());
+
+			Thread.sleep(200);
+			slowRelease.countDown();
+			assertEquals(200, slow.get(5, TimeUnit.SECONDS).getStatusCode());
+			assertEquals(200, queued.get(5, TimeUnit.SECONDS).getStatusCode());
+
+			// New connection for the first request, the second one waited for it
+			assertEquals(2, single.getLeases());
+			assertEquals(Arrays.asList(0L, waitTimes.get(1)), waitTimes);
+			assertTrue(waitTimes.get(1) >= TimeUnit.MILLISECONDS.toNanos(200));
+			assertEquals((long) waitTimes.get(1), single.getQueueWaitTime());
+		} finally {
+			single.shutdown();
+			HttpRouteScoreboards.release(scoreboard);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.tum.in.sonar.collector.Identifier;
+import de.tum.in.sonar.collector.MetricReading;
+
+public class TestSonarRecorder {
+
+	/**
+	 * Fake collector which remembers all values
+	 */
+	private static class FakeSink implements IMetricSink {
+		final CountDownLatch release = new CountDownLatch(1);
+		volatile boolean blocking = false;
+		long received = 0;
+		long sum = 0;
+		int maxBatch = 0;
+
+		@Override
+		public synchronized void write(Identifier[] ids, MetricReading[] values, int count) throws Exception {
+			if (blocking)
+				release.await();
+
+			for (int i = 0; i < count; i++) {
+				received++;
+				sum += (long) values[i].getValue();
+			}
+			maxBatch = Math.max(maxBatch, count);
+		}
+
+		synchronized long getReceived() {
+			return received;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	@Test
+	public void testBatching() throws InterruptedException {
+		FakeSink sink = new FakeSink();
+		SonarRecorder recorder = new SonarRecorder(sink, null, 100000, 50, 20, SonarRecorder.DropPolicy.DROP, 1);
+
+		long expected = 0;
+		for (int i = 0; i < 10000; i++) {
+			recorder.record("test", i, i);
+			expected += i;
+		}
+
+		recorder.shutdown();
+		recorder.join(TimeUnit.SECONDS.toMillis(10));
+
+		assertEquals(10000, sink.getReceived());
+		assertEquals(expected, sink.sum);
+		assertTrue(sink.maxBatch <= 50);
+		assertTrue(recorder.getBatches() >= 10000 / 50);
+		assertEquals(0, recorder.getDropped());
+	}
+
+	@Test
+	public void testDropWhenFull() throws InterruptedException {
+		FakeSink sink = new FakeSink();
+		sink.blocking = true;
+		SonarRecorder recorder = new SonarRecorder(sink, null, 100, 10, 0, SonarRecorder.DropPolicy.DROP, 1);
+
+		for (int i = 0; i < 1000; i++)
+			recorder.record("test", i, i);
+
+		// At most the buffer and one batch are kept
+		assertTrue(recorder.getDropped() >= 1000 - 100 - 10);
+		assertEquals(1000, recorder.getRecorded());
+
+		// Wait until the buffer is written
+		sink.release.countDown();
+		for (int i = 0; i < 100 && sink.getReceived() + recorder.getDropped() < 1000; i++)
+			Thread.sleep(100);
+		recorder.shutdown();
+		recorder.join(TimeUnit.SECONDS.toMillis(10));
+
+		assertEquals(1000, sink.getReceived() + recorder.getDropped());
+	}
+}
@@ -0,0 +1,116 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestTimingWheel {
+
+	// Runs expired tasks on the timer thread
+	private static final Executor INLINE = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	private static final long TICK = TimeUnit.MICROSECONDS.toNanos(100);
+
+	@Test
+	public void testTasksNeverRunEarly() throws Exception {
+		TimingWheel wheel = new TimingWheel(TICK, INLINE);
+		wheel.start();
+		try {
+			// Deadlines up to 300ms span several levels (one level 0 rotation is 25.6ms)
+			final int tasks = 500;
+			final CountDownLatch done = new CountDownLatch(tasks);
+			final AtomicInteger early = new AtomicInteger();
+			Random random = new Random(0);
+			for (int i = 0; i < tasks; i++) {
+				final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(random.nextInt(300));
+				wheel.schedule(new Runnable() {
+					@Override
+					public void run() {
+						if (System.nanoTime() - deadline < 0)
+							early.incrementAndGet();
+						done.countDown();
+					}
+				}, deadline);
+			}
+
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			assertEquals(0, early.get());
+		} finally {
+			wheel.shutdown();
+		}
+	}
+
+	@Test
+	public void testTasksRunInDeadlineOrder() throws Exception {
+		TimingWheel wheel = new TimingWheel(TICK, INLINE);
+		wheel.start();
+		try {
+			final int tasks = 50;
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+			final CountDownLatch done = new CountDownLatch(tasks);
+
+			// Registered in reverse order, deadlines 1ms apart
+			long base = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+			for (int i = tasks - 1; i >= 0; i--) {
+				final int index = i;
+				wheel.schedule(new Runnable() {
+					@Override
+					public void run() {
+						order.add(index);
+						done.countDown();
+					}
+				}, base + TimeUnit.MILLISECONDS.toNanos(i));
+			}
+
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			for (int i = 0; i < tasks; i++)
+				assertEquals(i, (int) order.get(i));
+		} finally {
+			wheel.shutdown();
+		}
+	}
+
+	@Test
+	public void testEarlierDeadlineWakesTimer() throws Exception {
+		TimingWheel wheel = new TimingWheel(TICK, INLINE);
+		wheel.start();
+		try {
+			CountDownLatch late = new CountDownLatch(1);
+			CountDownLatch soon = new CountDownLatch(1);
+			wheel.schedule(countDown(late), System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+
+			// Let the timer thread sleep towards the far deadline
+			Thread.sleep(20);
+			wheel.schedule(countDown(soon), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10));
+
+			assertTrue(soon.await(1, TimeUnit.SECONDS));
+			assertEquals(1, late.getCount());
+		} finally {
+			wheel.shutdown();
+		}
+	}
+
+	private static Runnable countDown(final CountDownLatch latch) {
+		return new Runnable() {
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		};
+	}
+}
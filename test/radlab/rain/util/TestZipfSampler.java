@@ -0,0 +1,71 @@
+package radlab.rain.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestZipfSampler {
+
+	@Test
+	public void testDistribution() {
+		int n = 100;
+		double exponent = 1.2;
+		ZipfSampler sampler = new ZipfSampler(n, exponent);
+		Random random = new Random(42);
+
+		double norm = 0;
+		for (int i = 1; i <= n; i++)
+			norm += Math.pow(i, -exponent);
+
+		int samples = 1000000;
+		int[] counts = new int[n + 1];
+		for (int i = 0; i < samples; i++) {
+			long rank = sampler.nextRank(random);
+			assertTrue(rank >= 1 && rank <= n);
+			counts[(int) rank]++;
+		}
+
+		for (int i = 1; i <= n; i++)
+			assertEquals(Math.pow(i, -exponent) / norm, counts[i] / (double) samples, 0.003);
+	}
+
+	@Test
+	public void testUnbounded() {
+		ZipfSampler sampler = ZipfSampler.unbounded(2);
+		Random random = new Random(42);
+
+		// P(1) = 1 / zeta(2) = 6 / pi^2
+		int samples = 1000000;
+		int ones = 0;
+		for (int i = 0; i < samples; i++) {
+			long rank = sampler.nextRank(random);
+			assertTrue(rank >= 1);
+			if (rank == 1)
+				ones++;
+		}
+		assertEquals(6 / (Math.PI * Math.PI), ones / (double) samples, 0.003);
+	}
+
+	@Test
+	public void testScrambledKeysArePermutation() {
+		for (int n : new int[] { 1, 2, 3, 1000, 1025 }) {
+			ZipfSampler sampler = new ZipfSampler(n, 0.99, true);
+			boolean[] seen = new boolean[n];
+			for (int rank = 1; rank <= n; rank++) {
+				long key = sampler.keyOf(rank);
+				assertTrue(key >= 0 && key < n);
+				assertFalse(seen[(int) key]);
+				seen[(int) key] = true;
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnboundedExponent() {
+		ZipfSampler.unbounded(1);
+	}
+}
@@ -35,6 +35,8 @@ import java.io.IOException;
 
 import org.apache.log4j.Logger;
 
+import radlab.rain.util.ResponseMode;
+
 public class PingHomePageOperation extends TestOperation {
 	private static final Logger logger = Logger.getLogger(PingHomePageOperation.class);
 
@@ -49,12 +51,13 @@ public class PingHomePageOperation extends TestOperation {
 	public void execute() throws Throwable {
 		logger.debug("Executing ping homepage operation");
 
-		// Fetch the base url
+		// Fetch the base url, only the size of the response is checked
 		try {
-			StringBuilder response = this.http.fetchUrl("http://" + generator.baseUrl);
+			this.http.setResponseMode(ResponseMode.DISCARD);
+			this.http.fetchUrl("http://" + generator.baseUrl);
 			trace();
 
-			if (response.length() == 0) {
+			if (this.http.getBytesReceived() == 0) {
 				String errorMessage = "Home page GET ERROR - Received an empty response";
 				throw new IOException(errorMessage);
 			}